@@ -1,6 +1,37 @@
 package com.legends;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import com.legends.ai.MctsMonsterAI;
+import com.legends.ai.RuleBasedHeroPolicy;
 import com.legends.game.GameLauncher;
+import com.legends.game.GameValor;
+import com.legends.io.AsyncOutput;
+import com.legends.io.ConsoleInput;
+import com.legends.io.ConsoleOutput;
+import com.legends.io.Input;
+import com.legends.io.Output;
+import com.legends.io.ScriptInput;
+import com.legends.io.StreamOutput;
+import com.legends.io.Verbosity;
+import com.legends.profile.MatchResult;
+import com.legends.server.GameServer;
+import com.legends.server.ServerConfig;
+import com.legends.utils.CatalogReloader;
+import com.legends.utils.DataLoader;
+import com.legends.utils.audio.AudioBackend;
+import com.legends.utils.audio.NullAudioBackend;
+import com.legends.utils.audio.SoundManager;
+import com.legends.utils.jfr.GameEvents;
+import com.legends.utils.metrics.Metrics;
 
 /**
  * Main class to start the Legends: Monsters and Heroes game.
@@ -9,9 +40,226 @@ public class Main {
     /**
      * The entry point of the application.
      *
-     * @param args Command line arguments (not used).
+     * @param args Command line arguments:
+     *             {@code --data-dir <dir>} reads the CSV catalogs from an external
+     *             directory and reloads them whenever they change; a {@code World.txt}
+     *             layout there is used as the Monsters and Heroes world.
+     *             {@code --audio <javax|null|recording>} selects the audio backend.
+     *             {@code --output <sync|block|drop-frames|coalesce>} selects how output
+     *             is written: directly from the game thread ({@code sync}, the default)
+     *             or from a background thread, so a slow terminal does not delay the game.
+     *             {@code --verbosity <quiet|normal|verbose>} sets how much the games narrate.
+     *             {@code --script <file>} plays the commands in a file before reading the keyboard.
+     *             {@code --monster-budget <ms>} sets how long monsters of Hard Legends of
+     *             Valor games think about a turn.
+     *             {@code --jfr <file>} records the game's flight recorder events, with the
+     *             JDK's default ones, to a file written on exit.
+     *             {@code --simulate <games>} plays that many Legends of Valor games
+     *             without a player instead, e.g. as a soak test, on the difficulty set by
+     *             {@code --difficulty <normal|hard>}, and prints the outcomes and metrics.
+     *             {@code --server <port>} serves games to many players over TCP instead,
+     *             configured by {@code --bind <address>}, {@code --max-sessions <n>},
+     *             {@code --max-per-address <n>}, {@code --idle-timeout <minutes>},
+     *             {@code --hibernate-after <seconds>}, {@code --spill-dir <dir>},
+     *             {@code --save-dir <dir>}, {@code --spectate <port>},
+     *             {@code --turn-time <seconds>}, {@code --max-games <n>} and
+     *             {@code --party-wait <seconds>}.
      */
     public static void main(String[] args) {
-        GameLauncher.launch();
+        String outputMode = "sync";
+        Verbosity verbosity = Verbosity.NORMAL;
+        Path script = null;
+        ServerConfig server = null;
+        int simulatedGames = 0;
+        String difficulty = "Normal";
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--data-dir") && i + 1 < args.length) {
+                useDataDirectory(Paths.get(args[++i]));
+            } else if (args[i].equals("--audio") && i + 1 < args.length) {
+                useAudioBackend(args[++i]);
+            } else if (args[i].equals("--output") && i + 1 < args.length) {
+                outputMode = args[++i];
+            } else if (args[i].equals("--verbosity") && i + 1 < args.length) {
+                try {
+                    verbosity = Verbosity.parse(args[++i]);
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Unknown verbosity: " + args[i]);
+                }
+            } else if (args[i].equals("--script") && i + 1 < args.length) {
+                script = Paths.get(args[++i]);
+            } else if (args[i].equals("--monster-budget") && i + 1 < args.length) {
+                MctsMonsterAI.setDefaultBudgetMillis(parseInt(args[++i], (int) MctsMonsterAI.DEFAULT_BUDGET_MILLIS));
+            } else if (args[i].equals("--jfr") && i + 1 < args.length) {
+                try {
+                    GameEvents.record(Paths.get(args[++i]));
+                } catch (IOException | IllegalStateException | SecurityException e) {
+                    System.err.println("Cannot start a flight recording: " + e.getMessage());
+                }
+            } else if (args[i].equals("--simulate") && i + 1 < args.length) {
+                simulatedGames = parseInt(args[++i], 0);
+            } else if (args[i].equals("--difficulty") && i + 1 < args.length) {
+                difficulty = args[++i].equalsIgnoreCase("hard") ? "Hard" : "Normal";
+            } else if (args[i].equals("--server") && i + 1 < args.length) {
+                server = serverConfig(server).setPort(parseInt(args[++i], ServerConfig.DEFAULT_PORT));
+            } else if (args[i].equals("--bind") && i + 1 < args.length) {
+                try {
+                    server = serverConfig(server).setBindAddress(InetAddress.getByName(args[++i]));
+                } catch (UnknownHostException e) {
+                    System.err.println("Unknown bind address: " + args[i]);
+                }
+            } else if (args[i].equals("--max-sessions") && i + 1 < args.length) {
+                server = serverConfig(server).setMaxSessions(parseInt(args[++i], ServerConfig.DEFAULT_MAX_SESSIONS));
+            } else if (args[i].equals("--max-per-address") && i + 1 < args.length) {
+                server = serverConfig(server).setMaxSessionsPerAddress(parseInt(args[++i], 0));
+            } else if (args[i].equals("--idle-timeout") && i + 1 < args.length) {
+                server = serverConfig(server).setIdleTimeoutMillis(TimeUnit.MINUTES.toMillis(parseInt(args[++i], 30)));
+            } else if (args[i].equals("--hibernate-after") && i + 1 < args.length) {
+                server = serverConfig(server).setHibernateAfterMillis(
+                        TimeUnit.SECONDS.toMillis(parseInt(args[++i], 120)));
+            } else if (args[i].equals("--spill-dir") && i + 1 < args.length) {
+                server = serverConfig(server).setSpillDirectory(Paths.get(args[++i]));
+            } else if (args[i].equals("--spectate") && i + 1 < args.length) {
+                server = serverConfig(server).setSpectatorPort(parseInt(args[++i], -1));
+            } else if (args[i].equals("--turn-time") && i + 1 < args.length) {
+                server = serverConfig(server).setCoopTurnMillis(TimeUnit.SECONDS.toMillis(parseInt(args[++i], 30)));
+            } else if (args[i].equals("--max-games") && i + 1 < args.length) {
+                server = serverConfig(server).setMaxGames(parseInt(args[++i], ServerConfig.DEFAULT_MAX_GAMES));
+            } else if (args[i].equals("--party-wait") && i + 1 < args.length) {
+                server = serverConfig(server).setPartyWaitMillis(TimeUnit.SECONDS.toMillis(parseInt(args[++i], 20)));
+            } else if (args[i].equals("--save-dir") && i + 1 < args.length) {
+                server = serverConfig(server).setSaveDirectory(Paths.get(args[++i]));
+            } else {
+                System.err.println("Unknown option: " + args[i]);
+            }
+        }
+        if (server != null) {
+            serve(server.setVerbosity(verbosity));
+            return;
+        }
+        if (simulatedGames > 0) {
+            simulate(simulatedGames, difficulty, verbosity);
+            return;
+        }
+        Output output = createOutput(outputMode);
+        output.setVerbosity(verbosity);
+        GameLauncher.launch(createInput(script, output), output);
+    }
+
+    private static ServerConfig serverConfig(ServerConfig config) {
+        return config != null ? config : new ServerConfig();
+    }
+
+    private static int parseInt(String value, int fallback) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Not a number: " + value);
+            return fallback;
+        }
+    }
+
+    private static void serve(ServerConfig config) {
+        GameServer server;
+        try {
+            server = new GameServer(config);
+        } catch (IOException e) {
+            System.err.println("Cannot start the server on " + config.getAddress() + ": " + e.getMessage());
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close, "server-shutdown"));
+        System.out.println("Serving Legends on " + config.getAddress().getHostString() + ":" + server.getPort()
+                + " (up to " + config.getMaxSessions()
+                + " players). Connect with: telnet " + config.getAddress().getHostString() + " " + server.getPort());
+        if (server.getSpectatorPort() >= 0) {
+            System.out.println("Spectators connect with: telnet " + config.getAddress().getHostString() + " "
+                    + server.getSpectatorPort());
+        }
+        server.serve();
+    }
+
+    /**
+     * Plays games without a player, with their narration discarded and
+     * sounds silenced, and prints how they ended and where the time went.
+     */
+    private static void simulate(int games, String difficulty, Verbosity verbosity) {
+        SoundManager.useForCurrentThread(SoundManager.create(NullAudioBackend.INSTANCE));
+        RuleBasedHeroPolicy policy = new RuleBasedHeroPolicy();
+        int heroWins = 0;
+        int monsterWins = 0;
+        long rounds = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < games; i++) {
+            Output narration = new StreamOutput(OutputStream.nullOutputStream(), false);
+            narration.setVerbosity(verbosity);
+            GameValor game = new GameValor(null, narration);
+            game.setDifficulty(difficulty);
+            MatchResult result = game.playUnattended(policy);
+            if (result == null) {
+                continue;
+            }
+            if (result.isWon()) {
+                heroWins++;
+            } else {
+                monsterWins++;
+            }
+            rounds += result.getRounds();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Simulated %d %s Legends of Valor games in %.1f s (%.0f ms per game).%n", games,
+                difficulty, seconds, seconds * 1000 / games);
+        System.out.printf("Heroes won %d, monsters won %d, unfinished %d; %.1f rounds per finished game.%n",
+                heroWins, monsterWins, games - heroWins - monsterWins,
+                heroWins + monsterWins == 0 ? 0.0 : (double) rounds / (heroWins + monsterWins));
+        System.out.println(Metrics.getDefault().snapshot());
+    }
+
+    private static Input createInput(Path script, Output output) {
+        Input console = new ConsoleInput(new Scanner(System.in), output);
+        if (script == null) {
+            return console;
+        }
+        try {
+            return new ScriptInput(script, console, output);
+        } catch (IOException e) {
+            System.err.println("Cannot read script " + script + ": " + e.getMessage());
+            return console;
+        }
+    }
+
+    private static Output createOutput(String mode) {
+        switch (mode) {
+            case "sync":
+                return new ConsoleOutput();
+            case "block":
+                return AsyncOutput.stdout(AsyncOutput.BackPressure.BLOCK);
+            case "drop-frames":
+                return AsyncOutput.stdout(AsyncOutput.BackPressure.DROP_FRAMES);
+            case "coalesce":
+                return AsyncOutput.stdout(AsyncOutput.BackPressure.COALESCE_BOARD_REDRAWS);
+            default:
+                System.err.println("Unknown output mode: " + mode);
+                return new ConsoleOutput();
+        }
+    }
+
+    private static void useAudioBackend(String name) {
+        try {
+            SoundManager.setBackend(AudioBackend.create(name));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    private static void useDataDirectory(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            System.err.println("Data directory not found: " + directory);
+            return;
+        }
+        DataLoader.setDataDirectory(directory);
+        try {
+            CatalogReloader.start(directory);
+        } catch (IOException e) {
+            System.err.println("Warning: hot reload disabled: " + e.getMessage());
+        }
     }
 }
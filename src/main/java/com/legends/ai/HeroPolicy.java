@@ -0,0 +1,27 @@
+package com.legends.ai;
+
+import java.io.Serializable;
+
+import com.legends.board.ValorBoard;
+import com.legends.model.Hero;
+
+/**
+ * Plays a Legends of Valor hero instead of a player, e.g. to fill an empty
+ * seat or to run games unattended.
+ */
+public interface HeroPolicy extends Serializable {
+
+    /**
+     * Decides a hero's turn. The turn is given as the keys a player would
+     * type, in the format of co-op commands: the action followed by the
+     * answers to its questions, separated by semicolons, e.g. "1;2" to attack
+     * the second monster in range. Actions that do not use up the turn, such
+     * as shopping, may come first. The game carries the turn out by its usual
+     * rules, so a policy cannot do anything a player could not.
+     *
+     * @param hero  The hero whose turn it is.
+     * @param board The board.
+     * @return The turn, or null to hold position.
+     */
+    String chooseTurn(Hero hero, ValorBoard board);
+}
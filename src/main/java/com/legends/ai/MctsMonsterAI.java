@@ -0,0 +1,362 @@
+package com.legends.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.legends.board.BoardSnapshot;
+import com.legends.board.ValorBoard;
+import com.legends.io.Output;
+import com.legends.model.Hero;
+import com.legends.model.Monster;
+import com.legends.utils.metrics.Counter;
+import com.legends.utils.metrics.Histogram;
+import com.legends.utils.metrics.Metrics;
+
+/**
+ * Monster strategy that looks ahead: when a monster has a choice between
+ * advancing and attacking one of several heroes, it plays each choice
+ * forward many times on copies of the board, a few rounds deep with
+ * randomised simple play for everyone, and picks the one that most often
+ * works out for the monsters (Monte Carlo tree search). It thinks for at
+ * most a fixed time per monster. Every processor but the one of the game
+ * thread searches its own tree and the results are added up, so more
+ * processors give better moves in the same time; on a single processor the
+ * game thread searches alone. Monsters without a choice act at once, like
+ * {@link ValorMonsterAI}, as do monsters in battles.
+ */
+public class MctsMonsterAI implements MonsterAI {
+    private static final long serialVersionUID = 1L;
+
+    /** How long a monster thinks unless set otherwise, in milliseconds. */
+    public static final long DEFAULT_BUDGET_MILLIS = 100;
+
+    private static final int PLAYOUT_ROUNDS = 6;
+    private static final int MAX_NODES = 4096; // Per tree
+    private static final double EXPLORATION = 0.7;
+    private static final long GRACE_NANOS = TimeUnit.MILLISECONDS.toNanos(5); // For helpers to hand in their trees
+    private static final int HELPERS = Runtime.getRuntime().availableProcessors() - 1;
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, HELPERS), task -> {
+        Thread thread = new Thread(task, "monster-search-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static volatile long defaultBudgetMillis = DEFAULT_BUDGET_MILLIS;
+
+    private static final Histogram SEARCH_TIME = Metrics.getDefault().histogram("ai.monster_search");
+    private static final Counter PLAYOUTS = Metrics.getDefault().counter("ai.monster_playouts");
+
+    private final ValorMonsterAI rules = new ValorMonsterAI();
+    private long budgetMillis;
+
+    /**
+     * Creates a strategy that thinks for the default time, see {@link #setDefaultBudgetMillis}.
+     */
+    public MctsMonsterAI() {
+        this(defaultBudgetMillis);
+    }
+
+    /**
+     * Creates a strategy.
+     *
+     * @param budgetMillis How long a monster may think about its turn, in milliseconds.
+     */
+    public MctsMonsterAI(long budgetMillis) {
+        this.budgetMillis = Math.max(0, budgetMillis);
+    }
+
+    /**
+     * Sets how long monsters created from now on think about their turns.
+     *
+     * @param budgetMillis The time in milliseconds.
+     */
+    public static void setDefaultBudgetMillis(long budgetMillis) {
+        defaultBudgetMillis = Math.max(0, budgetMillis);
+    }
+
+    public static long getDefaultBudgetMillis() {
+        return defaultBudgetMillis;
+    }
+
+    public long getBudgetMillis() {
+        return budgetMillis;
+    }
+
+    public void setBudgetMillis(long budgetMillis) {
+        this.budgetMillis = Math.max(0, budgetMillis);
+    }
+
+    @Override
+    public void takeTurn(Monster monster, ValorBoard board, Output output) {
+        if (!monster.isAlive()) {
+            return;
+        }
+        BoardSnapshot snapshot = BoardSnapshot.of(board);
+        for (int i = 0; i < snapshot.getMonsterCount(); i++) {
+            if (snapshot.getMonster(i) == monster) {
+                performTurn(monster, planTurn(i, snapshot), board, output);
+                return;
+            }
+        }
+        rules.takeTurn(monster, board, output);
+    }
+
+    /**
+     * Decides a monster's turn by searching from the snapshot. The search is
+     * random, so it may decide differently on the same board another time.
+     */
+    @Override
+    public MonsterAction planTurn(int monster, BoardSnapshot snapshot) {
+        if (!snapshot.isMonsterAlive(monster)) {
+            return null;
+        }
+        PlayoutBoard board = new PlayoutBoard(snapshot);
+        int choices = board.canAdvance(monster) ? 1 : 0;
+        for (int h = 0; h < board.heroCount; h++) {
+            if (board.inReach(monster, h)) {
+                choices++;
+            }
+        }
+        if (choices < 2 || budgetMillis == 0) {
+            return rules.planTurn(monster, snapshot);
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        SplittableRandom seeds = new SplittableRandom();
+        List<Future<Search>> helpers = new ArrayList<>(HELPERS);
+        for (int i = 0; i < HELPERS; i++) {
+            Search search = new Search(board, monster, seeds.split());
+            helpers.add(pool.submit(() -> search.run(deadline)));
+        }
+        Search own = new Search(board, monster, seeds.split()).run(deadline);
+
+        // Votes for every choice at the root: advance, then an attack on each hero
+        long[] visits = new long[1 + board.heroCount];
+        double[] wins = new double[visits.length];
+        own.addRootTo(visits, wins);
+        for (Future<Search> helper : helpers) {
+            try {
+                long wait = Math.max(0, deadline - System.nanoTime()) + GRACE_NANOS;
+                helper.get(wait, TimeUnit.NANOSECONDS).addRootTo(visits, wins);
+            } catch (TimeoutException | CancellationException | ExecutionException e) {
+                helper.cancel(true); // Did not get to search in time, e.g. the pool was busy
+            } catch (InterruptedException e) {
+                helper.cancel(true);
+                Thread.currentThread().interrupt();
+            }
+        }
+        SEARCH_TIME.recordSince(start);
+
+        int best = -1;
+        for (int a = 0; a < visits.length; a++) {
+            if (visits[a] > 0 && (best < 0 || visits[a] > visits[best]
+                    || visits[a] == visits[best] && wins[a] > wins[best])) {
+                best = a;
+            }
+        }
+        if (best < 0) {
+            return rules.planTurn(monster, snapshot);
+        }
+        return best == 0 ? MonsterAction.advance() : MonsterAction.attack(snapshot.getHero(best - 1));
+    }
+
+    @Override
+    public boolean isQuickToPlan() {
+        return false;
+    }
+
+    @Override
+    public void takeBattleTurn(Monster monster, List<Hero> heroes, Output output) {
+        rules.takeBattleTurn(monster, heroes, output);
+    }
+
+    /**
+     * One search tree, grown by one thread. The tree holds only the searching
+     * monster's own choices, one level per turn of it; everyone else plays by
+     * simple rules, and the board is played again from the start for every
+     * playout, so chance (dodges) and other pieces' moves are sampled anew
+     * each time. Choice 0 is advancing and choice 1 + h attacking hero h.
+     */
+    private static final class Search {
+        private final PlayoutBoard root;
+        private final PlayoutBoard board;
+        private final int monster;
+        private final SplittableRandom random;
+        private final int choices;
+
+        // [node * choices + choice]; child 0 means no node yet, as the root is never a child
+        private final int[] children;
+        private final int[] visits;
+        private final double[] wins;
+        private int nodes = 1;
+
+        private final int[] pathNode = new int[PLAYOUT_ROUNDS + 1];
+        private final int[] pathChoice = new int[PLAYOUT_ROUNDS + 1];
+
+        Search(PlayoutBoard root, int monster, SplittableRandom random) {
+            this.root = root;
+            this.board = root.copy();
+            this.monster = monster;
+            this.random = random;
+            this.choices = 1 + root.heroCount;
+            this.children = new int[MAX_NODES * choices];
+            this.visits = new int[MAX_NODES * choices];
+            this.wins = new double[MAX_NODES * choices];
+        }
+
+        /**
+         * Grows the tree until the deadline, or until the thread is interrupted.
+         */
+        Search run(long deadline) {
+            long playouts = 0;
+            Thread thread = Thread.currentThread();
+            while (System.nanoTime() < deadline && !thread.isInterrupted()) {
+                playout();
+                playouts++;
+            }
+            PLAYOUTS.add(playouts);
+            return this;
+        }
+
+        /**
+         * Plays the board forward once, choosing the searching monster's moves
+         * from the tree for as long as the tree reaches, and adds the result
+         * to every choice made from the tree.
+         */
+        private void playout() {
+            board.copyFrom(root);
+            int node = 0; // -1 once the playout has left the tree
+            int depth = 0;
+            int outcome = PlayoutBoard.UNDECIDED;
+
+            for (int round = 0; round <= PLAYOUT_ROUNDS && outcome == PlayoutBoard.UNDECIDED; round++) {
+                if (round > 0) {
+                    for (int h = 0; h < board.heroCount; h++) {
+                        board.playHero(h, random);
+                    }
+                    outcome = board.outcome();
+                    if (outcome != PlayoutBoard.UNDECIDED) {
+                        break;
+                    }
+                }
+                // The monsters before the searching one have already moved this round
+                for (int m = round == 0 ? monster : 0; m < board.monsterCount; m++) {
+                    if (m != monster) {
+                        board.playMonster(m, random);
+                    } else if (node >= 0 && board.isMonsterAlive(m)) {
+                        int choice = select(node);
+                        pathNode[depth] = node;
+                        pathChoice[depth++] = choice;
+                        play(choice);
+                        node = expand(node, choice);
+                    } else {
+                        board.playMonster(m, random);
+                    }
+                }
+                outcome = board.outcome();
+                board.endRound();
+            }
+
+            double value = outcome == PlayoutBoard.MONSTERS_WON ? 1
+                    : outcome == PlayoutBoard.HEROES_WON ? 0 : board.evaluate();
+            for (int i = 0; i < depth; i++) {
+                int slot = pathNode[i] * choices + pathChoice[i];
+                visits[slot]++;
+                wins[slot] += value;
+            }
+        }
+
+        /**
+         * Picks the choice to try from a node, among those possible on the
+         * board: one never tried yet, or else the one with the best upper
+         * confidence bound.
+         */
+        private int select(int node) {
+            int base = node * choices;
+            int total = 0;
+            int untried = 0;
+            for (int c = 0; c < choices; c++) {
+                if (isPossible(c)) {
+                    total += visits[base + c];
+                    if (visits[base + c] == 0) {
+                        untried++;
+                    }
+                }
+            }
+            if (untried > 0) {
+                int pick = random.nextInt(untried);
+                for (int c = 0; c < choices; c++) {
+                    if (isPossible(c) && visits[base + c] == 0 && pick-- == 0) {
+                        return c;
+                    }
+                }
+            }
+            double logTotal = Math.log(Math.max(1, total));
+            int best = 0;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int c = 0; c < choices; c++) {
+                if (isPossible(c)) {
+                    double score = wins[base + c] / visits[base + c]
+                            + EXPLORATION * Math.sqrt(logTotal / visits[base + c]);
+                    if (score > bestScore) {
+                        bestScore = score;
+                        best = c;
+                    }
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Checks if the searching monster can make a choice on the board.
+         * Advancing is always possible; when blocked, the monster holds.
+         */
+        private boolean isPossible(int choice) {
+            return choice == 0 || board.inReach(monster, choice - 1);
+        }
+
+        private void play(int choice) {
+            if (choice == 0) {
+                board.advance(monster);
+            } else {
+                board.monsterAttack(monster, choice - 1, random);
+            }
+        }
+
+        /**
+         * Gets the node after a choice, adding it if the tree has room.
+         *
+         * @return The node, or -1 if the playout leaves the tree here.
+         */
+        private int expand(int node, int choice) {
+            int slot = node * choices + choice;
+            if (children[slot] != 0) {
+                return children[slot];
+            }
+            if (nodes < MAX_NODES) {
+                children[slot] = nodes++;
+            }
+            return -1; // A new node is only played from next time
+        }
+
+        /**
+         * Adds the votes for the choices at the root to totals of all trees.
+         */
+        void addRootTo(long[] totalVisits, double[] totalWins) {
+            for (int c = 0; c < choices; c++) {
+                totalVisits[c] += visits[c];
+                totalWins[c] += wins[c];
+            }
+        }
+    }
+}
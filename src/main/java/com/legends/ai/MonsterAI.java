@@ -1,6 +1,7 @@
 package com.legends.ai;
 
 import com.legends.model.Monster;
+import com.legends.board.BoardSnapshot;
 import com.legends.board.ValorBoard;
 import com.legends.io.Output;
 import java.io.Serializable;
@@ -22,4 +23,66 @@ public interface MonsterAI extends Serializable {
      * Perform a battle action (attack) when not on the board.
      */
     void takeBattleTurn(Monster monster, List<Hero> heroes, Output output);
+
+    /**
+     * Perform a battle action against a party the battle keeps a sampler for.
+     * By default this is {@link #takeBattleTurn(Monster, List, Output)}, after
+     * which the sampler reads every hero again.
+     *
+     * @param targets The sampler, up to date with the heroes' HP.
+     */
+    default void takeBattleTurn(Monster monster, TargetSampler targets, Output output) {
+        takeBattleTurn(monster, targets.getHeroes(), output);
+        targets.refresh();
+    }
+
+    /**
+     * Decides a monster's turn from a snapshot of the board without changing
+     * anything, so it can be done ahead of time on another thread.
+     * Must decide as {@link #takeTurn} would on the same board: exactly so for
+     * a fixed rule, by the same search for one that searches.
+     *
+     * @param monster  The index of the monster in the snapshot.
+     * @param snapshot The board.
+     * @return The action, or null if the turn cannot be planned ahead
+     *         (it is then taken with {@link #takeTurn}).
+     */
+    default MonsterAction planTurn(int monster, BoardSnapshot snapshot) {
+        return null;
+    }
+
+    /**
+     * Checks if a turn planned from a snapshot is still the one
+     * {@link #takeTurn} would take now that other monsters may have acted.
+     * By default the monster and every hero must be as they were.
+     *
+     * @param monster  The index of the monster in the snapshot.
+     * @param snapshot The board the turn was planned from.
+     * @param board    The board now.
+     * @return True if the planned action can be carried out as it is.
+     */
+    default boolean isPlanCurrent(int monster, BoardSnapshot snapshot, ValorBoard board) {
+        return snapshot.sameMonster(monster, snapshot.getMonster(monster)) && snapshot.sameHeroes(board);
+    }
+
+    /**
+     * Checks if {@link #planTurn} takes so little time that many monsters
+     * can be planned at once before their turn, or ahead of time while a
+     * player thinks. False for strategies that search, which already use
+     * every processor for a single monster and are only run on their turn.
+     */
+    default boolean isQuickToPlan() {
+        return true;
+    }
+
+    /**
+     * Carries out an action returned by {@link #planTurn}.
+     */
+    default void performTurn(Monster monster, MonsterAction action, ValorBoard board, Output output) {
+        if (action.getType() == MonsterAction.Type.ATTACK) {
+            monster.attack(action.getTarget(), output);
+        } else {
+            board.moveMonster(monster, output);
+        }
+    }
 }
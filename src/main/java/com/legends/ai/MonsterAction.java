@@ -0,0 +1,59 @@
+package com.legends.ai;
+
+import com.legends.model.Hero;
+
+/**
+ * A monster's turn, decided ahead of time: attack a hero, or advance
+ * towards the heroes' Nexus.
+ */
+public final class MonsterAction {
+    /**
+     * The kinds of actions a monster can plan.
+     */
+    public enum Type {
+        ATTACK,
+        ADVANCE
+    }
+
+    private static final MonsterAction ADVANCE = new MonsterAction(Type.ADVANCE, null);
+
+    private final Type type;
+    private final Hero target;
+
+    private MonsterAction(Type type, Hero target) {
+        this.type = type;
+        this.target = target;
+    }
+
+    /**
+     * Creates an attack on a hero.
+     *
+     * @param target The hero to attack.
+     * @return The action.
+     */
+    public static MonsterAction attack(Hero target) {
+        return new MonsterAction(Type.ATTACK, target);
+    }
+
+    /**
+     * Gets the action of advancing one tile.
+     *
+     * @return The action.
+     */
+    public static MonsterAction advance() {
+        return ADVANCE;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the hero to attack.
+     *
+     * @return The target, or null if the action is not an attack.
+     */
+    public Hero getTarget() {
+        return target;
+    }
+}
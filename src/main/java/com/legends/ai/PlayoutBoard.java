@@ -0,0 +1,364 @@
+package com.legends.ai;
+
+import java.util.SplittableRandom;
+
+import com.legends.board.BoardSnapshot;
+
+/**
+ * A Legends of Valor board reduced to numbers, for a search to play forward
+ * many times: where the heroes and monsters are and how much HP they have.
+ * Terrain and combat stats never change during a playout, so they are
+ * worked out once and shared by every copy; {@link #copyFrom} only copies
+ * the few arrays that do change, into arrays it already has, so playouts
+ * allocate nothing.
+ * The game is simplified: heroes attack the weakest monster in reach or
+ * else advance, and spells, potions, markets, terrain bonuses and newly
+ * spawned monsters are left out.
+ */
+final class PlayoutBoard {
+    /** The result of a playout when neither side has won yet. */
+    static final int UNDECIDED = 0;
+    static final int MONSTERS_WON = 1;
+    static final int HEROES_WON = 2;
+
+    private static final int GREEDY_EIGHTHS = 7; // How often the playout rules take the obvious choice
+
+    private final BoardSnapshot snapshot;
+    private final int height;
+    final int heroCount;
+    final int monsterCount;
+
+    // Fixed for the whole search
+    private final int[] monsterX;
+    private final int[] monsterLane;
+    private final int[] monsterRange;
+    private final double[] heroDodge;
+    private final double[] monsterDodge; // [monster * heroCount + hero], against that hero's attacks
+    private final int[] heroDamage; // [hero * monsterCount + monster]
+    private final int[] monsterDamage; // [monster * heroCount + hero]
+    private final int[] heroMaxHp;
+    private final int totalHeroMaxHp;
+    private final int totalMonsterHp;
+
+    // Changed by playouts
+    private final int[] heroX;
+    private final int[] heroY;
+    private final int[] heroHp;
+    private final int[] heroLane;
+    private final int[] monsterY;
+    private final int[] monsterHp;
+
+    /**
+     * Reads a board from a snapshot.
+     *
+     * @param snapshot The board.
+     */
+    PlayoutBoard(BoardSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.height = snapshot.getHeight();
+        this.heroCount = snapshot.getHeroCount();
+        this.monsterCount = snapshot.getMonsterCount();
+
+        heroX = new int[heroCount];
+        heroY = new int[heroCount];
+        heroHp = new int[heroCount];
+        heroLane = new int[heroCount];
+        heroDodge = new double[heroCount];
+        heroMaxHp = new int[heroCount];
+        int maxHp = 0;
+        for (int h = 0; h < heroCount; h++) {
+            heroX[h] = snapshot.getHeroX(h);
+            heroY[h] = snapshot.getHeroY(h);
+            heroHp[h] = snapshot.getHeroHp(h);
+            heroLane[h] = snapshot.getHeroLane(h);
+            heroDodge[h] = snapshot.getHeroAgility(h) * 0.0002; // As in Monster.attack
+            heroMaxHp[h] = snapshot.getHeroLevel(h) * 200; // As in Hero.setHp
+            maxHp += heroMaxHp[h];
+        }
+        totalHeroMaxHp = Math.max(1, maxHp);
+
+        monsterX = new int[monsterCount];
+        monsterY = new int[monsterCount];
+        monsterHp = new int[monsterCount];
+        monsterLane = new int[monsterCount];
+        monsterRange = new int[monsterCount];
+        int monsterTotal = 0;
+        for (int m = 0; m < monsterCount; m++) {
+            monsterX[m] = snapshot.getMonsterX(m);
+            monsterY[m] = snapshot.getMonsterY(m);
+            monsterHp[m] = snapshot.getMonsterHp(m);
+            monsterLane[m] = snapshot.getMonsterLane(m);
+            monsterRange[m] = snapshot.getMonsterRange(m);
+            monsterTotal += Math.max(0, monsterHp[m]);
+        }
+        totalMonsterHp = Math.max(1, monsterTotal);
+
+        monsterDodge = new double[monsterCount * heroCount];
+        heroDamage = new int[heroCount * monsterCount];
+        monsterDamage = new int[monsterCount * heroCount];
+        for (int m = 0; m < monsterCount; m++) {
+            for (int h = 0; h < heroCount; h++) {
+                // As in Hero.attack and Monster.attack
+                monsterDodge[m * heroCount + h] = Math.max(0,
+                        snapshot.getMonsterDodge(m) * 0.01 - snapshot.getHeroDexterity(h) * 0.00025);
+                heroDamage[h * monsterCount + m] = damage(snapshot.getHeroAttack(h), snapshot.getMonsterDefense(m));
+                monsterDamage[m * heroCount + h] = damage(snapshot.getMonsterDamage(m), snapshot.getHeroDefense(h));
+            }
+        }
+    }
+
+    /**
+     * Makes a board to copy others into, sharing the fixed parts of one.
+     */
+    private PlayoutBoard(PlayoutBoard source) {
+        this.snapshot = source.snapshot;
+        this.height = source.height;
+        this.heroCount = source.heroCount;
+        this.monsterCount = source.monsterCount;
+        this.monsterX = source.monsterX;
+        this.monsterLane = source.monsterLane;
+        this.monsterRange = source.monsterRange;
+        this.heroDodge = source.heroDodge;
+        this.monsterDodge = source.monsterDodge;
+        this.heroDamage = source.heroDamage;
+        this.monsterDamage = source.monsterDamage;
+        this.heroMaxHp = source.heroMaxHp;
+        this.totalHeroMaxHp = source.totalHeroMaxHp;
+        this.totalMonsterHp = source.totalMonsterHp;
+        this.heroX = source.heroX.clone();
+        this.heroY = source.heroY.clone();
+        this.heroHp = source.heroHp.clone();
+        this.heroLane = source.heroLane.clone();
+        this.monsterY = source.monsterY.clone();
+        this.monsterHp = source.monsterHp.clone();
+    }
+
+    /**
+     * Makes a copy of this board, to be reset with {@link #copyFrom} before every playout.
+     */
+    PlayoutBoard copy() {
+        return new PlayoutBoard(this);
+    }
+
+    /**
+     * Resets this board to another copy of the same board.
+     */
+    void copyFrom(PlayoutBoard source) {
+        System.arraycopy(source.heroX, 0, heroX, 0, heroCount);
+        System.arraycopy(source.heroY, 0, heroY, 0, heroCount);
+        System.arraycopy(source.heroHp, 0, heroHp, 0, heroCount);
+        System.arraycopy(source.heroLane, 0, heroLane, 0, heroCount);
+        System.arraycopy(source.monsterY, 0, monsterY, 0, monsterCount);
+        System.arraycopy(source.monsterHp, 0, monsterHp, 0, monsterCount);
+    }
+
+    /**
+     * Calculates the damage of a hit that is not dodged, as in {@code Entity.calculateDamage}.
+     */
+    private static int damage(double attack, double defense) {
+        if (attack + defense == 0) {
+            return 0;
+        }
+        return (int) Math.max(1, (attack * 0.05) * (attack / (attack + defense)));
+    }
+
+    boolean isMonsterAlive(int monster) {
+        return monsterHp[monster] > 0;
+    }
+
+    /**
+     * Checks if a living hero is within a living monster's reach. Heroes
+     * reach as far as monsters, so this also tells whether the hero can hit
+     * the monster.
+     */
+    boolean inReach(int monster, int hero) {
+        int range = monsterRange[monster];
+        return monsterHp[monster] > 0 && heroHp[hero] > 0 && Math.abs(monsterX[monster] - heroX[hero]) <= range
+                && Math.abs(monsterY[monster] - heroY[hero]) <= range;
+    }
+
+    /**
+     * Checks if a monster could advance one row, by the rules of {@code ValorBoard.moveMonster}.
+     */
+    boolean canAdvance(int monster) {
+        int x = monsterX[monster];
+        int y = monsterY[monster];
+        return monsterHp[monster] > 0 && snapshot.isAccessible(x, y + 1) && !hasMonsterAt(x, y + 1)
+                && !hasHeroAt(x, y);
+    }
+
+    private boolean hasMonsterAt(int x, int y) {
+        for (int m = 0; m < monsterCount; m++) {
+            if (monsterHp[m] > 0 && monsterX[m] == x && monsterY[m] == y) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasHeroAt(int x, int y) {
+        for (int h = 0; h < heroCount; h++) {
+            if (heroHp[h] > 0 && heroX[h] == x && heroY[h] == y) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void advance(int monster) {
+        if (canAdvance(monster)) {
+            monsterY[monster]++;
+        }
+    }
+
+    void monsterAttack(int monster, int hero, SplittableRandom random) {
+        if (random.nextDouble() >= heroDodge[hero]) {
+            heroHp[hero] = Math.max(0, heroHp[hero] - monsterDamage[monster * heroCount + hero]);
+        }
+    }
+
+    private void heroAttack(int hero, int monster, SplittableRandom random) {
+        if (random.nextDouble() >= monsterDodge[monster * heroCount + hero]) {
+            monsterHp[monster] = Math.max(0, monsterHp[monster] - heroDamage[hero * monsterCount + monster]);
+        }
+    }
+
+    /**
+     * Plays a monster's turn by the rule of {@link ValorMonsterAI}, with an
+     * occasional other choice: attack the weakest hero in reach, or else advance.
+     */
+    void playMonster(int monster, SplittableRandom random) {
+        if (monsterHp[monster] <= 0) {
+            return;
+        }
+        int weakest = -1;
+        int inReach = 0;
+        for (int h = 0; h < heroCount; h++) {
+            if (inReach(monster, h)) {
+                inReach++;
+                if (weakest < 0 || heroHp[h] < heroHp[weakest]) {
+                    weakest = h;
+                }
+            }
+        }
+        if (weakest < 0) {
+            advance(monster);
+        } else if (random.nextInt(8) < GREEDY_EIGHTHS || inReach == 1) {
+            monsterAttack(monster, weakest, random);
+        } else {
+            int pick = random.nextInt(inReach);
+            for (int h = 0; h < heroCount; h++) {
+                if (inReach(monster, h) && pick-- == 0) {
+                    monsterAttack(monster, h, random);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Plays a hero's turn: attack the weakest monster in reach, or else move
+     * forward, by the rules of {@code ValorBoard.moveHero}.
+     */
+    void playHero(int hero, SplittableRandom random) {
+        if (heroHp[hero] <= 0) {
+            return;
+        }
+        int weakest = -1;
+        for (int m = 0; m < monsterCount; m++) {
+            if (inReach(m, hero) && (weakest < 0 || monsterHp[m] < monsterHp[weakest])) {
+                weakest = m;
+            }
+        }
+        if (weakest >= 0 && random.nextInt(8) < GREEDY_EIGHTHS) {
+            heroAttack(hero, weakest, random);
+            return;
+        }
+        int x = heroX[hero];
+        int y = heroY[hero];
+        if (!snapshot.isAccessible(x, y - 1) || hasHeroAt(x, y - 1)) {
+            return;
+        }
+        for (int m = 0; m < monsterCount; m++) {
+            if (monsterHp[m] > 0 && monsterLane[m] == heroLane[hero] && monsterY[m] == y) {
+                return; // Cannot move past a monster
+            }
+        }
+        heroY[hero] = y - 1;
+    }
+
+    /**
+     * Applies the end of a round, as in {@code GameValor.endOfRoundEffects}:
+     * living heroes regain a tenth of their base HP, fallen heroes respawn at
+     * their Nexus if it is free.
+     */
+    void endRound() {
+        for (int h = 0; h < heroCount; h++) {
+            int level = heroMaxHp[h] / 200;
+            if (heroHp[h] > 0) {
+                heroHp[h] = Math.min(heroMaxHp[h], heroHp[h] + level * 10);
+                continue;
+            }
+            int x = snapshot.getHeroNexusX(h);
+            int y = height - 1;
+            if (hasHeroAt(x, y)) {
+                if (hasHeroAt(x + 1, y)) {
+                    continue;
+                }
+                x++;
+            }
+            heroX[h] = x;
+            heroY[h] = y;
+            heroLane[h] = snapshot.getHeroOriginalLane(h);
+            heroHp[h] = level * 100;
+        }
+    }
+
+    /**
+     * Checks whether a side has won, as in {@code GameValor.checkVictory}.
+     *
+     * @return {@link #HEROES_WON}, {@link #MONSTERS_WON} or {@link #UNDECIDED}.
+     */
+    int outcome() {
+        for (int h = 0; h < heroCount; h++) {
+            if (heroY[h] == 0) {
+                return HEROES_WON;
+            }
+        }
+        for (int m = 0; m < monsterCount; m++) {
+            if (monsterHp[m] > 0 && monsterY[m] == height - 1) {
+                return MONSTERS_WON;
+            }
+        }
+        return UNDECIDED;
+    }
+
+    /**
+     * Judges an undecided board from the monsters' side, from 0 (as good as
+     * lost) to 1 (as good as won): how close the closest monster and hero are
+     * to the other side's Nexus, how hurt the heroes are and how many
+     * monsters are still standing.
+     */
+    double evaluate() {
+        int monsterRow = 0;
+        int monsterHpLeft = 0;
+        for (int m = 0; m < monsterCount; m++) {
+            if (monsterHp[m] > 0) {
+                monsterRow = Math.max(monsterRow, monsterY[m]);
+                monsterHpLeft += monsterHp[m];
+            }
+        }
+        int heroRows = 0;
+        int heroHpLeft = 0;
+        for (int h = 0; h < heroCount; h++) {
+            if (heroHp[h] > 0) {
+                heroRows = Math.max(heroRows, height - 1 - heroY[h]);
+                heroHpLeft += heroHp[h];
+            }
+        }
+        double rows = Math.max(1, height - 1);
+        return 0.35 * (monsterRow / rows) + 0.35 * (1 - heroRows / rows)
+                + 0.15 * (1 - (double) heroHpLeft / totalHeroMaxHp)
+                + 0.15 * Math.min(1, (double) monsterHpLeft / totalMonsterHp);
+    }
+}
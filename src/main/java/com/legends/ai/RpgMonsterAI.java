@@ -5,8 +5,7 @@ import com.legends.board.ValorBoard;
 import com.legends.io.Output;
 import com.legends.utils.audio.SoundManager;
 import java.util.List;
-import java.util.ArrayList;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * AI strategy for the Monsters and Heroes game.
@@ -24,50 +23,24 @@ public class RpgMonsterAI implements MonsterAI {
 
     @Override
     public void takeBattleTurn(Monster monster, List<Hero> heroes, Output output) {
-        // AI: Attack hero with lower HP with priority
-        List<Hero> aliveHeroes = new ArrayList<>();
-        for (Hero h : heroes) {
-            if (h.isAlive())
-                aliveHeroes.add(h);
-        }
+        takeBattleTurn(monster, new TargetSampler(heroes), output);
+    }
 
-        if (aliveHeroes.isEmpty())
+    @Override
+    public void takeBattleTurn(Monster monster, TargetSampler targets, Output output) {
+        // AI: Attack hero with lower HP with priority
+        int index = targets.sample(ThreadLocalRandom.current().nextDouble());
+        if (index < 0)
             return;
 
-        Hero target = selectWeightedTarget(aliveHeroes);
+        Hero target = targets.getHeroes().get(index);
 
         // Attack logic is now handled by Entity.attack()
         monster.attack(target, output);
+        targets.update(index);
 
         if (!target.isAlive()) {
             SoundManager.getInstance().playHeroDeathSound();
         }
     }
-    
-
-    private Hero selectWeightedTarget(List<Hero> heroes) {
-        double totalWeight = 0;
-        double[] weights = new double[heroes.size()];
-
-        for (int i = 0; i < heroes.size(); i++) {
-            // Weight is inversely proportional to HP. Adding a small epsilon to avoid
-            // division by zero
-            weights[i] = 1.0 / Math.max(1, heroes.get(i).getHp());
-            totalWeight += weights[i];
-        }
-
-        Random rand = new Random();
-        double value = rand.nextDouble() * totalWeight;
-
-        for (int i = 0; i < heroes.size(); i++) {
-            value -= weights[i];
-            if (value <= 0) {
-                return heroes.get(i);
-            }
-        }
-
-        return heroes.get(heroes.size() - 1);
-    }
-
-
 }
@@ -0,0 +1,318 @@
+package com.legends.ai;
+
+import java.util.List;
+
+import com.legends.board.ValorBoard;
+import com.legends.board.tiles.NexusTile;
+import com.legends.board.tiles.Tile;
+import com.legends.market.Market;
+import com.legends.model.Armor;
+import com.legends.model.Hero;
+import com.legends.model.Item;
+import com.legends.model.Monster;
+import com.legends.model.Potion;
+import com.legends.model.Spell;
+import com.legends.model.Weapon;
+
+/**
+ * Plays a hero by a few fixed rules, in order:
+ * <ol>
+ * <li>at the heroes' Nexus, buy a better weapon, better armor and a healing
+ * potion if there is gold for them (this does not use up the turn);</li>
+ * <li>drink a healing potion when badly hurt;</li>
+ * <li>recall to the Nexus when nearly dead, in a fight and without potions;</li>
+ * <li>hit the weakest monster in range, with a spell if that does more damage;</li>
+ * <li>equip a better weapon or armor from the inventory;</li>
+ * <li>teleport to another lane when the own lane has no monsters and the
+ * monster closest to the heroes' Nexus is elsewhere;</li>
+ * <li>advance, destroying an obstacle or stepping aside if the way is blocked.</li>
+ * </ol>
+ * Deciding only reads the board, so it takes microseconds.
+ */
+public class RuleBasedHeroPolicy implements HeroPolicy {
+    private static final long serialVersionUID = 1L;
+
+    private static final double POTION_BELOW = 0.35; // Of the hero's base HP
+    private static final double RECALL_BELOW = 0.15;
+    private static final int THREAT_ROW = 3; // Monsters past this row are worth teleporting for
+
+    /**
+     * Default constructor
+     */
+    public RuleBasedHeroPolicy() {
+    }
+
+    @Override
+    public String chooseTurn(Hero hero, ValorBoard board) {
+        StringBuilder turn = new StringBuilder(32);
+        shop(hero, board, turn);
+
+        int baseHp = hero.getLevel() * 100;
+        List<Monster> inRange = board.getMonstersInRange(hero);
+        int potion = indexOf(hero, Potion.class, "Health");
+        if (hero.getHp() < baseHp * POTION_BELOW && potion > 0) {
+            return turn.append("3;").append(potion).toString();
+        }
+        if (hero.getHp() < baseHp * RECALL_BELOW && !inRange.isEmpty() && hero.getY() != board.getHeight() - 1) {
+            return turn.append('R').toString();
+        }
+        if (!inRange.isEmpty()) {
+            return attack(hero, inRange, turn).toString();
+        }
+        int upgrade = equipmentUpgrade(hero);
+        if (upgrade > 0) {
+            return turn.append("4;1;").append(upgrade).toString();
+        }
+        if (teleport(hero, board, turn)) {
+            return turn.toString();
+        }
+        return advance(hero, board, turn);
+    }
+
+    /**
+     * Appends the purchases to make at the market, if the hero stands on one.
+     */
+    private static void shop(Hero hero, ValorBoard board, StringBuilder turn) {
+        Tile tile = board.getTileAt(hero.getX(), hero.getY());
+        if (!(tile instanceof NexusTile) || !((NexusTile) tile).isMarket()) {
+            return;
+        }
+        Market market = ((NexusTile) tile).getMarket();
+        List<Item> stock = market.getInventory();
+        int gold = hero.getMoney();
+        int start = turn.length();
+
+        Weapon weapon = bestWeapon(hero);
+        int best = 0;
+        int n = 0;
+        int bestCost = 0;
+        for (Item item : stock) {
+            if (item instanceof Weapon) {
+                n++;
+                Weapon w = (Weapon) item;
+                if (w.getCost() <= gold && w.getRequiredLevel() <= hero.getLevel()
+                        && w.getDamage() > (weapon == null ? 0 : weapon.getDamage())) {
+                    weapon = w;
+                    best = n;
+                    bestCost = w.getCost();
+                }
+            }
+        }
+        if (best > 0) {
+            turn.append("1;1;").append(best).append(';');
+            gold -= bestCost;
+        }
+
+        Armor armor = bestArmor(hero);
+        best = 0;
+        n = 0;
+        for (Item item : stock) {
+            if (item instanceof Armor) {
+                n++;
+                Armor a = (Armor) item;
+                if (a.getCost() <= gold && a.getRequiredLevel() <= hero.getLevel()
+                        && a.getDamageReduction() > (armor == null ? 0 : armor.getDamageReduction())) {
+                    armor = a;
+                    best = n;
+                    bestCost = a.getCost();
+                }
+            }
+        }
+        if (best > 0) {
+            turn.append("1;2;").append(best).append(';');
+            gold -= bestCost;
+        }
+
+        if (indexOf(hero, Potion.class, "Health") == 0) {
+            n = 0;
+            for (Item item : stock) {
+                if (item instanceof Potion) {
+                    n++;
+                    Potion p = (Potion) item;
+                    if ("Health".equals(p.getAttributeAffected()) && p.getCost() <= gold
+                            && p.getRequiredLevel() <= hero.getLevel()) {
+                        turn.append("1;3;").append(n).append(';');
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (turn.length() > start) {
+            turn.insert(start, "M;").append("4;");
+        }
+    }
+
+    /**
+     * Appends an attack on the weakest monster in range, or a spell on it if
+     * the hero has the mana for one that hits harder.
+     */
+    private static StringBuilder attack(Hero hero, List<Monster> inRange, StringBuilder turn) {
+        int target = 0;
+        for (int i = 1; i < inRange.size(); i++) {
+            if (inRange.get(i).getHp() < inRange.get(target).getHp()) {
+                target = i;
+            }
+        }
+        Monster monster = inRange.get(target);
+
+        // As in Entity.calculateDamage and GameValor's spells
+        double attack = hero.getAttackPower();
+        double hit = attack * 0.05 * (attack / Math.max(1, attack + monster.getDefense()));
+        int spell = 0;
+        int n = 0;
+        for (Item item : hero.getInventory()) {
+            if (item instanceof Spell) {
+                n++;
+                Spell s = (Spell) item;
+                double damage = s.getDamage() + hero.getDexterity() / 10000.0 * s.getDamage();
+                if (s.getManaCost() <= hero.getMana() && damage > hit) {
+                    hit = damage;
+                    spell = n;
+                }
+            }
+        }
+        if (spell > 0) {
+            turn.append("2;").append(spell);
+        } else {
+            turn.append('1');
+        }
+        if (inRange.size() > 1) {
+            turn.append(';').append(target + 1);
+        }
+        return turn;
+    }
+
+    /**
+     * Appends a teleport to the lane of the monster closest to the heroes'
+     * Nexus, if the hero's own lane is clear and the monster is in a lane
+     * another hero can be joined in.
+     *
+     * @return True if the hero teleports.
+     */
+    private static boolean teleport(Hero hero, ValorBoard board, StringBuilder turn) {
+        Monster threat = null;
+        for (Monster m : board.getMonsters()) {
+            if (m.isAlive()) {
+                if (m.getLane() == hero.getLane()) {
+                    return false;
+                }
+                if (threat == null || m.getY() > threat.getY()) {
+                    threat = m;
+                }
+            }
+        }
+        if (threat == null || threat.getY() < THREAT_ROW) {
+            return false;
+        }
+        List<Hero> targets = board.getTeleportTargets(hero);
+        for (int i = 0; i < targets.size(); i++) {
+            Hero target = targets.get(i);
+            if (target.getLane() == threat.getLane() && !board.getTeleportPositions(target).isEmpty()) {
+                turn.append("T;").append(i + 1).append(";1");
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends a step towards the monsters' Nexus: forward, through an
+     * obstacle, or to the other column of the lane.
+     *
+     * @return The turn, or null if the hero can only hold its position.
+     */
+    private static String advance(Hero hero, ValorBoard board, StringBuilder turn) {
+        int x = hero.getX();
+        int y = hero.getY();
+        if (board.canMoveHero(hero, x, y - 1)) {
+            return turn.append('W').toString();
+        }
+        List<int[]> obstacles = board.getObstaclesAround(x, y);
+        for (int i = 0; i < obstacles.size(); i++) {
+            if (obstacles.get(i)[0] == x && obstacles.get(i)[1] == y - 1) {
+                turn.append('5');
+                if (obstacles.size() > 1) {
+                    turn.append(';').append(i + 1);
+                }
+                return turn.toString();
+            }
+        }
+        int lane = board.getLane(x);
+        if (board.getLane(x - 1) == lane && board.canMoveHero(hero, x - 1, y)) {
+            return turn.append('A').toString();
+        }
+        if (board.getLane(x + 1) == lane && board.canMoveHero(hero, x + 1, y)) {
+            return turn.append('D').toString();
+        }
+        return turn.length() > 0 ? turn.toString() : null;
+    }
+
+    /**
+     * Finds a weapon or armor in the inventory that is better than what the
+     * hero has equipped.
+     *
+     * @return Its number in the equipment menu, or 0 if there is none.
+     */
+    private static int equipmentUpgrade(Hero hero) {
+        Weapon weapon = hero.getMainHandWeapon();
+        Armor armor = hero.getEquippedArmor();
+        int n = 0;
+        for (Item item : hero.getInventory()) {
+            if (item instanceof Weapon) {
+                n++;
+                if (hero.getLevel() >= item.getRequiredLevel()
+                        && ((Weapon) item).getDamage() > (weapon == null ? 0 : weapon.getDamage())) {
+                    return n;
+                }
+            } else if (item instanceof Armor) {
+                n++;
+                if (hero.getLevel() >= item.getRequiredLevel() && ((Armor) item).getDamageReduction()
+                        > (armor == null ? 0 : armor.getDamageReduction())) {
+                    return n;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static Weapon bestWeapon(Hero hero) {
+        Weapon best = hero.getMainHandWeapon();
+        for (Item item : hero.getInventory()) {
+            if (item instanceof Weapon && (best == null || ((Weapon) item).getDamage() > best.getDamage())) {
+                best = (Weapon) item;
+            }
+        }
+        return best;
+    }
+
+    private static Armor bestArmor(Hero hero) {
+        Armor best = hero.getEquippedArmor();
+        for (Item item : hero.getInventory()) {
+            if (item instanceof Armor
+                    && (best == null || ((Armor) item).getDamageReduction() > best.getDamageReduction())) {
+                best = (Armor) item;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds an item of a kind in the inventory, e.g. a healing potion.
+     *
+     * @param attribute For potions, the attribute it must raise.
+     * @return Its number in the menu listing items of that kind, or 0 if there is none.
+     */
+    private static int indexOf(Hero hero, Class<? extends Item> kind, String attribute) {
+        int n = 0;
+        for (Item item : hero.getInventory()) {
+            if (kind.isInstance(item)) {
+                n++;
+                if (!(item instanceof Potion) || attribute.equals(((Potion) item).getAttributeAffected())) {
+                    return n;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,144 @@
+package com.legends.ai;
+
+import java.util.List;
+
+import com.legends.model.Hero;
+
+/**
+ * Picks heroes for monsters to attack at random, the weaker the likelier:
+ * each standing hero is weighted by the inverse of its HP. The weights are
+ * kept in a Fenwick tree, so a pick and the update after a hero's HP
+ * changes take time logarithmic in the size of the party and allocate
+ * nothing. A battle keeps one for its party, refreshes it when the heroes
+ * may have changed, e.g. after the heroes' turn, and monsters update the
+ * hero they attacked.
+ */
+public final class TargetSampler {
+    private final List<Hero> heroes;
+    private double[] weights;
+    private double[] tree; // Fenwick tree over weights, from index 1
+    private int size;
+    private int standing;
+
+    /**
+     * Creates a sampler for a party.
+     *
+     * @param heroes The heroes, kept and read again on {@link #refresh()}.
+     */
+    public TargetSampler(List<Hero> heroes) {
+        this.heroes = heroes;
+        refresh();
+    }
+
+    public List<Hero> getHeroes() {
+        return heroes;
+    }
+
+    /**
+     * Reads the HP of every hero again, in linear time.
+     */
+    public void refresh() {
+        size = heroes.size();
+        if (weights == null || weights.length < size) {
+            weights = new double[size];
+            tree = new double[size + 1];
+        }
+        standing = 0;
+        for (int i = 0; i < size; i++) {
+            weights[i] = weightOf(heroes.get(i));
+            tree[i + 1] = weights[i];
+            if (weights[i] > 0) {
+                standing++;
+            }
+        }
+        for (int i = 1; i <= size; i++) {
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    /**
+     * Reads the HP of one hero again, e.g. after it was attacked.
+     *
+     * @param hero The index of the hero in the party.
+     */
+    public void update(int hero) {
+        double weight = weightOf(heroes.get(hero));
+        double delta = weight - weights[hero];
+        if (delta == 0) {
+            return;
+        }
+        if (weights[hero] > 0) {
+            standing--;
+        }
+        if (weight > 0) {
+            standing++;
+        }
+        weights[hero] = weight;
+        for (int i = hero + 1; i <= size; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Counts the heroes still standing, as of the last refresh or update.
+     */
+    public int getStanding() {
+        return standing;
+    }
+
+    /**
+     * Picks a standing hero.
+     *
+     * @param random A random number from 0 (inclusive) to 1 (exclusive).
+     * @return The index of the hero in the party, or -1 if none is standing.
+     */
+    public int sample(double random) {
+        if (standing == 0) {
+            return -1;
+        }
+        double total = 0;
+        for (int i = size; i > 0; i -= i & -i) {
+            total += tree[i];
+        }
+
+        // Walk down the tree to the first hero whose running total exceeds the value
+        double rest = random * total;
+        int hero = 0;
+        for (int step = Integer.highestOneBit(size); step > 0; step >>= 1) {
+            int next = hero + step;
+            if (next <= size && tree[next] <= rest) {
+                hero = next;
+                rest -= tree[next];
+            }
+        }
+        if (hero < size && weights[hero] > 0) {
+            return hero;
+        }
+
+        // Rounding in the tree: start it afresh and walk the exact weights
+        refresh();
+        total = 0;
+        for (int i = 0; i < size; i++) {
+            total += weights[i];
+        }
+        rest = random * total;
+        int last = -1;
+        for (int i = 0; i < size; i++) {
+            if (weights[i] > 0) {
+                last = i;
+                rest -= weights[i];
+                if (rest < 0) {
+                    return i;
+                }
+            }
+        }
+        return last;
+    }
+
+    private static double weightOf(Hero hero) {
+        return hero.isAlive() ? 1.0 / Math.max(1, hero.getHp()) : 0;
+    }
+}
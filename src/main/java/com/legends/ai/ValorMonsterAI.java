@@ -1,6 +1,7 @@
 package com.legends.ai;
 
 import com.legends.model.*;
+import com.legends.board.BoardSnapshot;
 import com.legends.board.ValorBoard;
 import com.legends.io.Output;
 
@@ -22,22 +23,35 @@ public class ValorMonsterAI implements MonsterAI {
         if (!monster.isAlive())
             return;
 
-        // Get list of eligible heroes to attack
-        List<Hero> heroes = board.getHeroes();
-        List<Hero> heroesInRange = new ArrayList<>();
-        for (Hero hero : heroes) {
-            if (hero.isAlive() && monster.inRange(hero)) {
-                heroesInRange.add(hero);
-            }
-        }
-
-        // Attack if you can
-        if (!heroesInRange.isEmpty()) {
-            attack(monster, heroesInRange, output);
+        // Attack the weakest hero in reach if you can
+        Hero target = board.getWeakestHeroInReach(monster);
+        if (target != null) {
+            monster.attack(target, output);
         } else
             board.moveMonster(monster, output);
     }
 
+    @Override
+    public MonsterAction planTurn(int monster, BoardSnapshot snapshot) {
+        if (!snapshot.isMonsterAlive(monster)) {
+            return null;
+        }
+
+        // Same choice as takeTurn(): the first living hero in range with the lowest HP
+        int target = snapshot.weakestHeroInReach(monster);
+
+        return target >= 0 ? MonsterAction.attack(snapshot.getHero(target)) : MonsterAction.advance();
+    }
+
+    /**
+     * The choice only depends on the heroes in reach, so a plan stands while
+     * other monsters only hurt heroes elsewhere.
+     */
+    @Override
+    public boolean isPlanCurrent(int monster, BoardSnapshot snapshot, ValorBoard board) {
+        return snapshot.sameMonster(monster, snapshot.getMonster(monster)) && snapshot.sameHeroesInRange(monster, board);
+    }
+
     @Override
     public void takeBattleTurn(Monster monster, List<Hero> heroes, Output output) {
         if (!monster.isAlive()) return;
@@ -1,11 +1,16 @@
 package com.legends.battle;
 
+import com.legends.ai.TargetSampler;
 import com.legends.model.*;
 import com.legends.ui.ConsoleColors;
 import com.legends.ui.StyledOutput;
 import com.legends.utils.audio.SoundManager;
+import com.legends.utils.jfr.GameEvents;
+import com.legends.utils.metrics.Histogram;
+import com.legends.utils.metrics.Metrics;
 import com.legends.io.Input;
 import com.legends.io.Output;
+import com.legends.io.Verbosity;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,8 +19,11 @@ import java.util.List;
  * Handles turn-based combat, actions, and win/loss conditions.
  */
 public class Battle {
+    private static final Histogram ROUND_TIME = Metrics.getDefault().histogram("battle.round");
+
     private StyledOutput styledOutput;
     private Party party;
+    private TargetSampler targets;
     private List<Monster> monsters;
     private int initialMonsterCount;
     private int maxMonsterLevel;
@@ -35,6 +43,7 @@ public class Battle {
     public Battle(Party party, List<Monster> monsters, Input input, Output output, String difficulty) {
         this.styledOutput = new StyledOutput(output);
         this.party = party;
+        this.targets = new TargetSampler(party.getHeroes());
         this.monsters = monsters;
         this.initialMonsterCount = monsters.size();
 
@@ -84,6 +93,9 @@ public class Battle {
                 return "Victory";
             }
 
+            GameEvents.BattleRound event = new GameEvents.BattleRound();
+            event.begin();
+            long started = System.nanoTime();
             currentRound++;
             styledOutput.printRoundStart(currentRound);
             showBattleStatus();
@@ -95,9 +107,10 @@ public class Battle {
                 }
             }
 
-            // Monsters Turn
+            // Monsters Turn, aiming by the heroes' HP after their turn
+            targets.refresh();
             for (Monster monster : monsters) {
-                if (monster.isAlive() && !areAllHeroesFainted()) {
+                if (monster.isAlive() && targets.getStanding() > 0) {
                     takeMonsterTurn(monster);
                 }
             }
@@ -114,6 +127,13 @@ public class Battle {
                     h.setMana(h.getMana() + manaRegen);
                 }
             }
+            ROUND_TIME.recordSince(started);
+            if (event.shouldCommit()) {
+                event.round = currentRound;
+                event.heroes = countStanding(party.getHeroes());
+                event.monsters = monsters.size();
+                event.commit();
+            }
         }
         return "";
     }
@@ -122,6 +142,9 @@ public class Battle {
      * Displays the current status of heroes and monsters.
      */
     private void showBattleStatus() {
+        if (!output.isEnabled(Verbosity.NORMAL)) {
+            return;
+        }
         styledOutput.printHeader("BATTLE STATUS");
         output.println("\n" + ConsoleColors.BRIGHT_GREEN + "Heroes:" + ConsoleColors.RESET);
         for (Hero h : party.getHeroes()) {
@@ -534,7 +557,7 @@ public class Battle {
      * @param monster The monster taking the turn.
      */
     private void takeMonsterTurn(Monster monster) {
-        monster.takeBattleTurn(party.getHeroes(), styledOutput);
+        monster.takeBattleTurn(targets, styledOutput);
     }
 
 
@@ -553,6 +576,16 @@ public class Battle {
         return true;
     }
 
+    private static int countStanding(List<Hero> heroes) {
+        int standing = 0;
+        for (Hero h : heroes) {
+            if (h.isAlive()) {
+                standing++;
+            }
+        }
+        return standing;
+    }
+
     /**
      * Distributes rewards (XP and Gold) to the heroes after a victory.
      */
@@ -8,6 +8,7 @@ import com.legends.board.tiles.MarketTile;
 import com.legends.board.tiles.Tile;
 import com.legends.io.Output;
 import java.io.Serializable;
+import java.util.List;
 import java.util.Random;
 import java.util.Queue;
 import java.util.LinkedList;
@@ -36,6 +37,32 @@ public class Board implements Serializable {
         initializeBoard();
     }
 
+    /**
+     * Constructs a Board from a text layout, one string per row.
+     * 'X' marks an inaccessible tile, 'M' a market tile and any other
+     * character a common tile. Used to load generated large worlds.
+     *
+     * @param layout The rows of the layout; all rows must have the same length.
+     */
+    public Board(List<String> layout) {
+        this.height = layout.size();
+        this.width = height == 0 ? 0 : layout.get(0).length();
+        this.grid = new Tile[height][width];
+        for (int y = 0; y < height; y++) {
+            String row = layout.get(y);
+            for (int x = 0; x < width; x++) {
+                char c = x < row.length() ? row.charAt(x) : 'X';
+                if (c == 'X') {
+                    grid[y][x] = new InaccessibleTile(x, y);
+                } else if (c == 'M') {
+                    grid[y][x] = new MarketTile(x, y);
+                } else {
+                    grid[y][x] = new CommonTile(x, y);
+                }
+            }
+        }
+    }
+
     /**
      * Initializes the board by generating random layouts until a connected board is
      * formed.
@@ -0,0 +1,400 @@
+package com.legends.board;
+
+import java.util.List;
+
+import com.legends.model.Hero;
+import com.legends.model.Monster;
+
+/**
+ * An immutable copy of a Legends of Valor board at one moment: its terrain
+ * version, which tiles can be entered, and the position and state of every
+ * hero and monster. It is taken on the game thread and can then be read from
+ * any thread while the game goes on, e.g. to plan monster turns. It also holds the combat stats of heroes and
+ * monsters, so a search can play the game forward without reading them.
+ * Heroes and monsters are indexed in board order.
+ */
+public final class BoardSnapshot {
+    private final ValorBoard board;
+    private final int version;
+    private final int heroVersion;
+    private final ThreatMap threats;
+    private final int width;
+    private final int height;
+    private final boolean[] accessible; // [y * width + x]
+
+    private final Hero[] heroes;
+    private final String[] heroNames;
+    private final int[] heroX;
+    private final int[] heroY;
+    private final int[] heroHp;
+    private final int[] heroLane;
+    private final int[] heroOriginalLane;
+    private final int[] heroLevel;
+    private final int[] heroNexusX;
+    private final double[] heroAttack;
+    private final int[] heroDefense;
+    private final int[] heroAgility;
+    private final int[] heroDexterity;
+
+    private final Monster[] monsters;
+    private final int[] monsterX;
+    private final int[] monsterY;
+    private final int[] monsterHp;
+    private final int[] monsterLane;
+    private final int[] monsterRange;
+    private final int[] monsterDamage;
+    private final int[] monsterDefense;
+    private final int[] monsterDodge;
+
+    private BoardSnapshot(ValorBoard board) {
+        this.board = board;
+        this.version = board.getVersion();
+        this.heroVersion = board.getHeroVersion();
+        this.threats = board.getThreatMap();
+        this.width = board.getWidth();
+        this.height = board.getHeight();
+        this.accessible = new boolean[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                accessible[y * width + x] = board.getTileAt(x, y).isAccessible();
+            }
+        }
+
+        List<Hero> heroList = board.getHeroes();
+        int h = heroList.size();
+        this.heroes = heroList.toArray(new Hero[h]);
+        this.heroNames = new String[h];
+        this.heroX = new int[h];
+        this.heroY = new int[h];
+        this.heroHp = new int[h];
+        this.heroLane = new int[h];
+        this.heroOriginalLane = new int[h];
+        this.heroLevel = new int[h];
+        this.heroNexusX = new int[h];
+        this.heroAttack = new double[h];
+        this.heroDefense = new int[h];
+        this.heroAgility = new int[h];
+        this.heroDexterity = new int[h];
+        for (int i = 0; i < h; i++) {
+            Hero hero = heroes[i];
+            heroNames[i] = hero.getName();
+            heroX[i] = hero.getX();
+            heroY[i] = hero.getY();
+            heroHp[i] = hero.getHp();
+            heroLane[i] = hero.getLane();
+            heroOriginalLane[i] = hero.getOriginalLane();
+            heroLevel[i] = hero.getLevel();
+            heroNexusX[i] = board.getLeftColumnOfLane(hero.getOriginalLane());
+            heroAttack[i] = hero.getAttackPower();
+            heroDefense[i] = hero.getEquippedArmor() != null ? hero.getEquippedArmor().getDamageReduction() : 0;
+            heroAgility[i] = hero.getAgility();
+            heroDexterity[i] = hero.getDexterity();
+        }
+
+        List<Monster> monsterList = board.getMonsters();
+        int m = monsterList.size();
+        this.monsters = monsterList.toArray(new Monster[m]);
+        this.monsterX = new int[m];
+        this.monsterY = new int[m];
+        this.monsterHp = new int[m];
+        this.monsterLane = new int[m];
+        this.monsterRange = new int[m];
+        this.monsterDamage = new int[m];
+        this.monsterDefense = new int[m];
+        this.monsterDodge = new int[m];
+        for (int i = 0; i < m; i++) {
+            Monster monster = monsters[i];
+            monsterX[i] = monster.getX();
+            monsterY[i] = monster.getY();
+            monsterHp[i] = monster.getHp();
+            monsterLane[i] = monster.getLane();
+            monsterRange[i] = monster.getRange();
+            monsterDamage[i] = monster.getDamage();
+            monsterDefense[i] = monster.getDefense();
+            monsterDodge[i] = monster.getDodgeChance();
+        }
+    }
+
+    /**
+     * Takes a snapshot of a board. Must be called on the thread that plays the game.
+     *
+     * @param board The board.
+     * @return The snapshot.
+     */
+    public static BoardSnapshot of(ValorBoard board) {
+        return new BoardSnapshot(board);
+    }
+
+    public ValorBoard getBoard() {
+        return board;
+    }
+
+    /**
+     * Gets the terrain version of the board when the snapshot was taken.
+     *
+     * @return The terrain version.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean isAccessible(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height && accessible[y * width + x];
+    }
+
+    public int getHeroCount() {
+        return heroes.length;
+    }
+
+    public Hero getHero(int hero) {
+        return heroes[hero];
+    }
+
+    public String getHeroName(int hero) {
+        return heroNames[hero];
+    }
+
+    public int getHeroX(int hero) {
+        return heroX[hero];
+    }
+
+    public int getHeroY(int hero) {
+        return heroY[hero];
+    }
+
+    public int getHeroHp(int hero) {
+        return heroHp[hero];
+    }
+
+    public boolean isHeroAlive(int hero) {
+        return heroHp[hero] > 0;
+    }
+
+    public int getHeroLane(int hero) {
+        return heroLane[hero];
+    }
+
+    public int getHeroOriginalLane(int hero) {
+        return heroOriginalLane[hero];
+    }
+
+    public int getHeroLevel(int hero) {
+        return heroLevel[hero];
+    }
+
+    /**
+     * Gets the column a hero respawns in: the left column of its original lane.
+     */
+    public int getHeroNexusX(int hero) {
+        return heroNexusX[hero];
+    }
+
+    /**
+     * Gets a hero's attack power, as in {@link Hero#getAttackPower()}.
+     */
+    public double getHeroAttack(int hero) {
+        return heroAttack[hero];
+    }
+
+    /**
+     * Gets the damage reduction of a hero's armor, or 0 if it wears none.
+     */
+    public int getHeroDefense(int hero) {
+        return heroDefense[hero];
+    }
+
+    public int getHeroAgility(int hero) {
+        return heroAgility[hero];
+    }
+
+    public int getHeroDexterity(int hero) {
+        return heroDexterity[hero];
+    }
+
+    public int getMonsterCount() {
+        return monsters.length;
+    }
+
+    public Monster getMonster(int monster) {
+        return monsters[monster];
+    }
+
+    public int getMonsterX(int monster) {
+        return monsterX[monster];
+    }
+
+    public int getMonsterY(int monster) {
+        return monsterY[monster];
+    }
+
+    public boolean isMonsterAlive(int monster) {
+        return monsterHp[monster] > 0;
+    }
+
+    public int getMonsterLane(int monster) {
+        return monsterLane[monster];
+    }
+
+    public int getMonsterHp(int monster) {
+        return monsterHp[monster];
+    }
+
+    public int getMonsterRange(int monster) {
+        return monsterRange[monster];
+    }
+
+    public int getMonsterDamage(int monster) {
+        return monsterDamage[monster];
+    }
+
+    public int getMonsterDefense(int monster) {
+        return monsterDefense[monster];
+    }
+
+    public int getMonsterDodge(int monster) {
+        return monsterDodge[monster];
+    }
+
+    /**
+     * Finds the hero shown at a position, like {@link ValorBoard#getHeroAt}.
+     *
+     * @return The index of the first living hero there, or -1 if none.
+     */
+    public int heroAt(int x, int y) {
+        for (int i = 0; i < heroes.length; i++) {
+            if (heroX[i] == x && heroY[i] == y && heroHp[i] > 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the monster shown at a position, like {@link ValorBoard#getMonsterAt}.
+     *
+     * @return The index of the first living monster there, or -1 if none.
+     */
+    public int monsterAt(int x, int y) {
+        for (int i = 0; i < monsters.length; i++) {
+            if (monsterX[i] == x && monsterY[i] == y && monsterHp[i] > 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks if a hero is within a monster's reach, like {@code Entity.inRange}.
+     */
+    public boolean isHeroInRange(int monster, int hero) {
+        int range = monsterRange[monster];
+        return Math.abs(monsterX[monster] - heroX[hero]) <= range
+                && Math.abs(monsterY[monster] - heroY[hero]) <= range;
+    }
+
+    /**
+     * Finds the hero a monster attacks, like {@link ValorBoard#getWeakestHeroInReach}.
+     *
+     * @return The index of the hero, or -1 if no living hero is within reach.
+     */
+    public int weakestHeroInReach(int monster) {
+        int weakest = -1;
+        if (monsterRange[monster] != threats.getReach()) {
+            for (int h = 0; h < heroes.length; h++) {
+                if (heroHp[h] > 0 && isHeroInRange(monster, h) && (weakest < 0 || heroHp[h] < heroHp[weakest])) {
+                    weakest = h;
+                }
+            }
+            return weakest;
+        }
+        int x = monsterX[monster];
+        int y = monsterY[monster];
+        for (int i = 0; i < threats.countAt(x, y); i++) {
+            int h = threats.heroAt(x, y, i);
+            if (heroHp[h] > 0 && (weakest < 0 || heroHp[h] < heroHp[weakest])) {
+                weakest = h;
+            }
+        }
+        return weakest;
+    }
+
+    /**
+     * Checks that the heroes on a board are where they were, with the same HP,
+     * i.e. that nothing a monster decides on has changed.
+     *
+     * @param board The board.
+     * @return True if the heroes are unchanged.
+     */
+    public boolean sameHeroes(ValorBoard board) {
+        if (board != this.board) {
+            return false;
+        }
+        List<Hero> current = board.getHeroes();
+        if (current.size() != heroes.length) {
+            return false;
+        }
+        for (int i = 0; i < heroes.length; i++) {
+            Hero hero = current.get(i);
+            if (hero != heroes[i] || hero.getX() != heroX[i] || hero.getY() != heroY[i]
+                    || hero.getHp() != heroHp[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks that the heroes on a board are where they were, and that those
+     * within a monster's reach have the same HP, i.e. that nothing a monster
+     * choosing among the heroes in reach decides on has changed.
+     *
+     * @param monster The index of the monster.
+     * @param board   The board.
+     * @return True if the heroes are unchanged.
+     */
+    public boolean sameHeroesInRange(int monster, ValorBoard board) {
+        if (board != this.board || board.getHeroVersion() != heroVersion
+                || board.getHeroes().size() != heroes.length) {
+            return false;
+        }
+        if (monsterRange[monster] != threats.getReach()) {
+            for (int h = 0; h < heroes.length; h++) {
+                if (isHeroInRange(monster, h) && heroes[h].getHp() != heroHp[h]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        // No hero has moved, so the heroes in reach are those on the map
+        int x = monsterX[monster];
+        int y = monsterY[monster];
+        for (int i = 0; i < threats.countAt(x, y); i++) {
+            int h = threats.heroAt(x, y, i);
+            if (heroes[h].getHp() != heroHp[h]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks that a monster is where it was and as alive as it was.
+     *
+     * @param index   The index of the monster in this snapshot.
+     * @param monster The monster.
+     * @return True if the monster is unchanged.
+     */
+    public boolean sameMonster(int index, Monster monster) {
+        return index < monsters.length && monsters[index] == monster
+                && monster.getX() == monsterX[index] && monster.getY() == monsterY[index]
+                && monster.isAlive() == (monsterHp[index] > 0);
+    }
+}
@@ -0,0 +1,95 @@
+package com.legends.board;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Which heroes a monster could attack from each tile of a board: those
+ * within its reach, in board order. It only depends on where the heroes
+ * stand, so it is worked out once after heroes move and then shared by all
+ * monsters, which look up their own tile instead of checking every hero.
+ * Whether a hero is alive, and its HP, are read when choosing among them,
+ * so heroes taking damage do not make the map out of date. Heroes are given
+ * by their index on the board.
+ */
+public final class ThreatMap {
+    private final int width;
+    private final int height;
+    private final int reach;
+    private final int heroCount;
+    private final int[] start; // Heroes around tile y * width + x are heroes[start[tile]] to heroes[start[tile + 1] - 1]
+    private final int[] heroes;
+
+    /**
+     * Works out the map.
+     *
+     * @param width     The width of the board.
+     * @param height    The height of the board.
+     * @param reach     How far attackers reach, in tiles in every direction.
+     * @param heroX     The column of each hero.
+     * @param heroY     The row of each hero.
+     * @param heroCount The number of heroes.
+     */
+    public ThreatMap(int width, int height, int reach, int[] heroX, int[] heroY, int heroCount) {
+        this.width = width;
+        this.height = height;
+        this.reach = reach;
+        this.heroCount = heroCount;
+        this.start = new int[width * height + 1];
+
+        // Count the heroes around each tile, then place them, in board order
+        for (int h = 0; h < heroCount; h++) {
+            forEachTileAround(heroX[h], heroY[h], tile -> start[tile + 1]++);
+        }
+        for (int tile = 0; tile < width * height; tile++) {
+            start[tile + 1] += start[tile];
+        }
+        this.heroes = new int[start[width * height]];
+        int[] next = start.clone();
+        for (int h = 0; h < heroCount; h++) {
+            int hero = h;
+            forEachTileAround(heroX[h], heroY[h], tile -> heroes[next[tile]++] = hero);
+        }
+    }
+
+    private void forEachTileAround(int x, int y, IntConsumer action) {
+        for (int ty = Math.max(0, y - reach); ty <= Math.min(height - 1, y + reach); ty++) {
+            for (int tx = Math.max(0, x - reach); tx <= Math.min(width - 1, x + reach); tx++) {
+                action.accept(ty * width + tx);
+            }
+        }
+    }
+
+    public int getReach() {
+        return reach;
+    }
+
+    /**
+     * Gets the number of heroes the map was worked out for.
+     */
+    public int getHeroCount() {
+        return heroCount;
+    }
+
+    /**
+     * Counts the heroes within reach of a tile, alive or not.
+     *
+     * @return The count, or 0 for a position off the board.
+     */
+    public int countAt(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return 0;
+        }
+        int tile = y * width + x;
+        return start[tile + 1] - start[tile];
+    }
+
+    /**
+     * Gets one of the heroes within reach of a tile.
+     *
+     * @param i Which of them, from 0 to {@link #countAt} - 1, in board order.
+     * @return The index of the hero on the board.
+     */
+    public int heroAt(int x, int y, int i) {
+        return heroes[start[y * width + x] + i];
+    }
+}
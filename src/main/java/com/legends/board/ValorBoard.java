@@ -1,6 +1,6 @@
 package com.legends.board;
 
-// import com.legends.model.Entity;
+import com.legends.model.Entity;
 import com.legends.model.Hero;
 import com.legends.model.Monster;
 import com.legends.ui.BoardRenderer;
@@ -31,6 +31,9 @@ public class ValorBoard implements Serializable {
     private Tile[][] grid;
     private List<Hero> heroes;
     private List<Monster> monsters;
+    private int version; // Bumped whenever the terrain changes
+    private int heroVersion; // Bumped whenever a hero is placed or moves
+    private transient ThreatMap threats; // Worked out again once heroes have moved
 
     /**
      * Constructs a new ValorBoard with the standard 8x8 layout.
@@ -210,6 +213,7 @@ public class ValorBoard implements Serializable {
             if (!heroes.contains(hero)) {
                 heroes.add(hero);
             }
+            heroesMoved();
         }
     }
 
@@ -298,24 +302,62 @@ public class ValorBoard implements Serializable {
         int fromX = hero.getX();
         int fromY = hero.getY();
 
-        if (!isValidCoordinate(toX, toY)) {
+        String blocked = checkHeroMove(hero, toX, toY);
+        if (blocked != null) {
             if (output != null)
-                output.println("Invalid coordinates!");
+                output.println(blocked);
             return false;
         }
 
+        // Update hero position
+        Tile fromTile = grid[fromY][fromX];
+        if (fromTile.getEntity() == hero) {
+            fromTile.setEntity(null);
+        }
+
+        hero.setX(toX);
+        hero.setY(toY);
+        grid[toY][toX].setEntity(hero);
+        heroesMoved();
+
+        SoundManager.getInstance().playMoveSound();
+
+        return true;
+    }
+
+    /**
+     * Checks if a hero could move to a position, by the rules of {@link #moveHero}.
+     *
+     * @param hero The hero.
+     * @param toX  The destination x-coordinate.
+     * @param toY  The destination y-coordinate.
+     * @return True if the move is allowed.
+     */
+    public boolean canMoveHero(Hero hero, int toX, int toY) {
+        return checkHeroMove(hero, toX, toY) == null;
+    }
+
+    /**
+     * Gets why a hero cannot move to a position.
+     *
+     * @return The reason, or null if the move is allowed.
+     */
+    private String checkHeroMove(Hero hero, int toX, int toY) {
+        int fromX = hero.getX();
+        int fromY = hero.getY();
+
+        if (!isValidCoordinate(toX, toY)) {
+            return "Invalid coordinates!";
+        }
+
         Tile toTile = grid[toY][toX];
         if (!toTile.isAccessible()) {
-            if (output != null)
-                output.println("Cannot move to inaccessible tile!");
-            return false;
+            return "Cannot move to inaccessible tile!";
         }
 
         // Check for hero collision
         if (hasHeroAt(toX, toY)) {
-            if (output != null)
-                output.println("Another hero is already there!");
-            return false;
+            return "Another hero is already there!";
         }
 
         // Check if trying to move forward (north/up) past any monster in the same lane
@@ -326,27 +368,121 @@ public class ValorBoard implements Serializable {
                 if (m.isAlive() && m.getLane() == getLane(fromX)) {
                     // Check if monster is between hero's current position and destination
                     if (m.getY() > toY && m.getY() <= fromY) {
-                        if (output != null)
-                            output.println("Cannot move past monster! You must defeat it first!");
-                        return false;
+                        return "Cannot move past monster! You must defeat it first!";
                     }
                 }
             }
         }
+        return null;
+    }
 
-        // Update hero position
-        Tile fromTile = grid[fromY][fromX];
-        if (fromTile.getEntity() == hero) {
-            fromTile.setEntity(null);
+    /**
+     * Gets the monsters a hero can attack: on its tile or any of the eight
+     * around it.
+     *
+     * @param hero The hero.
+     * @return The living monsters in range, in the order they are offered to the player.
+     */
+    public List<Monster> getMonstersInRange(Hero hero) {
+        List<Monster> inRange = new ArrayList<>();
+        // Include diagonal attacks
+        int[][] offsets = {
+                { 0, 0 }, // same space
+                { 0, 1 }, // down
+                { 0, -1 }, // up
+                { 1, 0 }, // right
+                { -1, 0 }, // left
+                { 1, 1 }, // diagonal down-right
+                { 1, -1 }, // diagonal up-right
+                { -1, 1 }, // diagonal down-left
+                { -1, -1 } // diagonal up-left
+        };
+
+        for (int[] offset : offsets) {
+            int checkX = hero.getX() + offset[0];
+            int checkY = hero.getY() + offset[1];
+            Monster m = getMonsterAt(checkX, checkY);
+            if (m != null && m.isAlive()) {
+                inRange.add(m);
+            }
         }
 
-        hero.setX(toX);
-        hero.setY(toY);
-        grid[toY][toX].setEntity(hero);
+        return inRange;
+    }
 
-        SoundManager.getInstance().playMoveSound();
+    /**
+     * Gets the heroes a hero can teleport to: living heroes in other lanes.
+     *
+     * @param hero The hero that teleports.
+     * @return The heroes, in the order they are offered to the player.
+     */
+    public List<Hero> getTeleportTargets(Hero hero) {
+        List<Hero> targets = new ArrayList<>();
+        for (Hero h : heroes) {
+            if (h != hero && h.isAlive() && h.getLane() != hero.getLane()) {
+                targets.add(h);
+            }
+        }
+        return targets;
+    }
 
-        return true;
+    /**
+     * Gets the positions a hero can teleport to next to another hero: free
+     * tiles in the target's lane beside or behind it, with no monster further
+     * back in the lane.
+     *
+     * @param target The hero to teleport to.
+     * @return The positions as {x, y}, in the order they are offered to the player.
+     */
+    public List<int[]> getTeleportPositions(Hero target) {
+        int[][] offsets = { { 0, 1 }, { 0, -1 }, { 1, 0 }, { -1, 0 } };
+        List<int[]> validPositions = new ArrayList<>();
+
+        for (int[] offset : offsets) {
+            int newX = target.getX() + offset[0];
+            int newY = target.getY() + offset[1];
+
+            if (getTileAt(newX, newY) != null &&
+                    getTileAt(newX, newY).isAccessible() &&
+                    !hasHeroAt(newX, newY) &&
+                    getLane(newX) == target.getLane()) {
+
+                // Only allow teleport to same row, left, right, or behind target
+                // Not in front of target (newY < target.getY())
+                if (newY >= target.getY()) {
+                    // Check not behind monster
+                    boolean validPos = true;
+                    for (Monster m : monsters) {
+                        if (m.isAlive() && m.getLane() == target.getLane() && m.getY() > newY) {
+                            validPos = false;
+                            break;
+                        }
+                    }
+                    if (validPos) {
+                        validPositions.add(new int[] { newX, newY });
+                    }
+                }
+            }
+        }
+        return validPositions;
+    }
+
+    /**
+     * Gets the obstacles next to a position, to the south, north, east and west.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return The obstacles as {x, y}, in that order.
+     */
+    public List<int[]> getObstaclesAround(int x, int y) {
+        int[][] neighbors = { { 0, 1 }, { 0, -1 }, { 1, 0 }, { -1, 0 } };
+        List<int[]> obstacles = new ArrayList<>();
+        for (int[] offset : neighbors) {
+            if (getTileAt(x + offset[0], y + offset[1]) instanceof ObstacleTile) {
+                obstacles.add(new int[] { x + offset[0], y + offset[1] });
+            }
+        }
+        return obstacles;
     }
 
     /**
@@ -406,6 +542,7 @@ public class ValorBoard implements Serializable {
 
         if (grid[y][x] instanceof ObstacleTile) {
             grid[y][x] = new PlainTile(x, y);
+            version++;
             if (output != null) {
                 output.printlnGreen("Obstacle destroyed!");
             }
@@ -418,6 +555,81 @@ public class ValorBoard implements Serializable {
         return false;
     }
 
+    /**
+     * Gets the terrain version of the board. It changes every time a tile is
+     * replaced, so renderers can cache everything that depends only on terrain.
+     *
+     * @return The terrain version.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the hero version of the board. It changes every time a hero is
+     * placed or moves, so what depends only on where heroes stand can be kept
+     * until then.
+     *
+     * @return The hero version.
+     */
+    public int getHeroVersion() {
+        return heroVersion;
+    }
+
+    private void heroesMoved() {
+        heroVersion++;
+        threats = null;
+    }
+
+    /**
+     * Gets which heroes a monster could attack from each tile, worked out
+     * once for as long as the heroes stay where they are.
+     *
+     * @return The map.
+     */
+    public ThreatMap getThreatMap() {
+        if (threats == null || threats.getHeroCount() != heroes.size()) {
+            int n = heroes.size();
+            int[] x = new int[n];
+            int[] y = new int[n];
+            for (int i = 0; i < n; i++) {
+                x[i] = heroes.get(i).getX();
+                y[i] = heroes.get(i).getY();
+            }
+            threats = new ThreatMap(BOARD_SIZE, BOARD_SIZE, Entity.DEFAULT_RANGE, x, y, n);
+        }
+        return threats;
+    }
+
+    /**
+     * Finds the hero a monster attacks: of the living heroes within its
+     * reach, the one with the least HP, or the first of them in board order.
+     *
+     * @param monster The monster.
+     * @return The hero, or null if no living hero is within reach.
+     */
+    public Hero getWeakestHeroInReach(Monster monster) {
+        Hero weakest = null;
+        ThreatMap map = getThreatMap();
+        if (monster.getRange() != map.getReach()) {
+            for (Hero hero : heroes) {
+                if (hero.isAlive() && monster.inRange(hero) && (weakest == null || hero.getHp() < weakest.getHp())) {
+                    weakest = hero;
+                }
+            }
+            return weakest;
+        }
+        int x = monster.getX();
+        int y = monster.getY();
+        for (int i = 0; i < map.countAt(x, y); i++) {
+            Hero hero = heroes.get(map.heroAt(x, y, i));
+            if (hero.isAlive() && (weakest == null || hero.getHp() < weakest.getHp())) {
+                weakest = hero;
+            }
+        }
+        return weakest;
+    }
+
     /**
      * Gets all heroes on the board.
      *
@@ -0,0 +1,52 @@
+package com.legends.game;
+
+import com.legends.io.Output;
+
+/**
+ * The players of a cooperative Legends of Valor game, each controlling one
+ * hero from a connection of their own. Questions are put to all players at
+ * once and answered concurrently; the game waits for the answers only until
+ * a deadline, so a round takes no longer than its turn time however many
+ * players there are and however slow they are.
+ */
+public interface CoopTable {
+    /**
+     * Gets the number of players at the table. Seat i controls hero i.
+     *
+     * @return The number of seats, at most 3.
+     */
+    int getSeats();
+
+    /**
+     * Gets the name of a player.
+     *
+     * @param seat The seat of the player.
+     * @return The name.
+     */
+    String getPlayerName(int seat);
+
+    /**
+     * Gets the output everyone at the table sees.
+     *
+     * @return The output.
+     */
+    Output getOutput();
+
+    /**
+     * Asks the players a question each and waits until all of them have
+     * answered or the time is up, whichever is first.
+     *
+     * @param prompts       The prompt for every seat, or null to not ask a seat.
+     * @param timeoutMillis How long to wait for the answers.
+     * @return The answer of every seat, or null for seats that were not asked,
+     *         did not answer in time, or have left.
+     */
+    String[] ask(String[] prompts, long timeoutMillis);
+
+    /**
+     * Checks if every player has left the table.
+     *
+     * @return True if nobody is playing any more.
+     */
+    boolean isEmpty();
+}
@@ -5,35 +5,43 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.security.MessageDigest;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 import com.legends.io.Input;
 import com.legends.io.Output;
-import com.legends.model.DefaultItemFactory;
-import com.legends.model.DragonFactory;
-import com.legends.model.ExoskeletonFactory;
 import com.legends.model.Hero;
 import com.legends.model.Item;
 import com.legends.model.Monster;
-import com.legends.model.PaladinFactory;
-import com.legends.model.SorcererFactory;
-import com.legends.model.SpiritFactory;
-import com.legends.model.WarriorFactory;
-import com.legends.utils.DataLoader;
+import com.legends.utils.GameCatalog;
 import com.legends.utils.audio.SoundManager;
+import com.legends.utils.jfr.GameEvents;
+import com.legends.utils.metrics.Counter;
+import com.legends.utils.metrics.Histogram;
+import com.legends.utils.metrics.Metrics;
 
 public abstract class GameInterface implements Serializable {
     private static final long serialVersionUID = 1L;
+    /** The name results are recorded under when the player has none. */
+    public static final String DEFAULT_PLAYER = "Player";
+    private static final Histogram SAVE_TIME = Metrics.getDefault().histogram("game.save");
+    private static final Histogram LOAD_TIME = Metrics.getDefault().histogram("game.load");
+    private static final Counter SAVED_BYTES = Metrics.getDefault().counter("game.saved_bytes");
     protected List<Hero> heroes;
     protected List<Monster> monsters;
     protected List<Item> items;
     protected boolean gameRunning;
     protected transient Input input;
     protected transient Output output;
+    private transient int catalogVersion;
+    private transient File saveDirectory;
+    private transient String playerName;
 
     public GameInterface(Input input, Output output) {
         this.heroes = new ArrayList<>();
@@ -48,33 +56,84 @@ public abstract class GameInterface implements Serializable {
         monsters.clear();
         items.clear();
         try {
-            // Load Heroes
-            heroes.addAll(DataLoader.loadHeroes("Paladins.csv", new PaladinFactory()));
-            heroes.addAll(DataLoader.loadHeroes("Sorcerers.csv", new SorcererFactory()));
-            heroes.addAll(DataLoader.loadHeroes("Warriors.csv", new WarriorFactory()));
-
-            // Load Monsters
-            monsters.addAll(DataLoader.loadMonsters("Spirits.csv", new SpiritFactory()));
-            monsters.addAll(DataLoader.loadMonsters("Dragons.csv", new DragonFactory()));
-            monsters.addAll(DataLoader.loadMonsters("Exoskeletons.csv", new ExoskeletonFactory()));
-
-            // Load Items
-            items.addAll(DataLoader.loadWeapons("Weaponry.csv", new DefaultItemFactory()));
-            items.addAll(DataLoader.loadArmor("Armory.csv", new DefaultItemFactory()));
-            items.addAll(DataLoader.loadPotions("Potions.csv", new DefaultItemFactory()));
-            items.addAll(DataLoader.loadSpells("FireSpells.csv", "Fire", new DefaultItemFactory()));
-            items.addAll(DataLoader.loadSpells("IceSpells.csv", "Ice", new DefaultItemFactory()));
-            items.addAll(DataLoader.loadSpells("LightningSpells.csv", "Lightning", new DefaultItemFactory()));
-
+            GameCatalog catalog = GameCatalog.current();
+            heroes.addAll(catalog.createHeroes());
+            monsters.addAll(catalog.getMonsters());
+            items.addAll(catalog.getItems());
+            catalogVersion = catalog.getVersion();
         } catch (IOException e) {
             output.printError("Error loading game data: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
+    /**
+     * Picks up reloaded monster and item catalogs for new spawns and markets.
+     * The hero pool is left alone since heroes are already chosen.
+     * Called by the game thread at points where swapping is safe.
+     */
+    protected void refreshCatalogs() {
+        try {
+            GameCatalog catalog = GameCatalog.current();
+            if (catalog.getVersion() == catalogVersion) {
+                return;
+            }
+            monsters.clear();
+            monsters.addAll(catalog.getMonsters());
+            items.clear();
+            items.addAll(catalog.getItems());
+            catalogVersion = catalog.getVersion();
+        } catch (IOException e) {
+            // Keep playing with the catalogs we already have
+        }
+    }
+
     public void start() {
         output.println(getWelcomeMessage());
+        mainMenu();
+    }
+
+    /**
+     * Continues a game put away by a {@link Hibernation}, once it is attached
+     * to the player's input and output again: plays on from the turn it was
+     * put away at, if it was being played, then shows the main menu as usual.
+     *
+     * @param playing True if the game was being played, false if it was at the main menu.
+     */
+    public void resume(boolean playing) {
+        if (!playing) {
+            start();
+            return;
+        }
+        try {
+            resumeGame();
+        } catch (QuitGameException e) {
+            output.println("\nReturning to Main Menu...");
+        }
+        mainMenu();
+    }
+
+    /**
+     * Connects a game restored from disk to the player's input and output.
+     *
+     * @param input  The input.
+     * @param output The output.
+     */
+    public void attach(Input input, Output output) {
+        this.input = input;
+        this.output = output;
+    }
 
+    /**
+     * Plays on from the turn the game was put away at. By default the game
+     * loop simply starts over, which suits games that hibernate only at the
+     * top of their loop.
+     */
+    protected void resumeGame() {
+        gameLoop();
+    }
+
+    private void mainMenu() {
         boolean isRunning = true;
         while (isRunning) {
             try {
@@ -87,7 +146,7 @@ public abstract class GameInterface implements Serializable {
                 output.println("6. Quit");
                 output.print("Choose an option: ");
 
-                String choice = input.readLine();
+                String choice = Hibernation.readLine(input, this, Hibernation.Stage.MAIN_MENU);
 
                 switch (choice) {
                     case "1":
@@ -126,7 +185,9 @@ public abstract class GameInterface implements Serializable {
             output.println("\n--- Settings ---");
             output.println("1. Toggle Sound (Current: " + (soundManager.isSoundEnabled() ? "On" : "Off") + ")");
             output.println("2. Set Volume (Current: " + (int) (soundManager.getMasterVolume() * 100) + "%)");
-            output.println("3. Back to Main Menu");
+            output.println("3. Show Performance Metrics");
+            output.println("4. Save Performance Metrics to a File");
+            output.println("5. Back to Main Menu");
             output.print("Choose an option: ");
 
             String choice = input.readLine();
@@ -152,6 +213,12 @@ public abstract class GameInterface implements Serializable {
                     }
                     break;
                 case "3":
+                    output.println("\n" + Metrics.getDefault().snapshot());
+                    break;
+                case "4":
+                    dumpMetrics();
+                    break;
+                case "5":
                     inSettings = false;
                     break;
                 default:
@@ -160,6 +227,20 @@ public abstract class GameInterface implements Serializable {
         }
     }
 
+    /**
+     * Writes the performance metrics to a file next to the save file.
+     */
+    private void dumpMetrics() {
+        File file = new File(getSaveFile().getAbsoluteFile().getParentFile(),
+                "metrics-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".txt");
+        try {
+            Metrics.getDefault().dump(file.toPath());
+            output.printlnGreen("Metrics saved to " + file.getName());
+        } catch (IOException e) {
+            output.printError("Error saving metrics: " + e.getMessage());
+        }
+    }
+
     protected boolean confirmQuit() {
         output.println("Checking for unsaved changes...");
         if (isGameSaved()) {
@@ -171,7 +252,7 @@ public abstract class GameInterface implements Serializable {
     }
 
     private boolean isGameSaved() {
-        File saveFile = new File(getSaveFileName());
+        File saveFile = getSaveFile();
         if (!saveFile.exists()) {
             return false;
         }
@@ -220,16 +301,54 @@ public abstract class GameInterface implements Serializable {
     }
 
     public void saveGame() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(getSaveFileName()))) {
+        GameEvents.Save event = new GameEvents.Save();
+        event.begin();
+        long started = System.nanoTime();
+        File saveFile = getSaveFile();
+        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(saveFile))) {
             oos.writeObject(this);
-            output.printlnGreen("Game saved successfully!");
         } catch (IOException e) {
             output.printError("Error saving game: " + e.getMessage());
+            return;
+        }
+        SAVE_TIME.recordSince(started);
+        long bytes = saveFile.length();
+        SAVED_BYTES.add(bytes);
+        if (event.shouldCommit()) {
+            event.file = saveFile.getPath();
+            event.bytes = bytes;
+            event.commit();
         }
+        output.printlnGreen("Game saved successfully!");
+    }
+
+    /**
+     * Reads the game stored in the save file, for {@link #loadGame()}.
+     *
+     * @return The saved game.
+     * @throws IOException            If the file cannot be read.
+     * @throws ClassNotFoundException If the file holds an unknown class.
+     */
+    protected Object readSaveFile() throws IOException, ClassNotFoundException {
+        GameEvents.Load event = new GameEvents.Load();
+        event.begin();
+        long started = System.nanoTime();
+        File saveFile = getSaveFile();
+        Object game;
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(saveFile))) {
+            game = ois.readObject();
+        }
+        LOAD_TIME.recordSince(started);
+        if (event.shouldCommit()) {
+            event.file = saveFile.getPath();
+            event.bytes = saveFile.length();
+            event.commit();
+        }
+        return game;
     }
 
     public void deleteSaveGame() {
-        File saveFile = new File(getSaveFileName());
+        File saveFile = getSaveFile();
         if (saveFile.exists()) {
             if (saveFile.delete()) {
                 output.printlnGreen("Saved game deleted successfully.");
@@ -243,6 +362,41 @@ public abstract class GameInterface implements Serializable {
 
     protected abstract String getSaveFileName();
 
+    /**
+     * Sets where this game keeps its save file, e.g. one directory per player
+     * when several players share a server. Defaults to the working directory.
+     *
+     * @param saveDirectory The directory, or null for the working directory.
+     */
+    public void setSaveDirectory(File saveDirectory) {
+        this.saveDirectory = saveDirectory;
+    }
+
+    /**
+     * Sets the name of the player, under which results are recorded.
+     *
+     * @param playerName The name, or null for {@value #DEFAULT_PLAYER}.
+     */
+    public void setPlayerName(String playerName) {
+        this.playerName = playerName;
+    }
+
+    /**
+     * Gets the name of the player, under which results are recorded.
+     */
+    protected String getPlayerName() {
+        return playerName == null ? DEFAULT_PLAYER : playerName;
+    }
+
+    /**
+     * Gets the save file of this game.
+     *
+     * @return The save file.
+     */
+    protected File getSaveFile() {
+        return saveDirectory == null ? new File(getSaveFileName()) : new File(saveDirectory, getSaveFileName());
+    }
+
     protected abstract String getWelcomeMessage();
 
     public abstract void loadGame();
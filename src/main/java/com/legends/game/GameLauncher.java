@@ -1,84 +1,263 @@
 package com.legends.game;
 
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
 
+import com.legends.io.AsyncOutput;
 import com.legends.io.ConsoleInput;
 import com.legends.io.ConsoleOutput;
+import com.legends.io.Input;
+import com.legends.io.Output;
+import com.legends.profile.Leaderboard;
+import com.legends.profile.PlayerProfile;
+import com.legends.profile.ProfileStore;
+import com.legends.profile.Ranking;
 import com.legends.utils.audio.SoundManager;
 
 public class GameLauncher {
+    private static final int LEADERBOARD_SIZE = 10;
 
     public static void launch() {
+        launch(new ConsoleOutput());
+    }
+
+    /**
+     * Runs the game selection loop, reading from the console.
+     *
+     * @param output The output used by the selection screen and the games.
+     */
+    public static void launch(Output output) {
+        launch(new ConsoleInput(new Scanner(System.in), output), output);
+    }
+
+    /**
+     * Runs the game selection loop on the local console, then releases the
+     * sound system and closes the input and output. Results are recorded
+     * under the name of the user logged in.
+     *
+     * @param input  The input used by the selection screen and the games.
+     * @param output The output used by the selection screen and the games.
+     */
+    public static void launch(Input input, Output output) {
         // Initial loading (e.g. sounds)
         runWithLoading(() -> {
             SoundManager.getInstance();
         });
 
-        Scanner sc = new Scanner(System.in);
+        runSelection(input, output, null, System.getProperty("user.name", GameInterface.DEFAULT_PLAYER), true,
+                null);
+
+        // Cleanup sound resources
+        SoundManager.getInstance().cleanup();
+        if (output instanceof AsyncOutput) {
+            ((AsyncOutput) output).close();
+        }
+        if (input instanceof Closeable) {
+            try {
+                ((Closeable) input).close();
+            } catch (IOException e) {
+                // Nothing left to read
+            }
+        }
+    }
+
+    /**
+     * Runs the game selection loop until the player quits or input ends.
+     *
+     * @param input         The input used by the selection screen and the games.
+     * @param output        The output used by the selection screen and the games.
+     * @param saveDirectory The directory for save files, or null for the working directory.
+     * @param console       True when playing on the local console, which shows
+     *                      loading animations on standard output.
+     */
+    public static void runSelection(Input input, Output output, File saveDirectory, boolean console) {
+        runSelection(input, output, saveDirectory, null, console, null);
+    }
+
+    /**
+     * Runs the game selection loop until the player quits or input ends,
+     * offering games with other players if a lobby is given.
+     *
+     * @param input         The input used by the selection screen and the games.
+     * @param output        The output used by the selection screen and the games.
+     * @param saveDirectory The directory for save files, or null for the working directory.
+     * @param player        The name results are recorded under, or null for
+     *                      {@value GameInterface#DEFAULT_PLAYER}.
+     * @param console       True when playing on the local console, which shows
+     *                      loading animations on standard output.
+     * @param lobby         The lobby of online games, or null if there are none.
+     */
+    public static void runSelection(Input input, Output output, File saveDirectory, String player,
+            boolean console, OnlineLobby lobby) {
         boolean running = true;
 
         while (running) {
-            System.out.println("\n--- Game Selection Screen ---");
-            System.out.println("Choose a game:");
-            System.out.println("[1] Legends: Monsters and Heroes");
-            System.out.println("[2] Legends of Valor");
-            System.out.println("[3] Quit");
+            output.println("\n--- Game Selection Screen ---");
+            output.println("Choose a game:");
+            output.println("[1] Legends: Monsters and Heroes");
+            output.println("[2] Legends of Valor");
+            output.println("[3] Quit");
+            if (lobby != null) {
+                output.println("[4] Play online (matchmaking and co-op Legends of Valor)");
+            }
+            output.println("[L] Leaderboards");
 
             int choice = -1;
             try {
-                System.out.print("Enter choice: ");
-                String line = sc.nextLine();
+                output.print("Enter choice: ");
+                String line = Hibernation.readLine(input, null, Hibernation.Stage.SELECTION);
+                if (line.trim().equalsIgnoreCase("L")) {
+                    showLeaderboards(output, player == null ? GameInterface.DEFAULT_PLAYER : player);
+                    continue;
+                }
                 choice = Integer.parseInt(line.trim());
             } catch (NumberFormatException e) {
-                System.out.println("Invalid input.");
+                output.println("Invalid input.");
                 continue;
+            } catch (QuitGameException e) {
+                choice = 3;
+            } catch (NoSuchElementException e) {
+                choice = 3; // End of input
             }
 
             if (choice == 3) {
                 running = false;
-                System.out.println("Goodbye!");
+                output.println("Goodbye!");
+                output.flush();
                 continue;
             }
 
-            GameInterface game = createGame(choice, sc);
+            if (choice == 4 && lobby != null) {
+                running = play(output, () -> lobby.enter(input, output));
+                continue;
+            }
+
+            GameInterface game = createGame(choice, input, output);
 
             if (game == null) {
-                System.out.println("Invalid choice.");
+                output.println("Invalid choice.");
                 continue;
             }
+            game.setSaveDirectory(saveDirectory);
+            game.setPlayerName(player);
 
-            try {
-                // Game initialization loading
-                runWithLoading(() -> {
+            running = play(output, () -> {
+                Runnable initialization = () -> {
                     // Play game start sound
                     SoundManager.getInstance().playGameStartSound();
                     game.init();
-                });
+                };
+                if (console) {
+                    // Game initialization loading
+                    output.flush();
+                    runWithLoading(initialization);
+                } else {
+                    initialization.run();
+                }
                 
                 // Small delay to ensure audio system is stable
-                try { Thread.sleep(500); } catch (InterruptedException e) {}
+                if (!SoundManager.getInstance().isSilent()) {
+                    try { Thread.sleep(500); } catch (InterruptedException e) {}
+                }
 
                 game.start();
-            } catch (com.legends.game.QuitGameException e) {
-                System.out.println("\n" + e.getMessage());
-                System.out.println("Returning to Main Menu...");
-            } finally {
-                // Stop sounds asynchronously to avoid UI delay
-                new Thread(() -> SoundManager.getInstance().stopAllSounds()).start();
+            });
+        }
+    }
+
+    /**
+     * Picks up a session put away by a {@link Hibernation}: continues the game
+     * it was in, if any, then runs the game selection loop as usual.
+     *
+     * @param stage         Where the session was put away.
+     * @param game          The restored game, or null on the selection screen.
+     * @param input         The input used by the selection screen and the games.
+     * @param output        The output used by the selection screen and the games.
+     * @param saveDirectory The directory for save files, or null for the working directory.
+     * @param player        The name results are recorded under.
+     * @param lobby         The lobby of online games, or null if there are none.
+     */
+    public static void resume(Hibernation.Stage stage, GameInterface game, Input input, Output output,
+            File saveDirectory, String player, OnlineLobby lobby) {
+        if (game != null && stage != Hibernation.Stage.SELECTION) {
+            game.attach(input, output);
+            game.setSaveDirectory(saveDirectory);
+            game.setPlayerName(player);
+            if (!play(output, () -> game.resume(stage == Hibernation.Stage.PLAYING))) {
+                return;
             }
         }
+        runSelection(input, output, saveDirectory, player, false, lobby);
+    }
 
-        // Cleanup sound resources
-        SoundManager.getInstance().cleanup();
-        sc.close();
+    /**
+     * Shows the best players of every leaderboard, and where the player stands.
+     */
+    private static void showLeaderboards(Output output, String player) {
+        ProfileStore store;
+        try {
+            store = ProfileStore.getDefault();
+        } catch (IOException e) {
+            output.printError("Cannot read the leaderboards: " + e.getMessage());
+            return;
+        }
+        for (Ranking ranking : Ranking.values()) {
+            output.println("\n--- " + ranking.getTitle() + " ---");
+            List<Leaderboard.Entry> top = store.getTop(ranking, LEADERBOARD_SIZE);
+            if (top.isEmpty()) {
+                output.println("Nobody yet!");
+            }
+            for (Leaderboard.Entry entry : top) {
+                output.println(String.format("%3d. %-20s %d %s", entry.getRank(), entry.getPlayer(),
+                        entry.getScore(), ranking.getUnit()));
+            }
+            int rank = store.getRank(ranking, player);
+            if (rank > LEADERBOARD_SIZE) {
+                output.println("You are ranked " + rank + " of " + store.getRanked(ranking) + ".");
+            }
+        }
+        PlayerProfile profile = store.getProfile(player);
+        if (profile == null) {
+            output.println("\n" + player + " has no recorded games yet.");
+        } else {
+            output.println("\n" + player + ": " + profile.getGames() + (profile.getGames() == 1 ? " game, " : " games, ") + profile.getWins() + " won, "
+                    + profile.getTotalGold() + " gold and " + profile.getTotalXp() + " XP earned.");
+        }
+    }
+
+    /**
+     * Plays a game until the player leaves it.
+     *
+     * @return False if input ended and the selection loop should end too.
+     */
+    private static boolean play(Output output, Runnable game) {
+        try {
+            game.run();
+            return true;
+        } catch (com.legends.game.QuitGameException e) {
+            output.println("\n" + e.getMessage());
+            output.println("Returning to Main Menu...");
+            return true;
+        } catch (NoSuchElementException e) {
+            // Input ended (e.g. a script or piped input ran out) - leave cleanly
+            return false;
+        } finally {
+            // Only signals the audio thread, so this never delays the UI
+            SoundManager.getInstance().stopAllSounds();
+            output.flush();
+        }
     }
 
-    private static GameInterface createGame(int choice, Scanner sc) {
+    private static GameInterface createGame(int choice, Input input, Output output) {
         switch (choice) {
             case 1:
-                return new GameMonstersAndHeroes(new ConsoleInput(sc), new ConsoleOutput());
+                return new GameMonstersAndHeroes(input, output);
             case 2:
-                return new GameValor(new ConsoleInput(sc), new ConsoleOutput());
+                return new GameValor(input, output);
             default:
                 return null;
         }
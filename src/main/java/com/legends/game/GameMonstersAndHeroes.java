@@ -13,8 +13,13 @@ import com.legends.io.Input;
 import com.legends.io.Output;
 import com.legends.market.DynamicMarket;
 import com.legends.market.Market;
+import com.legends.profile.MatchResult;
+import com.legends.utils.DataLoader;
+import com.legends.utils.jfr.GameEvents;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,10 +29,13 @@ import java.util.List;
  */
 public class GameMonstersAndHeroes extends RPGGame {
     private static final long serialVersionUID = 1L;
+    private static final String WORLD_FILE = "World.txt"; // Board layout in the data directory
     private Party party;
     private Board board;
     private String difficulty = "Normal";
+    private transient boolean difficultyPreset; // Chosen before the game, e.g. by matchmaking
     private RpgMonsterAI monsterAI;
+    private int movesMade; // Moves the party made, recorded as the game's progress
 
     /**
      * Constructs a new Game instance.
@@ -65,10 +73,24 @@ public class GameMonstersAndHeroes extends RPGGame {
         gameLoop();
     }
 
+    /**
+     * Sets the difficulty of new games, which are then started without asking for it.
+     *
+     * @param difficulty "Normal" or "Hard".
+     */
+    public void setDifficulty(String difficulty) {
+        this.difficulty = difficulty;
+        this.difficultyPreset = true;
+    }
+
     /**
      * Prompts the user to select the game difficulty.
      */
     private void selectDifficulty() {
+        if (difficultyPreset) {
+            output.println("Difficulty: " + difficulty + ".");
+            return;
+        }
         output.println("\nSelect Difficulty:");
         output.println("1. Normal (Standard gameplay, Game Over on defeat)");
         output.println("2. Hard (Stronger monsters, Continue on defeat with rewards)");
@@ -89,6 +111,7 @@ public class GameMonstersAndHeroes extends RPGGame {
     protected void resetGame() {
         party = new Party();
         board = null;
+        movesMade = 0;
         init();
     }
 
@@ -132,9 +155,24 @@ public class GameMonstersAndHeroes extends RPGGame {
 
     /**
      * The main game loop.
-     * Handles player input for movement and menu access.
+     * Plays the game and records the result when it ends, whether the party
+     * was defeated or the player quit, also from a battle or a market.
      */
     protected void gameLoop() {
+        try {
+            playUntilOver();
+        } catch (QuitGameException e) {
+            recordEnding();
+            throw e;
+        }
+        recordEnding();
+    }
+
+    /**
+     * Handles player input for movement and menu access until the party is
+     * defeated or the player quits at the move prompt.
+     */
+    private void playUntilOver() {
         gameRunning = true;
         while (gameRunning) {
             if (board != null)
@@ -143,7 +181,7 @@ public class GameMonstersAndHeroes extends RPGGame {
             output.print("Enter move (W/A/S/D), I for Info, H for Hero Menu, M for Market, K to Save, or Q to quit: ");
             String dir = "";
             try {
-                dir = input.readLine().toUpperCase();
+                dir = Hibernation.readCommand(input, this, Hibernation.Stage.PLAYING).toUpperCase();
             } catch (QuitGameException e) {
                 dir = "Q";
             }
@@ -174,12 +212,35 @@ public class GameMonstersAndHeroes extends RPGGame {
         }
     }
 
+    /**
+     * Records the result of a game that ended, with the moves the party made.
+     */
+    private void recordEnding() {
+        recordResult(getPlayerName(), MatchResult.Game.MONSTERS_AND_HEROES, false, movesMade, party.getHeroes());
+    }
+
     /**
      * Processes a movement command.
      *
      * @param dir The direction to move (W/A/S/D).
      */
     private void processMove(String dir) {
+        GameEvents.HeroAction event = new GameEvents.HeroAction();
+        event.begin();
+        moveParty(dir);
+        if (event.shouldCommit()) {
+            event.game = "Monsters and Heroes";
+            event.hero = party.getLeader().getName();
+            event.action = "Move " + dir;
+            event.tookTurn = true;
+            event.commit();
+        }
+    }
+
+    /**
+     * Moves the party, and starts a battle if it runs into monsters.
+     */
+    private void moveParty(String dir) {
         Hero partyLeader = party.getLeader();
         int newX = partyLeader.getX();
         int newY = partyLeader.getY();
@@ -201,6 +262,7 @@ public class GameMonstersAndHeroes extends RPGGame {
 
         if (board.moveEntity(partyLeader.getX(), partyLeader.getY(), newX, newY, output)) {
             party.setLocation(newX, newY);
+            movesMade++;
             SoundManager.getInstance().playMoveSound();
             styledOutput.printMove("Hero Party", newX, newY);
 
@@ -223,6 +285,8 @@ public class GameMonstersAndHeroes extends RPGGame {
         if (!(tile instanceof MarketTile))
             return;
         Market market = ((MarketTile) tile).getMarket();
+        GameEvents.MarketVisit event = new GameEvents.MarketVisit();
+        event.begin();
 
         styledOutput.printMarketBanner();
         SoundManager.getInstance().playMarketSound();
@@ -249,6 +313,11 @@ public class GameMonstersAndHeroes extends RPGGame {
                 output.println("Invalid option.");
             }
         }
+        if (event.shouldCommit()) {
+            event.game = "Monsters and Heroes";
+            event.hero = leader.getName();
+            event.commit();
+        }
     }
 
     private void showHeroStatsMenu() {
@@ -379,7 +448,8 @@ public class GameMonstersAndHeroes extends RPGGame {
 
         output.println("\n--- World Configuration ---");
 
-        while (size < MIN_SIZE || size > MAX_SIZE) {
+        this.board = loadWorld();
+        while (board == null && (size < MIN_SIZE || size > MAX_SIZE)) {
             output.print("Enter world size (" + MIN_SIZE + "-" + MAX_SIZE + "): ");
             try {
                 String in = input.readLine();
@@ -392,11 +462,13 @@ public class GameMonstersAndHeroes extends RPGGame {
             }
         }
 
-        this.board = new Board(size, size);
+        if (board == null) {
+            this.board = new Board(size, size);
+        }
 
         // Initialize markets
-        for (int y = 0; y < size; y++) {
-            for (int x = 0; x < size; x++) {
+        for (int y = 0; y < board.getHeight(); y++) {
+            for (int x = 0; x < board.getWidth(); x++) {
                 Tile t = board.getTileAt(x, y);
                 if (t instanceof MarketTile) {
                     ((MarketTile) t).setMarket(new DynamicMarket(items));
@@ -405,6 +477,33 @@ public class GameMonstersAndHeroes extends RPGGame {
         }
     }
 
+    /**
+     * Loads the world from the layout file in the data directory, e.g. one
+     * written by {@link com.legends.utils.ContentGenerator}.
+     *
+     * @return The board, or null if there is no layout to load.
+     */
+    private Board loadWorld() {
+        Path directory = DataLoader.getDataDirectory();
+        Path file = directory == null ? null : directory.resolve(WORLD_FILE);
+        if (file == null || !Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            List<String> layout = DataLoader.loadBoardLayout(file);
+            if (layout.isEmpty()) {
+                output.println("World file " + file + " is empty.");
+                return null;
+            }
+            Board world = new Board(layout);
+            output.println("Loaded a " + world.getWidth() + "x" + world.getHeight() + " world from " + file + ".");
+            return world;
+        } catch (IOException e) {
+            output.println("Could not read world file " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Initializes the party by allowing the user to select heroes.
      */
@@ -469,6 +568,7 @@ public class GameMonstersAndHeroes extends RPGGame {
         // 50% chance of encounter
         if (rand.nextInt(100) < 50) {
             output.println("You have encountered monsters!");
+            refreshCatalogs();
 
             // Create monsters for battle
             List<Monster> battleMonsters = new ArrayList<>();
@@ -867,14 +967,14 @@ public class GameMonstersAndHeroes extends RPGGame {
      * Loads the game state from a file.
      */
     public void loadGame() {
-        File saveFile = new File(getSaveFileName());
+        File saveFile = getSaveFile();
         if (!saveFile.exists()) {
             output.printlnRed("No saved game found.");
             return;
         }
 
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(saveFile))) {
-            GameMonstersAndHeroes loadedGame = (GameMonstersAndHeroes) ois.readObject();
+        try {
+            GameMonstersAndHeroes loadedGame = (GameMonstersAndHeroes) readSaveFile();
             this.heroes = loadedGame.heroes;
             this.party = loadedGame.party;
             this.monsters = loadedGame.monsters;
@@ -885,6 +985,7 @@ public class GameMonstersAndHeroes extends RPGGame {
             this.dragonFactory = loadedGame.dragonFactory;
             this.exoskeletonFactory = loadedGame.exoskeletonFactory;
             this.monsterAI = loadedGame.monsterAI;
+            this.movesMade = loadedGame.movesMade;
 
             // Ensure factories and AI are initialized (handling old saves)
             if (this.spiritFactory == null) this.spiritFactory = new SpiritFactory();
@@ -912,6 +1013,7 @@ public class GameMonstersAndHeroes extends RPGGame {
      */
     private void displayFinalStats() {
         output.println("\n--- Final Statistics ---");
+        output.println("Moves made: " + movesMade);
         printHeroFinalStats(party.getHeroes());
     }
 }
@@ -1,24 +1,38 @@
 package com.legends.game;
 
+import com.legends.ai.HeroPolicy;
+import com.legends.ai.MctsMonsterAI;
+import com.legends.ai.MonsterAI;
+import com.legends.ai.MonsterAction;
+import com.legends.ai.RuleBasedHeroPolicy;
 import com.legends.ai.ValorMonsterAI;
+import com.legends.board.BoardSnapshot;
 import com.legends.board.ValorBoard;
 import com.legends.board.tiles.BushTile;
 import com.legends.board.tiles.CaveTile;
 import com.legends.board.tiles.KoulouTile;
 import com.legends.board.tiles.NexusTile;
-import com.legends.board.tiles.ObstacleTile;
 import com.legends.board.tiles.Tile;
 import com.legends.model.*;
+import com.legends.profile.MatchResult;
 import com.legends.ui.AsciiArt;
+import com.legends.utils.jfr.GameEvents;
+import com.legends.utils.metrics.Histogram;
+import com.legends.utils.metrics.Metrics;
 import com.legends.utils.audio.SoundManager;
+import com.legends.io.ConsoleOutput;
 import com.legends.io.Input;
+import com.legends.io.LineInput;
 import com.legends.io.Output;
+import com.legends.io.Verbosity;
 import com.legends.market.Market;
 import com.legends.market.StaticMarket;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Random;
 
 /**
@@ -28,13 +42,28 @@ import java.util.Random;
 public class GameValor extends RPGGame {
     private static final long serialVersionUID = 3L;
     private static final int MONSTER_SPAWN_INTERVAL = 8; // Spawn monsters every 8 rounds
+    private static final int HERO_COUNT = 3;
+    private static final HeroPolicy AUTO_ACT = new RuleBasedHeroPolicy();
+    private static final Histogram HEROES_TURN = Metrics.getDefault().histogram("valor.heroes_turn");
+    private static final Histogram MONSTERS_TURN = Metrics.getDefault().histogram("valor.monsters_turn");
+    private static final Histogram END_OF_ROUND = Metrics.getDefault().histogram("valor.end_of_round");
 
     private List<Hero> selectedHeroes;
     private List<Monster> activeMonsters;
     private ValorBoard board;
     private int roundNumber;
+    private int heroTurn; // Index of the hero whose turn it is
     // Shadowed fields removed to use parent's input/output
     private int monsterSpawnCounter = 0;
+    private String difficulty = "Normal";
+    private HeroPolicy[] heroPolicies = new HeroPolicy[HERO_COUNT]; // Null for heroes a player controls
+    private transient Speculator speculator;
+    private transient boolean resuming; // Pick up the current round at heroTurn
+    private transient CoopTable coop; // The players of a co-op game, null when played alone
+    private transient long turnMillis; // How long co-op players have for every turn
+    private transient GameEvents.Round roundEvent; // The round being played, for the flight recorder
+    private transient boolean unattended; // Played by policies alone, see playUnattended
+    private transient MatchResult unattendedResult; // How an unattended game ended
 
     /**
      * Constructs a new GameValor instance.
@@ -151,28 +180,134 @@ public class GameValor extends RPGGame {
      */
     protected void gameLoop() {
         gameRunning = true;
+        speculator = new Speculator();
+        try {
+            playRounds();
+        } finally {
+            speculator.discard();
+        }
+    }
 
-        while (gameRunning) {
-            roundNumber++;
-            styledOutput.printRoundStart(roundNumber);
+    /**
+     * Continues a hibernated game from the turn of the hero it stopped at.
+     */
+    @Override
+    protected void resumeGame() {
+        resuming = true;
+        gameLoop();
+    }
 
-            // Display board
-            board.printBoard(output);
+    /**
+     * Plays a cooperative game: every player at the table chooses and controls
+     * one hero, and heroes without a player are controlled by the computer.
+     * In every round all players give their hero's command at the same time,
+     * within the turn time; heroes whose player gave no usable command act on
+     * their own. The commands are then carried out in lane order, so everyone
+     * sees the same outcome whatever order they were typed in. Co-op games
+     * are not saved.
+     *
+     * @param table      The players.
+     * @param turnMillis How long the players have for every turn.
+     */
+    public void playCoop(CoopTable table, long turnMillis) {
+        this.coop = table;
+        this.turnMillis = turnMillis;
+        output.println(getWelcomeMessage());
+        output.println("Difficulty: " + difficulty + ".");
+        resetGame();
+        selectCoopHeroes();
+        assignHeroesToLanes();
+        spawnInitialMonsters();
+        gameLoop();
+    }
 
-            // Check victory conditions
-            if (checkVictory()) {
+    /**
+     * Sets the difficulty. On "Hard", monsters spawn stronger, as in Hard
+     * battles of Monsters and Heroes, and think ahead about their turns.
+     *
+     * @param difficulty "Normal" or "Hard".
+     */
+    public void setDifficulty(String difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    /**
+     * Lets a policy play a hero instead of the player, from the hero's next turn.
+     *
+     * @param hero   The hero's place in the party, which is also its lane (0-2).
+     * @param policy The policy, or null to give the hero back to the player.
+     */
+    public void setHeroPolicy(int hero, HeroPolicy policy) {
+        if (heroPolicies == null) {
+            heroPolicies = new HeroPolicy[HERO_COUNT]; // Saved before policies existed
+        }
+        heroPolicies[hero] = policy;
+    }
+
+    private HeroPolicy getHeroPolicy(int hero) {
+        return heroPolicies != null && hero >= 0 && hero < heroPolicies.length ? heroPolicies[hero] : null;
+    }
+
+    /**
+     * Plays a whole game without a player, e.g. for simulations and soak
+     * tests: the first heroes are chosen and a policy plays all of them.
+     * Input is not read; unattended games are not saved, and their result is
+     * returned instead of recorded in a profile.
+     *
+     * @param policy The policy playing every hero.
+     * @return How the game ended, or null if it ended without a winner.
+     */
+    public MatchResult playUnattended(HeroPolicy policy) {
+        for (int i = 0; i < HERO_COUNT; i++) {
+            setHeroPolicy(i, policy);
+        }
+        unattended = true;
+        unattendedResult = null;
+        resetGame();
+        selectedHeroes = new ArrayList<>(heroes.subList(0, Math.min(HERO_COUNT, heroes.size())));
+        assignHeroesToLanes();
+        spawnInitialMonsters();
+        gameLoop();
+        return unattendedResult;
+    }
+
+    private void playRounds() {
+        while (gameRunning) {
+            if (coop != null && coop.isEmpty()) {
+                // Everyone has left; nobody to play for
                 break;
             }
-
-            // Spawn new monsters every N rounds
-            if (roundNumber % MONSTER_SPAWN_INTERVAL == 0) {
-                spawnMonsters();
-                output.println("New monsters have appeared!");
+            if (resuming) {
+                resuming = false;
                 board.printBoard(output);
+            } else {
+                endRoundEvent();
+                roundNumber++;
+                heroTurn = 0;
+                roundEvent = new GameEvents.Round();
+                roundEvent.begin();
+                styledOutput.printRoundStart(roundNumber);
+
+                // Display board
+                board.printBoard(output);
+
+                // Check victory conditions
+                if (checkVictory()) {
+                    break;
+                }
+
+                // Spawn new monsters every N rounds
+                if (roundNumber % MONSTER_SPAWN_INTERVAL == 0) {
+                    spawnMonsters();
+                    output.println(Verbosity.NORMAL, "New monsters have appeared!");
+                    board.printBoard(output);
+                }
             }
 
             // Heroes' turn
+            long started = System.nanoTime();
             heroesTurn();
+            HEROES_TURN.recordSince(started);
 
             if (!gameRunning)
                 break;
@@ -183,7 +318,9 @@ public class GameValor extends RPGGame {
             }
 
             // Monsters' turn
+            started = System.nanoTime();
             monstersTurn();
+            MONSTERS_TURN.recordSince(started);
 
             // Check victory after monsters move
             if (checkVictory()) {
@@ -191,7 +328,24 @@ public class GameValor extends RPGGame {
             }
 
             // End of round effects
+            started = System.nanoTime();
             endOfRoundEffects();
+            END_OF_ROUND.recordSince(started);
+        }
+        endRoundEvent();
+    }
+
+    /**
+     * Records the round that was played, if the flight recorder wants it.
+     */
+    private void endRoundEvent() {
+        GameEvents.Round event = roundEvent;
+        roundEvent = null;
+        if (event != null && event.shouldCommit()) {
+            event.round = roundNumber;
+            event.heroes = board.getHeroes().size();
+            event.monsters = board.getMonsters().size();
+            event.commit();
         }
     }
 
@@ -199,91 +353,34 @@ public class GameValor extends RPGGame {
      * Handles the heroes' turn.
      */
     private void heroesTurn() {
-        output.println("\n--- HEROES' TURN ---");
+        output.println(Verbosity.NORMAL, "\n--- HEROES' TURN ---");
+        if (coop != null) {
+            coopHeroesTurn();
+            return;
+        }
 
-        for (Hero hero : selectedHeroes) {
+        for (; heroTurn < selectedHeroes.size(); heroTurn++) {
+            Hero hero = selectedHeroes.get(heroTurn);
             if (!gameRunning)
                 break;
             if (!hero.isAlive()) {
                 continue;
             }
 
-            boolean actionTaken = false;
-            while (!actionTaken && gameRunning) {
-                output.println("\n" + hero.getName() + "'s turn (Lane " + hero.getLane() +
-                        ", Position: " + hero.getX() + "," + hero.getY() + ")");
-
-                String hpBar = com.legends.io.ConsoleOutput.createProgressBar(hero.getHp(), hero.getLevel() * 100,
-                        com.legends.io.ConsoleOutput.ANSI_RED);
-                String manaBar = com.legends.io.ConsoleOutput.createProgressBar(hero.getMana(), hero.getMaxMana(),
-                        com.legends.io.ConsoleOutput.ANSI_BLUE);
-                output.println("HP: " + hpBar + " | MP: " + manaBar + " | Gold: " + hero.getMoney());
-
-                output.println(
-                        "Actions: W/A/S/D=Move | T=Teleport | R=Recall | 1=Attack | 2=Spell | 3=Potion | 4=Equipment | 5=Destroy Obstacle | M=Market | I=Info | K=Save | Q=Quit");
-                output.print("Choose action: ");
-
-                String action = "";
-                try {
-                    action = input.readLine().toUpperCase();
-                } catch (QuitGameException e) {
-                    action = "Q";
-                }
-
-                switch (action) {
-                    case "W":
-                    case "A":
-                    case "S":
-                    case "D":
-                        actionTaken = handleHeroMove(hero, action);
-                        break;
-                    case "T":
-                        actionTaken = handleTeleport(hero);
-                        break;
-                    case "R":
-                        actionTaken = handleRecall(hero);
-                        break;
-                    case "1":
-                        actionTaken = handleHeroAttack(hero);
-                        break;
-                    case "2":
-                        actionTaken = handleHeroCastSpell(hero);
-                        break;
-                    case "3":
-                        actionTaken = handlePotionUse(hero);
-                        break;
-                    case "4":
-                        actionTaken = handleHeroChangeEquipment(hero);
-                        break;
-                    case "5":
-                        actionTaken = handleDestroyObstacle(hero);
-                        break;
-                    case "M":
-                        handleMarket(hero);
-                        // Market doesn't consume a turn
-                        break;
-                    case "I":
-                        showInfoMenu();
-                        // Info doesn't consume a turn
-                        break;
-                    case "K":
-                        saveGame();
-                        // Save doesn't consume a turn
-                        break;
-                    case "Q":
-                        if (confirmQuit()) {
-                            gameRunning = false;
-                            actionTaken = true;
-                        }
-                        break;
-                    default:
-                        output.println("Invalid action.");
-                }
+            HeroPolicy policy = getHeroPolicy(heroTurn);
+            if (policy != null) {
+                playPolicyTurn(hero, policy);
+            } else {
+                playerTurn(hero);
             }
 
             // Print board after each hero's turn for better visualization
             if (gameRunning) {
                 board.printBoard(output);
+                // Work out the monsters' turn while the next player decides
+                if (isPlayerNext()) {
+                    speculator.speculate(board);
+                }
             }
 
             // Check for victory immediately after each hero's turn
@@ -293,6 +390,293 @@ public class GameValor extends RPGGame {
         }
     }
 
+    /**
+     * Checks if the next hero to act this round is played by a player rather
+     * than a policy, i.e. if there is time to work ahead while they think.
+     */
+    private boolean isPlayerNext() {
+        for (int i = heroTurn + 1; i < selectedHeroes.size(); i++) {
+            if (selectedHeroes.get(i).isAlive()) {
+                return getHeroPolicy(i) == null;
+            }
+        }
+        return false; // The monsters are next
+    }
+
+    /**
+     * Asks the player for a hero's actions until one uses up the turn, or the game is quit.
+     */
+    private void playerTurn(Hero hero) {
+        boolean actionTaken = false;
+        while (!actionTaken && gameRunning) {
+            output.println("\n" + hero.getName() + "'s turn (Lane " + hero.getLane() +
+                    ", Position: " + hero.getX() + "," + hero.getY() + ")");
+
+            output.println(Verbosity.NORMAL, () -> {
+                StringBuilder status = new StringBuilder(96).append("HP: ");
+                ConsoleOutput.appendProgressBar(status, hero.getHp(), hero.getLevel() * 100,
+                        ConsoleOutput.ANSI_RED).append(" | MP: ");
+                ConsoleOutput.appendProgressBar(status, hero.getMana(), hero.getMaxMana(),
+                        ConsoleOutput.ANSI_BLUE).append(" | Gold: ").append(hero.getMoney());
+                return status;
+            });
+
+            output.println(
+                    "Actions: W/A/S/D=Move | T=Teleport | R=Recall | 1=Attack | 2=Spell | 3=Potion | 4=Equipment | 5=Destroy Obstacle | M=Market | I=Info | K=Save | Q=Quit");
+            output.print("Choose action: ");
+
+            String action = "";
+            try {
+                action = Hibernation.readCommand(input, this, Hibernation.Stage.PLAYING).toUpperCase();
+            } catch (QuitGameException e) {
+                action = "Q";
+            }
+
+            switch (action) {
+                case "K":
+                    saveGame();
+                    // Save doesn't consume a turn
+                    break;
+                case "Q":
+                    if (confirmQuit()) {
+                        gameRunning = false;
+                        actionTaken = true;
+                    }
+                    break;
+                default:
+                    actionTaken = performAction(hero, action);
+            }
+        }
+    }
+
+    /**
+     * Plays a hero's turn as its policy decides.
+     */
+    private void playPolicyTurn(Hero hero, HeroPolicy policy) {
+        String turn = policy.chooseTurn(hero, board);
+        if (turn == null || !playCommand(hero, turn)) {
+            output.println(Verbosity.NORMAL, () -> hero.getName() + " holds their position.");
+        }
+    }
+
+    /**
+     * Carries out an action of a hero.
+     *
+     * @param hero   The hero.
+     * @param action The action key, in upper case.
+     * @return True if the action used up the hero's turn.
+     */
+    private boolean performAction(Hero hero, String action) {
+        GameEvents.HeroAction event = new GameEvents.HeroAction();
+        event.begin();
+        boolean tookTurn = carryOutAction(hero, action);
+        if (event.shouldCommit()) {
+            event.game = "Legends of Valor";
+            event.hero = hero.getName();
+            event.action = describeAction(action);
+            event.tookTurn = tookTurn;
+            event.commit();
+        }
+        return tookTurn;
+    }
+
+    private static String describeAction(String action) {
+        switch (action) {
+            case "W":
+            case "A":
+            case "S":
+            case "D":
+                return "Move " + action;
+            case "T":
+                return "Teleport";
+            case "R":
+                return "Recall";
+            case "1":
+                return "Attack";
+            case "2":
+                return "Spell";
+            case "3":
+                return "Potion";
+            case "4":
+                return "Equipment";
+            case "5":
+                return "Destroy Obstacle";
+            case "M":
+                return "Market";
+            case "I":
+                return "Info";
+            default:
+                return "Invalid";
+        }
+    }
+
+    private boolean carryOutAction(Hero hero, String action) {
+        switch (action) {
+            case "W":
+            case "A":
+            case "S":
+            case "D":
+                return handleHeroMove(hero, action);
+            case "T":
+                return handleTeleport(hero);
+            case "R":
+                return handleRecall(hero);
+            case "1":
+                return handleHeroAttack(hero);
+            case "2":
+                return handleHeroCastSpell(hero);
+            case "3":
+                return handlePotionUse(hero);
+            case "4":
+                return handleHeroChangeEquipment(hero);
+            case "5":
+                return handleDestroyObstacle(hero);
+            case "M":
+                handleMarket(hero);
+                // Market doesn't consume a turn
+                return false;
+            case "I":
+                showInfoMenu();
+                // Info doesn't consume a turn
+                return false;
+            default:
+                output.println("Invalid action.");
+                return false;
+        }
+    }
+
+    /**
+     * Handles the heroes' turn of a co-op game: collects every player's
+     * command at once, then carries them out hero by hero.
+     */
+    private void coopHeroesTurn() {
+        String[] prompts = new String[coop.getSeats()];
+        for (int seat = 0; seat < prompts.length && seat < selectedHeroes.size(); seat++) {
+            Hero hero = selectedHeroes.get(seat);
+            if (hero.isAlive()) {
+                prompts[seat] = coopTurnPrompt(hero);
+            }
+        }
+        String[] commands = coop.ask(prompts, turnMillis);
+
+        // Always in lane order, so the outcome does not depend on who typed first
+        for (heroTurn = 0; heroTurn < selectedHeroes.size() && gameRunning; heroTurn++) {
+            Hero hero = selectedHeroes.get(heroTurn);
+            if (!hero.isAlive()) {
+                continue;
+            }
+            String command = heroTurn < commands.length ? commands[heroTurn] : null;
+            if (command != null) {
+                output.println("\n" + hero.getName() + " (" + coop.getPlayerName(heroTurn) + "):");
+            } else {
+                output.println("\n" + hero.getName() + ":");
+            }
+            if (command == null || !playCommand(hero, command)) {
+                autoAct(hero);
+            }
+            if (checkVictory()) {
+                break;
+            }
+        }
+        if (gameRunning) {
+            board.printBoard(output);
+        }
+    }
+
+    private String coopTurnPrompt(Hero hero) {
+        StringBuilder prompt = new StringBuilder(256)
+                .append("\nYour turn: ").append(hero.getName())
+                .append(" (Lane ").append(hero.getLane())
+                .append(", Position: ").append(hero.getX()).append(',').append(hero.getY()).append(")\nHP: ");
+        ConsoleOutput.appendProgressBar(prompt, hero.getHp(), hero.getLevel() * 100, ConsoleOutput.ANSI_RED)
+                .append(" | MP: ");
+        ConsoleOutput.appendProgressBar(prompt, hero.getMana(), hero.getMaxMana(), ConsoleOutput.ANSI_BLUE)
+                .append(" | Gold: ").append(hero.getMoney())
+                .append("\nActions: W/A/S/D=Move | T=Teleport | R=Recall | 1=Attack | 2=Spell | 3=Potion"
+                        + " | 4=Equipment | 5=Destroy Obstacle | M=Market | I=Info")
+                .append("\nType your whole turn on one line, e.g. 1;2 to attack the second monster in range.")
+                .append("\nChoose action (").append((turnMillis + 999) / 1000).append("s): ");
+        return prompt.toString();
+    }
+
+    /**
+     * Plays a co-op player's command line for a hero. Questions that follow
+     * the first command (e.g. which monster to attack) are answered by the
+     * commands typed after it; if they run out, the action is abandoned.
+     *
+     * @return True if the hero acted.
+     */
+    private boolean playCommand(Hero hero, String command) {
+        Input previous = input;
+        input = new LineInput(command, output);
+        try {
+            while (true) {
+                if (performAction(hero, input.readLine().toUpperCase())) {
+                    return true;
+                }
+            }
+        } catch (NoSuchElementException e) {
+            return false;
+        } finally {
+            input = previous;
+        }
+    }
+
+    /**
+     * Plays the turn of a co-op hero nobody gave a usable command for, with
+     * the hero's policy or else {@link RuleBasedHeroPolicy}.
+     */
+    private void autoAct(Hero hero) {
+        output.println(Verbosity.NORMAL, () -> hero.getName() + " acts on their own.");
+        HeroPolicy policy = getHeroPolicy(selectedHeroes.indexOf(hero));
+        playPolicyTurn(hero, policy != null ? policy : AUTO_ACT);
+    }
+
+    /**
+     * Lets every co-op player choose a hero at once. Choices are taken in seat
+     * order; a missing, invalid or already taken choice gets the first free
+     * hero, as do the heroes nobody plays.
+     */
+    private void selectCoopHeroes() {
+        List<Hero> pool = new ArrayList<>(heroes);
+        StringBuilder list = new StringBuilder("\n--- Choose your Hero ---\n");
+        for (int i = 0; i < pool.size(); i++) {
+            list.append(i + 1).append(". ").append(describeForSelection(pool.get(i))).append('\n');
+        }
+        list.append("Enter choice (").append((turnMillis + 999) / 1000).append("s): ");
+        String[] prompts = new String[coop.getSeats()];
+        Arrays.fill(prompts, list.toString());
+        String[] answers = coop.ask(prompts, turnMillis);
+
+        boolean[] taken = new boolean[pool.size()];
+        selectedHeroes = new ArrayList<>();
+        for (int seat = 0; seat < HERO_COUNT && seat < pool.size(); seat++) {
+            int choice = -1;
+            if (seat < answers.length && answers[seat] != null) {
+                try {
+                    choice = Integer.parseInt(answers[seat].trim()) - 1;
+                } catch (NumberFormatException e) {
+                    // Gets a free hero instead
+                }
+            }
+            if (choice < 0 || choice >= pool.size() || taken[choice]) {
+                choice = 0;
+                while (taken[choice]) {
+                    choice++;
+                }
+            }
+            taken[choice] = true;
+            Hero hero = pool.get(choice);
+            selectedHeroes.add(hero);
+            if (seat < coop.getSeats()) {
+                output.println(coop.getPlayerName(seat) + " plays " + hero.getName() + ".");
+            } else {
+                output.println(hero.getName() + " joins the party, controlled by the computer.");
+            }
+        }
+        output.printlnGreen("Heroes selected!");
+    }
+
     /**
      * Handles hero movement.
      */
@@ -335,13 +719,11 @@ public class GameValor extends RPGGame {
      */
     private boolean handleTeleport(Hero hero) {
         output.println("\nSelect hero to teleport to:");
-        List<Hero> otherHeroes = new ArrayList<>();
-        for (Hero h : selectedHeroes) {
-            if (h != hero && h.isAlive() && h.getLane() != hero.getLane()) {
-                otherHeroes.add(h);
-                output.println((otherHeroes.size()) + ". " + h.getName() +
-                        " (Lane " + h.getLane() + ", Position: " + h.getX() + "," + h.getY() + ")");
-            }
+        List<Hero> otherHeroes = board.getTeleportTargets(hero);
+        for (int i = 0; i < otherHeroes.size(); i++) {
+            Hero h = otherHeroes.get(i);
+            output.println((i + 1) + ". " + h.getName() +
+                    " (Lane " + h.getLane() + ", Position: " + h.getX() + "," + h.getY() + ")");
         }
 
         if (otherHeroes.isEmpty()) {
@@ -361,37 +743,8 @@ public class GameValor extends RPGGame {
 
             Hero target = otherHeroes.get(choice - 1);
 
-            // Find valid teleport positions (adjacent to target, same lane, no heroes, not
-            // in front)
-            int[][] offsets = { { 0, 1 }, { 0, -1 }, { 1, 0 }, { -1, 0 } };
-            List<int[]> validPositions = new ArrayList<>();
-
-            for (int[] offset : offsets) {
-                int newX = target.getX() + offset[0];
-                int newY = target.getY() + offset[1];
-
-                if (board.getTileAt(newX, newY) != null &&
-                        board.getTileAt(newX, newY).isAccessible() &&
-                        !board.hasHeroAt(newX, newY) &&
-                        board.getLane(newX) == target.getLane()) {
-
-                    // Only allow teleport to same row, left, right, or behind target
-                    // Not in front of target (newY < target.getY())
-                    if (newY >= target.getY()) {
-                        // Check not behind monster
-                        boolean validPos = true;
-                        for (Monster m : board.getMonsters()) {
-                            if (m.isAlive() && m.getLane() == target.getLane() && m.getY() > newY) {
-                                validPos = false;
-                                break;
-                            }
-                        }
-                        if (validPos) {
-                            validPositions.add(new int[] { newX, newY });
-                        }
-                    }
-                }
-            }
+            // Adjacent to target, same lane, no heroes, not in front
+            List<int[]> validPositions = board.getTeleportPositions(target);
 
             if (validPositions.isEmpty()) {
                 output.println("No valid positions to teleport to!");
@@ -429,7 +782,7 @@ public class GameValor extends RPGGame {
 
             applyTerrainBonus(hero);
             SoundManager.getInstance().playTeleportSound();
-            output.printlnGreen(hero.getName() + " teleported to lane " + target.getLane() + "!");
+            output.printlnGreen(Verbosity.NORMAL, () -> hero.getName() + " teleported to lane " + target.getLane() + "!");
             return true;
 
         } catch (NumberFormatException e) {
@@ -452,7 +805,7 @@ public class GameValor extends RPGGame {
 
         SoundManager.getInstance().playRecallSound();
 
-        output.printlnGreen(hero.getName() + " recalled to their Nexus!");
+        output.printlnGreen(Verbosity.NORMAL, () -> hero.getName() + " recalled to their Nexus!");
         return true;
     }
 
@@ -460,7 +813,7 @@ public class GameValor extends RPGGame {
      * Handles hero attack action.
      */
     private boolean handleHeroAttack(Hero hero) {
-        List<Monster> monstersInRange = getMonstersInRange(hero);
+        List<Monster> monstersInRange = board.getMonstersInRange(hero);
 
         if (monstersInRange.isEmpty()) {
             output.println("No monsters in range!");
@@ -470,7 +823,8 @@ public class GameValor extends RPGGame {
         Monster target = null;
         if (monstersInRange.size() == 1) {
             target = monstersInRange.get(0);
-            output.println("Attacking " + target.getName() + " (HP: " + target.getHp() + ")");
+            Monster only = target;
+            output.println(Verbosity.NORMAL, () -> "Attacking " + only.getName() + " (HP: " + only.getHp() + ")");
         } else {
             output.println("\nSelect monster to attack:");
             for (int i = 0; i < monstersInRange.size(); i++) {
@@ -548,7 +902,7 @@ public class GameValor extends RPGGame {
                 return false;
             }
 
-            List<Monster> monstersInRange = getMonstersInRange(hero);
+            List<Monster> monstersInRange = board.getMonstersInRange(hero);
             if (monstersInRange.isEmpty()) {
                 output.println("No monsters in range!");
                 return false;
@@ -557,7 +911,8 @@ public class GameValor extends RPGGame {
             Monster target = null;
             if (monstersInRange.size() == 1) {
                 target = monstersInRange.get(0);
-                output.println("Casting on " + target.getName() + " (HP: " + target.getHp() + ")");
+                Monster only = target;
+                output.println(Verbosity.NORMAL, () -> "Casting on " + only.getName() + " (HP: " + only.getHp() + ")");
             } else {
                 output.println("\nSelect target:");
                 for (int i = 0; i < monstersInRange.size(); i++) {
@@ -727,20 +1082,11 @@ public class GameValor extends RPGGame {
      * Handles destroying an obstacle.
      */
     private boolean handleDestroyObstacle(Hero hero) {
-        int[][] neighbors = { { 0, 1 }, { 0, -1 }, { 1, 0 }, { -1, 0 } };
-        String[] directions = { "South", "North", "East", "West" };
-        List<int[]> obstacles = new ArrayList<>();
+        List<int[]> obstacles = board.getObstaclesAround(hero.getX(), hero.getY());
         List<String> obstacleDirections = new ArrayList<>();
-
-        for (int i = 0; i < neighbors.length; i++) {
-            int[] offset = neighbors[i];
-            int checkX = hero.getX() + offset[0];
-            int checkY = hero.getY() + offset[1];
-            Tile tile = board.getTileAt(checkX, checkY);
-            if (tile instanceof ObstacleTile) {
-                obstacles.add(new int[] { checkX, checkY });
-                obstacleDirections.add(directions[i]);
-            }
+        for (int[] obstacle : obstacles) {
+            obstacleDirections.add(obstacle[1] > hero.getY() ? "South"
+                    : obstacle[1] < hero.getY() ? "North" : obstacle[0] > hero.getX() ? "East" : "West");
         }
 
         if (obstacles.isEmpty()) {
@@ -797,6 +1143,8 @@ public class GameValor extends RPGGame {
             return;
         }
         Market market = ((NexusTile) tile).getMarket();
+        GameEvents.MarketVisit event = new GameEvents.MarketVisit();
+        event.begin();
 
         styledOutput.printMarketBanner();
         SoundManager.getInstance().playMarketSound();
@@ -828,16 +1176,42 @@ public class GameValor extends RPGGame {
                     output.println("Invalid option.");
             }
         }
+        if (event.shouldCommit()) {
+            event.game = "Legends of Valor";
+            event.hero = hero.getName();
+            event.commit();
+        }
     }
 
     /**
      * Handles the monsters' turn.
      */
     private void monstersTurn() {
-        output.println("\n--- MONSTERS' TURN ---");
-
-        for (Monster monster : new ArrayList<>(board.getMonsters())) {
-            monster.takeTurn(board, styledOutput);
+        GameEvents.MonsterTurn event = new GameEvents.MonsterTurn();
+        event.begin();
+        output.println(Verbosity.NORMAL, "\n--- MONSTERS' TURN ---");
+
+        // Plan first, from the board as it is, then act one monster at a time
+        speculator.collect(board);
+        MonsterPlan plan = speculator.takePlan(board);
+        if (plan == null) {
+            plan = new MonsterPlan(BoardSnapshot.of(board));
+            plan.plan();
+        }
+        List<Monster> turnOrder = new ArrayList<>(board.getMonsters());
+        for (int i = 0; i < turnOrder.size(); i++) {
+            Monster monster = turnOrder.get(i);
+            MonsterAction action = plan.actionFor(i, monster, board);
+            if (action != null) {
+                monster.performTurn(action, board, styledOutput);
+            } else {
+                monster.takeTurn(board, styledOutput);
+            }
+        }
+        if (event.shouldCommit()) {
+            event.heroes = board.getHeroes().size();
+            event.monsters = board.getMonsters().size();
+            event.commit();
         }
     }
 
@@ -863,7 +1237,7 @@ public class GameValor extends RPGGame {
                         nexusCol++;
                     } else {
                         // Both Nexus tiles are occupied; cannot respawn this round
-                        output.printlnRed(hero.getName() + " could not respawn because the Nexus is blocked!");
+                        output.printlnRed(Verbosity.NORMAL, () -> hero.getName() + " could not respawn because the Nexus is blocked!");
                         continue;
                     }
                 }
@@ -873,7 +1247,7 @@ public class GameValor extends RPGGame {
                 hero.setMana(hero.getMana());
                 board.placeHero(hero, nexusCol, nexusRow);
                 SoundManager.getInstance().playRecallSound();
-                output.printlnGreen(hero.getName() + " respawned at their Nexus!");
+                output.printlnGreen(Verbosity.NORMAL, () -> hero.getName() + " respawned at their Nexus!");
             }
         }
     }
@@ -914,6 +1288,7 @@ public class GameValor extends RPGGame {
      * Spawns 3 new monsters (one per lane).
      */
     private void spawnMonsters() {
+        refreshCatalogs();
         int maxLevel = 1;
         for (Hero hero : selectedHeroes) {
             if (hero.getLevel() > maxLevel) {
@@ -937,18 +1312,25 @@ public class GameValor extends RPGGame {
                 if (template instanceof Spirit) {
                     newMonster = spiritFactory.createMonster(template.getName(), template.getLevel(),
                             template.getDamage(), template.getDefense(),
-                            template.getDodgeChance(), new ValorMonsterAI());
+                            template.getDodgeChance(), newMonsterAI());
                 } else if (template instanceof Dragon) {
                     newMonster = dragonFactory.createMonster(template.getName(), template.getLevel(),
                             template.getDamage(), template.getDefense(),
-                            template.getDodgeChance(), new ValorMonsterAI());
+                            template.getDodgeChance(), newMonsterAI());
                 } else if (template instanceof Exoskeleton) {
                     newMonster = exoskeletonFactory.createMonster(template.getName(), template.getLevel(),
                             template.getDamage(), template.getDefense(),
-                            template.getDodgeChance(), new ValorMonsterAI());
+                            template.getDodgeChance(), newMonsterAI());
                 }
 
                 if (newMonster != null) {
+                    if ("Hard".equals(difficulty)) {
+                        newMonster.setDamage((int) (newMonster.getDamage() * 1.2));
+                        newMonster.setDefense((int) (newMonster.getDefense() * 1.2));
+                        int hp = (int) (newMonster.getHp() * 1.2);
+                        newMonster.setHp(hp);
+                        newMonster.setMaxHp(hp);
+                    }
                     newMonster.setName(newMonster.getName() + " " + (++monsterSpawnCounter));
                     newMonster.setLane(lane);
 
@@ -962,14 +1344,17 @@ public class GameValor extends RPGGame {
                         if (!board.hasMonsterAt(altCol, spawnRow)) {
                             spawnCol = altCol;
                         } else {
-                            output.printlnRed("Cannot spawn monster in Lane " + lane + ": Nexus blocked!");
+                            int blockedLane = lane;
+                            output.printlnRed(Verbosity.NORMAL, () -> "Cannot spawn monster in Lane " + blockedLane + ": Nexus blocked!");
                             continue;
                         }
                     }
 
                     board.placeMonster(newMonster, spawnCol, spawnRow);
 
-                    output.printlnRed("Monster " + newMonster.getName() + " spawned in Lane " + lane + "!");
+                    Monster spawned = newMonster;
+                    int spawnLane = lane;
+                    output.printlnRed(Verbosity.NORMAL, () -> "Monster " + spawned.getName() + " spawned in Lane " + spawnLane + "!");
                 }
             }
         }
@@ -985,6 +1370,7 @@ public class GameValor extends RPGGame {
                 styledOutput.printVictory();
                 SoundManager.getInstance().playVictorySound();
                 displayFinalStats();
+                recordResults(true);
                 gameRunning = false;
                 return true;
             }
@@ -996,6 +1382,7 @@ public class GameValor extends RPGGame {
                 styledOutput.printDefeat();
                 SoundManager.getInstance().playDefeatSound();
                 displayFinalStats();
+                recordResults(false);
                 gameRunning = false;
                 return true;
             }
@@ -1004,6 +1391,14 @@ public class GameValor extends RPGGame {
         return false;
     }
 
+    /**
+     * Creates the strategy of a new monster for the difficulty: on "Hard"
+     * monsters search for their best move, otherwise they follow a fixed rule.
+     */
+    private MonsterAI newMonsterAI() {
+        return "Hard".equals(difficulty) ? new MctsMonsterAI() : new ValorMonsterAI();
+    }
+
     /**
      * Displays final game statistics.
      */
@@ -1014,40 +1409,30 @@ public class GameValor extends RPGGame {
     }
 
     /**
-     * Gets monsters within attack range of a hero.
+     * Records the result in the players' profiles: in a co-op game every
+     * player is credited with their own hero. An unattended game keeps its
+     * result for {@link #playUnattended} instead.
      */
-    private List<Monster> getMonstersInRange(Hero hero) {
-        List<Monster> inRange = new ArrayList<>();
-        // Include diagonal attacks
-        int[][] offsets = {
-                { 0, 0 }, // same space
-                { 0, 1 }, // down
-                { 0, -1 }, // up
-                { 1, 0 }, // right
-                { -1, 0 }, // left
-                { 1, 1 }, // diagonal down-right
-                { 1, -1 }, // diagonal up-right
-                { -1, 1 }, // diagonal down-left
-                { -1, -1 } // diagonal up-left
-        };
-
-        for (int[] offset : offsets) {
-            int checkX = hero.getX() + offset[0];
-            int checkY = hero.getY() + offset[1];
-            Monster m = board.getMonsterAt(checkX, checkY);
-            if (m != null && m.isAlive()) {
-                inRange.add(m);
-            }
+    private void recordResults(boolean won) {
+        if (unattended) {
+            unattendedResult = resultOf(getPlayerName(), MatchResult.Game.VALOR, won, roundNumber, selectedHeroes);
+            return;
+        }
+        if (coop == null) {
+            recordResult(getPlayerName(), MatchResult.Game.VALOR, won, roundNumber, selectedHeroes);
+            return;
+        }
+        for (int seat = 0; seat < coop.getSeats() && seat < selectedHeroes.size(); seat++) {
+            recordResult(coop.getPlayerName(seat), MatchResult.Game.VALOR, won, roundNumber,
+                    selectedHeroes.subList(seat, seat + 1));
         }
-
-        return inRange;
     }
 
     /**
      * Handles monster death, giving rewards to all heroes.
      */
     private void handleMonsterDeath(Monster monster, Hero killer) {
-        output.printlnGreen(monster.getName() + " has been defeated!");
+        output.printlnGreen(Verbosity.NORMAL, () -> monster.getName() + " has been defeated!");
 
         int goldReward = monster.getLevel() * 500;
         int xpReward = monster.getLevel() * 2;
@@ -1057,7 +1442,7 @@ public class GameValor extends RPGGame {
             hero.gainExperience(xpReward, styledOutput);
         }
 
-        output.println("All heroes gained " + goldReward + " gold and " + xpReward + " XP!");
+        output.println(Verbosity.NORMAL, () -> "All heroes gained " + goldReward + " gold and " + xpReward + " XP!");
         board.removeMonster(monster);
     }
 
@@ -1112,14 +1497,14 @@ public class GameValor extends RPGGame {
      * Loads a saved game.
      */
     public void loadGame() {
-        File saveFile = new File(getSaveFileName());
+        File saveFile = getSaveFile();
         if (!saveFile.exists()) {
             output.printlnRed("No saved game found.");
             return;
         }
 
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(saveFile))) {
-            GameValor loadedGame = (GameValor) ois.readObject();
+        try {
+            GameValor loadedGame = (GameValor) readSaveFile();
             this.selectedHeroes = loadedGame.selectedHeroes;
             this.board = loadedGame.board;
             this.roundNumber = loadedGame.roundNumber;
@@ -0,0 +1,100 @@
+package com.legends.game;
+
+import com.legends.io.Input;
+
+/**
+ * Lets a player's session be put away while the player is idle and picked up
+ * again later, possibly on another thread. Games read input through
+ * {@link #readLine} at the points they know how to resume from. If the
+ * session decides to hibernate during such a read, its input throws the
+ * point returned by {@link #current()}, which unwinds the game and tells the
+ * session what to keep: the stage the player was at and the game, if any.
+ * {@link GameLauncher#resume} picks the session up again from there.
+ */
+public final class Hibernation extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    private static final ThreadLocal<Hibernation> current = new ThreadLocal<>();
+
+    /**
+     * Where a session can be resumed from.
+     */
+    public enum Stage {
+        /** The game selection screen. */
+        SELECTION,
+        /** The main menu of a game. */
+        MAIN_MENU,
+        /** Playing a game, at the start of a turn. */
+        PLAYING
+    }
+
+    private final transient GameInterface game;
+    private final Stage stage;
+
+    private Hibernation(GameInterface game, Stage stage) {
+        super("Session hibernated at " + stage, null, false, false);
+        this.game = game;
+        this.stage = stage;
+    }
+
+    /**
+     * Reads a line at a point the session can be resumed from.
+     *
+     * @param input The input to read from.
+     * @param game  The game being played, or null on the selection screen.
+     * @param stage Where the game is.
+     * @return The line read.
+     */
+    static String readLine(Input input, GameInterface game, Stage stage) {
+        return read(input, game, stage, false);
+    }
+
+    /**
+     * Reads a game action at a point the session can be resumed from; the
+     * player can type several commands ahead on the line.
+     *
+     * @param input The input to read from.
+     * @param game  The game being played.
+     * @param stage Where the game is.
+     * @return The command read.
+     */
+    static String readCommand(Input input, GameInterface game, Stage stage) {
+        return read(input, game, stage, true);
+    }
+
+    private static String read(Input input, GameInterface game, Stage stage, boolean command) {
+        Hibernation previous = current.get();
+        current.set(new Hibernation(game, stage));
+        try {
+            return command ? input.readCommand() : input.readLine();
+        } finally {
+            if (previous == null) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Gets the point the calling thread can hibernate at, for the input to throw.
+     *
+     * @return The point, or null if the thread is not reading at a point it
+     *         can be resumed from.
+     */
+    public static Hibernation current() {
+        return current.get();
+    }
+
+    /**
+     * Gets the game to keep.
+     *
+     * @return The game, or null on the selection screen.
+     */
+    public GameInterface getGame() {
+        return game;
+    }
+
+    public Stage getStage() {
+        return stage;
+    }
+}
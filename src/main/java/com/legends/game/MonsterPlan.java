@@ -0,0 +1,128 @@
+package com.legends.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.legends.ai.MonsterAI;
+import com.legends.ai.MonsterAction;
+import com.legends.board.BoardSnapshot;
+import com.legends.board.ValorBoard;
+import com.legends.model.Monster;
+
+/**
+ * The monsters' turn, planned from a snapshot of the board before any
+ * monster acts. Planning only reads the snapshot, so large waves are split
+ * into runs of monsters planned at the same time on every processor. The
+ * plans are then carried out one monster at a time in board order, and a
+ * plan is only used while its strategy says it still stands after the
+ * monsters before it have acted; otherwise the monster takes its turn on the
+ * board as usual. Clashes such as two monsters stepping onto one tile are
+ * settled there by the board's own rules, in board order, so the monsters
+ * do exactly what they would have done without planning.
+ */
+final class MonsterPlan {
+    private static final int MIN_RUN = 256; // Fewer monsters are planned faster than a thread wakes up
+    private static final int HELPERS = Runtime.getRuntime().availableProcessors() - 1;
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, HELPERS), task -> {
+        Thread thread = new Thread(task, "monster-planner-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final BoardSnapshot snapshot;
+    private final MonsterAI[] ais;
+    private final MonsterAction[] actions;
+
+    /**
+     * Prepares to plan the monsters' turn. Must be called on the thread that
+     * plays the game; {@link #plan} can then be called on any thread.
+     *
+     * @param snapshot The board before the monsters' turn.
+     */
+    MonsterPlan(BoardSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.ais = new MonsterAI[snapshot.getMonsterCount()];
+        for (int i = 0; i < ais.length; i++) {
+            ais[i] = snapshot.getMonster(i).getAI();
+        }
+        this.actions = new MonsterAction[ais.length];
+    }
+
+    BoardSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Plans the turn of every monster whose strategy is quick to plan, in
+     * parallel for large waves. Monsters whose strategy searches are left to
+     * take their turn on the board, where their search has every processor.
+     */
+    void plan() {
+        int runs = Math.min(HELPERS + 1, ais.length / MIN_RUN);
+        if (runs < 2) {
+            planRun(0, ais.length, actions);
+        } else {
+            int size = (ais.length + runs - 1) / runs;
+            List<Future<MonsterAction[]>> helpers = new ArrayList<>(runs - 1);
+            for (int from = size; from < ais.length; from += size) {
+                int start = from;
+                int end = Math.min(ais.length, from + size);
+                helpers.add(pool.submit(() -> planRun(start, end, new MonsterAction[end - start])));
+            }
+            planRun(0, size, actions);
+            for (int i = 0; i < helpers.size(); i++) {
+                try {
+                    MonsterAction[] run = helpers.get(i).get();
+                    System.arraycopy(run, 0, actions, size * (i + 1), run.length);
+                } catch (ExecutionException | CancellationException e) {
+                    // Those monsters take their turns unplanned
+                } catch (InterruptedException e) {
+                    for (Future<MonsterAction[]> helper : helpers) {
+                        helper.cancel(true);
+                    }
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Plans the quick monsters from one index to another.
+     *
+     * @param into Where to put the plans, from index 0 unless this is the first run.
+     */
+    private MonsterAction[] planRun(int from, int to, MonsterAction[] into) {
+        int offset = into == actions ? 0 : from;
+        for (int i = from; i < to; i++) {
+            if (ais[i] != null && ais[i].isQuickToPlan()) {
+                into[i - offset] = ais[i].planTurn(i, snapshot);
+            }
+        }
+        return into;
+    }
+
+    /**
+     * Gets a monster's planned action, if it still stands now that the
+     * monsters before it have acted.
+     *
+     * @param index   The position of the monster in the board's monster list
+     *                at the start of the monsters' turn.
+     * @param monster The monster.
+     * @param board   The board.
+     * @return The action, or null if the turn must be taken as usual.
+     */
+    MonsterAction actionFor(int index, Monster monster, ValorBoard board) {
+        if (index >= actions.length || actions[index] == null || snapshot.getMonster(index) != monster) {
+            return null;
+        }
+        return ais[index].isPlanCurrent(index, snapshot, board) ? actions[index] : null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.legends.game;
+
+import com.legends.io.Input;
+import com.legends.io.Output;
+
+/**
+ * Where players of a server find games and each other: matchmaking and
+ * cooperative Legends of Valor tables, offered on the game selection screen
+ * when available.
+ */
+public interface OnlineLobby {
+    /**
+     * Lets the player find a game and plays it.
+     * Returns when the player goes back to the game selection screen.
+     *
+     * @param input  The player's input.
+     * @param output The player's output.
+     */
+    void enter(Input input, Output output);
+}
@@ -1,8 +1,12 @@
 package com.legends.game;
 
+import java.io.IOException;
+
 import com.legends.io.Input;
 import com.legends.io.Output;
 import com.legends.model.*;
+import com.legends.profile.MatchResult;
+import com.legends.profile.ProfileStore;
 import com.legends.ui.StyledOutput;
 
 
@@ -26,6 +30,12 @@ public abstract class RPGGame extends GameInterface {
         this.exoskeletonFactory = new ExoskeletonFactory();
     }
 
+    @Override
+    public void attach(Input input, Output output) {
+        super.attach(input, output);
+        this.styledOutput = new StyledOutput(output);
+    }
+
     /**
      * Displays the final statistics for a list of heroes.
      *
@@ -40,6 +50,47 @@ public abstract class RPGGame extends GameInterface {
         }
     }
 
+    /**
+     * Records how a game ended in a player's profile, with the gold and
+     * experience the player's heroes earned.
+     *
+     * @param player The player.
+     * @param game   The game played.
+     * @param won    True if the player won.
+     * @param rounds The rounds played, or the moves made in Monsters and Heroes.
+     * @param heroes The player's heroes.
+     */
+    protected void recordResult(String player, MatchResult.Game game, boolean won, int rounds,
+            java.util.List<Hero> heroes) {
+        try {
+            ProfileStore.getDefault().record(resultOf(player, game, won, rounds, heroes));
+        } catch (IOException e) {
+            output.printError("Could not record the result: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Describes how a game ended, with the gold and experience the player's
+     * heroes earned, without recording it.
+     *
+     * @param player The player.
+     * @param game   The game played.
+     * @param won    True if the player won.
+     * @param rounds The rounds played, or the moves made in Monsters and Heroes.
+     * @param heroes The player's heroes.
+     * @return The result.
+     */
+    protected MatchResult resultOf(String player, MatchResult.Game game, boolean won, int rounds,
+            java.util.List<Hero> heroes) {
+        long gold = 0;
+        long xp = 0;
+        for (Hero hero : heroes) {
+            gold += hero.getTotalGoldEarned();
+            xp += hero.getTotalXpEarned();
+        }
+        return new MatchResult(player, game, won, rounds, gold, xp);
+    }
+
     /**
      * Allows the user to select heroes from a list.
      *
@@ -57,16 +108,7 @@ public abstract class RPGGame extends GameInterface {
         for (int i = 0; i < count; i++) {
             output.println("\nSelect Hero " + (i + 1) + ":");
             for (int j = 0; j < selectableHeroes.size(); j++) {
-                Hero h = selectableHeroes.get(j);
-                output.println((j + 1) + ". " + h.getName() + " (" + h.getHeroClass() +
-                        ") Lvl " + h.getLevel() + 
-                        ", HP: " + h.getHp() + 
-                        ", Mana: " + h.getMana() +
-                        ", Str: " + h.getStrength() +
-                        ", Agi: " + h.getAgility() +
-                        ", Dex: " + h.getDexterity() +
-                        ", Money: " + h.getMoney() +
-                        ", Exp: " + h.getExperience());
+                output.println((j + 1) + ". " + describeForSelection(selectableHeroes.get(j)));
             }
 
             int choice = -1;
@@ -91,6 +133,24 @@ public abstract class RPGGame extends GameInterface {
         return selected;
     }
 
+    /**
+     * Describes a hero in a list of heroes to choose from.
+     *
+     * @param h The hero.
+     * @return The description.
+     */
+    protected static String describeForSelection(Hero h) {
+        return h.getName() + " (" + h.getHeroClass() +
+                ") Lvl " + h.getLevel() +
+                ", HP: " + h.getHp() +
+                ", Mana: " + h.getMana() +
+                ", Str: " + h.getStrength() +
+                ", Agi: " + h.getAgility() +
+                ", Dex: " + h.getDexterity() +
+                ", Money: " + h.getMoney() +
+                ", Exp: " + h.getExperience();
+    }
+
     /**
      * Handles the action of a hero using a potion.
      *
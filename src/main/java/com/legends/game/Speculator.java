@@ -0,0 +1,137 @@
+package com.legends.game;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.legends.board.BoardSnapshot;
+import com.legends.board.ValorBoard;
+
+/**
+ * Works ahead while the player is thinking. When a player is about to decide
+ * a hero's turn, a background thread plans the monsters' turn from a
+ * snapshot of the board. A plan is only used while the board still matches
+ * the snapshot it was computed from; otherwise it is discarded and the work
+ * is done as usual, so the game plays exactly the same either way. Frames
+ * are not rendered ahead: the next frame depends on the hero's own turn,
+ * which almost always moves a hero or changes its HP, so a predicted frame
+ * would hardly ever be shown. All games share a few background threads;
+ * when they are all busy, a game simply does not work ahead.
+ * All methods must be called by the thread that plays the game.
+ */
+class Speculator {
+    private static final long WAIT_MILLIS = 20; // Longest wait for a speculation that is still running
+
+    private static final int WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ThreadPoolExecutor workers = new ThreadPoolExecutor(WORKERS, WORKERS,
+            0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(WORKERS * 4), task -> {
+                Thread thread = new Thread(task, "speculation-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private Future<MonsterPlan> running;
+    private MonsterPlan runningPlan;
+    private AtomicBoolean runningStarted;
+    private MonsterPlan result;
+
+    /**
+     * Starts working ahead from the current board, replacing any earlier speculation.
+     *
+     * @param board The board.
+     */
+    void speculate(ValorBoard board) {
+        discard();
+        MonsterPlan plan = new MonsterPlan(BoardSnapshot.of(board));
+        AtomicBoolean started = new AtomicBoolean();
+        try {
+            running = workers.submit(() -> {
+                started.set(true);
+                plan.plan();
+                return plan;
+            });
+        } catch (RejectedExecutionException e) {
+            return; // Every worker is busy with other games
+        }
+        runningPlan = plan;
+        runningStarted = started;
+    }
+
+    /**
+     * Takes the result of the last speculation, waiting briefly if it is still
+     * running and the heroes are as it assumed. Call before the monsters' turn.
+     *
+     * @param board The board.
+     */
+    void collect(ValorBoard board) {
+        Future<MonsterPlan> pending = running;
+        MonsterPlan plan = runningPlan;
+        boolean started = runningStarted != null && runningStarted.get();
+        running = null;
+        runningPlan = null;
+        runningStarted = null;
+        result = null;
+        if (pending == null) {
+            return;
+        }
+        if (!pending.isDone() && (!started || !plan.getSnapshot().sameHeroes(board))) {
+            cancel(pending); // Still queued behind other games, or out of date
+            return;
+        }
+        try {
+            result = pending.get(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cancel(pending);
+        } catch (ExecutionException e) {
+            // Speculation is optional - the turn is played as usual
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the planned monsters' turn, if it was planned from the board as it
+     * is: the same heroes in the same state and the same number of monsters.
+     *
+     * @param board The board.
+     * @return The plan, or null if the turn must be planned anew.
+     */
+    MonsterPlan takePlan(ValorBoard board) {
+        if (result == null) {
+            return null;
+        }
+        BoardSnapshot snapshot = result.getSnapshot();
+        if (!snapshot.sameHeroes(board) || snapshot.getMonsterCount() != board.getMonsters().size()) {
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * Drops any speculation, e.g. when the game ends.
+     */
+    void discard() {
+        if (running != null) {
+            cancel(running);
+            running = null;
+            runningPlan = null;
+            runningStarted = null;
+        }
+        result = null;
+    }
+
+    /**
+     * Stops a speculation and frees its place in the queue if it has not started.
+     */
+    private static void cancel(Future<MonsterPlan> speculation) {
+        speculation.cancel(true);
+        workers.remove((Runnable) speculation);
+    }
+}
@@ -0,0 +1,310 @@
+package com.legends.io;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implementation of the Output interface that writes on a dedicated thread.
+ * Messages are placed in a bounded ring buffer; the writer thread takes all
+ * pending messages at once, encodes them to UTF-8 in one batch and writes them
+ * to a channel, so a slow terminal or pipe never stalls the game thread until
+ * the buffer is full. What happens then is decided by the {@link BackPressure}
+ * policy. {@link #flush()} waits for the writer, and is called before prompts.
+ */
+public class AsyncOutput implements Output {
+    /**
+     * What to do when the game prints faster than the terminal can keep up.
+     */
+    public enum BackPressure {
+        /** Wait for space in the buffer. Nothing is ever lost. */
+        BLOCK,
+        /** Drop board redraws while the buffer is full; wait for space for text. */
+        DROP_FRAMES,
+        /** Replace a board redraw that has not been written yet with the newer one. */
+        COALESCE_BOARD_REDRAWS
+    }
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final String NEWLINE = System.lineSeparator();
+    private static final int BATCH_BYTES = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final BackPressure policy;
+    private final CharSequence[] ring;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition drained = lock.newCondition();
+    private final Thread writer;
+    private volatile Verbosity verbosity = Verbosity.NORMAL;
+
+    // Guarded by lock
+    private int head;
+    private int count;
+    private int pendingFrame = -1; // Slot of a frame the writer has not taken yet
+    private long published;
+    private long written;
+    private long droppedFrames;
+    private boolean closed;
+
+    // Only used by the writer thread
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BATCH_BYTES);
+    private boolean failed;
+
+    /**
+     * Constructs an asynchronous output and starts its writer thread.
+     * The channel is not closed by {@link #close()}; it belongs to the caller.
+     *
+     * @param channel  The channel to write to.
+     * @param policy   The back-pressure policy.
+     * @param capacity The number of messages the buffer can hold.
+     */
+    public AsyncOutput(WritableByteChannel channel, BackPressure policy, int capacity) {
+        this.channel = channel;
+        this.policy = policy;
+        this.ring = new CharSequence[Math.max(2, capacity)];
+        this.writer = new Thread(this::writeLoop, "output-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Creates an asynchronous output that writes to standard output.
+     *
+     * @param policy The back-pressure policy.
+     * @return The output.
+     */
+    public static AsyncOutput stdout(BackPressure policy) {
+        System.out.flush();
+        return new AsyncOutput(new FileOutputStream(FileDescriptor.out).getChannel(), policy, DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public void print(Object s) {
+        enqueue(String.valueOf(s), false);
+    }
+
+    @Override
+    public void println(Object s) {
+        enqueue(s + NEWLINE, false);
+    }
+
+    @Override
+    public void println() {
+        enqueue(NEWLINE, false);
+    }
+
+    /**
+     * Prints an error message to the standard error stream,
+     * after everything printed before it.
+     *
+     * @param s The error message to print.
+     */
+    @Override
+    public void printError(Object s) {
+        flush();
+        System.err.println(s);
+    }
+
+    @Override
+    public void printlnGreen(Object s) {
+        enqueue(ConsoleOutput.ANSI_GREEN + s + ConsoleOutput.ANSI_RESET + NEWLINE, false);
+    }
+
+    @Override
+    public void printlnRed(Object s) {
+        enqueue(ConsoleOutput.ANSI_RED + s + ConsoleOutput.ANSI_RESET + NEWLINE, false);
+    }
+
+    @Override
+    public void printFrame(CharSequence frame) {
+        enqueue(frame.toString(), true);
+    }
+
+    @Override
+    public Verbosity getVerbosity() {
+        return verbosity;
+    }
+
+    @Override
+    public void setVerbosity(Verbosity verbosity) {
+        this.verbosity = verbosity;
+    }
+
+    /**
+     * Waits until the writer thread has written everything printed so far.
+     */
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            long target = published;
+            while (written < target && writer.isAlive()) {
+                drained.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes all pending messages and stops the writer thread.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the number of board redraws that were dropped or replaced by a newer one.
+     *
+     * @return The number of frames never written.
+     */
+    public long getDroppedFrames() {
+        lock.lock();
+        try {
+            return droppedFrames;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public BackPressure getPolicy() {
+        return policy;
+    }
+
+    private void enqueue(CharSequence text, boolean frame) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            if (frame && policy == BackPressure.COALESCE_BOARD_REDRAWS && pendingFrame >= 0) {
+                ring[pendingFrame] = null; // The writer skips replaced frames
+                pendingFrame = -1;
+                droppedFrames++;
+            }
+            while (count == ring.length) {
+                if (frame && policy == BackPressure.DROP_FRAMES) {
+                    droppedFrames++;
+                    return;
+                }
+                notFull.awaitUninterruptibly();
+            }
+            int slot = (head + count) % ring.length;
+            ring[slot] = text;
+            if (frame) {
+                pendingFrame = slot;
+            }
+            count++;
+            published++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes every pending message as one batch and writes it, until closed.
+     */
+    private void writeLoop() {
+        CharSequence[] batch = new CharSequence[ring.length];
+        while (true) {
+            int size;
+            long end;
+            lock.lock();
+            try {
+                while (count == 0 && !closed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (count == 0) {
+                    written = published;
+                    drained.signalAll();
+                    return;
+                }
+                size = count;
+                for (int i = 0; i < size; i++) {
+                    int slot = (head + i) % ring.length;
+                    batch[i] = ring[slot];
+                    ring[slot] = null;
+                }
+                head = (head + size) % ring.length;
+                count = 0;
+                pendingFrame = -1;
+                end = published;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            writeBatch(batch, size);
+
+            lock.lock();
+            try {
+                written = end;
+                drained.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void writeBatch(CharSequence[] batch, int size) {
+        try {
+            for (int i = 0; i < size; i++) {
+                CharSequence text = batch[i];
+                batch[i] = null;
+                if (text == null || failed) {
+                    continue;
+                }
+                CharBuffer in = CharBuffer.wrap(text);
+                encoder.reset();
+                while (encoder.encode(in, buffer, true) == CoderResult.OVERFLOW) {
+                    drainBuffer();
+                }
+                while (encoder.flush(buffer) == CoderResult.OVERFLOW) {
+                    drainBuffer();
+                }
+            }
+            if (!failed) {
+                drainBuffer();
+            }
+        } catch (IOException e) {
+            // Output is gone (e.g. closed pipe) - keep the game running and discard output
+            failed = true;
+            buffer.clear();
+        }
+    }
+
+    private void drainBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
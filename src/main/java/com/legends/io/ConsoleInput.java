@@ -1,14 +1,22 @@
 package com.legends.io;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
 
 import com.legends.game.QuitGameException;
 
 /**
  * Implementation of the Input interface using the console.
+ * Several commands can be typed ahead on one line at a prompt for a game
+ * action (e.g. "WW1" or "S;S;M"); they are returned one at a time to the
+ * following prompts. Other prompts get the line as typed.
  */
 public class ConsoleInput implements Input {
     private Scanner scanner;
+    private Output output;
+    private final Deque<String> pending = new ArrayDeque<>();
 
     /**
      * Constructs a new ConsoleInput.
@@ -27,17 +35,66 @@ public class ConsoleInput implements Input {
     }
 
     /**
-     * Reads a line of text from the console.
+     * Constructs a new ConsoleInput that flushes an output before every read,
+     * so prompts written asynchronously are visible while waiting for input.
+     * Commands typed ahead are echoed to it when they are used.
      *
-     * @return The line read from the console.
-     * @throws QuitGameException If the user enters 'q' or 'Q'.
+     * @param scanner The scanner to read from.
+     * @param output  The output to flush.
+     */
+    public ConsoleInput(Scanner scanner, Output output) {
+        this.scanner = scanner;
+        this.output = output;
+    }
+
+    /**
+     * Reads the next command typed ahead or, if there is none, a whole line
+     * from the console as typed.
+     *
+     * @return The line read.
+     * @throws QuitGameException      If the user enters 'q' or 'Q'.
+     * @throws NoSuchElementException If the console input has ended.
      */
     @Override
     public String readLine() {
-        String line = scanner.nextLine();
-        if (line != null && line.trim().equalsIgnoreCase("q")) {
+        String command = pending.poll();
+        if (command != null) {
+            if (output != null) {
+                output.println(command);
+            }
+        } else {
+            if (output != null) {
+                output.flush();
+            }
+            command = scanner.nextLine();
+        }
+        return checkQuit(command);
+    }
+
+    /**
+     * Reads the next command, from the commands typed ahead or from the console.
+     *
+     * @return The command read.
+     * @throws QuitGameException      If the user enters 'q' or 'Q'.
+     * @throws NoSuchElementException If the console input has ended.
+     */
+    @Override
+    public String readCommand() {
+        if (pending.isEmpty()) {
+            if (output != null) {
+                output.flush();
+            }
+            TypeAhead.split(scanner.nextLine(), pending);
+            return checkQuit(pending.poll());
+        }
+        return readLine();
+    }
+
+    private String checkQuit(String command) {
+        if (command.trim().equalsIgnoreCase("q")) {
+            pending.clear();
             throw new QuitGameException("Player quit the game.");
         }
-        return line;
+        return command;
     }
 }
@@ -1,5 +1,8 @@
 package com.legends.io;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Implementation of the Output interface using the console.
  */
@@ -9,6 +12,13 @@ public class ConsoleOutput implements Output {
     public static final String ANSI_GREEN = "\u001B[32m";
     public static final String ANSI_BLUE = "\u001B[34m";
 
+    private static final int BAR_LENGTH = 10;
+    // Every possible "[<color>===<reset>   ] " prefix, per color
+    private static final Map<String, String[]> BAR_SEGMENTS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<StringBuilder> BAR_BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(64));
+
+    private volatile Verbosity verbosity = Verbosity.NORMAL;
+
     /**
      * Creates a colored progress bar string.
      *
@@ -18,26 +28,50 @@ public class ConsoleOutput implements Output {
      * @return The formatted progress bar string.
      */
     public static String createProgressBar(int current, int max, String color) {
-        int totalLength = 10;
+        StringBuilder sb = BAR_BUFFER.get();
+        sb.setLength(0);
+        return appendProgressBar(sb, current, max, color).toString();
+    }
+
+    /**
+     * Appends a colored progress bar without creating intermediate strings.
+     *
+     * @param sb      The builder to append to.
+     * @param current Current value.
+     * @param max     Maximum value.
+     * @param color   ANSI color code.
+     * @return The builder.
+     */
+    public static StringBuilder appendProgressBar(StringBuilder sb, int current, int max, String color) {
         int filledLength = 0;
         if (max > 0) {
-            filledLength = (int) ((((double) current) / max) * totalLength);
+            filledLength = (int) ((((double) current) / max) * BAR_LENGTH);
         }
-        if (filledLength > totalLength) filledLength = totalLength;
+        if (filledLength > BAR_LENGTH) filledLength = BAR_LENGTH;
         if (filledLength < 0) filledLength = 0;
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        sb.append(color);
-        for (int i = 0; i < filledLength; i++) {
-            sb.append("=");
+        String[] segments = BAR_SEGMENTS.get(color);
+        if (segments == null) {
+            segments = BAR_SEGMENTS.computeIfAbsent(color, ConsoleOutput::createBarSegments);
         }
-        sb.append(ANSI_RESET);
-        for (int i = filledLength; i < totalLength; i++) {
-            sb.append(" ");
+        return sb.append(segments[filledLength]).append(current).append('/').append(max);
+    }
+
+    private static String[] createBarSegments(String color) {
+        String[] segments = new String[BAR_LENGTH + 1];
+        for (int filled = 0; filled <= BAR_LENGTH; filled++) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("[").append(color);
+            for (int i = 0; i < filled; i++) {
+                sb.append("=");
+            }
+            sb.append(ANSI_RESET);
+            for (int i = filled; i < BAR_LENGTH; i++) {
+                sb.append(" ");
+            }
+            segments[filled] = sb.append("] ").toString();
         }
-        sb.append("] " + current + "/" + max);
-        return sb.toString();
+        return segments;
     }
 
     /**
@@ -97,4 +131,22 @@ public class ConsoleOutput implements Output {
     public void printlnRed(Object s) {
         System.out.println(ANSI_RED + s + ANSI_RESET);
     }
+
+    @Override
+    public Verbosity getVerbosity() {
+        return verbosity;
+    }
+
+    @Override
+    public void setVerbosity(Verbosity verbosity) {
+        this.verbosity = verbosity;
+    }
+
+    /**
+     * Flushes the console.
+     */
+    @Override
+    public void flush() {
+        System.out.flush();
+    }
 }
@@ -10,4 +10,15 @@ public interface Input {
      * @return The line read.
      */
     String readLine();
+
+    /**
+     * Reads the answer to a prompt for a game action, where several commands
+     * can be typed ahead on one line (e.g. "WW1" or "S;S;M"). The commands
+     * after the first are returned by the following reads, whatever they ask.
+     *
+     * @return The command read.
+     */
+    default String readCommand() {
+        return readLine();
+    }
 }
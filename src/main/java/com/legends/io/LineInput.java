@@ -0,0 +1,45 @@
+package com.legends.io;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of the Input interface that plays back the commands typed
+ * on one line, such as a co-op player's whole turn ("T;1;2"). The line is
+ * split like typed-ahead console input and every command is echoed as it
+ * is used. When the commands run out, input ends.
+ */
+public class LineInput implements Input {
+    private final Deque<String> pending = new ArrayDeque<>();
+    private final Output output;
+
+    /**
+     * Constructs a new LineInput.
+     *
+     * @param line   The line to play back.
+     * @param output The output commands are echoed to, or null.
+     */
+    public LineInput(String line, Output output) {
+        TypeAhead.split(line, pending);
+        this.output = output;
+    }
+
+    /**
+     * Gets the next command of the line.
+     *
+     * @return The command.
+     * @throws NoSuchElementException If all commands have been used.
+     */
+    @Override
+    public String readLine() {
+        String command = pending.poll();
+        if (command == null) {
+            throw new NoSuchElementException("End of line.");
+        }
+        if (output != null) {
+            output.println(command);
+        }
+        return command;
+    }
+}
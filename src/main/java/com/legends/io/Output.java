@@ -1,7 +1,11 @@
 package com.legends.io;
 
+import java.util.function.Supplier;
+
 /**
  * Interface for output operations.
+ * Messages that are not always needed can be given a {@link Verbosity} level, and
+ * a supplier if they are built, so they are only built when the level is enabled.
  */
 public interface Output {
     /**
@@ -43,4 +47,100 @@ public interface Output {
      * @param s The message to print.
      */
     void printlnRed(Object s);
+
+    /**
+     * Gets how much this output prints.
+     *
+     * @return The verbosity.
+     */
+    default Verbosity getVerbosity() {
+        return Verbosity.NORMAL;
+    }
+
+    /**
+     * Sets how much this output prints. Ignored by outputs with a fixed verbosity.
+     *
+     * @param verbosity The verbosity.
+     */
+    default void setVerbosity(Verbosity verbosity) {
+    }
+
+    /**
+     * Checks if messages of a level are printed.
+     * Lets callers skip building messages nobody will see.
+     *
+     * @param level The level of the message.
+     * @return True if the message would be printed.
+     */
+    default boolean isEnabled(Verbosity level) {
+        return getVerbosity().includes(level);
+    }
+
+    /**
+     * Prints a message that needs no building, such as a constant, followed by
+     * a newline if its level is enabled.
+     *
+     * @param level   The level of the message.
+     * @param message The message.
+     */
+    default void println(Verbosity level, Object message) {
+        if (isEnabled(level)) {
+            println(message);
+        }
+    }
+
+    /**
+     * Prints a message followed by a newline if its level is enabled.
+     *
+     * @param level   The level of the message.
+     * @param message Builds the message; only called if the level is enabled.
+     */
+    default void println(Verbosity level, Supplier<?> message) {
+        if (isEnabled(level)) {
+            println(message.get());
+        }
+    }
+
+    /**
+     * Prints a message in green if its level is enabled.
+     *
+     * @param level   The level of the message.
+     * @param message Builds the message; only called if the level is enabled.
+     */
+    default void printlnGreen(Verbosity level, Supplier<?> message) {
+        if (isEnabled(level)) {
+            printlnGreen(message.get());
+        }
+    }
+
+    /**
+     * Prints a message in red if its level is enabled.
+     *
+     * @param level   The level of the message.
+     * @param message Builds the message; only called if the level is enabled.
+     */
+    default void printlnRed(Verbosity level, Supplier<?> message) {
+        if (isEnabled(level)) {
+            printlnRed(message.get());
+        }
+    }
+
+    /**
+     * Prints a complete board redraw. Implementations may drop or coalesce
+     * frames that are superseded before they reach the terminal.
+     * The caller may reuse the frame once this returns, so implementations
+     * must copy it if they keep it.
+     *
+     * @param frame The rendered frame, including its trailing newline.
+     */
+    default void printFrame(CharSequence frame) {
+        print(frame);
+    }
+
+    /**
+     * Waits until everything printed so far has been written.
+     * Called before the game waits for input, so prompts are always visible.
+     */
+    default void flush() {
+    }
 }
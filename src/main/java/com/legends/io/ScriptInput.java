@@ -0,0 +1,138 @@
+package com.legends.io;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.NoSuchElementException;
+
+import com.legends.game.QuitGameException;
+
+/**
+ * Implementation of the Input interface that reads commands from a script file.
+ * The file is streamed, one line at a time, in the same format as the console
+ * (several commands per line are allowed where the game asks for an action);
+ * lines starting with '#' are comments.
+ * Every command is echoed so the transcript reads like an interactive session.
+ * When the script ends, input continues from a fallback, if any; otherwise
+ * it ends like console input at end of file.
+ */
+public class ScriptInput implements Input, Closeable {
+    private final BufferedReader reader;
+    private final Input fallback;
+    private final Output output;
+    private final Deque<String> pending = new ArrayDeque<>();
+    private boolean finished;
+
+    /**
+     * Constructs a new ScriptInput.
+     *
+     * @param script   The script file.
+     * @param fallback The input to use after the script, or null to end input there.
+     * @param output   The output commands are echoed to, or null.
+     * @throws IOException If the script cannot be opened.
+     */
+    public ScriptInput(Path script, Input fallback, Output output) throws IOException {
+        this.reader = Files.newBufferedReader(script, StandardCharsets.UTF_8);
+        this.fallback = fallback;
+        this.output = output;
+    }
+
+    /**
+     * Reads the next command typed ahead or, if there is none, the next line
+     * of the script as written.
+     *
+     * @return The line read.
+     * @throws QuitGameException      If the line is 'q' or 'Q'.
+     * @throws NoSuchElementException If the script has ended and there is no fallback.
+     */
+    @Override
+    public String readLine() {
+        return read(false);
+    }
+
+    /**
+     * Reads the next command of the script, splitting a line of several.
+     *
+     * @return The command read.
+     * @throws QuitGameException      If the command is 'q' or 'Q'.
+     * @throws NoSuchElementException If the script has ended and there is no fallback.
+     */
+    @Override
+    public String readCommand() {
+        return read(true);
+    }
+
+    private String read(boolean command) {
+        String next = pending.poll();
+        if (next == null) {
+            String line = nextScriptLine();
+            if (line == null) {
+                return readFallback(command);
+            }
+            if (command) {
+                TypeAhead.split(line, pending);
+                next = pending.poll();
+            } else {
+                next = line;
+            }
+        }
+        if (output != null) {
+            output.println(next);
+        }
+        if (next.trim().equalsIgnoreCase("q")) {
+            pending.clear();
+            throw new QuitGameException("Player quit the game.");
+        }
+        return next;
+    }
+
+    private String readFallback(boolean command) {
+        if (fallback == null) {
+            throw new NoSuchElementException("End of script.");
+        }
+        return command ? fallback.readCommand() : fallback.readLine();
+    }
+
+    /**
+     * Reads the next line that is not a comment.
+     *
+     * @return The line, or null at the end of the script.
+     */
+    private String nextScriptLine() {
+        if (finished) {
+            return null;
+        }
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("#")) {
+                    return line;
+                }
+            }
+        } catch (IOException e) {
+            if (output != null) {
+                output.printError("Error reading script: " + e.getMessage());
+            }
+        }
+        close();
+        return null;
+    }
+
+    /**
+     * Closes the script file. The fallback input is not closed.
+     */
+    @Override
+    public void close() {
+        finished = true;
+        try {
+            reader.close();
+        } catch (IOException e) {
+            // Nothing left to read either way
+        }
+    }
+}
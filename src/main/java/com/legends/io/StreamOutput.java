@@ -0,0 +1,141 @@
+package com.legends.io;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Implementation of the Output interface that writes UTF-8 text to a stream,
+ * such as a network connection. Output is buffered and sent on {@link #flush()},
+ * which the input calls before waiting for the player. Line ends can be sent
+ * as CR LF for telnet clients. If the stream fails (e.g. the player
+ * disconnected), further output is discarded; the game notices when it next
+ * reads input. Several threads may print at once, e.g. the players of a co-op
+ * game are written to by the game and by their own sessions.
+ */
+public class StreamOutput implements Output {
+    private static final int BUFFER_CHARS = 16 * 1024;
+
+    private final Writer writer;
+    private final boolean crlf;
+    private volatile Verbosity verbosity = Verbosity.NORMAL;
+    private boolean failed;
+    private boolean muted;
+
+    /**
+     * Constructs a new StreamOutput. The stream is not closed by this output.
+     *
+     * @param out  The stream to write to.
+     * @param crlf True to send every line end as CR LF.
+     */
+    public StreamOutput(OutputStream out, boolean crlf) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS);
+        this.crlf = crlf;
+    }
+
+    @Override
+    public void print(Object s) {
+        write(String.valueOf(s));
+    }
+
+    @Override
+    public void println(Object s) {
+        write(String.valueOf(s));
+        write("\n");
+    }
+
+    @Override
+    public void println() {
+        write("\n");
+    }
+
+    @Override
+    public void printError(Object s) {
+        println(s);
+    }
+
+    @Override
+    public void printlnGreen(Object s) {
+        println(ConsoleOutput.ANSI_GREEN + s + ConsoleOutput.ANSI_RESET);
+    }
+
+    @Override
+    public void printlnRed(Object s) {
+        println(ConsoleOutput.ANSI_RED + s + ConsoleOutput.ANSI_RESET);
+    }
+
+    @Override
+    public void printFrame(CharSequence frame) {
+        write(frame);
+    }
+
+    @Override
+    public Verbosity getVerbosity() {
+        return verbosity;
+    }
+
+    @Override
+    public void setVerbosity(Verbosity verbosity) {
+        this.verbosity = verbosity;
+    }
+
+    /**
+     * Sends everything printed so far.
+     */
+    @Override
+    public synchronized void flush() {
+        if (failed) {
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            failed = true;
+        }
+    }
+
+    /**
+     * Discards everything printed while muted, e.g. while a resumed session
+     * redraws the screen the player has already seen.
+     *
+     * @param muted True to discard output, false to send it again.
+     */
+    public void setMuted(boolean muted) {
+        this.muted = muted;
+    }
+
+    /**
+     * Checks if writing has failed, e.g. because the other end disconnected.
+     *
+     * @return True if output is being discarded.
+     */
+    public boolean hasFailed() {
+        return failed;
+    }
+
+    private synchronized void write(CharSequence text) {
+        if (failed || muted) {
+            return;
+        }
+        try {
+            if (!crlf) {
+                writer.append(text);
+                return;
+            }
+            int start = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '\n' && (i == 0 || text.charAt(i - 1) != '\r')) {
+                    writer.append(text, start, i).append('\r');
+                    start = i;
+                }
+            }
+            writer.append(text, start, text.length());
+        } catch (IOException e) {
+            failed = true;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.legends.io;
+
+import java.util.Deque;
+
+/**
+ * Splits a line typed at a prompt for a game action into the commands
+ * typed ahead on it.
+ * Commands are separated by ';', and a word made only of single-key game
+ * actions and digits, such as "WW1", is split into its keys. Plain numbers
+ * are kept whole, so "12" still selects item 12.
+ */
+final class TypeAhead {
+    static final char SEPARATOR = ';';
+
+    /** Keys of the game actions that can be chained without separators. */
+    private static final String ACTION_KEYS = "WASDTRBMIHK";
+
+    private TypeAhead() {
+    }
+
+    /**
+     * Adds the commands of a line to a queue. A line without any command
+     * (e.g. just Enter) is one empty command.
+     *
+     * @param line     The line read.
+     * @param commands The queue to add the commands to.
+     */
+    static void split(String line, Deque<String> commands) {
+        if (line.indexOf(SEPARATOR) < 0) {
+            addSegment(line.trim(), commands);
+            return;
+        }
+        int size = commands.size();
+        int start = 0;
+        while (start <= line.length()) {
+            int end = line.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                end = line.length();
+            }
+            String segment = line.substring(start, end).trim();
+            if (!segment.isEmpty()) {
+                addSegment(segment, commands);
+            }
+            start = end + 1;
+        }
+        if (commands.size() == size) {
+            commands.add("");
+        }
+    }
+
+    private static void addSegment(String segment, Deque<String> commands) {
+        if (!isKeySequence(segment)) {
+            commands.add(segment);
+            return;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            commands.add(String.valueOf(segment.charAt(i)));
+        }
+    }
+
+    private static boolean isKeySequence(String segment) {
+        if (segment.length() < 2) {
+            return false;
+        }
+        boolean hasAction = false;
+        for (int i = 0; i < segment.length(); i++) {
+            char c = Character.toUpperCase(segment.charAt(i));
+            if (ACTION_KEYS.indexOf(c) >= 0) {
+                hasAction = true;
+            } else if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return hasAction;
+    }
+}
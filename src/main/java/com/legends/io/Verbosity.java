@@ -0,0 +1,34 @@
+package com.legends.io;
+
+/**
+ * How much an {@link Output} prints. Each level includes the ones before it.
+ */
+public enum Verbosity {
+    /** Only prompts, menus, results and errors. Used for headless and simulation runs. */
+    QUIET,
+    /** Also narrates the game: attacks, moves, spawns, boards and status bars. The default. */
+    NORMAL,
+    /** Also prints diagnostic details. */
+    VERBOSE;
+
+    /**
+     * Checks if messages of a level are printed at this verbosity.
+     *
+     * @param level The level of the message.
+     * @return True if the message is printed.
+     */
+    public boolean includes(Verbosity level) {
+        return level.ordinal() <= ordinal();
+    }
+
+    /**
+     * Parses a verbosity name, ignoring case.
+     *
+     * @param name The name, e.g. "quiet".
+     * @return The verbosity.
+     * @throws IllegalArgumentException If the name is unknown.
+     */
+    public static Verbosity parse(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
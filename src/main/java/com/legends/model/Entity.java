@@ -10,6 +10,10 @@ import java.io.Serializable;
  */
 public abstract class Entity implements Serializable {
     private static final long serialVersionUID = 1L;
+
+    /** How far entities reach, in tiles in every direction. */
+    public static final int DEFAULT_RANGE = 1;
+
     protected String name;
     protected int level;
     protected int hp;
@@ -17,7 +21,7 @@ public abstract class Entity implements Serializable {
     protected int y;
     protected int homeNexus_row;
     protected int targetNexus_row;
-    protected final int range = 1;
+    protected final int range = DEFAULT_RANGE;
 
     /**
      * Constructs a new entity for legends of valor.
@@ -181,6 +185,15 @@ public abstract class Entity implements Serializable {
         return false;
     }
 
+    /**
+     * Gets how far the entity reaches, in tiles in every direction.
+     *
+     * @return The range.
+     */
+    public int getRange() {
+        return range;
+    }
+
     /**
      * To see if the passed target is within range or not.
      * 
@@ -1,6 +1,7 @@
 package com.legends.model;
 
 import com.legends.io.Output;
+import com.legends.io.Verbosity;
 
 /**
  * Represents a Fire spell.
@@ -32,7 +33,7 @@ public class FireSpell extends Spell {
         int currentDefense = target.getDefense();
         int reduction = (int) (currentDefense * 0.1); // Reduce defense by 10%
         target.setDefense(currentDefense - reduction);
-        if (output != null) output.println(target.getName() + "'s defense was reduced by " + reduction + "!");
+        if (output != null) output.println(Verbosity.NORMAL, () -> target.getName() + "'s defense was reduced by " + reduction + "!");
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.legends.model;
 
 import com.legends.io.Output;
+import com.legends.io.Verbosity;
 import com.legends.ui.StyledOutput;
 import com.legends.utils.audio.SoundManager;
 
@@ -537,9 +538,14 @@ public abstract class Hero extends Entity {
         return name + " (Lvl " + level + ") HP:" + hp + " MP:" + mana + " Wpn:" + weaponStr;
     }
 
-    @Override
-    public void attack(Entity target, Output output) {
-        // Calculate damage
+    /**
+     * Gets the power of the hero's attacks: strength plus the main-hand
+     * weapon's damage, half as much again when a one-handed weapon is held
+     * with both hands.
+     *
+     * @return The attack power.
+     */
+    public double getAttackPower() {
         double attackPower = this.strength;
         if (this.mainHandWeapon != null) {
             double weaponDamage = this.mainHandWeapon.getDamage();
@@ -548,6 +554,13 @@ public abstract class Hero extends Entity {
             }
             attackPower += weaponDamage;
         }
+        return attackPower;
+    }
+
+    @Override
+    public void attack(Entity target, Output output) {
+        // Calculate damage
+        double attackPower = getAttackPower();
 
         // Apply dodge chance
         double dodgeChance = 0;
@@ -575,7 +588,7 @@ public abstract class Hero extends Entity {
             if (output instanceof StyledOutput) {
                 ((StyledOutput) output).printDodge(target.getName());
             } else {
-                output.println(target.getName() + " dodged the attack!");
+                output.println(Verbosity.NORMAL, () -> target.getName() + " dodged the attack!");
             }
         } else {
             SoundManager.getInstance().playAttackSound();
@@ -586,7 +599,7 @@ public abstract class Hero extends Entity {
             if (output instanceof StyledOutput) {
                 ((StyledOutput) output).printAttack(this.name, target.getName(), damage);
             } else {
-                output.println(this.name + " attacked " + target.getName() + " for " + damage + " damage!");
+                output.println(Verbosity.NORMAL, () -> this.name + " attacked " + target.getName() + " for " + damage + " damage!");
             }
 
             if (!target.isAlive()) {
@@ -594,7 +607,7 @@ public abstract class Hero extends Entity {
                 if (output instanceof StyledOutput) {
                     ((StyledOutput) output).printDeath(target.getName());
                 } else {
-                    output.println(target.getName() + " has died!");
+                    output.println(Verbosity.NORMAL, () -> target.getName() + " has died!");
                 }
             }
         }
@@ -1,6 +1,7 @@
 package com.legends.model;
 
 import com.legends.io.Output;
+import com.legends.io.Verbosity;
 
 /**
  * Represents an Ice spell.
@@ -32,7 +33,7 @@ public class IceSpell extends Spell {
         int currentDamage = target.getDamage();
         int reduction = (int) (currentDamage * 0.1); // Reduce damage by 10%
         target.setDamage(currentDamage - reduction);
-        if (output != null) output.println(target.getName() + "'s damage was reduced by " + reduction + "!");
+        if (output != null) output.println(Verbosity.NORMAL, () -> target.getName() + "'s damage was reduced by " + reduction + "!");
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.legends.model;
 
 import com.legends.io.Output;
+import com.legends.io.Verbosity;
 
 /**
  * Represents a Lightning spell.
@@ -32,7 +33,7 @@ public class LightningSpell extends Spell {
         int currentDodge = target.getDodgeChance();
         int reduction = (int) (currentDodge * 0.1); // Reduce dodge chance by 10%
         target.setDodgeChance(currentDodge - reduction);
-        if (output != null) output.println(target.getName() + "'s dodge chance was reduced by " + reduction + "!");
+        if (output != null) output.println(Verbosity.NORMAL, () -> target.getName() + "'s dodge chance was reduced by " + reduction + "!");
     }
 
     /**
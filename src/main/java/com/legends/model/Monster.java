@@ -1,8 +1,11 @@
 package com.legends.model;
 
+import com.legends.ai.MonsterAction;
 import com.legends.ai.MonsterAI;
+import com.legends.ai.TargetSampler;
 import com.legends.board.ValorBoard;
 import com.legends.io.Output;
+import com.legends.io.Verbosity;
 import com.legends.utils.audio.SoundManager;
 
 /**
@@ -39,18 +42,48 @@ public abstract class Monster extends Entity {
         this.ai = ai;
     }
 
+    public MonsterAI getAI() {
+        return ai;
+    }
+
     public void takeTurn(ValorBoard valorBoard, Output output) {
         if (ai != null) {
             ai.takeTurn(this, valorBoard, output);
         }
     }
 
+    /**
+     * Carries out an action planned ahead of time by the monster's AI.
+     *
+     * @param action     The planned action.
+     * @param valorBoard The board.
+     * @param output     The output interface for messages.
+     */
+    public void performTurn(MonsterAction action, ValorBoard valorBoard, Output output) {
+        if (ai != null) {
+            ai.performTurn(this, action, valorBoard, output);
+        }
+    }
+
     public void takeBattleTurn(java.util.List<Hero> heroes, Output output) {
         if (ai != null) {
             ai.takeBattleTurn(this, heroes, output);
         }
     }
 
+    /**
+     * Takes a battle turn, picking among the heroes with a sampler the battle
+     * keeps up to date.
+     *
+     * @param targets The sampler over the party.
+     * @param output  The output interface for messages.
+     */
+    public void takeBattleTurn(TargetSampler targets, Output output) {
+        if (ai != null) {
+            ai.takeBattleTurn(this, targets, output);
+        }
+    }
+
     /**
      * Displays the stats of the monster.
      *
@@ -172,7 +205,7 @@ public abstract class Monster extends Entity {
             if (output instanceof com.legends.ui.StyledOutput) {
                 ((com.legends.ui.StyledOutput) output).printDodge(target.getName());
             } else {
-                output.println(target.getName() + " dodged " + this.name + "'s attack!");
+                output.println(Verbosity.NORMAL, () -> target.getName() + " dodged " + this.name + "'s attack!");
             }
         } else {
             SoundManager.getInstance().playAttackSound();
@@ -183,14 +216,14 @@ public abstract class Monster extends Entity {
             if (output instanceof com.legends.ui.StyledOutput) {
                 ((com.legends.ui.StyledOutput) output).printAttack(this.name, target.getName(), damage);
             } else {
-                output.println(this.name + " attacked " + target.getName() + " for " + damage + " damage!");
+                output.println(Verbosity.NORMAL, () -> this.name + " attacked " + target.getName() + " for " + damage + " damage!");
             }
 
             if (!target.isAlive()) {
                 if (output instanceof com.legends.ui.StyledOutput) {
                     ((com.legends.ui.StyledOutput) output).printDeath(target.getName());
                 } else {
-                    output.println(target.getName() + " has fainted!");
+                    output.println(Verbosity.NORMAL, () -> target.getName() + " has fainted!");
                 }
             }
         }
@@ -0,0 +1,329 @@
+package com.legends.profile;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Players sorted by score, best first. The entries are kept in a treap whose
+ * nodes count the entries below them, so updating a score, finding the rank
+ * of a player and reading the top K players take O(log n) (plus K) time.
+ * Any number of threads may read at once; updates take turns, each holding
+ * the lock only for its few tree operations. Equal scores share a rank, as
+ * in "1, 2, 2, 4".
+ */
+public final class Leaderboard {
+    private final boolean lowerIsBetter;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Long> scores = new HashMap<>(); // Guarded by lock
+    private final SplittableRandom priorities = new SplittableRandom(); // Guarded by the write lock
+    private Node root; // Guarded by lock
+
+    /**
+     * Constructs an empty leaderboard.
+     *
+     * @param lowerIsBetter True if the lowest score ranks first.
+     */
+    public Leaderboard(boolean lowerIsBetter) {
+        this.lowerIsBetter = lowerIsBetter;
+    }
+
+    /**
+     * Sets a player's score, replacing the player's previous score.
+     *
+     * @param player The player.
+     * @param score  The score.
+     */
+    public void put(String player, long score) {
+        lock.writeLock().lock();
+        try {
+            Long old = scores.put(player, score);
+            if (old != null) {
+                if (old == score) {
+                    return;
+                }
+                root = remove(root, key(old), player);
+            }
+            root = insert(root, new Node(key(score), player, priorities.nextInt()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces all scores at once. The tree is built from the sorted scores
+     * directly, which is much faster than adding them one by one.
+     *
+     * @param all The players' scores.
+     */
+    public void putAll(Map<String, Long> all) {
+        Node[] nodes = new Node[all.size()];
+        int count = 0;
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<String, Long> entry : all.entrySet()) {
+                nodes[count++] = new Node(key(entry.getValue()), entry.getKey(), priorities.nextInt());
+            }
+            Arrays.sort(nodes, (a, b) -> compare(a.key, a.player, b));
+            // Every node becomes the right child of the last node on the right
+            // spine with a higher priority, taking over what hung below it
+            Node[] spine = new Node[nodes.length];
+            int height = 0;
+            for (Node node : nodes) {
+                Node below = null;
+                while (height > 0 && spine[height - 1].priority < node.priority) {
+                    below = spine[--height];
+                    below.resize();
+                }
+                node.left = below;
+                if (height > 0) {
+                    spine[height - 1].right = node;
+                }
+                spine[height++] = node;
+            }
+            while (height > 0) {
+                spine[--height].resize();
+            }
+            root = nodes.length == 0 ? null : spine[0];
+            scores.clear();
+            scores.putAll(all);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Takes a player off the leaderboard.
+     */
+    public void remove(String player) {
+        lock.writeLock().lock();
+        try {
+            Long old = scores.remove(player);
+            if (old != null) {
+                root = remove(root, key(old), player);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a player's rank.
+     *
+     * @return The rank, starting at 1, or 0 if the player is not on the leaderboard.
+     */
+    public int rankOf(String player) {
+        lock.readLock().lock();
+        try {
+            Long score = scores.get(player);
+            return score == null ? 0 : 1 + countBefore(key(score));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the best players.
+     *
+     * @param count How many players to get at most.
+     * @return The players, best first.
+     */
+    public List<Entry> top(int count) {
+        lock.readLock().lock();
+        try {
+            List<Entry> top = new ArrayList<>(Math.min(count, scores.size()));
+            Deque<Node> path = new ArrayDeque<>();
+            Node node = root;
+            Node previous = null;
+            int rank = 0;
+            while (top.size() < count && (node != null || !path.isEmpty())) {
+                if (node != null) {
+                    path.push(node);
+                    node = node.left;
+                    continue;
+                }
+                node = path.pop();
+                if (previous == null || previous.key != node.key) {
+                    rank = top.size() + 1;
+                }
+                top.add(new Entry(rank, node.player, lowerIsBetter ? node.key : -node.key));
+                previous = node;
+                node = node.right;
+            }
+            return top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of players on the leaderboard.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return scores.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the key entries are sorted by, ascending: the best score has the lowest key.
+     */
+    private long key(long score) {
+        return lowerIsBetter ? score : -score;
+    }
+
+    /**
+     * Counts the entries with a key below the given one, i.e. with a better score.
+     */
+    private int countBefore(long key) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.key < key) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    private static int compare(long key, String player, Node node) {
+        int order = Long.compare(key, node.key);
+        return order != 0 ? order : player.compareTo(node.player);
+    }
+
+    private static Node insert(Node tree, Node node) {
+        if (tree == null) {
+            return node;
+        }
+        if (compare(node.key, node.player, tree) < 0) {
+            tree.left = insert(tree.left, node);
+            if (tree.left.priority > tree.priority) {
+                tree = rotateRight(tree);
+            }
+        } else {
+            tree.right = insert(tree.right, node);
+            if (tree.right.priority > tree.priority) {
+                tree = rotateLeft(tree);
+            }
+        }
+        tree.resize();
+        return tree;
+    }
+
+    private static Node remove(Node tree, long key, String player) {
+        if (tree == null) {
+            return null;
+        }
+        int order = compare(key, player, tree);
+        if (order == 0) {
+            return merge(tree.left, tree.right);
+        }
+        if (order < 0) {
+            tree.left = remove(tree.left, key, player);
+        } else {
+            tree.right = remove(tree.right, key, player);
+        }
+        tree.resize();
+        return tree;
+    }
+
+    /**
+     * Joins two trees whose entries are all in order, left before right.
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.resize();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.resize();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        node.resize();
+        left.right = node;
+        left.resize();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        node.resize();
+        right.left = node;
+        right.resize();
+        return right;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node {
+        final long key;
+        final String player;
+        final int priority;
+        int size = 1; // Entries in this subtree
+        Node left;
+        Node right;
+
+        Node(long key, String player, int priority) {
+            this.key = key;
+            this.player = player;
+            this.priority = priority;
+        }
+
+        void resize() {
+            size = 1 + size(left) + size(right);
+        }
+    }
+
+    /**
+     * A player's place on a leaderboard.
+     */
+    public static final class Entry {
+        private final int rank;
+        private final String player;
+        private final long score;
+
+        Entry(int rank, String player, long score) {
+            this.rank = rank;
+            this.player = player;
+            this.score = score;
+        }
+
+        public int getRank() {
+            return rank;
+        }
+
+        public String getPlayer() {
+            return player;
+        }
+
+        public long getScore() {
+            return score;
+        }
+    }
+}
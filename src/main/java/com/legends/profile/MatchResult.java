@@ -0,0 +1,99 @@
+package com.legends.profile;
+
+/**
+ * How a game ended for one player, as recorded in the {@link ProfileStore}.
+ * A result is one line of the store's data file.
+ */
+public final class MatchResult {
+    /**
+     * The games a result can come from.
+     */
+    public enum Game {
+        MONSTERS_AND_HEROES, VALOR
+    }
+
+    private final String player;
+    private final Game game;
+    private final boolean won;
+    private final int rounds;
+    private final long goldEarned;
+    private final long xpEarned;
+    private final long timeMillis;
+
+    /**
+     * Constructs a result of a game that ended now.
+     *
+     * @param player     The player's name.
+     * @param game       The game played.
+     * @param won        True if the player won.
+     * @param rounds     The rounds played, or the moves made in Monsters and Heroes.
+     * @param goldEarned The gold the player's heroes earned.
+     * @param xpEarned   The experience the player's heroes earned.
+     */
+    public MatchResult(String player, Game game, boolean won, int rounds, long goldEarned, long xpEarned) {
+        this(player, game, won, rounds, goldEarned, xpEarned, System.currentTimeMillis());
+    }
+
+    private MatchResult(String player, Game game, boolean won, int rounds, long goldEarned, long xpEarned,
+            long timeMillis) {
+        // The name ends the line in the data file
+        this.player = player.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+        this.game = game;
+        this.won = won;
+        this.rounds = rounds;
+        this.goldEarned = goldEarned;
+        this.xpEarned = xpEarned;
+        this.timeMillis = timeMillis;
+    }
+
+    public String getPlayer() {
+        return player;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    public boolean isWon() {
+        return won;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public long getGoldEarned() {
+        return goldEarned;
+    }
+
+    public long getXpEarned() {
+        return xpEarned;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * Writes the result as a line of the data file, without the line break.
+     */
+    String toLine() {
+        return timeMillis + "\t" + game + "\t" + (won ? 'W' : 'L') + "\t" + rounds + "\t" + goldEarned + "\t"
+                + xpEarned + "\t" + player;
+    }
+
+    /**
+     * Reads a result from a line of the data file.
+     *
+     * @throws IllegalArgumentException If the line is not a result.
+     */
+    static MatchResult parse(String line) {
+        String[] fields = line.split("\t", 7);
+        if (fields.length != 7 || fields[6].isEmpty() || !(fields[2].equals("W") || fields[2].equals("L"))) {
+            throw new IllegalArgumentException("Not a match result: " + line);
+        }
+        return new MatchResult(fields[6], Game.valueOf(fields[1]), fields[2].equals("W"),
+                Integer.parseInt(fields[3]), Long.parseLong(fields[4]), Long.parseLong(fields[5]),
+                Long.parseLong(fields[0]));
+    }
+}
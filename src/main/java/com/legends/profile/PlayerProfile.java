@@ -0,0 +1,88 @@
+package com.legends.profile;
+
+/**
+ * What a player has achieved over all recorded games. Profiles are
+ * immutable; recording a result replaces the player's profile with an
+ * updated one.
+ */
+public final class PlayerProfile {
+    private final String name;
+    private final int games;
+    private final int wins;
+    private final long totalGold;
+    private final long totalXp;
+    private final int bestRounds; // Most rounds survived in Legends of Valor
+    private final int fastestWin; // Fewest rounds to a Legends of Valor win, 0 if none
+    private final long lastPlayedMillis;
+
+    private PlayerProfile(String name, int games, int wins, long totalGold, long totalXp, int bestRounds,
+            int fastestWin, long lastPlayedMillis) {
+        this.name = name;
+        this.games = games;
+        this.wins = wins;
+        this.totalGold = totalGold;
+        this.totalXp = totalXp;
+        this.bestRounds = bestRounds;
+        this.fastestWin = fastestWin;
+        this.lastPlayedMillis = lastPlayedMillis;
+    }
+
+    /**
+     * Gets the profile of a player with no recorded games.
+     */
+    static PlayerProfile empty(String name) {
+        return new PlayerProfile(name, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Gets this profile updated with a result. The order results are added
+     * in does not matter.
+     */
+    PlayerProfile with(MatchResult result) {
+        boolean valor = result.getGame() == MatchResult.Game.VALOR;
+        int fastest = fastestWin;
+        if (valor && result.isWon() && result.getRounds() > 0 && (fastest == 0 || result.getRounds() < fastest)) {
+            fastest = result.getRounds();
+        }
+        return new PlayerProfile(name, games + 1, wins + (result.isWon() ? 1 : 0), totalGold + result.getGoldEarned(),
+                totalXp + result.getXpEarned(), valor ? Math.max(bestRounds, result.getRounds()) : bestRounds,
+                fastest, Math.max(lastPlayedMillis, result.getTimeMillis()));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public long getTotalGold() {
+        return totalGold;
+    }
+
+    public long getTotalXp() {
+        return totalXp;
+    }
+
+    public int getBestRounds() {
+        return bestRounds;
+    }
+
+    /**
+     * Gets the fewest rounds the player needed to reach the monsters' Nexus.
+     *
+     * @return The rounds, or 0 if the player has not won Legends of Valor.
+     */
+    public int getFastestWin() {
+        return fastestWin;
+    }
+
+    public long getLastPlayedMillis() {
+        return lastPlayedMillis;
+    }
+}
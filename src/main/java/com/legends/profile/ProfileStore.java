@@ -0,0 +1,256 @@
+package com.legends.profile;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the players' profiles and leaderboards. Every match result is
+ * appended to a data file, one line per result, and the profiles and
+ * leaderboards are kept in memory; opening the store replays the file to
+ * rebuild them. Results are only ever added, so the file needs no database:
+ * a crash can at most cut off the line being written, which is dropped when
+ * the store is next opened.
+ * Any number of games may record results at once.
+ */
+public final class ProfileStore implements Closeable {
+    /** The data file used when no other store is set, in the working directory. */
+    public static final String DEFAULT_FILE = "profiles.dat";
+
+    private static final String HEADER = "LEGENDS-PROFILES 1";
+    private static final AtomicReference<ProfileStore> defaultStore = new AtomicReference<>();
+
+    private final Path file;
+    private final FileChannel channel; // Writes guarded by itself
+    private final Map<String, PlayerProfile> profiles = new ConcurrentHashMap<>();
+    private final Map<Ranking, Leaderboard> leaderboards = new EnumMap<>(Ranking.class);
+
+    private ProfileStore(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+        for (Ranking ranking : Ranking.values()) {
+            leaderboards.put(ranking, new Leaderboard(ranking.isLowerBetter()));
+        }
+    }
+
+    /**
+     * Opens a store, creating its data file if there is none.
+     *
+     * @param file The data file.
+     * @return The store.
+     * @throws IOException If the file cannot be read or created.
+     */
+    public static ProfileStore open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            ProfileStore store = new ProfileStore(file, channel);
+            dropPartialLine(channel);
+            if (channel.size() == 0) {
+                store.append(HEADER);
+            } else {
+                store.replay();
+            }
+            channel.position(channel.size());
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the store games record their results in, opening
+     * {@value #DEFAULT_FILE} on first use unless another store was set.
+     *
+     * @return The store.
+     * @throws IOException If the store has not been opened yet and opening fails.
+     */
+    public static ProfileStore getDefault() throws IOException {
+        ProfileStore store = defaultStore.get();
+        if (store == null) {
+            synchronized (defaultStore) {
+                store = defaultStore.get();
+                if (store == null) {
+                    store = open(Paths.get(DEFAULT_FILE));
+                    defaultStore.set(store);
+                }
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Sets the store games record their results in, e.g. one shared by all
+     * players of a server.
+     *
+     * @param store The store.
+     */
+    public static void setDefault(ProfileStore store) {
+        defaultStore.set(store);
+    }
+
+    /**
+     * Cuts off a line left unfinished by a crash, so new results start on a line of their own.
+     */
+    private static void dropPartialLine(FileChannel channel) throws IOException {
+        long end = channel.size();
+        ByteBuffer block = ByteBuffer.allocate(4096);
+        while (end > 0) {
+            long start = Math.max(0, end - block.capacity());
+            block.clear().limit((int) (end - start));
+            while (block.hasRemaining() && channel.read(block, start + block.position()) >= 0) {
+                // Until the block is read
+            }
+            for (int i = block.position() - 1; i >= 0; i--) {
+                if (block.get(i) == '\n') {
+                    if (start + i + 1 < channel.size()) {
+                        channel.truncate(start + i + 1);
+                    }
+                    return;
+                }
+            }
+            end = start;
+        }
+        channel.truncate(0);
+    }
+
+    private void replay() throws IOException {
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (!HEADER.equals(line)) {
+                throw new IOException(file + " is not a profile store");
+            }
+            while ((line = reader.readLine()) != null) {
+                try {
+                    MatchResult result = MatchResult.parse(line);
+                    profiles.compute(result.getPlayer(), (player, profile) ->
+                            (profile == null ? PlayerProfile.empty(player) : profile).with(result));
+                } catch (IllegalArgumentException e) {
+                    skipped++;
+                }
+            }
+        }
+        if (skipped > 0) {
+            System.err.println("Warning: skipped " + skipped + " unreadable results in " + file);
+        }
+        // Built once all results are in, which is much faster than updating them result by result
+        for (Map.Entry<Ranking, Leaderboard> board : leaderboards.entrySet()) {
+            Map<String, Long> scores = new HashMap<>();
+            for (PlayerProfile profile : profiles.values()) {
+                long score = board.getKey().scoreOf(profile);
+                if (score >= 0) {
+                    scores.put(profile.getName(), score);
+                }
+            }
+            board.getValue().putAll(scores);
+        }
+    }
+
+    /**
+     * Records how a game ended for a player: appends the result to the data
+     * file and updates the player's profile and leaderboard places.
+     *
+     * @param result The result.
+     * @throws IOException If the result cannot be written.
+     */
+    public void record(MatchResult result) throws IOException {
+        append(result.toLine());
+        index(result);
+    }
+
+    private void append(String line) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        synchronized (channel) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Adds a result to the player's profile. Results of one player are added
+     * one at a time, so the leaderboards always end up with the player's
+     * latest profile; results of different players are added in parallel.
+     */
+    private void index(MatchResult result) {
+        profiles.compute(result.getPlayer(), (player, profile) -> {
+            PlayerProfile updated = (profile == null ? PlayerProfile.empty(player) : profile).with(result);
+            for (Map.Entry<Ranking, Leaderboard> board : leaderboards.entrySet()) {
+                long score = board.getKey().scoreOf(updated);
+                if (score >= 0) {
+                    board.getValue().put(player, score);
+                }
+            }
+            return updated;
+        });
+    }
+
+    /**
+     * Gets a player's profile.
+     *
+     * @return The profile, or null if the player has no recorded games.
+     */
+    public PlayerProfile getProfile(String player) {
+        return profiles.get(player);
+    }
+
+    public int getPlayers() {
+        return profiles.size();
+    }
+
+    /**
+     * Gets the best players of a leaderboard.
+     *
+     * @param ranking The leaderboard.
+     * @param count   How many players to get at most.
+     * @return The players, best first.
+     */
+    public List<Leaderboard.Entry> getTop(Ranking ranking, int count) {
+        return count <= 0 ? Collections.emptyList() : leaderboards.get(ranking).top(count);
+    }
+
+    /**
+     * Gets a player's rank on a leaderboard.
+     *
+     * @return The rank, starting at 1, or 0 if the player is not on the leaderboard.
+     */
+    public int getRank(Ranking ranking, String player) {
+        return leaderboards.get(ranking).rankOf(player);
+    }
+
+    /**
+     * Gets the number of players on a leaderboard.
+     */
+    public int getRanked(Ranking ranking) {
+        return leaderboards.get(ranking).size();
+    }
+
+    /**
+     * Writes out everything recorded and closes the data file.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (channel) {
+            if (channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+            }
+        }
+    }
+}
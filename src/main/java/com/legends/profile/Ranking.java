@@ -0,0 +1,51 @@
+package com.legends.profile;
+
+/**
+ * The leaderboards kept by the {@link ProfileStore}, and the score of a
+ * player on each.
+ */
+public enum Ranking {
+    ROUNDS_SURVIVED("Most rounds survived", "rounds", false),
+    GOLD_EARNED("Most gold earned", "gold", false),
+    FASTEST_NEXUS_WIN("Fastest Nexus win", "rounds", true);
+
+    private final String title;
+    private final String unit;
+    private final boolean lowerIsBetter;
+
+    Ranking(String title, String unit, boolean lowerIsBetter) {
+        this.title = title;
+        this.unit = unit;
+        this.lowerIsBetter = lowerIsBetter;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public boolean isLowerBetter() {
+        return lowerIsBetter;
+    }
+
+    /**
+     * Gets a player's score.
+     *
+     * @return The score, or -1 if the player is not on this leaderboard.
+     */
+    long scoreOf(PlayerProfile profile) {
+        switch (this) {
+            case ROUNDS_SURVIVED:
+                return profile.getBestRounds() > 0 ? profile.getBestRounds() : -1;
+            case GOLD_EARNED:
+                return profile.getTotalGold();
+            case FASTEST_NEXUS_WIN:
+                return profile.getFastestWin() > 0 ? profile.getFastestWin() : -1;
+            default:
+                return -1;
+        }
+    }
+}
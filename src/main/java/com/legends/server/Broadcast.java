@@ -0,0 +1,207 @@
+package com.legends.server;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What one session shows its spectators. Output of the game is encoded once
+ * into a chunk of bytes, and every spectator is sent a view of the same chunk.
+ * Board frames are marked as keyframes, since each shows the whole match.
+ * While nobody watches, nothing is encoded; only the latest board frame is
+ * kept, for the next spectator to start with.
+ * Only the most recent chunks are kept; a spectator that falls further behind
+ * (e.g. on a slow connection) skips ahead to the latest keyframe, so a slow
+ * spectator never holds up the match or the other spectators.
+ * <p>
+ * Chunks are published by the session's thread and read by the
+ * {@link SpectatorServer} thread.
+ */
+final class Broadcast {
+    private static final int MAX_BACKLOG_BYTES = 128 * 1024;
+    private static final ThreadLocal<CharsetEncoder> ENCODER =
+            ThreadLocal.withInitial(StandardCharsets.UTF_8::newEncoder);
+
+    private final SpectatorServer spectators;
+    private volatile String player = "guest";
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private long firstSeq; // Sequence number of chunks.get(0)
+    private int backlogBytes;
+    private ByteBuffer keyframe;
+    private String keyframeText; // The latest keyframe while nobody watches, encoded on demand
+    private long keyframeSeq = -1;
+    private volatile int watchers;
+    private volatile boolean ended;
+
+    /**
+     * Where a spectator is in the broadcast.
+     */
+    static final class Cursor {
+        long nextSeq;
+        int skipped; // Times the spectator fell behind
+    }
+
+    Broadcast(SpectatorServer spectators) {
+        this.spectators = spectators;
+    }
+
+    String getPlayer() {
+        return player;
+    }
+
+    void setPlayer(String player) {
+        this.player = player;
+    }
+
+    /**
+     * Checks if anyone is watching, i.e. if output has to be published at all.
+     *
+     * @return True if there are spectators.
+     */
+    boolean isWatched() {
+        return watchers > 0;
+    }
+
+    boolean hasEnded() {
+        return ended;
+    }
+
+    /**
+     * Publishes output of the game.
+     *
+     * @param text     The text, with CR LF line ends.
+     * @param keyframe True if the text is a complete board frame.
+     */
+    void publish(CharSequence text, boolean keyframe) {
+        if (watchers == 0) {
+            if (keyframe) {
+                String frame = text.toString();
+                synchronized (this) {
+                    this.keyframe = null;
+                    this.keyframeText = frame;
+                    this.keyframeSeq = firstSeq + chunks.size();
+                }
+            }
+            return;
+        }
+        ByteBuffer chunk = encode(text);
+        synchronized (this) {
+            long seq = firstSeq + chunks.size();
+            if (keyframe) {
+                this.keyframe = chunk;
+                this.keyframeText = null;
+                this.keyframeSeq = seq;
+            }
+            if (watchers == 0) {
+                // The last spectator left meanwhile
+                firstSeq++;
+            } else {
+                chunks.add(chunk);
+                backlogBytes += chunk.remaining();
+                while (backlogBytes > MAX_BACKLOG_BYTES && chunks.size() > 1) {
+                    backlogBytes -= chunks.remove(0).remaining();
+                    firstSeq++;
+                }
+            }
+        }
+        if (watchers > 0) {
+            spectators.changed(this);
+        }
+    }
+
+    /**
+     * Encodes text into a direct buffer of exactly its size, from which it can
+     * be written to any number of connections without further copies.
+     */
+    private static ByteBuffer encode(CharSequence text) {
+        int bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        ByteBuffer chunk = ByteBuffer.allocateDirect(bytes);
+        CharsetEncoder encoder = ENCODER.get().reset();
+        encoder.encode(CharBuffer.wrap(text), chunk, true);
+        encoder.flush(chunk);
+        chunk.flip();
+        return chunk;
+    }
+
+    /**
+     * Gets the next chunk to send a spectator. A spectator that fell behind
+     * the kept chunks is sent the latest keyframe and continues after it.
+     *
+     * @param cursor The spectator's position, moved past the chunk.
+     * @return A view of the chunk, or null if the spectator is up to date.
+     */
+    synchronized ByteBuffer next(Cursor cursor) {
+        if (cursor.nextSeq < firstSeq) {
+            cursor.skipped++;
+            cursor.nextSeq = Math.max(firstSeq, keyframeSeq + 1);
+            if (keyframe != null) {
+                return keyframe.duplicate();
+            }
+        }
+        int index = (int) (cursor.nextSeq - firstSeq);
+        if (index >= chunks.size()) {
+            return null;
+        }
+        cursor.nextSeq++;
+        return chunks.get(index).duplicate();
+    }
+
+    /**
+     * Starts watching: the spectator is sent the latest board, then everything new.
+     *
+     * @param cursor The new spectator's position.
+     * @return A view of the latest keyframe, or null if no board was shown yet.
+     */
+    synchronized ByteBuffer watch(Cursor cursor) {
+        watchers++;
+        cursor.nextSeq = firstSeq + chunks.size();
+        if (keyframe == null && keyframeText != null) {
+            keyframe = encode(keyframeText);
+            keyframeText = null;
+        }
+        return keyframe != null ? keyframe.duplicate() : null;
+    }
+
+    synchronized void unwatch() {
+        if (--watchers == 0) {
+            firstSeq += chunks.size();
+            chunks.clear();
+            backlogBytes = 0;
+            keyframeText = null;
+        }
+    }
+
+    /**
+     * Frees what is kept for new spectators while the session is put away.
+     */
+    synchronized void release() {
+        if (watchers == 0) {
+            keyframe = null;
+            keyframeText = null;
+        }
+    }
+
+    /**
+     * Marks the broadcast as over because the player left.
+     */
+    void end() {
+        ended = true;
+        spectators.changed(this);
+    }
+}
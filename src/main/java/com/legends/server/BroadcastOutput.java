@@ -0,0 +1,111 @@
+package com.legends.server;
+
+import com.legends.io.ConsoleOutput;
+import com.legends.io.Output;
+import com.legends.io.Verbosity;
+
+/**
+ * The output of a session with spectators: everything goes to the player as
+ * usual, and is also published to the session's {@link Broadcast} when
+ * someone is watching. Text is collected until the game flushes (before it
+ * waits for the player); board frames are published on their own as keyframes.
+ * Publishing takes no time on the connections of the spectators - they are
+ * written to by the {@link SpectatorServer} thread. Like the player's output,
+ * it may be printed to by several threads at once.
+ */
+final class BroadcastOutput implements Output {
+    private final Output player;
+    private final Broadcast broadcast;
+    private final StringBuilder pending = new StringBuilder();
+    private final StringBuilder frame = new StringBuilder();
+
+    BroadcastOutput(Output player, Broadcast broadcast) {
+        this.player = player;
+        this.broadcast = broadcast;
+    }
+
+    @Override
+    public synchronized void print(Object s) {
+        player.print(s);
+        append(String.valueOf(s));
+    }
+
+    @Override
+    public synchronized void println(Object s) {
+        player.println(s);
+        append(String.valueOf(s));
+        append("\n");
+    }
+
+    @Override
+    public synchronized void println() {
+        player.println();
+        append("\n");
+    }
+
+    @Override
+    public synchronized void printError(Object s) {
+        player.printError(s);
+        append(String.valueOf(s));
+        append("\n");
+    }
+
+    @Override
+    public void printlnGreen(Object s) {
+        println(ConsoleOutput.ANSI_GREEN + s + ConsoleOutput.ANSI_RESET);
+    }
+
+    @Override
+    public void printlnRed(Object s) {
+        println(ConsoleOutput.ANSI_RED + s + ConsoleOutput.ANSI_RESET);
+    }
+
+    @Override
+    public synchronized void printFrame(CharSequence frame) {
+        player.printFrame(frame);
+        publishPending();
+        this.frame.setLength(0);
+        appendCrLf(this.frame, frame);
+        broadcast.publish(this.frame, true);
+    }
+
+    @Override
+    public Verbosity getVerbosity() {
+        return player.getVerbosity();
+    }
+
+    @Override
+    public void setVerbosity(Verbosity verbosity) {
+        player.setVerbosity(verbosity);
+    }
+
+    @Override
+    public synchronized void flush() {
+        player.flush();
+        publishPending();
+    }
+
+    private void append(CharSequence text) {
+        if (broadcast.isWatched()) {
+            appendCrLf(pending, text);
+        }
+    }
+
+    private void publishPending() {
+        if (pending.length() > 0) {
+            broadcast.publish(pending, false);
+            pending.setLength(0);
+        }
+    }
+
+    private static void appendCrLf(StringBuilder sb, CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n' && (i == 0 ? sb.length() == 0 || sb.charAt(sb.length() - 1) != '\r'
+                    : text.charAt(i - 1) != '\r')) {
+                sb.append('\r');
+            }
+            sb.append(c);
+        }
+    }
+}
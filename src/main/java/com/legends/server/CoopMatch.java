@@ -0,0 +1,397 @@
+package com.legends.server;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.legends.game.CoopTable;
+import com.legends.game.GameValor;
+import com.legends.game.QuitGameException;
+import com.legends.io.Input;
+import com.legends.io.Output;
+import com.legends.io.Verbosity;
+import com.legends.utils.metrics.Histogram;
+
+/**
+ * A cooperative Legends of Valor game on a server: a table of up to three
+ * players, each controlling one hero. The game runs on one of the server's
+ * {@link GameRunners}, once the host starts it or, for a table formed by the
+ * {@link Matchmaker}, once it is full or has waited long enough.
+ * Every player's session thread reads the player's lines and hands them to
+ * the question the game has open; the game puts its questions to all players
+ * at once, and the server's timer closes them at the deadline, so a slow or
+ * idle player never holds the others up for longer than the turn time.
+ */
+final class CoopMatch implements CoopTable, Runnable {
+    static final int MAX_PLAYERS = 3;
+
+    private enum State {
+        OPEN, PLAYING, OVER
+    }
+
+    private final int number;
+    private final ScheduledExecutorService timer;
+    private final long turnMillis;
+    private final String difficulty;
+    private final boolean matchmade; // Formed by the matchmaker rather than a host
+    private final Histogram playerWaits;
+    private final List<Seat> seats = new CopyOnWriteArrayList<>();
+    private final TableOutput output;
+    private State state = State.OPEN; // Guarded by this
+    private Round round; // The open question, guarded by this
+
+    /**
+     * Constructs an open table.
+     *
+     * @param number      The number of the table, shown to players.
+     * @param timer       Closes the questions at their deadlines.
+     * @param turnMillis  How long the players have for every turn.
+     * @param verbosity   How much the game narrates.
+     * @param difficulty  "Normal" or "Hard".
+     * @param matchmade   True if the matchmaker starts the game, false if its host does.
+     * @param playerWaits Records how long every player waited for the game to start.
+     */
+    CoopMatch(int number, ScheduledExecutorService timer, long turnMillis, Verbosity verbosity,
+            String difficulty, boolean matchmade, Histogram playerWaits) {
+        this.number = number;
+        this.timer = timer;
+        this.turnMillis = turnMillis;
+        this.difficulty = difficulty;
+        this.matchmade = matchmade;
+        this.playerWaits = playerWaits;
+        this.output = new TableOutput(seats, verbosity);
+    }
+
+    int getNumber() {
+        return number;
+    }
+
+    /**
+     * Gets the name of the player who opened the table.
+     */
+    String getHost() {
+        List<Seat> players = seats;
+        return players.isEmpty() ? "?" : players.get(0).name;
+    }
+
+    int getPlayers() {
+        return seats.size();
+    }
+
+    String getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Seats a player at the table, if the game has not started and there is room.
+     *
+     * @param name   The player's name.
+     * @param input  The player's input.
+     * @param output The player's output.
+     * @return The seat, or null if the player cannot join.
+     */
+    synchronized Seat join(String name, Input input, Output output) {
+        if (state != State.OPEN || seats.size() >= MAX_PLAYERS) {
+            return null;
+        }
+        announce(name + " joined the table (" + (seats.size() + 1) + "/" + MAX_PLAYERS + " players).");
+        Seat seat = new Seat(name, input, output, seats.size());
+        seats.add(seat);
+        return seat;
+    }
+
+    /**
+     * Starts the game with the players seated so far.
+     *
+     * @param runners The runners to run the game on.
+     * @return False if the game could not be started.
+     */
+    synchronized boolean start(GameRunners runners) {
+        if (state != State.OPEN) {
+            return false;
+        }
+        state = State.PLAYING;
+        try {
+            if (runners.isBusy()) {
+                announce("All game tables are busy. The game starts as soon as one is free ("
+                        + runners.getQueuedGames() + " games ahead).");
+            }
+            runners.execute(this, seats.size());
+            return true;
+        } catch (RejectedExecutionException e) {
+            state = State.OVER;
+            announce("The server cannot start any more games right now. Press Enter to return to the menu.");
+            return false;
+        }
+    }
+
+    /**
+     * Closes a table that has not started, e.g. because its host left.
+     *
+     * @param reason Told to the players still seated.
+     */
+    synchronized void cancel(String reason) {
+        if (state != State.OPEN) {
+            return;
+        }
+        state = State.OVER;
+        announce(reason + " Press Enter to return to the menu.");
+    }
+
+    /**
+     * Serves a player's seat on the player's session thread until the game is
+     * over or the player leaves: every line the player types answers the open
+     * question, if it was put to the player.
+     *
+     * @param seat The player's seat.
+     * @throws java.util.NoSuchElementException If the player disconnected.
+     */
+    void play(Seat seat) {
+        try {
+            while (deliver(seat, seat.input.readLine())) {
+                // Until the game is over
+            }
+        } catch (QuitGameException e) {
+            leave(seat);
+            seat.output.println("You left the table.");
+        } catch (RuntimeException e) {
+            leave(seat);
+            throw e;
+        }
+    }
+
+    /**
+     * Hands a line to the open question.
+     *
+     * @return False if the game is over.
+     */
+    private boolean deliver(Seat seat, String line) {
+        Round open;
+        synchronized (this) {
+            if (state == State.OVER) {
+                return false;
+            }
+            if (state == State.OPEN) {
+                seat.output.println(matchmade ? "Still looking for players... (Q to leave the queue)"
+                        : "Waiting for " + getHost() + " to start the game...");
+                return true;
+            }
+            open = round;
+        }
+        if (open == null || !open.answer(seat.index, line)) {
+            seat.output.println("Please wait for your next turn.");
+        } else if (open.isWaiting()) {
+            seat.output.println("Waiting for the other players...");
+        }
+        return true;
+    }
+
+    private void leave(Seat seat) {
+        Round open;
+        synchronized (this) {
+            if (!seat.present) {
+                return;
+            }
+            seat.present = false;
+            if (state == State.OPEN) {
+                // Not playing yet; make room for someone else
+                seats.remove(seat);
+                for (int i = 0; i < seats.size(); i++) {
+                    seats.get(i).index = i;
+                }
+                announce(seat.name + " left the table.");
+                return;
+            }
+            open = round;
+        }
+        if (open != null) {
+            open.leave(seat.index);
+        }
+        announce(seat.name + " left the table. Their hero fights on by itself.");
+    }
+
+    private void announce(String message) {
+        output.println(message);
+        output.flush();
+    }
+
+    @Override
+    public void run() {
+        long now = System.nanoTime();
+        for (Seat seat : seats) {
+            playerWaits.record(now - seat.joinedNanos);
+        }
+        try {
+            GameValor game = new GameValor(null, output);
+            game.setDifficulty(difficulty);
+            game.playCoop(this, turnMillis);
+        } catch (RuntimeException e) {
+            System.err.println("Co-op game " + number + " ended with an error: " + e);
+            output.printlnRed("Sorry, the game ended with an error.");
+        } finally {
+            synchronized (this) {
+                state = State.OVER;
+            }
+            announce("\nThe co-op game is over. Press Enter to return to the menu.");
+        }
+    }
+
+    @Override
+    public int getSeats() {
+        return seats.size();
+    }
+
+    @Override
+    public String getPlayerName(int seat) {
+        return seats.get(seat).name;
+    }
+
+    @Override
+    public Output getOutput() {
+        return output;
+    }
+
+    @Override
+    public String[] ask(String[] prompts, long timeoutMillis) {
+        Round question = new Round(prompts, seats);
+        synchronized (this) {
+            round = question;
+        }
+        for (Seat seat : seats) {
+            if (question.isAsked(seat.index)) {
+                seat.output.print(prompts[seat.index]);
+            }
+        }
+        output.flush();
+        ScheduledFuture<?> deadline = timer.schedule(question::close, timeoutMillis, TimeUnit.MILLISECONDS);
+        try {
+            return question.await();
+        } finally {
+            deadline.cancel(false);
+            synchronized (this) {
+                round = null;
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (Seat seat : seats) {
+            if (seat.present) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A player at the table.
+     */
+    static final class Seat {
+        private final String name;
+        private final Input input;
+        private final Output output;
+        private final long joinedNanos = System.nanoTime();
+        private volatile int index; // The hero the player controls
+        private volatile boolean present = true;
+
+        private Seat(String name, Input input, Output output, int index) {
+            this.name = name;
+            this.input = input;
+            this.output = output;
+            this.index = index;
+        }
+
+        Output getOutput() {
+            return output;
+        }
+
+        /**
+         * Checks if the player is still at the table.
+         */
+        boolean isPresent() {
+            return present;
+        }
+    }
+
+    /**
+     * A question put to the players at once, open until everyone asked has
+     * answered or left, or the deadline closes it.
+     */
+    private static final class Round {
+        private final boolean[] asked;
+        private final String[] answers;
+        private int waiting;
+        private boolean closed;
+
+        Round(String[] prompts, List<Seat> seats) {
+            this.asked = new boolean[prompts.length];
+            this.answers = new String[prompts.length];
+            for (Seat seat : seats) {
+                if (seat.index < prompts.length && prompts[seat.index] != null && seat.present) {
+                    asked[seat.index] = true;
+                    waiting++;
+                }
+            }
+        }
+
+        synchronized boolean isAsked(int seat) {
+            return seat < asked.length && asked[seat];
+        }
+
+        synchronized boolean isWaiting() {
+            return !closed && waiting > 0;
+        }
+
+        /**
+         * Records a player's answer.
+         *
+         * @return False if the player was not asked, has answered already, or
+         *         the question is closed.
+         */
+        synchronized boolean answer(int seat, String line) {
+            if (closed || seat >= asked.length || !asked[seat] || answers[seat] != null) {
+                return false;
+            }
+            answers[seat] = line;
+            if (--waiting == 0) {
+                notifyAll();
+            }
+            return true;
+        }
+
+        synchronized void leave(int seat) {
+            if (!closed && seat < asked.length && asked[seat] && answers[seat] == null) {
+                asked[seat] = false;
+                if (--waiting == 0) {
+                    notifyAll();
+                }
+            }
+        }
+
+        synchronized void close() {
+            closed = true;
+            notifyAll();
+        }
+
+        /**
+         * Waits until the question is answered or closed, and closes it.
+         *
+         * @return The answers.
+         */
+        synchronized String[] await() {
+            try {
+                while (!closed && waiting > 0) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            closed = true;
+            return answers.clone();
+        }
+    }
+}
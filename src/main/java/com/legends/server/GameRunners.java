@@ -0,0 +1,176 @@
+package com.legends.server;
+
+import java.io.Closeable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.legends.utils.audio.NullAudioBackend;
+import com.legends.utils.audio.SoundManager;
+import com.legends.utils.metrics.Histogram;
+import com.legends.utils.metrics.Metrics;
+
+/**
+ * The slots for the games started from the server's lobby: matchmade games
+ * and co-op games. At most a fixed number of games run at once, and a bounded
+ * number wait for a free slot in order of arrival; further games are refused,
+ * so a burst of players never creates an unbounded number of games. A co-op
+ * game runs on a runner thread of its own, with a silent {@link SoundManager};
+ * a single player's game runs on the player's session thread once it has a
+ * slot, so every game holds one thread.
+ */
+final class GameRunners implements Executor, Closeable {
+    /** Stack size of runner threads; game code never recurses deeply. */
+    private static final long STACK_BYTES = 256 * 1024;
+    private static final Histogram WAIT_TIME = Metrics.getDefault().histogram("server.game_wait");
+
+    private final ThreadPoolExecutor pool;
+    private final Semaphore slots;
+    private final int maxAdmitted; // Running and waiting games
+    private final AtomicInteger admitted = new AtomicInteger();
+    private final AtomicInteger waitingGames = new AtomicInteger();
+    private final AtomicInteger waitingPlayers = new AtomicInteger();
+    private final AtomicLong refused = new AtomicLong();
+
+    /**
+     * Constructs the runners. Threads are started as co-op games arrive.
+     *
+     * @param runners   How many games can run at once.
+     * @param maxQueued How many games can wait for a slot.
+     */
+    GameRunners(int runners, int maxQueued) {
+        this.slots = new Semaphore(runners, true);
+        this.maxAdmitted = runners + maxQueued;
+        AtomicInteger next = new AtomicInteger(1);
+        // Admission is bounded by maxAdmitted, and no more games than slots need a thread
+        this.pool = new ThreadPoolExecutor(runners, runners, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), task -> {
+                    Thread thread = new Thread(null, () -> {
+                        SoundManager.useForCurrentThread(SoundManager.create(NullAudioBackend.INSTANCE));
+                        task.run();
+                    }, "game-runner-" + next.getAndIncrement(), STACK_BYTES);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Runs a game for one player on a runner thread as soon as a slot is free.
+     *
+     * @throws RejectedExecutionException If too many games are waiting already.
+     */
+    @Override
+    public void execute(Runnable game) {
+        execute(game, 1);
+    }
+
+    /**
+     * Runs a game on a runner thread as soon as a slot is free.
+     *
+     * @param game    The game.
+     * @param players The number of players waiting for it.
+     * @throws RejectedExecutionException If too many games are waiting already.
+     */
+    void execute(Runnable game, int players) {
+        long queuedNanos = admit(players);
+        try {
+            pool.execute(() -> play(game, players, queuedNanos));
+        } catch (RejectedExecutionException e) {
+            leave(players);
+            admitted.decrementAndGet();
+            refused.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Plays a game for one player on the calling thread, which waits for a
+     * free slot first.
+     *
+     * @param game The game.
+     * @throws RejectedExecutionException If too many games are waiting already.
+     */
+    void run(Runnable game) {
+        if (pool.isShutdown()) {
+            refused.incrementAndGet();
+            throw new RejectedExecutionException("The server is shutting down");
+        }
+        play(game, 1, admit(1));
+    }
+
+    /**
+     * Counts a game as waiting for a slot, unless too many are waiting already.
+     *
+     * @return The moment the game started waiting.
+     */
+    private long admit(int players) {
+        if (admitted.incrementAndGet() > maxAdmitted) {
+            admitted.decrementAndGet();
+            refused.incrementAndGet();
+            throw new RejectedExecutionException("Too many games are waiting for a slot");
+        }
+        waitingGames.incrementAndGet();
+        waitingPlayers.addAndGet(players);
+        return System.nanoTime();
+    }
+
+    private void leave(int players) {
+        waitingGames.decrementAndGet();
+        waitingPlayers.addAndGet(-players);
+    }
+
+    private void play(Runnable game, int players, long queuedNanos) {
+        slots.acquireUninterruptibly();
+        leave(players);
+        WAIT_TIME.recordSince(queuedNanos);
+        try {
+            game.run();
+        } finally {
+            slots.release();
+            admitted.decrementAndGet();
+        }
+    }
+
+    /**
+     * Checks if a new game would have to wait for a slot.
+     */
+    boolean isBusy() {
+        return slots.availablePermits() == 0 || waitingGames.get() > 0;
+    }
+
+    int getRunners() {
+        return pool.getMaximumPoolSize();
+    }
+
+    int getRunningGames() {
+        return getRunners() - slots.availablePermits();
+    }
+
+    int getQueuedGames() {
+        return waitingGames.get();
+    }
+
+    /**
+     * Gets the number of players whose games wait for a slot.
+     */
+    int getQueuedPlayers() {
+        return waitingPlayers.get();
+    }
+
+    long getRefusedGames() {
+        return refused.get();
+    }
+
+    /**
+     * Starts no more games. Running games end when their players disconnect.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,351 @@
+package com.legends.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.legends.profile.ProfileStore;
+import com.legends.utils.metrics.Metrics;
+
+/**
+ * Serves the games to many players at once over TCP, so one process can host
+ * many players. Every connection is a telnet-style text session with its own
+ * game, input, output and sound settings, running on a thread of its own
+ * (a virtual thread when the JVM supports them). The number of sessions, in
+ * total and per address, is limited; connections over the limit are told so
+ * and closed. Sessions whose players are idle are hibernated to disk (see
+ * {@link GameSession}), so memory use follows the number of active players
+ * rather than the number of connected ones. Players can find games and each
+ * other through the {@link Matchmaker}, which runs the games it starts on a
+ * bounded pool of {@link GameRunners}, and spectators can watch the matches on
+ * a port of their own (see {@link SpectatorServer}). All players' results
+ * go to one {@link ProfileStore} in the save directory.
+ */
+public class GameServer implements Closeable {
+    private static final int ACCEPT_BACKLOG = 1024;
+
+    private final ServerConfig config;
+    private final ServerSocketChannel serverChannel;
+    private final Path spillDirectory;
+    private final SessionParking parking;
+    private final SpectatorServer spectators; // Null if spectators are not allowed
+    private final ExecutorService sessionThreads = SessionThreads.newExecutor("session-");
+    private final GameRunners runners;
+    private final Matchmaker matchmaker;
+    private final ProfileStore profiles;
+    private final Semaphore slots;
+    private final Map<InetAddress, Integer> sessionsPerAddress = new ConcurrentHashMap<>(); // Counted atomically by compute
+    private final Set<GameSession> sessions = ConcurrentHashMap.newKeySet();
+    private final AtomicLong acceptedSessions = new AtomicLong();
+    private final AtomicLong rejectedSessions = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * Constructs a server and binds it to its address.
+     *
+     * @param config The server settings.
+     * @throws IOException If the address cannot be bound, or the save directory or
+     *                     profile store created.
+     */
+    public GameServer(ServerConfig config) throws IOException {
+        this.config = config;
+        this.slots = new Semaphore(config.getMaxSessions());
+        Files.createDirectories(config.getSaveDirectory());
+        this.profiles = ProfileStore.open(config.getSaveDirectory().resolve(ProfileStore.DEFAULT_FILE));
+        ProfileStore.setDefault(profiles);
+        Files.createDirectories(config.getSpillDirectory());
+        this.spillDirectory = Files.createTempDirectory(config.getSpillDirectory(), "server-");
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.socket().setReuseAddress(true);
+        serverChannel.bind(config.getAddress(), ACCEPT_BACKLOG);
+        this.parking = new SessionParking(this, config.getIdleTimeoutMillis());
+        this.runners = new GameRunners(config.getMaxGames(), config.getMaxQueuedGames());
+        this.matchmaker = new Matchmaker(runners, config);
+        Metrics.getDefault().gauge("server.sessions", this::getActiveSessions);
+        Metrics.getDefault().gauge("server.games_running", runners::getRunningGames);
+        Metrics.getDefault().gauge("server.games_queued", runners::getQueuedGames);
+        this.spectators = config.getSpectatorAddress() == null ? null
+                : new SpectatorServer(this, config.getSpectatorAddress(), config.getMaxSpectators());
+    }
+
+    /**
+     * Accepts players until the server is closed.
+     */
+    public void serve() {
+        while (!closed) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (IOException e) {
+                if (closed) {
+                    break;
+                }
+                // E.g. out of file descriptors - give sessions a moment to end
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                continue;
+            }
+            admit(channel);
+        }
+    }
+
+    private void admit(SocketChannel channel) {
+        if (!slots.tryAcquire()) {
+            reject(channel.socket(), "The server is full. Please try again later.");
+            return;
+        }
+        InetAddress address = channel.socket().getInetAddress();
+        int limit = config.getMaxSessionsPerAddress();
+        boolean[] admitted = new boolean[1];
+        sessionsPerAddress.compute(address, (a, count) -> {
+            int current = count == null ? 0 : count;
+            admitted[0] = limit <= 0 || current < limit;
+            return admitted[0] ? current + 1 : count;
+        });
+        if (!admitted[0]) {
+            slots.release();
+            reject(channel.socket(), "Too many players are connected from your address.");
+            return;
+        }
+
+        GameSession session = new GameSession(this, channel, acceptedSessions.incrementAndGet());
+        sessions.add(session);
+        resume(session);
+    }
+
+    /**
+     * Runs a new or woken up session on a thread of its own.
+     */
+    void resume(GameSession session) {
+        try {
+            sessionThreads.execute(session);
+        } catch (RejectedExecutionException e) {
+            session.end();
+        }
+    }
+
+    /**
+     * Hands a hibernated session over to be watched until its player types again.
+     */
+    void park(GameSession session) {
+        if (closed) {
+            session.end();
+        } else {
+            parking.park(session);
+        }
+    }
+
+    private void reject(Socket socket, String reason) {
+        rejectedSessions.incrementAndGet();
+        try (Socket s = socket; OutputStream out = s.getOutputStream()) {
+            out.write((reason + "\r\n").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            // The player is gone already
+        }
+    }
+
+    /**
+     * Frees the slot of a session that has ended.
+     */
+    void ended(GameSession session) {
+        if (!sessions.remove(session)) {
+            return;
+        }
+        sessionsPerAddress.computeIfPresent(session.getAddress(), (a, count) -> count > 1 ? count - 1 : null);
+        slots.release();
+    }
+
+    ServerConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Gets the directory for the save files of a player.
+     *
+     * @param player The player name, already limited to safe characters.
+     * @return The directory.
+     */
+    Path getSaveDirectory(String player) {
+        return config.getSaveDirectory().resolve(player);
+    }
+
+    Matchmaker getMatchmaker() {
+        return matchmaker;
+    }
+
+    SpectatorServer getSpectators() {
+        return spectators;
+    }
+
+    /**
+     * Gets the matches spectators can watch: sessions playing Legends of Valor.
+     *
+     * @return The broadcasts of the matches.
+     */
+    List<Broadcast> getLiveMatches() {
+        List<Broadcast> matches = new ArrayList<>();
+        for (GameSession session : sessions) {
+            Broadcast broadcast = session.getBroadcast();
+            if (broadcast != null && session.isInValorMatch()) {
+                matches.add(broadcast);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Gets the directory for the spill files of this server's hibernated sessions.
+     */
+    Path getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    /**
+     * Gets the port the server listens on (useful when bound to port 0).
+     *
+     * @return The port.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public int getActiveSessions() {
+        return sessions.size();
+    }
+
+    /**
+     * Gets the port spectators connect to (useful when bound to port 0).
+     *
+     * @return The port, or -1 if spectators are not allowed.
+     */
+    public int getSpectatorPort() {
+        return spectators == null ? -1 : spectators.getPort();
+    }
+
+    /**
+     * Gets the number of connected sessions that are hibernated, i.e. hold
+     * neither a thread nor their game in memory.
+     *
+     * @return The number of hibernated sessions.
+     */
+    public int getHibernatedSessions() {
+        return parking.getParkedSessions();
+    }
+
+    /**
+     * Gets the number of games started from the lobby that are being played.
+     */
+    public int getRunningGames() {
+        return runners.getRunningGames();
+    }
+
+    /**
+     * Gets the number of games started from the lobby that wait for a free runner.
+     */
+    public int getQueuedGames() {
+        return runners.getQueuedGames();
+    }
+
+    /**
+     * Gets the number of players in the lobby waiting for their game to start.
+     */
+    public int getQueuedPlayers() {
+        return matchmaker.getQueuedPlayers();
+    }
+
+    /**
+     * Gets how long players waited on average from joining a queue in the
+     * lobby to their game starting.
+     *
+     * @return The average wait in milliseconds.
+     */
+    public double getAverageWaitMillis() {
+        return matchmaker.getPlayerWaits().getMeanNanos() / 1e6;
+    }
+
+    /**
+     * Gets the longest time a player waited from joining a queue in the lobby
+     * to their game starting.
+     *
+     * @return The longest wait in milliseconds.
+     */
+    public double getMaxWaitMillis() {
+        return matchmaker.getPlayerWaits().getMaxNanos() / 1e6;
+    }
+
+    /**
+     * Gets the number of games refused because too many were waiting for a runner.
+     */
+    public long getRefusedGames() {
+        return runners.getRefusedGames();
+    }
+
+    public long getAcceptedSessions() {
+        return acceptedSessions.get();
+    }
+
+    public long getRejectedSessions() {
+        return rejectedSessions.get();
+    }
+
+    /**
+     * Stops accepting players and disconnects everyone.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+        parking.close();
+        matchmaker.close();
+        runners.close();
+        if (spectators != null) {
+            spectators.close();
+        }
+        for (GameSession session : sessions) {
+            session.disconnect();
+        }
+        sessionThreads.shutdown();
+        deleteSpillDirectory();
+        try {
+            profiles.close();
+        } catch (IOException e) {
+            System.err.println("Could not close the profile store: " + e);
+        }
+    }
+
+    private void deleteSpillDirectory() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spillDirectory)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(spillDirectory);
+        } catch (IOException e) {
+            // Left in the temp directory
+        }
+    }
+}
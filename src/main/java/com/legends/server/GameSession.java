@@ -0,0 +1,296 @@
+package com.legends.server;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+import com.legends.game.GameInterface;
+import com.legends.game.GameLauncher;
+import com.legends.game.GameValor;
+import com.legends.game.Hibernation;
+import com.legends.game.QuitGameException;
+import com.legends.io.ConsoleInput;
+import com.legends.io.Input;
+import com.legends.io.Output;
+import com.legends.io.StreamOutput;
+import com.legends.utils.GameCatalog;
+import com.legends.utils.audio.NullAudioBackend;
+import com.legends.utils.audio.SoundManager;
+
+/**
+ * One player connected to a {@link GameServer}: asks for the player's name,
+ * then runs the game selection screen and games over the connection.
+ * Sounds cannot be heard over a text connection, so the session has its own
+ * silent {@link SoundManager} and never touches the server's audio device.
+ * <p>
+ * A session whose player has been idle for a while at a point the game can be
+ * resumed from is hibernated: its game is written to a spill file, its thread
+ * ends, and the connection is watched by the server's {@link SessionParking}.
+ * When the player types again, the session runs again on a new thread: the
+ * game is read back and plays on from where it stopped, and the screen the
+ * player is looking at is redrawn silently, so the player notices nothing.
+ * <p>
+ * If the server allows spectators, everything the player sees is also
+ * published to the session's {@link Broadcast}, and the session is listed as
+ * a live match while the player is in a Legends of Valor game.
+ * <p>
+ * Games found through the {@link Matchmaker} run on the server's
+ * {@link GameRunners}; a player in a co-op game serves their seat on the
+ * session's thread (see {@link CoopMatch}).
+ */
+class GameSession implements Runnable {
+    private static final int MIN_NAME_LENGTH = 3;
+    private static final int MAX_NAME_LENGTH = 20;
+
+    private final GameServer server;
+    private final SocketChannel channel;
+    private final long id;
+    private final SoundManager sound = SoundManager.create(NullAudioBackend.INSTANCE);
+    private volatile long lastInputNanos = System.nanoTime();
+    private volatile Broadcast broadcast; // Once named, if spectators are allowed
+    private volatile boolean inValorMatch;
+    private volatile boolean hibernationAllowed = true;
+
+    private String player; // The player's name, once named
+    private Path saves; // Save directory of the player, once named
+    private Hibernation.Stage stage; // Where the session was put away, null while it runs
+    private GameCatalog spillCatalog; // The catalog the spill file refers to
+    private StreamOutput output;
+
+    GameSession(GameServer server, SocketChannel channel, long id) {
+        this.server = server;
+        this.channel = channel;
+        this.id = id;
+    }
+
+    InetAddress getAddress() {
+        return channel.socket().getInetAddress();
+    }
+
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Gets how long the player has not typed anything.
+     *
+     * @return The idle time in milliseconds.
+     */
+    long getIdleMillis() {
+        return (System.nanoTime() - lastInputNanos) / 1_000_000L;
+    }
+
+    Broadcast getBroadcast() {
+        return broadcast;
+    }
+
+    boolean isInValorMatch() {
+        return inValorMatch;
+    }
+
+    String getPlayer() {
+        return player;
+    }
+
+    Path getSaveDirectory() {
+        return saves;
+    }
+
+    /**
+     * Checks if the session may be hibernated when its player is idle.
+     */
+    boolean isHibernationAllowed() {
+        return hibernationAllowed;
+    }
+
+    /**
+     * Keeps the session from hibernating, e.g. while its game runs on one of
+     * the server's {@link GameRunners} rather than on the session's thread.
+     */
+    void setHibernationAllowed(boolean hibernationAllowed) {
+        this.hibernationAllowed = hibernationAllowed;
+    }
+
+    void inputReceived() {
+        lastInputNanos = System.nanoTime();
+    }
+
+    /**
+     * Called when the game waits for the player, i.e. a resumed session has
+     * finished redrawing the screen.
+     */
+    void inputWanted() {
+        if (output != null) {
+            output.setMuted(false);
+        }
+        Hibernation point = Hibernation.current();
+        if (point != null) {
+            inValorMatch = point.getStage() == Hibernation.Stage.PLAYING && point.getGame() instanceof GameValor;
+        }
+    }
+
+    @Override
+    public void run() {
+        SoundManager.useForCurrentThread(sound);
+        boolean hibernated = false;
+        try {
+            ServerConfig config = server.getConfig();
+            Socket socket = channel.socket();
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout((int) Math.min(Integer.MAX_VALUE, config.getPollMillis()));
+
+            output = new StreamOutput(socket.getOutputStream(), true);
+            output.setVerbosity(config.getVerbosity());
+            if (broadcast == null && server.getSpectators() != null) {
+                broadcast = new Broadcast(server.getSpectators());
+            }
+            // What the player sees, shared with the spectators if there can be any
+            Output screen = broadcast == null ? output : new BroadcastOutput(output, broadcast);
+            // An idle timeout ends the input like a disconnect does
+            Input input = new ConsoleInput(new Scanner(new InputStreamReader(
+                    new SessionInputStream(socket.getInputStream(), this, config), StandardCharsets.UTF_8)), screen);
+
+            if (stage == null) {
+                output.println("Welcome to Legends! Players online: " + server.getActiveSessions());
+                player = askName(input, output);
+                if (broadcast != null) {
+                    broadcast.setPlayer(player);
+                }
+                saves = server.getSaveDirectory(player);
+                Files.createDirectories(saves);
+                GameLauncher.runSelection(input, screen, saves.toFile(), player, false,
+                        server.getMatchmaker().lobbyFor(this));
+            } else {
+                resume(input, screen);
+            }
+        } catch (Hibernation point) {
+            hibernated = hibernate(point);
+        } catch (QuitGameException | NoSuchElementException | IOException e) {
+            // The player left
+        } catch (RuntimeException e) {
+            System.err.println("Session " + id + " ended with an error: " + e);
+        } finally {
+            output = null;
+            SoundManager.useForCurrentThread(null);
+            // Parked last: the session may run again on another thread right away
+            if (hibernated) {
+                if (broadcast != null) {
+                    broadcast.release();
+                }
+                server.park(this);
+            } else {
+                end();
+            }
+        }
+    }
+
+    /**
+     * Plays on from where the session was put away.
+     */
+    private void resume(Input input, Output screen) {
+        Hibernation.Stage resumeAt = stage;
+        GameInterface game = null;
+        stage = null;
+        if (resumeAt != Hibernation.Stage.SELECTION) {
+            try {
+                game = SpillCodec.read(getSpillFile(), spillCatalog);
+            } catch (IOException e) {
+                System.err.println("Session " + id + " could not be restored: " + e);
+                output.printlnRed("Sorry, your game could not be restored.");
+                resumeAt = Hibernation.Stage.SELECTION;
+            }
+            deleteSpillFile();
+            spillCatalog = null;
+        }
+        output.setMuted(true);
+        GameLauncher.resume(resumeAt, game, input, screen, saves.toFile(), player,
+                server.getMatchmaker().lobbyFor(this));
+    }
+
+    /**
+     * Writes the session's game to its spill file, to be parked.
+     *
+     * @return True if the session can be parked, false if it has to end.
+     */
+    private boolean hibernate(Hibernation point) {
+        try {
+            if (point.getStage() != Hibernation.Stage.SELECTION) {
+                spillCatalog = GameCatalog.current();
+                SpillCodec.write(getSpillFile(), point.getGame(), spillCatalog);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Session " + id + " could not hibernate: " + e);
+            deleteSpillFile();
+            return false;
+        }
+        stage = point.getStage();
+        return true;
+    }
+
+    /**
+     * Asks for the player's name, which selects the player's save files and
+     * profile, until one of at least {@value #MIN_NAME_LENGTH} letters, digits,
+     * '_' or '-' is given. Other characters are dropped.
+     */
+    private static String askName(Input input, StreamOutput output) {
+        while (true) {
+            output.print("Enter your name: ");
+            String typed = input.readLine();
+            StringBuilder name = new StringBuilder();
+            for (int i = 0; i < typed.length() && name.length() < MAX_NAME_LENGTH; i++) {
+                char c = typed.charAt(i);
+                if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-') {
+                    name.append(c);
+                }
+            }
+            if (name.length() >= MIN_NAME_LENGTH) {
+                output.println("Hello, " + name + "!");
+                return name.toString();
+            }
+            output.println("Names need at least " + MIN_NAME_LENGTH + " letters or digits.");
+        }
+    }
+
+    private Path getSpillFile() {
+        return server.getSpillDirectory().resolve("session-" + id + ".ser");
+    }
+
+    private void deleteSpillFile() {
+        try {
+            Files.deleteIfExists(getSpillFile());
+        } catch (IOException e) {
+            // Left for the server to clean up
+        }
+    }
+
+    /**
+     * Ends the session: disconnects the player and frees everything it holds.
+     */
+    void end() {
+        if (broadcast != null) {
+            broadcast.end();
+        }
+        disconnect();
+        deleteSpillFile();
+        sound.cleanup();
+        server.ended(this);
+    }
+
+    /**
+     * Closes the connection, which ends the session at its next read.
+     */
+    void disconnect() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.legends.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many players a {@link GameServer} can hold by opening many
+ * sessions at once, each playing a short scripted game. Every session sends
+ * its script one line at a time with a pause in between, like a player
+ * thinking, so sessions stay open for a while and overlap. New connections
+ * are opened as fast as the server greets the earlier ones (at most
+ * {@value #MAX_CONNECTING} at a time), so the ramp-up does not overflow the
+ * server's accept queue. All connections
+ * are driven by one thread with non-blocking sockets, so thousands of
+ * sessions need no more than one thread on this side.
+ *
+ * <pre>
+ * java -cp bin com.legends.server.LoadTestClient [host] [port] [sessions] [concurrent] [thinkMillis] [script]
+ * </pre>
+ *
+ * The script file holds one line per command, starting with the player name;
+ * by default a short Legends of Valor game is played and quit.
+ */
+public class LoadTestClient {
+    private static final String DEFAULT_SCRIPT = "loadtest\n2\n1\n1\n1\n1\nW\nq\nY\n6\n3\n";
+    private static final int MAX_CONNECTING = 256; // Sessions not yet greeted by the server
+    private static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final byte[] FULL = "The server is full".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TOO_MANY = "Too many players".getBytes(StandardCharsets.UTF_8);
+
+    private final InetSocketAddress address;
+    private final byte[][] lines;
+    private final long thinkNanos;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(64 * 1024);
+
+    private int completed;
+    private int rejected;
+    private int failed;
+    private int open;
+    private int connecting;
+    private int peakOpen;
+    private long bytesReceived;
+    private final List<Long> durations = new ArrayList<>();
+
+    /**
+     * One simulated player.
+     */
+    private static final class Session {
+        final SocketChannel channel;
+        final long started = System.nanoTime();
+        long nextLineAt;
+        int nextLine;
+        ByteBuffer sending;
+        final byte[] greeting = new byte[64];
+        int greetingLength;
+
+        Session(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private LoadTestClient(InetSocketAddress address, String script, long thinkMillis) {
+        this.address = address;
+        String[] text = script.split("\n");
+        this.lines = new byte[text.length][];
+        for (int i = 0; i < text.length; i++) {
+            lines[i] = (text[i] + "\r\n").getBytes(StandardCharsets.UTF_8);
+        }
+        this.thinkNanos = TimeUnit.MILLISECONDS.toNanos(thinkMillis);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : ServerConfig.DEFAULT_PORT;
+        int sessions = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int concurrent = args.length > 3 ? Integer.parseInt(args[3]) : sessions;
+        long thinkMillis = args.length > 4 ? Long.parseLong(args[4]) : 100;
+        String script = args.length > 5
+                ? new String(Files.readAllBytes(Paths.get(args[5])), StandardCharsets.UTF_8)
+                : DEFAULT_SCRIPT;
+
+        LoadTestClient client = new LoadTestClient(new InetSocketAddress(host, port), script, thinkMillis);
+        long start = System.nanoTime();
+        client.run(sessions, concurrent);
+        client.report(sessions, System.nanoTime() - start);
+    }
+
+    private void run(int sessions, int concurrent) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS);
+        int started = 0;
+        try (Selector selector = Selector.open()) {
+            while ((started < sessions || open > 0) && System.nanoTime() < deadline) {
+                while (started < sessions && open < concurrent && connecting < MAX_CONNECTING) {
+                    started++;
+                    connect(selector);
+                }
+                long now = System.nanoTime();
+                long wait = TimeUnit.NANOSECONDS.toMillis(sendDueLines(selector, now) - now);
+                selector.select(Math.max(1, Math.min(wait, 100)));
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            }
+            for (SelectionKey key : selector.keys()) {
+                if (key.isValid()) {
+                    end((Session) key.attachment(), false);
+                    failed++; // Timed out
+                }
+            }
+        }
+    }
+
+    private void connect(Selector selector) {
+        try {
+            SocketChannel channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Session session = new Session(channel);
+            channel.register(selector, SelectionKey.OP_CONNECT, session);
+            channel.connect(address);
+            open++;
+            connecting++;
+            peakOpen = Math.max(peakOpen, open);
+        } catch (IOException e) {
+            failed++;
+        }
+    }
+
+    /**
+     * Starts sending the lines whose time has come.
+     *
+     * @return When the next line is due.
+     */
+    private long sendDueLines(Selector selector, long now) {
+        long next = now + TimeUnit.MILLISECONDS.toNanos(100);
+        for (SelectionKey key : selector.keys()) {
+            Session session = (Session) key.attachment();
+            if (!key.isValid() || !session.channel.isConnected() || session.sending != null
+                    || session.nextLine >= lines.length) {
+                continue;
+            }
+            if (session.nextLineAt <= now) {
+                session.sending = ByteBuffer.wrap(lines[session.nextLine++]);
+                session.nextLineAt = now + thinkNanos;
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            } else {
+                next = Math.min(next, session.nextLineAt);
+            }
+        }
+        return next;
+    }
+
+    private void handle(SelectionKey key) {
+        Session session = (Session) key.attachment();
+        try {
+            if (key.isConnectable()) {
+                session.channel.finishConnect();
+                session.nextLineAt = System.nanoTime();
+                key.interestOps(SelectionKey.OP_READ);
+                return;
+            }
+            if (key.isValid() && key.isWritable()) {
+                session.channel.write(session.sending);
+                if (!session.sending.hasRemaining()) {
+                    session.sending = null;
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            }
+            if (key.isValid() && key.isReadable()) {
+                readBuffer.clear();
+                int read = session.channel.read(readBuffer);
+                if (read < 0) {
+                    end(session, true);
+                    return;
+                }
+                bytesReceived += read;
+                if (session.greetingLength == 0 && read > 0) {
+                    connecting--;
+                }
+                readBuffer.flip();
+                int copy = Math.min(read, session.greeting.length - session.greetingLength);
+                readBuffer.get(session.greeting, session.greetingLength, copy);
+                session.greetingLength += copy;
+            }
+        } catch (IOException e) {
+            end(session, false);
+            failed++;
+        }
+    }
+
+    private void end(Session session, boolean finished) {
+        open--;
+        if (session.greetingLength == 0) {
+            connecting--;
+        }
+        try {
+            session.channel.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+        if (!finished) {
+            return;
+        }
+        if (startsWith(session.greeting, FULL) || startsWith(session.greeting, TOO_MANY)) {
+            rejected++;
+        } else if (session.nextLine < lines.length) {
+            failed++; // Disconnected before the script was played
+        } else {
+            completed++;
+            durations.add(System.nanoTime() - session.started);
+        }
+    }
+
+    private static boolean startsWith(byte[] data, byte[] prefix) {
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void report(int sessions, long elapsedNanos) {
+        long[] sorted = durations.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("Sessions: %d, completed: %d, rejected: %d, failed: %d, peak open: %d%n",
+                sessions, completed, rejected, failed, peakOpen);
+        System.out.printf("Elapsed: %.2f s, %.1f sessions/s, %.1f MB received%n",
+                seconds, completed / seconds, bytesReceived / 1e6);
+        if (sorted.length > 0) {
+            System.out.printf("Session duration (ms): p50 %.1f, p95 %.1f, p99 %.1f, max %.1f%n",
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    sorted[sorted.length - 1] / 1e6);
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))] / 1e6;
+    }
+}
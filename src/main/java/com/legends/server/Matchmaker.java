@@ -0,0 +1,293 @@
+package com.legends.server;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.legends.game.GameMonstersAndHeroes;
+import com.legends.game.OnlineLobby;
+import com.legends.game.QuitGameException;
+import com.legends.io.Input;
+import com.legends.io.Output;
+import com.legends.utils.metrics.Histogram;
+import com.legends.utils.metrics.Metrics;
+
+/**
+ * The server's lobby: queues players by game mode and difficulty and starts
+ * their games in the server's {@link GameRunners}, so nobody has to arrange
+ * games by hand and a burst of players never starts more games than there are
+ * runners. Players looking for a co-op Legends of Valor game are grouped into
+ * a party per difficulty, which starts as soon as it is full or its first
+ * player has waited long enough; Monsters and Heroes games are queued for a
+ * slot straight away. Players can also host a co-op table and invite others
+ * to join it. One timer thread forms the parties and closes the turns of all
+ * co-op games.
+ */
+final class Matchmaker implements Closeable {
+    private static final String[] DIFFICULTIES = { "Normal", "Hard" };
+    private static final Histogram PLAYER_WAIT = Metrics.getDefault().histogram("server.player_wait");
+
+    private final GameRunners runners;
+    private final ServerConfig config;
+    private final ScheduledThreadPoolExecutor timer;
+    private final Map<Integer, CoopMatch> hosted = new ConcurrentSkipListMap<>(); // Waiting for their host
+    private final Map<String, CoopMatch> forming = new HashMap<>(); // Party per difficulty, guarded by itself
+    private final AtomicInteger nextNumber = new AtomicInteger();
+
+    /**
+     * Constructs the lobby of a server.
+     *
+     * @param runners The runners to start games on.
+     * @param config  The server settings.
+     */
+    Matchmaker(GameRunners runners, ServerConfig config) {
+        this.runners = runners;
+        this.config = config;
+        this.timer = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "matchmaker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Gets the lobby a player enters from the game selection screen.
+     *
+     * @param session The player's session, once named.
+     * @return The lobby.
+     */
+    OnlineLobby lobbyFor(GameSession session) {
+        return (input, output) -> enter(session, input, output);
+    }
+
+    /**
+     * Gets the number of players waiting for a game: in parties being formed,
+     * at hosted tables, and in games waiting for a runner.
+     */
+    int getQueuedPlayers() {
+        int players = runners.getQueuedPlayers();
+        synchronized (forming) {
+            for (CoopMatch match : forming.values()) {
+                players += match.getPlayers();
+            }
+        }
+        for (CoopMatch match : hosted.values()) {
+            players += match.getPlayers();
+        }
+        return players;
+    }
+
+    /**
+     * Gets how long players waited from joining a queue to their game starting.
+     */
+    Histogram getPlayerWaits() {
+        return PLAYER_WAIT;
+    }
+
+    private void enter(GameSession session, Input input, Output output) {
+        while (true) {
+            output.println("\n--- Play Online ---");
+            output.println(String.format("Players waiting: %d | Games running: %d/%d, waiting to start: %d"
+                    + " | Average wait: %.1fs", getQueuedPlayers(), runners.getRunningGames(),
+                    runners.getRunners(), runners.getQueuedGames(), PLAYER_WAIT.getMeanNanos() / 1e9));
+            output.println("1. Quick match: Legends of Valor co-op (up to " + CoopMatch.MAX_PLAYERS + " players)");
+            output.println("2. Quick match: Legends: Monsters and Heroes");
+            output.println("3. Host a Legends of Valor co-op table");
+            output.println("4. Join a Legends of Valor co-op table");
+            output.println("5. Back");
+            output.print("Choose an option: ");
+
+            switch (input.readLine().trim()) {
+                case "1":
+                    quickCoop(session.getPlayer(), chooseDifficulty(input, output), input, output);
+                    break;
+                case "2":
+                    quickMonstersAndHeroes(session, chooseDifficulty(input, output), input, output);
+                    break;
+                case "3":
+                    host(session.getPlayer(), chooseDifficulty(input, output), input, output);
+                    break;
+                case "4":
+                    join(session.getPlayer(), input, output);
+                    break;
+                case "5":
+                    return;
+                default:
+                    output.println("Invalid option.");
+            }
+        }
+    }
+
+    private static String chooseDifficulty(Input input, Output output) {
+        output.println("\nSelect Difficulty:");
+        for (int i = 0; i < DIFFICULTIES.length; i++) {
+            output.println((i + 1) + ". " + DIFFICULTIES[i]);
+        }
+        output.print("Choose difficulty: ");
+        return input.readLine().trim().equals("2") ? DIFFICULTIES[1] : DIFFICULTIES[0];
+    }
+
+    /**
+     * Puts a player in the party being formed for a difficulty, and plays the
+     * game once the party is complete.
+     */
+    private void quickCoop(String player, String difficulty, Input input, Output output) {
+        output.println("Looking for players for a " + difficulty + " co-op game. It starts when "
+                + CoopMatch.MAX_PLAYERS + " players are found, or within "
+                + (config.getPartyWaitMillis() + 999) / 1000 + "s. Type Q to leave the queue.");
+        CoopMatch match;
+        CoopMatch.Seat seat;
+        boolean full;
+        synchronized (forming) {
+            match = forming.get(difficulty);
+            seat = match == null ? null : match.join(player, input, output);
+            if (seat == null) {
+                match = newMatch(difficulty, true);
+                seat = match.join(player, input, output);
+                forming.put(difficulty, match);
+                CoopMatch party = match;
+                timer.schedule(() -> formParty(difficulty, party), config.getPartyWaitMillis(),
+                        TimeUnit.MILLISECONDS);
+            }
+            full = match.getPlayers() >= CoopMatch.MAX_PLAYERS;
+            if (full) {
+                forming.remove(difficulty);
+            }
+        }
+        if (full) {
+            match.start(runners);
+        }
+        match.play(seat);
+    }
+
+    /**
+     * Starts a party that has waited long enough, unless it started already.
+     */
+    private void formParty(String difficulty, CoopMatch party) {
+        synchronized (forming) {
+            if (forming.get(difficulty) != party) {
+                return;
+            }
+            forming.remove(difficulty);
+        }
+        if (party.getPlayers() == 0) {
+            party.cancel("Everyone left the queue.");
+        } else {
+            party.start(runners);
+        }
+    }
+
+    /**
+     * Queues a Monsters and Heroes game for a player and plays it on the
+     * session's thread once a slot is free. The session is not hibernated
+     * while it holds the slot.
+     */
+    private void quickMonstersAndHeroes(GameSession session, String difficulty, Input input, Output output) {
+        GameMonstersAndHeroes game = new GameMonstersAndHeroes(input, output);
+        game.setDifficulty(difficulty);
+        game.setSaveDirectory(session.getSaveDirectory().toFile());
+        game.setPlayerName(session.getPlayer());
+        long joined = System.nanoTime();
+        if (runners.isBusy()) {
+            output.println("All game tables are busy. Your game starts as soon as one is free ("
+                    + runners.getQueuedGames() + " games ahead).");
+            output.flush();
+        }
+        session.setHibernationAllowed(false);
+        try {
+            runners.run(() -> {
+                PLAYER_WAIT.recordSince(joined);
+                game.init();
+                game.start();
+            });
+        } catch (RejectedExecutionException e) {
+            output.println("The server is too busy to start a game. Please try again later.");
+        } finally {
+            session.setHibernationAllowed(true);
+        }
+    }
+
+    private void host(String player, String difficulty, Input input, Output output) {
+        CoopMatch match = newMatch(difficulty, false);
+        CoopMatch.Seat seat = match.join(player, input, output);
+        hosted.put(match.getNumber(), match);
+        output.println("You are hosting table " + match.getNumber() + ". Other players can join it from the "
+                + "online menu.");
+        output.print("Press Enter to start the game, or Q to close the table: ");
+        try {
+            input.readLine();
+        } catch (QuitGameException e) {
+            hosted.remove(match.getNumber(), match);
+            match.cancel(player + " closed the table.");
+            return;
+        } catch (NoSuchElementException e) {
+            hosted.remove(match.getNumber(), match);
+            match.cancel(player + " closed the table.");
+            throw e;
+        }
+        hosted.remove(match.getNumber(), match);
+        if (match.start(runners)) {
+            match.play(seat);
+        }
+    }
+
+    private void join(String player, Input input, Output output) {
+        List<CoopMatch> tables = new ArrayList<>(hosted.values());
+        if (tables.isEmpty()) {
+            output.println("No tables are waiting for players. Host one or try a quick match instead!");
+            return;
+        }
+        output.println("\nTables waiting for players:");
+        for (int i = 0; i < tables.size(); i++) {
+            CoopMatch match = tables.get(i);
+            output.println("[" + (i + 1) + "] " + match.getHost() + "'s table, " + match.getDifficulty() + " ("
+                    + match.getPlayers() + "/" + CoopMatch.MAX_PLAYERS + " players)");
+        }
+        output.print("Enter a table number (or 0 to go back): ");
+        int choice;
+        try {
+            choice = Integer.parseInt(input.readLine().trim());
+        } catch (NumberFormatException e) {
+            output.println("Invalid input.");
+            return;
+        }
+        if (choice == 0) {
+            return;
+        }
+        if (choice < 1 || choice > tables.size()) {
+            output.println("Invalid choice.");
+            return;
+        }
+        CoopMatch match = tables.get(choice - 1);
+        CoopMatch.Seat seat = match.join(player, input, output);
+        if (seat == null) {
+            output.println("That game has already started or is full.");
+            return;
+        }
+        output.println("You joined " + match.getHost() + "'s table. The game starts when " + match.getHost()
+                + " is ready.");
+        match.play(seat);
+    }
+
+    private CoopMatch newMatch(String difficulty, boolean matchmade) {
+        return new CoopMatch(nextNumber.incrementAndGet(), timer, config.getCoopTurnMillis(),
+                config.getVerbosity(), difficulty, matchmade, PLAYER_WAIT);
+    }
+
+    /**
+     * Stops the timer. Games still running end when their players disconnect.
+     */
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+}
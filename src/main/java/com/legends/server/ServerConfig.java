@@ -0,0 +1,234 @@
+package com.legends.server;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import com.legends.io.Verbosity;
+
+/**
+ * Settings of a {@link GameServer}. Setters return the config so they can be chained.
+ */
+public class ServerConfig {
+    public static final int DEFAULT_PORT = 4000;
+    public static final int DEFAULT_MAX_SESSIONS = 2000;
+    public static final int DEFAULT_MAX_GAMES = 200;
+
+    private InetAddress bindAddress = InetAddress.getLoopbackAddress();
+    private int port = DEFAULT_PORT;
+    private int maxSessions = DEFAULT_MAX_SESSIONS;
+    private int maxSessionsPerAddress; // 0 = no limit
+    private long idleTimeoutMillis = TimeUnit.MINUTES.toMillis(30);
+    private long hibernateAfterMillis = TimeUnit.MINUTES.toMillis(2);
+    private Path spillDirectory = Paths.get(System.getProperty("java.io.tmpdir"), "legends-spill");
+    private Path saveDirectory = Paths.get("saves");
+    private Verbosity verbosity = Verbosity.NORMAL;
+    private int spectatorPort = -1; // -1 = no spectators
+    private int maxSpectators = 1000;
+    private long coopTurnMillis = TimeUnit.SECONDS.toMillis(30);
+    private int maxGames = DEFAULT_MAX_GAMES;
+    private int maxQueuedGames = 1000;
+    private long partyWaitMillis = TimeUnit.SECONDS.toMillis(20);
+
+    /**
+     * Sets the interface to listen on. Defaults to the loopback interface;
+     * use the wildcard address (0.0.0.0) to accept players from other machines.
+     */
+    public ServerConfig setBindAddress(InetAddress bindAddress) {
+        this.bindAddress = bindAddress;
+        return this;
+    }
+
+    public ServerConfig setPort(int port) {
+        this.port = port;
+        return this;
+    }
+
+    /**
+     * Sets how many players can be connected at once. Further connections are
+     * told the server is full and closed.
+     */
+    public ServerConfig setMaxSessions(int maxSessions) {
+        this.maxSessions = Math.max(1, maxSessions);
+        return this;
+    }
+
+    /**
+     * Sets how many players can be connected from one address, or 0 for no limit.
+     */
+    public ServerConfig setMaxSessionsPerAddress(int maxSessionsPerAddress) {
+        this.maxSessionsPerAddress = Math.max(0, maxSessionsPerAddress);
+        return this;
+    }
+
+    /**
+     * Sets how long a player may not type anything before being disconnected,
+     * or 0 to never disconnect idle players.
+     */
+    public ServerConfig setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = Math.max(0, idleTimeoutMillis);
+        return this;
+    }
+
+    /**
+     * Sets how long a player may not type anything before the session is
+     * hibernated to the spill directory, or 0 to keep every session in memory.
+     */
+    public ServerConfig setHibernateAfterMillis(long hibernateAfterMillis) {
+        this.hibernateAfterMillis = Math.max(0, hibernateAfterMillis);
+        return this;
+    }
+
+    /**
+     * Sets the directory hibernated sessions are written to. Defaults to
+     * {@code legends-spill} in the system temp directory.
+     */
+    public ServerConfig setSpillDirectory(Path spillDirectory) {
+        this.spillDirectory = spillDirectory;
+        return this;
+    }
+
+    /**
+     * Sets the directory that holds one save directory per player name.
+     */
+    public ServerConfig setSaveDirectory(Path saveDirectory) {
+        this.saveDirectory = saveDirectory;
+        return this;
+    }
+
+    /**
+     * Sets the port spectators connect to, or -1 (the default) to not allow spectators.
+     */
+    public ServerConfig setSpectatorPort(int spectatorPort) {
+        this.spectatorPort = spectatorPort;
+        return this;
+    }
+
+    /**
+     * Sets how many spectators can be connected at once.
+     */
+    public ServerConfig setMaxSpectators(int maxSpectators) {
+        this.maxSpectators = Math.max(1, maxSpectators);
+        return this;
+    }
+
+    /**
+     * Sets how long the players of a co-op game have to choose their heroes'
+     * actions every round. Heroes whose players have not chosen by then act on their own.
+     */
+    public ServerConfig setCoopTurnMillis(long coopTurnMillis) {
+        this.coopTurnMillis = Math.max(1, coopTurnMillis);
+        return this;
+    }
+
+    /**
+     * Sets how many games started from the lobby can be played at once.
+     * Further games wait for one to end.
+     */
+    public ServerConfig setMaxGames(int maxGames) {
+        this.maxGames = Math.max(1, maxGames);
+        return this;
+    }
+
+    /**
+     * Sets how many games started from the lobby can wait to be played.
+     * Further games are refused.
+     */
+    public ServerConfig setMaxQueuedGames(int maxQueuedGames) {
+        this.maxQueuedGames = Math.max(1, maxQueuedGames);
+        return this;
+    }
+
+    /**
+     * Sets how long a co-op party formed by the lobby waits for more players
+     * before it starts with the players it has.
+     */
+    public ServerConfig setPartyWaitMillis(long partyWaitMillis) {
+        this.partyWaitMillis = Math.max(0, partyWaitMillis);
+        return this;
+    }
+
+    /**
+     * Sets how much the games narrate to every player.
+     */
+    public ServerConfig setVerbosity(Verbosity verbosity) {
+        this.verbosity = verbosity;
+        return this;
+    }
+
+    public InetSocketAddress getAddress() {
+        return new InetSocketAddress(bindAddress, port);
+    }
+
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    public int getMaxSessionsPerAddress() {
+        return maxSessionsPerAddress;
+    }
+
+    /**
+     * Gets the address spectators connect to.
+     *
+     * @return The address, or null if spectators are not allowed.
+     */
+    public InetSocketAddress getSpectatorAddress() {
+        return spectatorPort < 0 ? null : new InetSocketAddress(bindAddress, spectatorPort);
+    }
+
+    public int getMaxSpectators() {
+        return maxSpectators;
+    }
+
+    public long getCoopTurnMillis() {
+        return coopTurnMillis;
+    }
+
+    public int getMaxGames() {
+        return maxGames;
+    }
+
+    public int getMaxQueuedGames() {
+        return maxQueuedGames;
+    }
+
+    public long getPartyWaitMillis() {
+        return partyWaitMillis;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public long getHibernateAfterMillis() {
+        return hibernateAfterMillis;
+    }
+
+    public Path getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    /**
+     * Gets how often a waiting session checks how long its player has been
+     * idle: the shorter of the hibernation delay and the idle timeout.
+     *
+     * @return The interval in milliseconds, or 0 to never check.
+     */
+    long getPollMillis() {
+        if (hibernateAfterMillis == 0 || idleTimeoutMillis == 0) {
+            return Math.max(hibernateAfterMillis, idleTimeoutMillis);
+        }
+        return Math.min(hibernateAfterMillis, idleTimeoutMillis);
+    }
+
+    public Path getSaveDirectory() {
+        return saveDirectory;
+    }
+
+    public Verbosity getVerbosity() {
+        return verbosity;
+    }
+}
@@ -0,0 +1,63 @@
+package com.legends.server;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+
+import com.legends.game.Hibernation;
+
+/**
+ * The input of a session, read from the player's connection. The socket's
+ * read timeout wakes the reader up now and then to check how long the player
+ * has been idle: after the idle timeout the read fails, which ends the session
+ * like a disconnect; after the hibernation delay, if the game is reading at a
+ * point it can be resumed from and no line is half typed, the read throws
+ * that {@link Hibernation} point to put the session away.
+ */
+final class SessionInputStream extends FilterInputStream {
+    private final GameSession session;
+    private final long idleTimeoutMillis;
+    private final long hibernateAfterMillis;
+    private boolean lineStarted; // Received part of a line the game has not read yet
+
+    SessionInputStream(InputStream in, GameSession session, ServerConfig config) {
+        super(in);
+        this.session = session;
+        this.idleTimeoutMillis = config.getIdleTimeoutMillis();
+        this.hibernateAfterMillis = config.getHibernateAfterMillis();
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        session.inputWanted();
+        while (true) {
+            try {
+                int read = in.read(b, off, len);
+                if (read > 0) {
+                    lineStarted = b[off + read - 1] != '\n';
+                    session.inputReceived();
+                }
+                return read;
+            } catch (SocketTimeoutException e) {
+                long idle = session.getIdleMillis();
+                if (idleTimeoutMillis > 0 && idle >= idleTimeoutMillis) {
+                    throw e;
+                }
+                if (hibernateAfterMillis > 0 && idle >= hibernateAfterMillis && !lineStarted
+                        && session.isHibernationAllowed()) {
+                    Hibernation point = Hibernation.current();
+                    if (point != null) {
+                        throw point;
+                    }
+                }
+            }
+        }
+    }
+}
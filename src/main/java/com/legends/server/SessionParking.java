@@ -0,0 +1,153 @@
+package com.legends.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Watches the connections of hibernated sessions from a single thread, so a
+ * session waiting for its player holds no thread of its own. When a player
+ * types again, the session is handed back to the server to be resumed;
+ * players that stay away past the idle timeout are disconnected.
+ */
+final class SessionParking implements Runnable, Closeable {
+    private static final long SWEEP_MILLIS = 1000; // How often idle sessions are looked for
+
+    private final GameServer server;
+    private final long idleTimeoutMillis;
+    private final Selector selector;
+    private final Queue<GameSession> arriving = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger parked = new AtomicInteger();
+    private final Thread thread;
+    private volatile boolean closed;
+
+    SessionParking(GameServer server, long idleTimeoutMillis) throws IOException {
+        this.server = server;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.selector = Selector.open();
+        this.thread = new Thread(this, "session-parking");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Parks a session whose thread has put it away.
+     *
+     * @param session The session.
+     */
+    void park(GameSession session) {
+        parked.incrementAndGet();
+        arriving.add(session);
+        selector.wakeup();
+    }
+
+    int getParkedSessions() {
+        return parked.get();
+    }
+
+    @Override
+    public void run() {
+        List<GameSession> waking = new ArrayList<>();
+        long nextSweep = System.nanoTime();
+        try {
+            while (!closed) {
+                selector.select(SWEEP_MILLIS);
+                register();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    key.cancel();
+                    waking.add((GameSession) key.attachment());
+                }
+                if (!waking.isEmpty()) {
+                    selector.selectNow(); // Deregisters the cancelled keys
+                    for (GameSession session : waking) {
+                        unpark();
+                        wake(session);
+                    }
+                    waking.clear();
+                }
+
+                if (idleTimeoutMillis > 0 && System.nanoTime() - nextSweep >= 0) {
+                    nextSweep = System.nanoTime() + SWEEP_MILLIS * 1_000_000L;
+                    disconnectIdle();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Session parking failed: " + e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.isValid()) {
+                    unpark();
+                    ((GameSession) key.attachment()).end();
+                }
+            }
+            GameSession session;
+            while ((session = arriving.poll()) != null) {
+                unpark();
+                session.end();
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // Closing anyway
+            }
+        }
+    }
+
+    private void register() {
+        GameSession session;
+        while ((session = arriving.poll()) != null) {
+            try {
+                session.getChannel().configureBlocking(false);
+                session.getChannel().register(selector, SelectionKey.OP_READ, session);
+            } catch (IOException e) {
+                unpark();
+                session.end();
+            }
+        }
+    }
+
+    private void wake(GameSession session) {
+        try {
+            session.getChannel().configureBlocking(true);
+        } catch (IOException e) {
+            session.end();
+            return;
+        }
+        server.resume(session);
+    }
+
+    private void disconnectIdle() {
+        for (SelectionKey key : selector.keys()) {
+            GameSession session = (GameSession) key.attachment();
+            if (key.isValid() && session.getIdleMillis() >= idleTimeoutMillis) {
+                key.cancel();
+                unpark();
+                session.end();
+            }
+        }
+    }
+
+    private void unpark() {
+        parked.decrementAndGet();
+    }
+
+    /**
+     * Disconnects every parked session and stops the thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        selector.wakeup();
+    }
+}
@@ -0,0 +1,74 @@
+package com.legends.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the threads that run game sessions. Every session blocks on its
+ * player's input for most of its life, so it gets a thread of its own:
+ * a virtual thread on Java 21 and later, found by reflection so the game still
+ * builds for older versions, or else a daemon platform thread with a small stack.
+ */
+final class SessionThreads {
+    /** Stack size of platform session threads; game code never recurses deeply. */
+    private static final long PLATFORM_STACK_BYTES = 256 * 1024;
+    /** How long an idle platform thread is kept, e.g. after its session hibernated. */
+    private static final long PLATFORM_KEEP_ALIVE_SECONDS = 5;
+
+    private SessionThreads() {
+    }
+
+    /**
+     * Creates an executor that starts a new thread for every task.
+     *
+     * @param prefix The prefix of the thread names.
+     * @return The executor.
+     */
+    static ExecutorService newExecutor(String prefix) {
+        ThreadFactory virtualThreads = virtualThreadFactory(prefix);
+        if (virtualThreads != null) {
+            try {
+                Method perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+                return (ExecutorService) perTask.invoke(null, virtualThreads);
+            } catch (ReflectiveOperationException e) {
+                // Fall back to platform threads
+            }
+        }
+        AtomicInteger next = new AtomicInteger(1);
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, PLATFORM_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), task -> {
+                    Thread thread = new Thread(null, task, prefix + next.getAndIncrement(), PLATFORM_STACK_BYTES);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Checks if sessions run on virtual threads.
+     *
+     * @return True on Java 21 and later.
+     */
+    static boolean usesVirtualThreads() {
+        return virtualThreadFactory("probe-") != null;
+    }
+
+    /**
+     * Gets {@code Thread.ofVirtual().name(prefix, 1).factory()}, if available.
+     */
+    private static ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null; // Before Java 21, or virtual threads are a disabled preview
+        }
+    }
+}
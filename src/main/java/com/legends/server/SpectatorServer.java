@@ -0,0 +1,312 @@
+package com.legends.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Lets spectators watch the Legends of Valor matches played on a
+ * {@link GameServer}. A spectator picks a match from the list of live ones
+ * and is then sent everything the player sees, starting with the current
+ * board. All spectators are served by one thread with non-blocking sockets:
+ * each published chunk of a match is written to every spectator from the
+ * same buffer, and a spectator whose connection cannot keep up skips ahead
+ * instead of slowing anyone down (see {@link Broadcast}).
+ */
+final class SpectatorServer implements Runnable, Closeable {
+    private static final int MAX_LINE = 64;
+
+    private final GameServer server;
+    private final int maxSpectators;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Queue<Broadcast> changed = new ConcurrentLinkedQueue<>();
+    private final Map<Broadcast, List<Spectator>> watching = new HashMap<>();
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(256);
+    private final Thread thread;
+    private int spectators;
+    private volatile boolean closed;
+
+    /**
+     * One connected spectator.
+     */
+    private static final class Spectator {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final Queue<ByteBuffer> messages = new ArrayDeque<>(); // Sent before any broadcast
+        final StringBuilder line = new StringBuilder();
+        final Broadcast.Cursor cursor = new Broadcast.Cursor();
+        List<Broadcast> choices = new ArrayList<>();
+        Broadcast broadcast;
+        ByteBuffer sending;
+
+        Spectator(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+    }
+
+    SpectatorServer(GameServer server, InetSocketAddress address, int maxSpectators) throws IOException {
+        this.server = server;
+        this.maxSpectators = maxSpectators;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.socket().setReuseAddress(true);
+        serverChannel.bind(address, 256);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.thread = new Thread(this, "spectators");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Called when a broadcast has something new to send, or has ended.
+     */
+    void changed(Broadcast broadcast) {
+        changed.add(broadcast);
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!closed) {
+                selector.select();
+                Broadcast broadcast;
+                while ((broadcast = changed.poll()) != null) {
+                    send(broadcast);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Spectator spectator = (Spectator) key.attachment();
+                    if (key.isReadable()) {
+                        read(spectator);
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        write(spectator);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Spectator server failed: " + e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key.channel());
+            }
+            closeQuietly(selector);
+        }
+    }
+
+    private void send(Broadcast broadcast) {
+        List<Spectator> audience = watching.get(broadcast);
+        if (audience == null) {
+            return;
+        }
+        if (broadcast.hasEnded()) {
+            watching.remove(broadcast);
+            for (Spectator spectator : audience) {
+                broadcast.unwatch();
+                spectator.broadcast = null;
+                message(spectator, "\r\n" + broadcast.getPlayer() + " has left the game.\r\n");
+                showMatches(spectator);
+            }
+            return;
+        }
+        for (Spectator spectator : new ArrayList<>(audience)) {
+            write(spectator);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            if (spectators >= maxSpectators) {
+                channel.configureBlocking(false);
+                channel.write(StandardCharsets.UTF_8.encode("Too many spectators. Please try again later.\r\n"));
+                closeQuietly(channel);
+                continue;
+            }
+            channel.configureBlocking(false);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            Spectator spectator = new Spectator(channel, key);
+            key.attach(spectator);
+            spectators++;
+            message(spectator, "Legends of Valor - spectator mode\r\n");
+            showMatches(spectator);
+        }
+    }
+
+    private void showMatches(Spectator spectator) {
+        spectator.choices = server.getLiveMatches();
+        StringBuilder menu = new StringBuilder("\r\n--- Live Matches ---\r\n");
+        if (spectator.choices.isEmpty()) {
+            menu.append("No matches are being played right now.\r\n");
+        }
+        for (int i = 0; i < spectator.choices.size(); i++) {
+            menu.append('[').append(i + 1).append("] ").append(spectator.choices.get(i).getPlayer()).append("\r\n");
+        }
+        menu.append("Enter a match number to watch, R to refresh, or Q to leave: ");
+        message(spectator, menu);
+    }
+
+    private void read(Spectator spectator) {
+        readBuffer.clear();
+        int read;
+        try {
+            read = spectator.channel.read(readBuffer);
+        } catch (IOException e) {
+            read = -1;
+        }
+        if (read < 0) {
+            disconnect(spectator);
+            return;
+        }
+        for (int i = 0; i < read; i++) {
+            char c = (char) (readBuffer.get(i) & 0xFF);
+            if (c == '\n') {
+                command(spectator, spectator.line.toString().trim());
+                spectator.line.setLength(0);
+            } else if (c >= ' ' && c < 0x7F && spectator.line.length() < MAX_LINE) {
+                spectator.line.append(c);
+            }
+        }
+    }
+
+    private void command(Spectator spectator, String command) {
+        if (spectator.broadcast != null) {
+            // Any line stops watching
+            stopWatching(spectator);
+            showMatches(spectator);
+            return;
+        }
+        if (command.equalsIgnoreCase("q")) {
+            disconnect(spectator);
+            return;
+        }
+        int choice;
+        try {
+            choice = Integer.parseInt(command);
+        } catch (NumberFormatException e) {
+            showMatches(spectator);
+            return;
+        }
+        if (choice < 1 || choice > spectator.choices.size() || spectator.choices.get(choice - 1).hasEnded()) {
+            message(spectator, "That match is not available.\r\n");
+            showMatches(spectator);
+            return;
+        }
+        Broadcast broadcast = spectator.choices.get(choice - 1);
+        spectator.broadcast = broadcast;
+        watching.computeIfAbsent(broadcast, b -> new ArrayList<>()).add(spectator);
+        message(spectator, "\r\nNow watching " + broadcast.getPlayer() + ". Press Enter to stop watching.\r\n");
+        ByteBuffer board = broadcast.watch(spectator.cursor);
+        if (board != null) {
+            spectator.messages.add(board);
+        }
+        write(spectator);
+    }
+
+    private void stopWatching(Spectator spectator) {
+        Broadcast broadcast = spectator.broadcast;
+        spectator.broadcast = null;
+        List<Spectator> audience = watching.get(broadcast);
+        if (audience != null && audience.remove(spectator)) {
+            broadcast.unwatch();
+            if (audience.isEmpty()) {
+                watching.remove(broadcast);
+            }
+        }
+    }
+
+    private void message(Spectator spectator, CharSequence text) {
+        spectator.messages.add(StandardCharsets.UTF_8.encode(text.toString()));
+        write(spectator);
+    }
+
+    /**
+     * Writes as much as the spectator's connection takes without blocking.
+     */
+    private void write(Spectator spectator) {
+        try {
+            while (true) {
+                if (spectator.sending == null || !spectator.sending.hasRemaining()) {
+                    spectator.sending = spectator.messages.poll();
+                    if (spectator.sending == null && spectator.broadcast != null) {
+                        spectator.sending = spectator.broadcast.next(spectator.cursor);
+                    }
+                    if (spectator.sending == null) {
+                        spectator.key.interestOps(SelectionKey.OP_READ);
+                        return;
+                    }
+                }
+                spectator.channel.write(spectator.sending);
+                if (spectator.sending.hasRemaining()) {
+                    // The connection is full; carry on when it drains
+                    spectator.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+        } catch (IOException | CancelledKeyException e) {
+            disconnect(spectator);
+        }
+    }
+
+    private void disconnect(Spectator spectator) {
+        if (!spectator.key.isValid()) {
+            return;
+        }
+        if (spectator.broadcast != null) {
+            stopWatching(spectator);
+        }
+        spectator.key.cancel();
+        closeQuietly(spectator.channel);
+        spectators--;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+    }
+
+    /**
+     * Disconnects every spectator and stops the thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly(serverChannel);
+        selector.wakeup();
+    }
+}
@@ -0,0 +1,146 @@
+package com.legends.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.legends.game.GameInterface;
+import com.legends.utils.GameCatalog;
+
+/**
+ * Writes the game of a hibernated session to its spill file and reads it
+ * back. The game is written with Java serialization, like a saved game, but
+ * objects shared with the game catalog (item and monster templates) are
+ * written as their position in the catalog, and the stream is compressed.
+ * A restored game therefore shares the catalog objects again instead of
+ * holding copies of them.
+ */
+final class SpillCodec {
+    private static final int MAGIC = 0x4C475331; // "LGS1"
+
+    private static volatile CatalogIndex lastIndex;
+
+    private SpillCodec() {
+    }
+
+    /**
+     * The positions of the objects in a catalog: items first, then monsters.
+     */
+    private static final class CatalogIndex {
+        final GameCatalog catalog;
+        final List<Object> objects;
+        final Map<Object, Integer> positions;
+
+        CatalogIndex(GameCatalog catalog) {
+            this.catalog = catalog;
+            this.objects = new ArrayList<>(catalog.getItems());
+            objects.addAll(catalog.getMonsters());
+            this.positions = new IdentityHashMap<>(objects.size() * 2);
+            for (int i = 0; i < objects.size(); i++) {
+                positions.putIfAbsent(objects.get(i), i);
+            }
+        }
+    }
+
+    /**
+     * Stands for a catalog object in the stream.
+     */
+    private static final class CatalogRef implements Serializable {
+        private static final long serialVersionUID = 1L;
+        final int position;
+
+        CatalogRef(int position) {
+            this.position = position;
+        }
+    }
+
+    private static CatalogIndex indexOf(GameCatalog catalog) {
+        CatalogIndex index = lastIndex;
+        if (index == null || index.catalog != catalog) {
+            index = new CatalogIndex(catalog);
+            lastIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Writes a game.
+     *
+     * @param file    The spill file.
+     * @param game    The game.
+     * @param catalog The catalog whose objects are written as references; the
+     *                same catalog must be given to {@link #read}.
+     * @return The size of the file in bytes.
+     * @throws IOException If the file cannot be written.
+     */
+    static long write(Path file, GameInterface game, GameCatalog catalog) throws IOException {
+        CatalogIndex index = indexOf(catalog);
+        try (DataOutputStream data = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            data.writeInt(MAGIC);
+            data.writeInt(catalog.getVersion());
+            data.flush();
+            DeflaterOutputStream deflated = new DeflaterOutputStream(data);
+            ObjectOutputStream objects = new ObjectOutputStream(deflated) {
+                {
+                    enableReplaceObject(true);
+                }
+
+                @Override
+                protected Object replaceObject(Object obj) {
+                    Integer position = index.positions.get(obj);
+                    return position != null ? new CatalogRef(position) : obj;
+                }
+            };
+            objects.writeObject(game);
+            objects.flush();
+            deflated.finish();
+        }
+        return Files.size(file);
+    }
+
+    /**
+     * Reads a game written by {@link #write}.
+     *
+     * @param file    The spill file.
+     * @param catalog The catalog the game was written with.
+     * @return The game, not yet attached to any input or output.
+     * @throws IOException If the file cannot be read or does not hold a game.
+     */
+    static GameInterface read(Path file, GameCatalog catalog) throws IOException {
+        CatalogIndex index = indexOf(catalog);
+        try (DataInputStream data = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (data.readInt() != MAGIC || data.readInt() != catalog.getVersion()) {
+                throw new InvalidObjectException("Not a spill file of this catalog: " + file);
+            }
+            InputStream inflated = new InflaterInputStream(data);
+            ObjectInputStream objects = new ObjectInputStream(inflated) {
+                {
+                    enableResolveObject(true);
+                }
+
+                @Override
+                protected Object resolveObject(Object obj) {
+                    return obj instanceof CatalogRef ? index.objects.get(((CatalogRef) obj).position) : obj;
+                }
+            };
+            return (GameInterface) objects.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new InvalidObjectException("Not a spilled game: " + e.getMessage());
+        }
+    }
+}
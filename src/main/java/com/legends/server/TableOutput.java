@@ -0,0 +1,102 @@
+package com.legends.server;
+
+import java.util.List;
+
+import com.legends.io.Output;
+import com.legends.io.Verbosity;
+
+/**
+ * The output of a co-op game: everything is printed to every player still at
+ * the table.
+ */
+final class TableOutput implements Output {
+    private final List<CoopMatch.Seat> seats;
+    private volatile Verbosity verbosity;
+
+    TableOutput(List<CoopMatch.Seat> seats, Verbosity verbosity) {
+        this.seats = seats;
+        this.verbosity = verbosity;
+    }
+
+    @Override
+    public void print(Object s) {
+        for (CoopMatch.Seat seat : seats) {
+            if (seat.isPresent()) {
+                seat.getOutput().print(s);
+            }
+        }
+    }
+
+    @Override
+    public void println(Object s) {
+        for (CoopMatch.Seat seat : seats) {
+            if (seat.isPresent()) {
+                seat.getOutput().println(s);
+            }
+        }
+    }
+
+    @Override
+    public void println() {
+        for (CoopMatch.Seat seat : seats) {
+            if (seat.isPresent()) {
+                seat.getOutput().println();
+            }
+        }
+    }
+
+    @Override
+    public void printError(Object s) {
+        for (CoopMatch.Seat seat : seats) {
+            if (seat.isPresent()) {
+                seat.getOutput().printError(s);
+            }
+        }
+    }
+
+    @Override
+    public void printlnGreen(Object s) {
+        for (CoopMatch.Seat seat : seats) {
+            if (seat.isPresent()) {
+                seat.getOutput().printlnGreen(s);
+            }
+        }
+    }
+
+    @Override
+    public void printlnRed(Object s) {
+        for (CoopMatch.Seat seat : seats) {
+            if (seat.isPresent()) {
+                seat.getOutput().printlnRed(s);
+            }
+        }
+    }
+
+    @Override
+    public void printFrame(CharSequence frame) {
+        for (CoopMatch.Seat seat : seats) {
+            if (seat.isPresent()) {
+                seat.getOutput().printFrame(frame);
+            }
+        }
+    }
+
+    @Override
+    public Verbosity getVerbosity() {
+        return verbosity;
+    }
+
+    @Override
+    public void setVerbosity(Verbosity verbosity) {
+        this.verbosity = verbosity;
+    }
+
+    @Override
+    public void flush() {
+        for (CoopMatch.Seat seat : seats) {
+            if (seat.isPresent()) {
+                seat.getOutput().flush();
+            }
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.legends.ui;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 import com.legends.board.Board;
 import com.legends.board.ValorBoard;
 import com.legends.board.tiles.BushTile;
@@ -13,6 +17,10 @@ import com.legends.board.tiles.Tile;
 import com.legends.model.Hero;
 import com.legends.model.Monster;
 import com.legends.io.Output;
+import com.legends.io.Verbosity;
+import com.legends.utils.jfr.GameEvents;
+import com.legends.utils.metrics.Histogram;
+import com.legends.utils.metrics.Metrics;
 
 /**
  * Renders game boards with enhanced ASCII art and colors.
@@ -35,129 +43,238 @@ public class BoardRenderer {
     private static final String BRIGHT_CYAN = "\u001B[96m";
     private static final String BRIGHT_WHITE = "\u001B[97m";
 
+    private static final String NEWLINE = System.lineSeparator();
+
+    private static final String VALOR_HEADER = BRIGHT_YELLOW
+            + "\n+====================================== LEGENDS OF VALOR BATTLEFIELD ======================================+"
+            + ANSI_RESET + NEWLINE
+            + BRIGHT_CYAN + "        Lane 0 (Top)                  Lane 1 (Mid)                  Lane 2 (Bot)"
+            + ANSI_RESET + NEWLINE;
+    private static final String EMPTY_CELL = "        ";
+    private static final String VALOR_LEGEND_HEAD = NEWLINE
+            + BRIGHT_YELLOW + "+==================================== LEGEND ====================================+"
+            + ANSI_RESET + NEWLINE
+            + BRIGHT_GREEN + "| Heroes: " + ANSI_RESET;
+    private static final String VALOR_LEGEND_TAIL = NEWLINE
+            + BRIGHT_RED + "| Monsters: " + ANSI_RESET + "M1/M2/M3 by lane" + NEWLINE
+            + "|" + NEWLINE
+            + "| " + BRIGHT_YELLOW + "N" + ANSI_RESET + " = Nexus (Market Access)    | "
+            + BRIGHT_BLUE + "I" + ANSI_RESET + " = Wall       | " + "P = Plain" + NEWLINE
+            + "| " + BRIGHT_GREEN + "B" + ANSI_RESET + " = Bush (Dex+)      | "
+            + BRIGHT_CYAN + "C" + ANSI_RESET + " = Cave (Agi+)       | "
+            + BRIGHT_MAGENTA + "K" + ANSI_RESET + " = Koulou (Str+)" + NEWLINE
+            + "| " + BRIGHT_RED + "O" + ANSI_RESET + " = Obstacle" + NEWLINE
+            + BRIGHT_YELLOW + "+\"+================================================================================+"
+            + ANSI_RESET + NEWLINE;
+
+    // Entity cells for the three lanes, so drawing a cell is a lookup
+    private static final int CACHED_LANES = 3;
+    private static final String[] HERO_CELLS = new String[CACHED_LANES];
+    private static final String[] MONSTER_CELLS = new String[CACHED_LANES];
+    private static final String[][] SHARED_CELLS = new String[CACHED_LANES][CACHED_LANES];
+
+    static {
+        for (int h = 0; h < CACHED_LANES; h++) {
+            HERO_CELLS[h] = createCell(h, -1);
+            MONSTER_CELLS[h] = createCell(-1, h);
+            for (int m = 0; m < CACHED_LANES; m++) {
+                SHARED_CELLS[h][m] = createCell(h, m);
+            }
+        }
+    }
+
+    /** The static layer of every Valor board being shown, rebuilt when its terrain changes. */
+    private static final Map<ValorBoard, ValorLayer> VALOR_LAYERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final Histogram DRAW_TIME = Metrics.getDefault().histogram("render.board");
+
+    private static final ThreadLocal<StringBuilder> FRAME = ThreadLocal.withInitial(() -> new StringBuilder(16 * 1024));
+
     /**
-     * Renders the Legends of Valor board with enhanced visuals
+     * The parts of a Valor board that only depend on its size and terrain:
+     * column numbers, borders, row labels and the terrain rows.
      */
-    public static void renderValorBoard(ValorBoard board, Output output) {
-        output.println(BRIGHT_YELLOW
-                + "\n+====================================== LEGENDS OF VALOR BATTLEFIELD ======================================+"
-                + ANSI_RESET);
-        output.println(BRIGHT_CYAN + "        Lane 0 (Top)                  Lane 1 (Mid)                  Lane 2 (Bot)"
-                + ANSI_RESET);
-
-        // Print column numbers
-        output.print(BRIGHT_WHITE + "     ");
-        for (int x = 0; x < board.getWidth(); x++) {
-            output.print(String.format("%-10d", x));
-        }
-        output.println(ANSI_RESET);
+    private static final class ValorLayer {
+        final int version;
+        final String header;
+        final String separator;
+        final String[] rowLabels;
+        final String[] terrainRows;
 
-        for (int y = 0; y < board.getHeight(); y++) {
-            // Print row separator
-            output.print("   +");
-            for (int x = 0; x < board.getWidth(); x++) {
-                output.print("---------+");
+        ValorLayer(ValorBoard board) {
+            this.version = board.getVersion();
+            int width = board.getWidth();
+            int height = board.getHeight();
+
+            StringBuilder sb = new StringBuilder(VALOR_HEADER).append(BRIGHT_WHITE).append("     ");
+            for (int x = 0; x < width; x++) {
+                sb.append(String.format("%-10d", x));
             }
-            output.println();
+            this.header = sb.append(ANSI_RESET).append(NEWLINE).toString();
 
-            // Print entity row (heroes/monsters)
-            output.print(String.format(BRIGHT_WHITE + "%2d |" + ANSI_RESET, y));
-            for (int x = 0; x < board.getWidth(); x++) {
-                output.print(" ");
-                Hero hero = board.getHeroAt(x, y);
-                Monster monster = board.getMonsterAt(x, y);
+            sb.setLength(0);
+            sb.append("   +");
+            for (int x = 0; x < width; x++) {
+                sb.append("---------+");
+            }
+            this.separator = sb.append(NEWLINE).toString();
 
-                String cellContent;
-                if (hero != null && monster != null) {
-                    cellContent = String.format(BRIGHT_GREEN + "H%d" + ANSI_RESET + "/" +
-                            BRIGHT_RED + "M%d" + ANSI_RESET + "   ",
-                            hero.getOriginalLane() + 1, monster.getLane() + 1);
-                } else if (hero != null) {
-                    cellContent = String.format(BRIGHT_GREEN + "H%d" + ANSI_RESET + "      ",
-                            hero.getOriginalLane() + 1);
-                } else if (monster != null) {
-                    cellContent = String.format(BRIGHT_RED + "M%d" + ANSI_RESET + "      ",
-                            monster.getLane() + 1);
-                } else {
-                    cellContent = "        ";
-                }
+            this.rowLabels = new String[height];
+            this.terrainRows = new String[height];
+            for (int y = 0; y < height; y++) {
+                rowLabels[y] = String.format(BRIGHT_WHITE + "%2d |" + ANSI_RESET, y);
 
-                output.print(cellContent + "|");
+                sb.setLength(0);
+                sb.append("   |");
+                for (int x = 0; x < width; x++) {
+                    Tile tile = board.getTileAt(x, y);
+                    sb.append(' ').append(getTileColor(tile)).append(getTileSymbol(tile))
+                            .append(ANSI_RESET).append("       |");
+                }
+                terrainRows[y] = sb.append(NEWLINE).toString();
             }
-            output.println();
+        }
+    }
 
-            // Print tile type row
-            output.print("   |");
-            for (int x = 0; x < board.getWidth(); x++) {
-                Tile tile = board.getTileAt(x, y);
-                String symbol = getTileSymbol(tile);
-                String color = getTileColor(tile);
+    /**
+     * Renders the Legends of Valor board with enhanced visuals.
+     * Borders and terrain are cached per board until its terrain version
+     * changes, so only the heroes, monsters and hero legend are drawn per frame.
+     */
+    public static void renderValorBoard(ValorBoard board, Output output) {
+        if (!output.isEnabled(Verbosity.NORMAL)) {
+            return;
+        }
+        GameEvents.BoardRender event = new GameEvents.BoardRender();
+        event.begin();
+        long started = System.nanoTime();
+        StringBuilder frame = FRAME.get();
+        frame.setLength(0);
+        appendValorFrame(frame, board, getValorLayer(board));
+        output.printFrame(frame);
+        DRAW_TIME.recordSince(started);
+        if (event.shouldCommit()) {
+            event.game = "Legends of Valor";
+            event.heroes = board.getHeroes().size();
+            event.monsters = board.getMonsters().size();
+            event.characters = frame.length();
+            event.commit();
+        }
+    }
+
+    private static void appendValorFrame(StringBuilder frame, ValorBoard board, ValorLayer layer) {
+        frame.append(layer.header);
 
-                output.print(" " + color + symbol + ANSI_RESET + "       |");
+        int width = board.getWidth();
+        for (int y = 0; y < layer.terrainRows.length; y++) {
+            frame.append(layer.separator);
+
+            // Entity row (heroes/monsters)
+            frame.append(layer.rowLabels[y]);
+            for (int x = 0; x < width; x++) {
+                Hero hero = board.getHeroAt(x, y);
+                Monster monster = board.getMonsterAt(x, y);
+                frame.append(' ').append(getEntityCell(
+                        hero != null ? hero.getOriginalLane() : -1,
+                        monster != null ? monster.getLane() : -1)).append('|');
             }
-            output.println();
+            frame.append(NEWLINE);
+
+            frame.append(layer.terrainRows[y]);
         }
+        frame.append(layer.separator);
 
-        // Print bottom border
-        output.print("   +");
-        for (int x = 0; x < board.getWidth(); x++) {
-            output.print("---------+");
+        appendValorLegend(frame, board);
+    }
+
+    private static ValorLayer getValorLayer(ValorBoard board) {
+        ValorLayer layer = VALOR_LAYERS.get(board);
+        if (layer == null || layer.version != board.getVersion()) {
+            layer = new ValorLayer(board);
+            VALOR_LAYERS.put(board, layer);
         }
-        output.println();
+        return layer;
+    }
 
-        printValorLegend(output, board);
+    /**
+     * Gets the contents of an entity cell, 8 characters wide, for a hero
+     * and/or monster lane (-1 for none).
+     */
+    private static String getEntityCell(int h, int m) {
+        if (h >= CACHED_LANES || m >= CACHED_LANES || h < -1 || m < -1) {
+            return createCell(h, m);
+        }
+        if (h >= 0 && m >= 0) {
+            return SHARED_CELLS[h][m];
+        } else if (h >= 0) {
+            return HERO_CELLS[h];
+        } else if (m >= 0) {
+            return MONSTER_CELLS[m];
+        }
+        return EMPTY_CELL;
+    }
+
+    /**
+     * Creates an entity cell for a hero and/or monster lane (-1 for none).
+     */
+    private static String createCell(int heroLane, int monsterLane) {
+        if (heroLane >= 0 && monsterLane >= 0) {
+            return BRIGHT_GREEN + "H" + (heroLane + 1) + ANSI_RESET + "/" +
+                    BRIGHT_RED + "M" + (monsterLane + 1) + ANSI_RESET + "   ";
+        } else if (heroLane >= 0) {
+            return BRIGHT_GREEN + "H" + (heroLane + 1) + ANSI_RESET + "      ";
+        } else if (monsterLane >= 0) {
+            return BRIGHT_RED + "M" + (monsterLane + 1) + ANSI_RESET + "      ";
+        }
+        return EMPTY_CELL;
     }
 
     /**
-     * Prints the legend for Valor board
+     * Appends the legend for Valor board
      */
-    private static void printValorLegend(Output output, ValorBoard board) {
-        output.println();
-        output.println(
-                BRIGHT_YELLOW + "+==================================== LEGEND ====================================+"
-                        + ANSI_RESET);
-
-        // Print Hero info
-        output.print(BRIGHT_GREEN + "| Heroes: " + ANSI_RESET);
+    private static void appendValorLegend(StringBuilder frame, ValorBoard board) {
+        frame.append(VALOR_LEGEND_HEAD);
+
+        // Hero info changes every turn
         for (Hero h : board.getHeroes()) {
-            String laneInfo = h.getLane() != h.getOriginalLane()
-                    ? " (was L" + h.getOriginalLane() + ", now L" + h.getLane() + ")"
-                    : " (Lane " + h.getLane() + ")";
-            output.print(BRIGHT_GREEN + "H" + (h.getOriginalLane() + 1) + ANSI_RESET +
-                    ": " + h.getName() + laneInfo + " | ");
+            int lane = h.getLane();
+            int originalLane = h.getOriginalLane();
+            frame.append(BRIGHT_GREEN).append('H').append(originalLane + 1).append(ANSI_RESET)
+                    .append(": ").append(h.getName());
+            if (lane != originalLane) {
+                frame.append(" (was L").append(originalLane).append(", now L").append(lane).append(')');
+            } else {
+                frame.append(" (Lane ").append(lane).append(')');
+            }
+            frame.append(" | ");
         }
-        output.println();
-
-        output.println(BRIGHT_RED + "| Monsters: " + ANSI_RESET + "M1/M2/M3 by lane");
-        output.println("|");
-        output.println("| " + BRIGHT_YELLOW + "N" + ANSI_RESET +
-                " = Nexus (Market Access)    | " + BRIGHT_BLUE + "I" + ANSI_RESET + " = Wall       | " +
-                "P = Plain");
-        output.println("| " + BRIGHT_GREEN + "B" + ANSI_RESET + " = Bush (Dex+)      | " +
-                BRIGHT_CYAN + "C" + ANSI_RESET + " = Cave (Agi+)       | " +
-                BRIGHT_MAGENTA + "K" + ANSI_RESET + " = Koulou (Str+)");
-        output.println("| " + BRIGHT_RED + "O" + ANSI_RESET + " = Obstacle");
-        output.println(
-                BRIGHT_YELLOW + "+\"+================================================================================+"
-                        + ANSI_RESET);
+
+        frame.append(VALOR_LEGEND_TAIL);
     }
 
     /**
      * Renders the Monsters & Heroes board
      */
     public static void renderMHBoard(Board board, Output output) {
-        output.println(
-                BRIGHT_CYAN + "\n+========== REALM OF LEGENDS ==========+" + ANSI_RESET);
+        if (!output.isEnabled(Verbosity.NORMAL)) {
+            return;
+        }
+        GameEvents.BoardRender event = new GameEvents.BoardRender();
+        event.begin();
+        long started = System.nanoTime();
+        StringBuilder frame = new StringBuilder(8 * 1024);
+        frame.append(
+                BRIGHT_CYAN + "\n+========== REALM OF LEGENDS ==========+" + ANSI_RESET).append(NEWLINE);
 
         // Print top border
-        output.print("   +");
+        frame.append("   +");
         for (int x = 0; x < board.getWidth(); x++) {
-            output.print("-----+");
+            frame.append("-----+");
         }
-        output.println();
+        frame.append(NEWLINE);
 
         for (int y = 0; y < board.getHeight(); y++) {
-            output.print(String.format(BRIGHT_WHITE + "%2d " + ANSI_RESET + "|", y));
+            frame.append(String.format(BRIGHT_WHITE + "%2d " + ANSI_RESET + "|", y));
             for (int x = 0; x < board.getWidth(); x++) {
                 Tile tile = board.getTileAt(x, y);
                 String symbol;
@@ -187,41 +304,49 @@ public class BoardRenderer {
                     }
                 }
 
-                output.print(color + symbol + ANSI_RESET + "|");
+                frame.append(color + symbol + ANSI_RESET + "|");
             }
-            output.println();
+            frame.append(NEWLINE);
 
             // Print row separator
             if (y < board.getHeight() - 1) {
-                output.print("   +");
+                frame.append("   +");
                 for (int x = 0; x < board.getWidth(); x++) {
-                    output.print("-----+");
+                    frame.append("-----+");
                 }
-                output.println();
+                frame.append(NEWLINE);
             }
         }
 
         // Print bottom border
-        output.print("   +");
+        frame.append("   +");
         for (int x = 0; x < board.getWidth(); x++) {
-            output.print("-----+");
+            frame.append("-----+");
         }
-        output.println();
+        frame.append(NEWLINE);
 
-        printMHLegend(output);
+        appendMHLegend(frame);
+        output.printFrame(frame);
+        DRAW_TIME.recordSince(started);
+        if (event.shouldCommit()) {
+            event.game = "Monsters and Heroes";
+            event.heroes = 1; // The party moves as one
+            event.characters = frame.length();
+            event.commit();
+        }
     }
 
     /**
-     * Prints the legend for M&H board
+     * Appends the legend for M&H board
      */
-    private static void printMHLegend(Output output) {
-        output.println();
-        output.println(BRIGHT_YELLOW + "+========  LEGEND  =========+" + ANSI_RESET);
-        output.println("| " + BRIGHT_GREEN + "H" + ANSI_RESET + " = Hero Party            |");
-        output.println("| " + BRIGHT_YELLOW + "M" + ANSI_RESET + " = Market                |");
-        output.println("| " + BRIGHT_BLACK + "X" + ANSI_RESET + " = Inaccessible          |");
-        output.println("|   = Common Land           |");
-        output.println(BRIGHT_YELLOW + "+===========================+" + ANSI_RESET);
+    private static void appendMHLegend(StringBuilder frame) {
+        frame.append(NEWLINE);
+        frame.append(BRIGHT_YELLOW + "+========  LEGEND  =========+" + ANSI_RESET).append(NEWLINE);
+        frame.append("| " + BRIGHT_GREEN + "H" + ANSI_RESET + " = Hero Party            |").append(NEWLINE);
+        frame.append("| " + BRIGHT_YELLOW + "M" + ANSI_RESET + " = Market                |").append(NEWLINE);
+        frame.append("| " + BRIGHT_BLACK + "X" + ANSI_RESET + " = Inaccessible          |").append(NEWLINE);
+        frame.append("|   = Common Land           |").append(NEWLINE);
+        frame.append(BRIGHT_YELLOW + "+===========================+" + ANSI_RESET).append(NEWLINE);
     }
 
     /**
@@ -0,0 +1,248 @@
+package com.legends.ui;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import com.legends.io.ConsoleOutput;
+import com.legends.io.Output;
+
+/**
+ * Measures the bytes allocated to format the narration of one Legends of
+ * Valor round: the round banner, and for each of three heroes and three
+ * monsters a status line, the hero's HP/MP line and an attack line. The
+ * same text is formatted both ways: as the game does now, and the way it was
+ * formatted before the reusable builders, with a new builder per message,
+ * concatenation and {@code String.format}. The two are first checked to
+ * produce the same text.
+ *
+ * <p>Usage: {@code java -cp bin com.legends.ui.FormatBenchmark [rounds]}
+ */
+public class FormatBenchmark {
+    private static final int UNITS = 3;
+    private static final int BAR_LENGTH = 10;
+    private static final String[] HEROES = { "Hero0", "Hero1", "Hero2" };
+    private static final String[] MONSTERS = { "Monster0", "Monster1", "Monster2" };
+
+    private final int rounds;
+
+    /**
+     * Constructs a benchmark.
+     *
+     * @param rounds The number of rounds formatted for each measurement.
+     */
+    public FormatBenchmark(int rounds) {
+        this.rounds = rounds;
+    }
+
+    /**
+     * Output that only keeps the length of what is printed, or every message
+     * when recording.
+     */
+    private static class Sink implements Output {
+        private final List<String> recorded;
+        private long length;
+
+        Sink(boolean recording) {
+            this.recorded = recording ? new ArrayList<>() : null;
+        }
+
+        @Override
+        public void print(Object s) {
+            println(s);
+        }
+
+        @Override
+        public void println(Object s) {
+            if (recorded != null) {
+                recorded.add(String.valueOf(s));
+            } else if (s instanceof CharSequence) {
+                length += ((CharSequence) s).length();
+            }
+        }
+
+        @Override
+        public void println() {
+        }
+
+        @Override
+        public void printError(Object s) {
+            println(s);
+        }
+
+        @Override
+        public void printlnGreen(Object s) {
+            println(s);
+        }
+
+        @Override
+        public void printlnRed(Object s) {
+            println(s);
+        }
+    }
+
+    /**
+     * Formats a round as the game does now.
+     */
+    private static void currentRound(int round, StyledOutput out) {
+        out.printRoundStart(round);
+        for (int i = 0; i < UNITS; i++) {
+            out.printHeroStatus(HEROES[i], 100 + i * 37 - round % 50, 300, 80 - i * 11, 150, 1000 + round);
+            StringBuilder status = new StringBuilder(96).append("HP: ");
+            ConsoleOutput.appendProgressBar(status, 100 + i * 37, 300, ConsoleOutput.ANSI_RED).append(" | MP: ");
+            ConsoleOutput.appendProgressBar(status, 80 - i * 11, 150, ConsoleOutput.ANSI_BLUE)
+                    .append(" | Gold: ").append(1000 + round);
+            out.println(status);
+        }
+        for (int i = 0; i < UNITS; i++) {
+            out.printMonsterStatus(MONSTERS[i], 200 - round % 100, 400, 350 + i, 120);
+            out.printAttack(HEROES[i], MONSTERS[i], 40 + round % 30);
+        }
+    }
+
+    /**
+     * Formats a round the way it was formatted before the reusable builders.
+     */
+    private static void previousRound(int round, Output out) {
+        String roundText = String.format("======== ROUND %d ========", round);
+        out.println("\n" + ConsoleColors.BRIGHT_YELLOW + roundText + ConsoleColors.RESET);
+        for (int i = 0; i < UNITS; i++) {
+            int hp = 100 + i * 37 - round % 50;
+            int mana = 80 - i * 11;
+            out.println(new StringBuilder()
+                    .append(format(MessageStyle.HERO, HEROES[i]))
+                    .append(" | HP: ")
+                    .append(ConsoleColors.RED).append(previousBar(hp, 300)).append(ConsoleColors.RESET)
+                    .append(" ")
+                    .append(ConsoleColors.RED).append(hp + "/" + 300).append(ConsoleColors.RESET)
+                    .append(" | MP: ")
+                    .append(ConsoleColors.BLUE).append(previousBar(mana, 150)).append(ConsoleColors.RESET)
+                    .append(" ")
+                    .append(ConsoleColors.BLUE).append(mana + "/" + 150).append(ConsoleColors.RESET)
+                    .append(" | ")
+                    .append(format(MessageStyle.BUY, "Gold: " + (1000 + round)))
+                    .toString());
+            out.println("HP: " + previousProgressBar(100 + i * 37, 300, ConsoleOutput.ANSI_RED)
+                    + " | MP: " + previousProgressBar(mana, 150, ConsoleOutput.ANSI_BLUE)
+                    + " | Gold: " + (1000 + round));
+        }
+        for (int i = 0; i < UNITS; i++) {
+            int hp = 200 - round % 100;
+            out.println(new StringBuilder()
+                    .append(format(MessageStyle.MONSTER, MONSTERS[i]))
+                    .append(" | HP: ")
+                    .append(ConsoleColors.RED).append(previousBar(hp, 400)).append(ConsoleColors.RESET)
+                    .append(" ")
+                    .append(ConsoleColors.RED).append(hp + "/" + 400).append(ConsoleColors.RESET)
+                    .append(" | ATK: ")
+                    .append(ConsoleColors.BRIGHT_RED).append(String.valueOf(350 + i)).append(ConsoleColors.RESET)
+                    .append(" | DEF: ")
+                    .append(ConsoleColors.CYAN).append(String.valueOf(120)).append(ConsoleColors.RESET)
+                    .toString());
+            out.println(new StringBuilder()
+                    .append(format(MessageStyle.HERO, HEROES[i]))
+                    .append(" attacked ")
+                    .append(format(MessageStyle.MONSTER, MONSTERS[i]))
+                    .append(" for ")
+                    .append(ConsoleColors.BRIGHT_RED).append(String.valueOf(40 + round % 30)).append(ConsoleColors.RESET)
+                    .append(" damage!")
+                    .toString());
+        }
+    }
+
+    private static String format(MessageStyle style, String message) {
+        return style.getColor() + style.getIcon() + message + ConsoleColors.RESET;
+    }
+
+    private static String previousBar(int current, int max) {
+        int filled = Math.max(0, Math.min(BAR_LENGTH, (int) ((double) current / max * BAR_LENGTH)));
+        return repeat("<3 ", filled) + repeat(" ", BAR_LENGTH - filled);
+    }
+
+    private static String repeat(String str, int count) {
+        StringBuilder sb = new StringBuilder(str.length() * count);
+        for (int i = 0; i < count; i++) {
+            sb.append(str);
+        }
+        return sb.toString();
+    }
+
+    private static String previousProgressBar(int current, int max, String color) {
+        int filled = Math.max(0, Math.min(BAR_LENGTH, (int) ((double) current / max * BAR_LENGTH)));
+        StringBuilder sb = new StringBuilder();
+        sb.append("[").append(color);
+        for (int i = 0; i < filled; i++) {
+            sb.append("=");
+        }
+        sb.append(ConsoleOutput.ANSI_RESET);
+        for (int i = filled; i < BAR_LENGTH; i++) {
+            sb.append(" ");
+        }
+        sb.append("] " + current + "/" + max);
+        return sb.toString();
+    }
+
+    /**
+     * Checks that both ways produce the same text, then measures them.
+     *
+     * @return False if the text differs.
+     */
+    public boolean run() {
+        Sink current = new Sink(true);
+        Sink previous = new Sink(true);
+        for (int round = 1; round <= 100; round++) {
+            currentRound(round, new StyledOutput(current));
+            previousRound(round, previous);
+        }
+        if (!current.recorded.equals(previous.recorded)) {
+            System.out.println("The two ways of formatting produce different text");
+            return false;
+        }
+
+        Sink sink = new Sink(false);
+        StyledOutput styled = new StyledOutput(sink);
+        measure("current", round -> currentRound(round, styled));
+        measure("previous", round -> previousRound(round, sink));
+        return true;
+    }
+
+    /**
+     * Formats the rounds once to warm up, then again while counting bytes.
+     */
+    private void measure(String name, IntConsumer round) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            System.out.println("This JVM does not count allocated bytes");
+            return;
+        }
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        for (int r = 1; r <= rounds; r++) {
+            round.accept(r);
+        }
+
+        long bytesBefore = allocations.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int r = 1; r <= rounds; r++) {
+            round.accept(r);
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = allocations.getCurrentThreadAllocatedBytes() - bytesBefore;
+        int messages = 1 + UNITS * 4;
+        System.out.printf("%-9s %8.0f bytes/round, %6.0f bytes/message, %7.2f us/round%n", name,
+                (double) bytes / rounds, (double) bytes / rounds / messages, elapsed / 1000.0 / rounds);
+    }
+
+    /**
+     * Entry point.
+     *
+     * @param args Optional: the number of rounds (default 200000).
+     */
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        if (!new FormatBenchmark(rounds).run()) {
+            System.exit(1);
+        }
+    }
+}
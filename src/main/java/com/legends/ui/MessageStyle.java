@@ -49,10 +49,12 @@ public enum MessageStyle {
     
     private final String color;
     private final String icon;
+    private final String prefix; // Color and icon, precomputed once
     
     MessageStyle(String color, String icon) {
         this.color = color;
         this.icon = icon;
+        this.prefix = color + icon;
     }
     
     public String getColor() {
@@ -67,7 +69,28 @@ public enum MessageStyle {
      * Formats a message with this style
      */
     public String format(String message) {
-        return color + icon + message + ConsoleColors.RESET;
+        return prefix + message + ConsoleColors.RESET;
+    }
+
+    /**
+     * Gets the escape sequence and icon that start a message in this style
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Appends a message with this style without creating intermediate strings
+     */
+    public StringBuilder appendTo(StringBuilder sb, CharSequence message) {
+        return sb.append(prefix).append(message).append(ConsoleColors.RESET);
+    }
+
+    /**
+     * Appends a message with this style without icon
+     */
+    public StringBuilder appendNoIconTo(StringBuilder sb, CharSequence message) {
+        return sb.append(color).append(message).append(ConsoleColors.RESET);
     }
     
     /**
@@ -3,19 +3,34 @@ package com.legends.ui;
 /**
  * Builder class for creating styled messages with icons and colors.
  * Uses the Builder pattern for easy construction of complex messages.
+ * Hot paths use {@link #reuse()}, which hands out a per-thread builder, so
+ * only the final string is allocated.
  */
 public class StyledMessage {
+    private static final ThreadLocal<StyledMessage> REUSABLE = ThreadLocal.withInitial(StyledMessage::new);
+
     private StringBuilder content;
 
     public StyledMessage() {
-        this.content = new StringBuilder();
+        this.content = new StringBuilder(128);
+    }
+
+    /**
+     * Gets this thread's reusable builder, emptied.
+     * The builder is only valid until the next call to reuse() on the same thread,
+     * so call {@link #build()} before building another message.
+     */
+    public static StyledMessage reuse() {
+        StyledMessage message = REUSABLE.get();
+        message.content.setLength(0);
+        return message;
     }
 
     /**
      * Adds text with a specific style
      */
     public StyledMessage add(String text, MessageStyle style) {
-        content.append(style.format(text));
+        style.appendTo(content, text);
         return this;
     }
 
@@ -23,7 +38,47 @@ public class StyledMessage {
      * Adds text with a specific style without icon
      */
     public StyledMessage addNoIcon(String text, MessageStyle style) {
-        content.append(style.formatNoIcon(text));
+        style.appendNoIconTo(content, text);
+        return this;
+    }
+
+    /**
+     * Starts a styled section; everything added until {@link #reset()} uses the style
+     */
+    public StyledMessage style(MessageStyle style) {
+        content.append(style.getPrefix());
+        return this;
+    }
+
+    /**
+     * Ends a styled or colored section
+     */
+    public StyledMessage reset() {
+        content.append(ConsoleColors.RESET);
+        return this;
+    }
+
+    /**
+     * Adds a number without converting it to a string first
+     */
+    public StyledMessage add(int value) {
+        content.append(value);
+        return this;
+    }
+
+    /**
+     * Adds a number with a specific color
+     */
+    public StyledMessage addColored(int value, String color) {
+        content.append(color).append(value).append(ConsoleColors.RESET);
+        return this;
+    }
+
+    /**
+     * Adds a "current/max" pair with a specific color
+     */
+    public StyledMessage addColored(int current, int max, String color) {
+        content.append(color).append(current).append('/').append(max).append(ConsoleColors.RESET);
         return this;
     }
 
@@ -127,36 +182,36 @@ public class StyledMessage {
     // Static factory methods for common message types
 
     public static String attack(String attackerName, String targetName, int damage) {
-        return new StyledMessage()
+        return reuse()
                 .add(attackerName, MessageStyle.HERO)
                 .add(" attacked ")
                 .add(targetName, MessageStyle.MONSTER)
                 .add(" for ")
-                .addColored(String.valueOf(damage), ConsoleColors.BRIGHT_RED)
+                .addColored(damage, ConsoleColors.BRIGHT_RED)
                 .add(" damage!")
                 .build();
     }
 
     public static String dodge(String dodgerName) {
-        return new StyledMessage()
-                .add(dodgerName + " dodged the attack!", MessageStyle.DODGE)
+        return reuse()
+                .style(MessageStyle.DODGE).add(dodgerName).add(" dodged the attack!").reset()
                 .build();
     }
 
     public static String death(String entityName) {
-        return new StyledMessage()
-                .add(entityName + " has been defeated!", MessageStyle.DEATH)
+        return reuse()
+                .style(MessageStyle.DEATH).add(entityName).add(" has been defeated!").reset()
                 .build();
     }
 
     public static String levelUp(String heroName, int newLevel) {
-        return new StyledMessage()
-                .add(heroName + " leveled up to Level " + newLevel + "!", MessageStyle.LEVEL_UP)
+        return reuse()
+                .style(MessageStyle.LEVEL_UP).add(heroName).add(" leveled up to Level ").add(newLevel).add("!").reset()
                 .build();
     }
 
     public static String potionUse(String heroName, String potionName) {
-        return new StyledMessage()
+        return reuse()
                 .add(heroName, MessageStyle.HERO)
                 .add(" used ")
                 .add(potionName, MessageStyle.POTION_USE)
@@ -165,81 +220,81 @@ public class StyledMessage {
     }
 
     public static String spellCast(String casterName, String spellName, String targetName, int damage) {
-        return new StyledMessage()
+        return reuse()
                 .add(casterName, MessageStyle.HERO)
                 .add(" cast ")
                 .add(spellName, MessageStyle.SPELL_CAST)
                 .add(" on ")
                 .add(targetName, MessageStyle.MONSTER)
                 .add(" for ")
-                .addColored(String.valueOf(damage), ConsoleColors.BRIGHT_MAGENTA)
+                .addColored(damage, ConsoleColors.BRIGHT_MAGENTA)
                 .add(" damage!")
                 .build();
     }
 
     public static String buy(String heroName, String itemName, int cost) {
-        return new StyledMessage()
+        return reuse()
                 .add(heroName, MessageStyle.HERO)
                 .add(" purchased ")
                 .add(itemName, MessageStyle.SUCCESS)
                 .add(" for ")
-                .add(cost + " gold", MessageStyle.BUY)
+                .style(MessageStyle.BUY).add(cost).add(" gold").reset()
                 .add("!")
                 .build();
     }
 
     public static String sell(String heroName, String itemName, int price) {
-        return new StyledMessage()
+        return reuse()
                 .add(heroName, MessageStyle.HERO)
                 .add(" sold ")
                 .add(itemName, MessageStyle.WARNING)
                 .add(" for ")
-                .add(price + " gold", MessageStyle.SELL)
+                .style(MessageStyle.SELL).add(price).add(" gold").reset()
                 .add("!")
                 .build();
     }
 
     public static String move(String entityName, int x, int y) {
-        return new StyledMessage()
+        return reuse()
                 .add(entityName, MessageStyle.HERO)
                 .add(" moved to (")
-                .addColored(x + "," + y, ConsoleColors.CYAN)
+                .add(ConsoleColors.CYAN).add(x).add(",").add(y).reset()
                 .add(")")
                 .build();
     }
 
     public static String teleport(String heroName, int lane) {
-        return new StyledMessage()
-                .add(heroName + " teleported to lane " + lane + "!", MessageStyle.TELEPORT)
+        return reuse()
+                .style(MessageStyle.TELEPORT).add(heroName).add(" teleported to lane ").add(lane).add("!").reset()
                 .build();
     }
 
     public static String recall(String heroName) {
-        return new StyledMessage()
-                .add(heroName + " recalled to their Nexus!", MessageStyle.RECALL)
+        return reuse()
+                .style(MessageStyle.RECALL).add(heroName).add(" recalled to their Nexus!").reset()
                 .build();
     }
 
     public static String error(String message) {
-        return new StyledMessage()
+        return reuse()
                 .add(message, MessageStyle.ERROR)
                 .build();
     }
 
     public static String success(String message) {
-        return new StyledMessage()
+        return reuse()
                 .add(message, MessageStyle.SUCCESS)
                 .build();
     }
 
     public static String info(String message) {
-        return new StyledMessage()
+        return reuse()
                 .add(message, MessageStyle.INFO)
                 .build();
     }
 
     public static String warning(String message) {
-        return new StyledMessage()
+        return reuse()
                 .add(message, MessageStyle.WARNING)
                 .build();
     }
@@ -1,13 +1,21 @@
 package com.legends.ui;
 
 import com.legends.io.Output;
+import com.legends.io.Verbosity;
 
 /**
  * Decorator for Output that adds styled printing capabilities.
  * Implements the Decorator pattern to extend functionality without modifying
  * existing code.
+ * Narration (combat, movement, status) is printed at {@link Verbosity#NORMAL}
+ * and is only formatted when that level is enabled.
  */
 public class StyledOutput implements Output {
+    private static final int BAR_LENGTH = 10;
+    private static final String[] BAR_SEGMENTS = createBarSegments(BAR_LENGTH, "<3 ");
+    private static final String ROUND_PREFIX = "\n" + ConsoleColors.BRIGHT_YELLOW + "======== ROUND ";
+    private static final String ROUND_SUFFIX = " ========" + ConsoleColors.RESET;
+
     private final Output output;
 
     public StyledOutput(Output output) {
@@ -45,6 +53,35 @@ public class StyledOutput implements Output {
         output.printlnRed(s);
     }
 
+    @Override
+    public void printFrame(CharSequence frame) {
+        output.printFrame(frame);
+    }
+
+    @Override
+    public void flush() {
+        output.flush();
+    }
+
+    @Override
+    public Verbosity getVerbosity() {
+        return output.getVerbosity();
+    }
+
+    @Override
+    public void setVerbosity(Verbosity verbosity) {
+        output.setVerbosity(verbosity);
+    }
+
+    @Override
+    public boolean isEnabled(Verbosity level) {
+        return output.isEnabled(level);
+    }
+
+    private boolean narrating() {
+        return output.isEnabled(Verbosity.NORMAL);
+    }
+
     // Styled print methods
 
     public void printStyled(StyledMessage message) {
@@ -57,37 +94,51 @@ public class StyledOutput implements Output {
 
     // Combat messages
     public void printAttack(String attackerName, String targetName, int damage) {
+        if (!narrating())
+            return;
         output.println(StyledMessage.attack(attackerName, targetName, damage));
     }
 
     public void printDodge(String dodgerName) {
+        if (!narrating())
+            return;
         output.println(StyledMessage.dodge(dodgerName));
     }
 
     public void printDeath(String entityName) {
+        if (!narrating())
+            return;
         output.println(StyledMessage.death(entityName));
     }
 
     public void printDamage(String targetName, int damage) {
-        StyledMessage msg = new StyledMessage()
+        if (!narrating())
+            return;
+        StyledMessage msg = StyledMessage.reuse()
                 .add(targetName, MessageStyle.MONSTER)
                 .add(" took ")
-                .addColored(String.valueOf(damage), ConsoleColors.BRIGHT_RED)
+                .addColored(damage, ConsoleColors.BRIGHT_RED)
                 .add(" damage!");
         output.println(msg.build());
     }
 
     // Item usage messages
     public void printPotionUse(String heroName, String potionName) {
+        if (!narrating())
+            return;
         output.println(StyledMessage.potionUse(heroName, potionName));
     }
 
     public void printSpellCast(String casterName, String spellName, String targetName, int damage) {
+        if (!narrating())
+            return;
         output.println(StyledMessage.spellCast(casterName, spellName, targetName, damage));
     }
 
     public void printEquipWeapon(String heroName, String weaponName) {
-        StyledMessage msg = new StyledMessage()
+        if (!narrating())
+            return;
+        StyledMessage msg = StyledMessage.reuse()
                 .add(heroName, MessageStyle.HERO)
                 .add(" equipped ")
                 .add(weaponName, MessageStyle.EQUIP_WEAPON)
@@ -96,7 +147,9 @@ public class StyledOutput implements Output {
     }
 
     public void printEquipArmor(String heroName, String armorName) {
-        StyledMessage msg = new StyledMessage()
+        if (!narrating())
+            return;
+        StyledMessage msg = StyledMessage.reuse()
                 .add(heroName, MessageStyle.HERO)
                 .add(" equipped ")
                 .add(armorName, MessageStyle.EQUIP_ARMOR)
@@ -106,28 +159,40 @@ public class StyledOutput implements Output {
 
     // Transaction messages
     public void printBuy(String heroName, String itemName, int cost) {
+        if (!narrating())
+            return;
         output.println(StyledMessage.buy(heroName, itemName, cost));
     }
 
     public void printSell(String heroName, String itemName, int price) {
+        if (!narrating())
+            return;
         output.println(StyledMessage.sell(heroName, itemName, price));
     }
 
     // Movement messages
     public void printMove(String entityName, int x, int y) {
+        if (!narrating())
+            return;
         output.println(StyledMessage.move(entityName, x, y));
     }
 
     public void printTeleport(String heroName, int lane) {
+        if (!narrating())
+            return;
         output.println(StyledMessage.teleport(heroName, lane));
     }
 
     public void printRecall(String heroName) {
+        if (!narrating())
+            return;
         output.println(StyledMessage.recall(heroName));
     }
 
     // Status messages
     public void printLevelUp(String heroName, int newLevel) {
+        if (!narrating())
+            return;
         output.println(AsciiArt.createLevelUpBanner(heroName, newLevel));
     }
 
@@ -144,6 +209,8 @@ public class StyledOutput implements Output {
     }
 
     public void printBattleBanner() {
+        if (!narrating())
+            return;
         output.println(AsciiArt.createBattleBanner());
     }
 
@@ -183,32 +250,36 @@ public class StyledOutput implements Output {
 
     // Hero/Monster status displays
     public void printHeroStatus(String name, int hp, int maxHp, int mana, int maxMana, int gold) {
-        StyledMessage msg = new StyledMessage()
+        if (!narrating())
+            return;
+        StyledMessage msg = StyledMessage.reuse()
                 .add(name, MessageStyle.HERO)
                 .add(" | HP: ")
-                .addColored(createBar(hp, maxHp, 10, "<3 "), ConsoleColors.RED)
+                .addColored(createBar(hp, maxHp), ConsoleColors.RED)
                 .add(" ")
-                .addColored(hp + "/" + maxHp, ConsoleColors.RED)
+                .addColored(hp, maxHp, ConsoleColors.RED)
                 .add(" | MP: ")
-                .addColored(createBar(mana, maxMana, 10, "<3 "), ConsoleColors.BLUE)
+                .addColored(createBar(mana, maxMana), ConsoleColors.BLUE)
                 .add(" ")
-                .addColored(mana + "/" + maxMana, ConsoleColors.BLUE)
+                .addColored(mana, maxMana, ConsoleColors.BLUE)
                 .add(" | ")
-                .add("Gold: " + gold, MessageStyle.BUY);
+                .style(MessageStyle.BUY).add("Gold: ").add(gold).reset();
         output.println(msg.build());
     }
 
     public void printMonsterStatus(String name, int hp, int maxHp, int damage, int defense) {
-        StyledMessage msg = new StyledMessage()
+        if (!narrating())
+            return;
+        StyledMessage msg = StyledMessage.reuse()
                 .add(name, MessageStyle.MONSTER)
                 .add(" | HP: ")
-                .addColored(createBar(hp, maxHp, 10, "<3 "), ConsoleColors.RED)
+                .addColored(createBar(hp, maxHp), ConsoleColors.RED)
                 .add(" ")
-                .addColored(hp + "/" + maxHp, ConsoleColors.RED)
+                .addColored(hp, maxHp, ConsoleColors.RED)
                 .add(" | ATK: ")
-                .addColored(String.valueOf(damage), ConsoleColors.BRIGHT_RED)
+                .addColored(damage, ConsoleColors.BRIGHT_RED)
                 .add(" | DEF: ")
-                .addColored(String.valueOf(defense), ConsoleColors.CYAN);
+                .addColored(defense, ConsoleColors.CYAN);
         output.println(msg.build());
     }
 
@@ -225,31 +296,46 @@ public class StyledOutput implements Output {
         return sb.toString();
     }
 
-    // Helper method to create progress bars
-    private String createBar(int current, int max, int length, String fillChar) {
+    // Helper method to create progress bars; every possible bar is built once
+    private static String createBar(int current, int max) {
         if (max == 0)
-            return repeat(" ", length);
+            return BAR_SEGMENTS[0];
 
-        int filled = (int) ((double) current / max * length);
-        if (filled > length)
-            filled = length;
+        int filled = (int) ((double) current / max * BAR_LENGTH);
+        if (filled > BAR_LENGTH)
+            filled = BAR_LENGTH;
         if (filled < 0)
             filled = 0;
 
-        return repeat(fillChar, filled) + repeat(" ", length - filled);
+        return BAR_SEGMENTS[filled];
+    }
+
+    private static String[] createBarSegments(int length, String fillChar) {
+        String[] segments = new String[length + 1];
+        for (int filled = 0; filled <= length; filled++) {
+            segments[filled] = repeat(fillChar, filled) + repeat(" ", length - filled);
+        }
+        return segments;
     }
 
     // Round announcements
     public void printRoundStart(int roundNumber) {
-        String roundText = String.format("======== ROUND %d ========", roundNumber);
-        output.println("\n" + ConsoleColors.BRIGHT_YELLOW + roundText + ConsoleColors.RESET);
+        if (!narrating())
+            return;
+        output.println(StyledMessage.reuse()
+                .add(ROUND_PREFIX).add(roundNumber).add(ROUND_SUFFIX)
+                .build());
     }
 
     public void printHeroesTurn() {
+        if (!narrating())
+            return;
         output.println(ConsoleColors.BRIGHT_GREEN + "\n─── HEROES' TURN ───" + ConsoleColors.RESET);
     }
 
     public void printMonstersTurn() {
+        if (!narrating())
+            return;
         output.println(ConsoleColors.BRIGHT_RED + "\n─── MONSTERS' TURN ───" + ConsoleColors.RESET);
     }
 
@@ -0,0 +1,111 @@
+package com.legends.utils;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the external data directory and reloads the game catalogs
+ * in the background whenever a CSV file changes.
+ * New catalogs are published through {@link GameCatalog#reload()}.
+ */
+public class CatalogReloader {
+    private static final long DEBOUNCE_MS = 200; // Editors often write a file in several steps
+
+    private static CatalogReloader instance;
+
+    private final Path directory;
+    private final WatchService watchService;
+    private final Thread watchThread;
+
+    private CatalogReloader(Path directory) throws IOException {
+        this.directory = directory;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        this.watchThread = new Thread(this::watchLoop, "catalog-reloader");
+        this.watchThread.setDaemon(true);
+    }
+
+    /**
+     * Starts watching a data directory. Any previously started reloader is stopped.
+     *
+     * @param directory The directory containing the CSV data files.
+     * @throws IOException If the directory cannot be watched.
+     */
+    public static synchronized void start(Path directory) throws IOException {
+        stop();
+        instance = new CatalogReloader(directory);
+        instance.watchThread.start();
+    }
+
+    /**
+     * Stops the running reloader, if any.
+     */
+    public static synchronized void stop() {
+        if (instance != null) {
+            try {
+                instance.watchService.close();
+            } catch (IOException e) {
+                // Ignore errors while closing the watcher
+            }
+            instance.watchThread.interrupt();
+            instance = null;
+        }
+    }
+
+    /**
+     * Waits for file changes and reloads the catalogs after each burst of events.
+     */
+    private void watchLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                boolean changed = drainEvents(key);
+
+                // Collapse the burst of events an editor produces into one reload
+                WatchKey next;
+                while ((next = watchService.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= drainEvents(next);
+                }
+
+                if (changed) {
+                    try {
+                        GameCatalog.reload();
+                    } catch (Exception e) {
+                        System.err.println("Warning: could not reload game data from " + directory
+                                + ": " + e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Reloader stopped
+        }
+    }
+
+    /**
+     * Consumes the pending events of a key.
+     *
+     * @param key The signalled watch key.
+     * @return True if any CSV file was created or modified.
+     */
+    private boolean drainEvents(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || (context instanceof Path && context.toString().endsWith(".csv"))) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+}
@@ -0,0 +1,311 @@
+package com.legends.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic game catalogs and board layouts for load and scale testing.
+ * Catalogs use the same CSV schema as the bundled data files. Every numeric column
+ * is modelled on the bundled file: columns of files with a level column follow a
+ * linear fit against the level plus normally distributed noise, other columns
+ * follow the observed mean and spread, and columns with only a few distinct
+ * values (such as required hands) are sampled from the observed values.
+ *
+ * <p>Usage: {@code java -cp bin com.legends.utils.ContentGenerator <outputDir> <entriesPerFile> [boardSize] [seed]}
+ */
+public class ContentGenerator {
+    private static final String[] CATALOG_FILES = {
+            "Paladins.csv", "Sorcerers.csv", "Warriors.csv",
+            "Spirits.csv", "Dragons.csv", "Exoskeletons.csv",
+            "Weaponry.csv", "Armory.csv", "Potions.csv",
+            "FireSpells.csv", "IceSpells.csv", "LightningSpells.csv"
+    };
+    private static final String[] SYLLABLES = {
+            "ar", "bel", "cor", "dra", "el", "fen", "gor", "hal", "ith", "jor", "kal", "lum",
+            "mor", "nix", "or", "pyr", "quel", "ros", "syl", "thar", "ul", "vor", "wyn", "zed"
+    };
+    private static final int MAX_DISCRETE_VALUES = 3;
+
+    private final Random random;
+
+    /**
+     * Constructs a generator with a fixed seed so runs are reproducible.
+     *
+     * @param seed The random seed.
+     */
+    public ContentGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Writes every catalog file with the given number of entries.
+     *
+     * @param directory      The output directory.
+     * @param entriesPerFile The number of rows to generate per file.
+     * @throws IOException If a file cannot be read or written.
+     */
+    public void generateCatalogs(Path directory, int entriesPerFile) throws IOException {
+        Files.createDirectories(directory);
+        for (String filename : CATALOG_FILES) {
+            generateCatalog(filename, directory.resolve(filename), entriesPerFile);
+        }
+    }
+
+    /**
+     * Writes one catalog file modelled on the bundled file of the same name.
+     *
+     * @param filename The bundled catalog used as the model.
+     * @param target   The file to write.
+     * @param entries  The number of rows to generate.
+     * @throws IOException If a file cannot be read or written.
+     */
+    public void generateCatalog(String filename, Path target, int entries) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        String header = readBundled(filename, rows);
+        String[] columns = header.split(",");
+        ColumnModel[] models = new ColumnModel[columns.length];
+
+        int levelColumn = -1;
+        for (int c = 0; c < columns.length; c++) {
+            if (columns[c].trim().endsWith("Level")) {
+                levelColumn = c;
+            }
+        }
+        for (int c = 1; c < columns.length; c++) {
+            models[c] = new ColumnModel(rows, c, c == levelColumn ? -1 : levelColumn);
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            writer.write(header);
+            writer.newLine();
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < entries; i++) {
+                line.setLength(0);
+                int level = levelColumn > 0 ? (int) models[levelColumn].sample(0) : 0;
+                line.append(createName(i));
+                for (int c = 1; c < columns.length; c++) {
+                    line.append(',');
+                    if (c == levelColumn) {
+                        line.append(level);
+                    } else {
+                        models[c].appendSample(line, level);
+                    }
+                }
+                writer.append(line);
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Writes a connected Monsters and Heroes board layout.
+     * Uses the same tile mix as {@link com.legends.board.Board}: 20% inaccessible,
+     * 30% market and 50% common tiles. Accessible tiles that cannot be reached from
+     * the first accessible tile are walled off so the layout is always connected.
+     *
+     * @param target The file to write.
+     * @param width  The board width.
+     * @param height The board height.
+     * @throws IOException If the file cannot be written.
+     */
+    public void generateBoardLayout(Path target, int width, int height) throws IOException {
+        char[][] grid = new char[height][width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int roll = random.nextInt(100);
+                grid[y][x] = roll < 20 ? 'X' : roll < 50 ? 'M' : '.';
+            }
+        }
+        grid[0][0] = '.';
+        wallOffUnreachable(grid, width, height);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            for (char[] row : grid) {
+                writer.write(row);
+                writer.newLine();
+            }
+        }
+    }
+
+    private void wallOffUnreachable(char[][] grid, int width, int height) {
+        boolean[][] visited = new boolean[height][width];
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        queue.add(new int[] { 0, 0 });
+        visited[0][0] = true;
+
+        int[] dx = { 0, 0, 1, -1 };
+        int[] dy = { 1, -1, 0, 0 };
+        while (!queue.isEmpty()) {
+            int[] curr = queue.poll();
+            for (int i = 0; i < 4; i++) {
+                int nx = curr[0] + dx[i];
+                int ny = curr[1] + dy[i];
+                if (nx >= 0 && nx < width && ny >= 0 && ny < height
+                        && !visited[ny][nx] && grid[ny][nx] != 'X') {
+                    visited[ny][nx] = true;
+                    queue.add(new int[] { nx, ny });
+                }
+            }
+        }
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (!visited[y][x]) {
+                    grid[y][x] = 'X';
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a unique, pronounceable name for row i.
+     */
+    private String createName(int i) {
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(2);
+        for (int s = 0; s < syllables; s++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.append(' ').append(i + 1).toString();
+    }
+
+    private static String readBundled(String filename, List<String[]> rows) throws IOException {
+        try (InputStream is = ContentGenerator.class.getResourceAsStream("/" + filename)) {
+            if (is == null) throw new IOException("Resource not found: " + filename);
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+                String header = br.readLine();
+                String line;
+                while ((line = br.readLine()) != null) {
+                    if (line.trim().isEmpty()) continue;
+                    rows.add(line.trim().split(","));
+                }
+                return header;
+            }
+        }
+    }
+
+    /**
+     * Statistical model of a single catalog column.
+     */
+    private class ColumnModel {
+        private final List<String> discreteValues = new ArrayList<>();
+        private boolean numeric = true;
+        private double intercept;
+        private double slope;
+        private double spread;
+        private double min;
+        private double max;
+
+        ColumnModel(List<String[]> rows, int column, int levelColumn) {
+            List<Double> values = new ArrayList<>();
+            List<Double> levels = new ArrayList<>();
+            for (String[] row : rows) {
+                String value = row[column].trim();
+                if (!discreteValues.contains(value)) {
+                    discreteValues.add(value);
+                }
+                try {
+                    values.add(Double.parseDouble(value));
+                    levels.add(levelColumn > 0 ? Double.parseDouble(row[levelColumn].trim()) : 0.0);
+                } catch (NumberFormatException e) {
+                    numeric = false;
+                }
+            }
+            if (numeric && !values.isEmpty()) {
+                fit(values, levels);
+            }
+        }
+
+        private void fit(List<Double> values, List<Double> levels) {
+            int n = values.size();
+            double meanX = 0;
+            double meanY = 0;
+            min = Double.MAX_VALUE;
+            max = -Double.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                meanX += levels.get(i);
+                meanY += values.get(i);
+                min = Math.min(min, values.get(i));
+                max = Math.max(max, values.get(i));
+            }
+            meanX /= n;
+            meanY /= n;
+
+            double covariance = 0;
+            double variance = 0;
+            for (int i = 0; i < n; i++) {
+                covariance += (levels.get(i) - meanX) * (values.get(i) - meanY);
+                variance += (levels.get(i) - meanX) * (levels.get(i) - meanX);
+            }
+            slope = variance == 0 ? 0 : covariance / variance;
+            intercept = meanY - slope * meanX;
+
+            double residuals = 0;
+            for (int i = 0; i < n; i++) {
+                double error = values.get(i) - (intercept + slope * levels.get(i));
+                residuals += error * error;
+            }
+            spread = Math.sqrt(residuals / n);
+        }
+
+        /**
+         * Samples a numeric value for the given level.
+         */
+        double sample(int level) {
+            if (discreteValues.size() <= MAX_DISCRETE_VALUES) {
+                return Double.parseDouble(discreteValues.get(random.nextInt(discreteValues.size())));
+            }
+            double value = intercept + slope * level + random.nextGaussian() * spread;
+            if (level == 0 && slope == 0) {
+                // No level to scale with: stay within the observed range
+                value = Math.max(min, Math.min(max, value));
+            }
+            return Math.max(Math.min(1, min), Math.round(value));
+        }
+
+        void appendSample(StringBuilder line, int level) {
+            if (!numeric) {
+                line.append(discreteValues.get(random.nextInt(discreteValues.size())));
+            } else {
+                line.append((long) sample(level));
+            }
+        }
+    }
+
+    /**
+     * Command line entry point.
+     *
+     * @param args {@code <outputDir> <entriesPerFile> [boardSize] [seed]}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ContentGenerator <outputDir> <entriesPerFile> [boardSize] [seed]");
+            return;
+        }
+        Path directory = Paths.get(args[0]);
+        int entries = Integer.parseInt(args[1]);
+        int boardSize = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+        ContentGenerator generator = new ContentGenerator(seed);
+        generator.generateCatalogs(directory, entries);
+        if (boardSize > 0) {
+            generator.generateBoardLayout(directory.resolve("World.txt"), boardSize, boardSize);
+        }
+        System.out.println("Generated " + entries + " entries per catalog in " + directory
+                + (boardSize > 0 ? " and a " + boardSize + "x" + boardSize + " board layout" : "")
+                + " (seed " + seed + ")");
+    }
+}
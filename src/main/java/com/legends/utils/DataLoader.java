@@ -1,17 +1,81 @@
 package com.legends.utils;
 
 import com.legends.model.*;
+import com.legends.utils.metrics.Histogram;
+import com.legends.utils.metrics.Metrics;
+
 import java.io.BufferedReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Utility class for loading game data from CSV files.
+ * Files are read from the external data directory when one is configured
+ * and contains the file, otherwise from the classpath resources.
  */
 public class DataLoader {
+    private static final Histogram LOAD_TIME = Metrics.getDefault().histogram("data.load");
+    private static volatile Path dataDirectory;
+
+    /**
+     * Sets the external directory that overrides the bundled CSV resources.
+     *
+     * @param directory The data directory, or null to use only the classpath.
+     */
+    public static void setDataDirectory(Path directory) {
+        dataDirectory = directory;
+    }
+
+    /**
+     * Gets the external data directory.
+     *
+     * @return The data directory, or null if none is configured.
+     */
+    public static Path getDataDirectory() {
+        return dataDirectory;
+    }
+
+    /**
+     * Opens a data file, preferring the external data directory over the classpath.
+     * The time from opening the file to closing it, i.e. reading and parsing
+     * it, is recorded as "data.load".
+     *
+     * @param filename The name of the CSV file.
+     * @return The opened stream, or null if the file cannot be found.
+     * @throws IOException If the external file exists but cannot be opened.
+     */
+    private static InputStream openData(String filename) throws IOException {
+        long opened = System.nanoTime();
+        InputStream data = null;
+        Path directory = dataDirectory;
+        if (directory != null) {
+            Path file = directory.resolve(filename);
+            if (Files.isRegularFile(file)) {
+                data = Files.newInputStream(file);
+            }
+        }
+        if (data == null) {
+            data = DataLoader.class.getResourceAsStream("/" + filename);
+        }
+        return data == null ? null : new FilterInputStream(data) {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    LOAD_TIME.recordSince(opened);
+                }
+                super.close();
+            }
+        };
+    }
 
     /**
      * Loads heroes from a CSV file using a factory.
@@ -23,7 +87,7 @@ public class DataLoader {
      */
     public static List<Hero> loadHeroes(String filename, HeroFactory factory) throws IOException {
         List<Hero> heroes = new ArrayList<>();
-        try (InputStream is = DataLoader.class.getResourceAsStream("/" + filename);
+        try (InputStream is = openData(filename);
              BufferedReader br = new BufferedReader(new InputStreamReader(is))) {
             String line;
             br.readLine();
@@ -54,7 +118,7 @@ public class DataLoader {
      */
     public static List<Monster> loadMonsters(String filename, MonsterFactory factory) throws IOException {
         List<Monster> monsters = new ArrayList<>();
-        try (InputStream is = DataLoader.class.getResourceAsStream("/" + filename);
+        try (InputStream is = openData(filename);
              BufferedReader br = new BufferedReader(new InputStreamReader(is))) {
             String line;
             br.readLine();
@@ -85,7 +149,7 @@ public class DataLoader {
     public static List<Weapon> loadWeapons(String filename, ItemFactory factory) throws IOException {
         if (factory == null) throw new IllegalArgumentException("ItemFactory cannot be null");
         List<Weapon> weapons = new ArrayList<>();
-        try (InputStream is = DataLoader.class.getResourceAsStream("/" + filename)) {
+        try (InputStream is = openData(filename)) {
             if (is == null) throw new IOException("Resource not found: " + filename);
             try (BufferedReader br = new BufferedReader(new InputStreamReader(is))) {
                 String line;
@@ -117,7 +181,7 @@ public class DataLoader {
     public static List<Armor> loadArmor(String filename, ItemFactory factory) throws IOException {
         if (factory == null) throw new IllegalArgumentException("ItemFactory cannot be null");
         List<Armor> armors = new ArrayList<>();
-        try (InputStream is = DataLoader.class.getResourceAsStream("/" + filename)) {
+        try (InputStream is = openData(filename)) {
             if (is == null) throw new IOException("Resource not found: " + filename);
             try (BufferedReader br = new BufferedReader(new InputStreamReader(is))) {
                 String line;
@@ -148,7 +212,7 @@ public class DataLoader {
     public static List<Potion> loadPotions(String filename, ItemFactory factory) throws IOException {
         if (factory == null) throw new IllegalArgumentException("ItemFactory cannot be null");
         List<Potion> potions = new ArrayList<>();
-        try (InputStream is = DataLoader.class.getResourceAsStream("/" + filename)) {
+        try (InputStream is = openData(filename)) {
             if (is == null) throw new IOException("Resource not found: " + filename);
             try (BufferedReader br = new BufferedReader(new InputStreamReader(is))) {
                 String line;
@@ -185,7 +249,7 @@ public class DataLoader {
         if (factory == null) throw new IllegalArgumentException("ItemFactory cannot be null");
         List<Spell> spells = new ArrayList<>();
         SpellType spellType = SpellType.fromString(type);
-        try (InputStream is = DataLoader.class.getResourceAsStream("/" + filename)) {
+        try (InputStream is = openData(filename)) {
             if (is == null) throw new IOException("Resource not found: " + filename);
             try (BufferedReader br = new BufferedReader(new InputStreamReader(is))) {
                 String line;
@@ -205,4 +269,21 @@ public class DataLoader {
         }
         return spells;
     }
+
+    /**
+     * Loads a board layout written by {@link ContentGenerator}.
+     *
+     * @param file The layout file, one line per board row.
+     * @return The rows of the layout.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static List<String> loadBoardLayout(Path file) throws IOException {
+        List<String> rows = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            if (!line.isEmpty()) {
+                rows.add(line);
+            }
+        }
+        return rows;
+    }
 }
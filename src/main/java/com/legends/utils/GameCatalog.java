@@ -0,0 +1,146 @@
+package com.legends.utils;
+
+import com.legends.model.*;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Immutable snapshot of all game data catalogs (heroes, monsters and items).
+ * The current snapshot is swapped atomically when the data files are reloaded,
+ * so a game always sees either the old or the new catalogs, never a mix.
+ */
+public final class GameCatalog {
+    private static final AtomicReference<GameCatalog> current = new AtomicReference<>();
+    private static int nextVersion = 1;
+
+    private final int version;
+    private final List<Hero> heroTemplates;
+    private final List<HeroFactory> heroFactories;
+    private final List<Monster> monsters;
+    private final List<Item> items;
+
+    private GameCatalog(int version, List<Hero> heroTemplates, List<HeroFactory> heroFactories,
+            List<Monster> monsters, List<Item> items) {
+        this.version = version;
+        this.heroTemplates = Collections.unmodifiableList(heroTemplates);
+        this.heroFactories = Collections.unmodifiableList(heroFactories);
+        this.monsters = Collections.unmodifiableList(monsters);
+        this.items = Collections.unmodifiableList(items);
+    }
+
+    /**
+     * Gets the current catalog snapshot, loading it on first use.
+     *
+     * @return The current catalog.
+     * @throws IOException If the catalog has not been loaded yet and loading fails.
+     */
+    public static GameCatalog current() throws IOException {
+        GameCatalog catalog = current.get();
+        if (catalog == null) {
+            catalog = load();
+            if (!current.compareAndSet(null, catalog)) {
+                catalog = current.get();
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Re-parses every data file and publishes the result as the current catalog.
+     * If parsing fails the previous catalog stays in place.
+     *
+     * @return The newly published catalog.
+     * @throws IOException If a data file cannot be read.
+     */
+    public static GameCatalog reload() throws IOException {
+        GameCatalog catalog = load();
+        current.set(catalog);
+        return catalog;
+    }
+
+    /**
+     * Parses all data files into a new, unpublished catalog.
+     *
+     * @return The parsed catalog.
+     * @throws IOException If a data file cannot be read.
+     */
+    private static GameCatalog load() throws IOException {
+        List<Hero> heroes = new ArrayList<>();
+        List<HeroFactory> factories = new ArrayList<>();
+        addHeroes(heroes, factories, "Paladins.csv", new PaladinFactory());
+        addHeroes(heroes, factories, "Sorcerers.csv", new SorcererFactory());
+        addHeroes(heroes, factories, "Warriors.csv", new WarriorFactory());
+
+        List<Monster> monsters = new ArrayList<>();
+        monsters.addAll(DataLoader.loadMonsters("Spirits.csv", new SpiritFactory()));
+        monsters.addAll(DataLoader.loadMonsters("Dragons.csv", new DragonFactory()));
+        monsters.addAll(DataLoader.loadMonsters("Exoskeletons.csv", new ExoskeletonFactory()));
+
+        List<Item> items = new ArrayList<>();
+        ItemFactory itemFactory = new DefaultItemFactory();
+        items.addAll(DataLoader.loadWeapons("Weaponry.csv", itemFactory));
+        items.addAll(DataLoader.loadArmor("Armory.csv", itemFactory));
+        items.addAll(DataLoader.loadPotions("Potions.csv", itemFactory));
+        items.addAll(DataLoader.loadSpells("FireSpells.csv", "Fire", itemFactory));
+        items.addAll(DataLoader.loadSpells("IceSpells.csv", "Ice", itemFactory));
+        items.addAll(DataLoader.loadSpells("LightningSpells.csv", "Lightning", itemFactory));
+
+        synchronized (GameCatalog.class) {
+            return new GameCatalog(nextVersion++, heroes, factories, monsters, items);
+        }
+    }
+
+    private static void addHeroes(List<Hero> heroes, List<HeroFactory> factories, String filename,
+            HeroFactory factory) throws IOException {
+        for (Hero hero : DataLoader.loadHeroes(filename, factory)) {
+            heroes.add(hero);
+            factories.add(factory);
+        }
+    }
+
+    /**
+     * Gets the version of this snapshot. Each reload produces a higher version.
+     *
+     * @return The catalog version.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Creates fresh hero instances from the hero templates.
+     * Heroes are mutated during play, so every game gets its own copies.
+     *
+     * @return A new list of heroes.
+     */
+    public List<Hero> createHeroes() {
+        List<Hero> heroes = new ArrayList<>(heroTemplates.size());
+        for (int i = 0; i < heroTemplates.size(); i++) {
+            Hero t = heroTemplates.get(i);
+            heroes.add(heroFactories.get(i).createHero(t.getName(), t.getMana(), t.getStrength(),
+                    t.getAgility(), t.getDexterity(), t.getMoney(), t.getExperience()));
+        }
+        return heroes;
+    }
+
+    /**
+     * Gets the monster templates. Templates are only read to spawn new monsters.
+     *
+     * @return An unmodifiable list of monster templates.
+     */
+    public List<Monster> getMonsters() {
+        return monsters;
+    }
+
+    /**
+     * Gets the item catalog. Items are never modified once loaded.
+     *
+     * @return An unmodifiable list of items.
+     */
+    public List<Item> getItems() {
+        return items;
+    }
+}
@@ -0,0 +1,95 @@
+package com.legends.utils.audio;
+
+import com.legends.utils.audio.SoundManager.SoundType;
+
+/**
+ * Plays the sounds requested by the {@link SoundManager}.
+ * The backend is chosen once at startup, so headless servers and
+ * simulations can run with {@link NullAudioBackend} and pay nothing for audio.
+ */
+public interface AudioBackend {
+    /**
+     * Starts playing a sound. Must never block the caller.
+     *
+     * @param type The sound to play.
+     * @return True if the sound was accepted.
+     */
+    boolean play(SoundType type);
+
+    /**
+     * Gets the length of a sound.
+     *
+     * @param type The sound.
+     * @return The duration in milliseconds, or -1 if it is not known yet.
+     */
+    long getDurationMillis(SoundType type);
+
+    /**
+     * Stops all currently playing sounds.
+     */
+    void stopAll();
+
+    /**
+     * Sets the master volume.
+     *
+     * @param volume The volume level (0.0 to 1.0).
+     */
+    void setVolume(float volume);
+
+    /**
+     * Sets how many copies of a sound can play at the same time.
+     *
+     * @param type   The sound.
+     * @param voices The number of voices.
+     */
+    void setPolyphony(SoundType type, int voices);
+
+    /**
+     * Gets how many copies of a sound can play at the same time.
+     *
+     * @param type The sound.
+     * @return The number of voices.
+     */
+    int getPolyphony(SoundType type);
+
+    /**
+     * Sets how much memory decoded sounds may use.
+     *
+     * @param bytes The memory budget in bytes.
+     */
+    void setMemoryBudget(long bytes);
+
+    /**
+     * Gets how much memory decoded sounds may use.
+     *
+     * @return The memory budget in bytes.
+     */
+    long getMemoryBudget();
+
+    /**
+     * Releases all audio resources.
+     */
+    void shutdown();
+
+    /**
+     * Creates a backend by name.
+     *
+     * @param name "javax" for real playback, "null" for no audio,
+     *             or "recording" to record sounds without playing them.
+     * @return The backend.
+     * @throws IllegalArgumentException If the name is unknown.
+     */
+    static AudioBackend create(String name) {
+        switch (name.toLowerCase()) {
+            case "javax":
+                return new JavaSoundBackend();
+            case "null":
+            case "none":
+                return NullAudioBackend.INSTANCE;
+            case "recording":
+                return new RecordingAudioBackend();
+            default:
+                throw new IllegalArgumentException("Unknown audio backend: " + name);
+        }
+    }
+}
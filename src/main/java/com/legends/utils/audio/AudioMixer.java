@@ -0,0 +1,310 @@
+package com.legends.utils.audio;
+
+import javax.sound.sampled.*;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
+import com.legends.utils.audio.SoundManager.SoundType;
+import com.legends.utils.metrics.Histogram;
+import com.legends.utils.metrics.Metrics;
+
+/**
+ * The single audio thread of the game.
+ * Game code only posts sound events into a bounded lock-free queue; this thread
+ * drains the queue, mixes the decoded PCM of all playing sounds in software and
+ * writes the result to one {@link SourceDataLine}. When the queue is getting
+ * full, low priority events are dropped instead of delaying the game thread.
+ * Every sound type has a small pool of voices so retriggered sounds overlap;
+ * when all voices of a type are busy the oldest one is restarted.
+ * Sounds are loaded through a {@link SoundBank} the first time they are
+ * played, and the audio line is only opened when the first sound plays.
+ */
+class AudioMixer implements Runnable {
+    /** The format every sound is decoded to and mixed in. */
+    static final AudioFormat FORMAT = new AudioFormat(44100f, 16, 1, true, false);
+
+    private static final int QUEUE_CAPACITY = 64;
+    private static final Histogram QUEUE_WAIT = Metrics.getDefault().histogram("sound.queue_wait");
+    private static final int BLOCK_FRAMES = 512; // About 12 ms per block at 44.1 kHz
+    private static final int LINE_BLOCKS = 4;    // Blocks buffered in the line
+
+    /** The largest number of voices a single sound type can have. */
+    static final int MAX_POLYPHONY = 8;
+
+    private final SoundEventQueue queue = new SoundEventQueue(QUEUE_CAPACITY);
+    private final SoundType[] types = SoundType.values();
+    private final SoundBank bank;
+    private final ShortBuffer[] voiceSamples = new ShortBuffer[types.length * MAX_POLYPHONY];
+    private final boolean[] playing = new boolean[types.length];
+    private final int[] positions = new int[types.length * MAX_POLYPHONY]; // Voice v of type t at t * MAX_POLYPHONY + v
+    private final AtomicIntegerArray polyphony = new AtomicIntegerArray(types.length);
+    private final int[] mixBuffer = new int[BLOCK_FRAMES];
+    private final byte[] lineBuffer = new byte[BLOCK_FRAMES * 2];
+    private final Thread thread;
+    private SourceDataLine line;
+
+    private volatile float volume;
+    private volatile boolean running = true;
+    private volatile boolean available = true;
+    private volatile boolean stopRequested;
+
+    /**
+     * Creates and starts the audio thread.
+     *
+     * @param volume The initial master volume (0.0 to 1.0).
+     * @param bank   The sounds to play.
+     */
+    AudioMixer(float volume, SoundBank bank) {
+        this.volume = volume;
+        this.bank = bank;
+        Arrays.fill(positions, -1);
+        for (SoundType type : types) {
+            polyphony.set(type.ordinal(), type.getDefaultPolyphony());
+        }
+        this.thread = new Thread(this, "audio-mixer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Posts a sound event. Never blocks.
+     *
+     * @param type The sound to play.
+     * @return True if the event was accepted.
+     */
+    boolean trigger(SoundType type) {
+        if (!available) {
+            return false;
+        }
+        int depth = queue.size();
+        int capacity = queue.capacity();
+        if (type.getPriority() == SoundManager.Priority.LOW && depth >= capacity / 2) {
+            return false;
+        }
+        if (type.getPriority() == SoundManager.Priority.NORMAL && depth >= capacity * 3 / 4) {
+            return false;
+        }
+        if (!queue.offer(type.ordinal())) {
+            return false;
+        }
+        LockSupport.unpark(thread);
+        return true;
+    }
+
+    /**
+     * Gets the length of a decoded sound.
+     *
+     * @param type The sound.
+     * @return The duration in milliseconds, or -1 if it has not been loaded yet.
+     */
+    long getDurationMillis(SoundType type) {
+        int frames = bank.getFrameCount(type);
+        return frames < 0 ? -1 : (long) (frames * 1000L / FORMAT.getSampleRate());
+    }
+
+    /**
+     * Silences every playing sound and discards queued events.
+     */
+    void stopAll() {
+        stopRequested = true;
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Sets how many copies of a sound can play at the same time.
+     *
+     * @param type   The sound.
+     * @param voices The number of voices (1 to {@link #MAX_POLYPHONY}).
+     */
+    void setPolyphony(SoundType type, int voices) {
+        polyphony.set(type.ordinal(), Math.max(1, Math.min(MAX_POLYPHONY, voices)));
+    }
+
+    int getPolyphony(SoundType type) {
+        return polyphony.get(type.ordinal());
+    }
+
+    void setVolume(float volume) {
+        this.volume = volume;
+    }
+
+    /**
+     * Stops the audio thread and releases the line.
+     */
+    void shutdown() {
+        running = false;
+        available = false;
+        LockSupport.unpark(thread);
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                if (stopRequested) {
+                    stopRequested = false;
+                    queue.clear();
+                    Arrays.fill(positions, -1);
+                    Arrays.fill(playing, false);
+                    if (line != null) {
+                        line.flush();
+                    }
+                }
+
+                int event;
+                while ((event = queue.poll()) >= 0) {
+                    QUEUE_WAIT.recordSince(queue.getQueuedNanos());
+                    if (!openLine()) {
+                        break;
+                    }
+                    ShortBuffer samples = bank.get(event, playing);
+                    if (samples != null) {
+                        startVoice(event, samples);
+                    }
+                }
+
+                if (!mixBlock()) {
+                    LockSupport.park(this);
+                    continue;
+                }
+                line.write(lineBuffer, 0, lineBuffer.length);
+            }
+        } catch (Exception e) {
+            // Audio device failed - keep the game running without sound
+            available = false;
+        } finally {
+            if (line != null) {
+                line.stop();
+                line.close();
+            }
+        }
+    }
+
+    /**
+     * Opens the audio line on first use.
+     *
+     * @return False if no audio device is available.
+     */
+    private boolean openLine() {
+        if (line != null) {
+            return true;
+        }
+        try {
+            SourceDataLine opened = AudioSystem.getSourceDataLine(FORMAT);
+            opened.open(FORMAT, lineBuffer.length * LINE_BLOCKS);
+            opened.start();
+            line = opened;
+            return true;
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            // No audio device - the game runs silently
+            available = false;
+            queue.clear();
+            return false;
+        }
+    }
+
+    /**
+     * Starts a sound on a free voice of its pool, or steals the oldest voice.
+     * Voices advance at the same rate, so the oldest is the furthest along.
+     *
+     * @param type    The ordinal of the sound type.
+     * @param samples The decoded sound.
+     */
+    private void startVoice(int type, ShortBuffer samples) {
+        int first = type * MAX_POLYPHONY;
+        int last = first + polyphony.get(type);
+        int voice = first;
+        for (int v = first; v < last; v++) {
+            if (positions[v] < 0) {
+                voice = v;
+                break;
+            }
+            if (positions[v] > positions[voice]) {
+                voice = v;
+            }
+        }
+        voiceSamples[voice] = samples;
+        positions[voice] = 0;
+        playing[type] = true;
+    }
+
+    /**
+     * Mixes the next block of all active sounds into the line buffer.
+     *
+     * @return False if no sound is playing.
+     */
+    private boolean mixBlock() {
+        boolean active = false;
+        Arrays.fill(mixBuffer, 0);
+        Arrays.fill(playing, false);
+        for (int v = 0; v < positions.length; v++) {
+            int pos = positions[v];
+            if (pos < 0) {
+                continue;
+            }
+            active = true;
+            ShortBuffer pcm = voiceSamples[v];
+            int length = pcm.capacity();
+            int frames = Math.min(BLOCK_FRAMES, length - pos);
+            for (int i = 0; i < frames; i++) {
+                mixBuffer[i] += pcm.get(pos + i);
+            }
+            pos += frames;
+            if (pos < length) {
+                positions[v] = pos;
+                playing[v / MAX_POLYPHONY] = true;
+            } else {
+                positions[v] = -1;
+                voiceSamples[v] = null;
+            }
+        }
+        if (!active) {
+            return false;
+        }
+
+        float gain = volume;
+        for (int i = 0; i < BLOCK_FRAMES; i++) {
+            int sample = (int) (mixBuffer[i] * gain);
+            if (sample > Short.MAX_VALUE) sample = Short.MAX_VALUE;
+            if (sample < Short.MIN_VALUE) sample = Short.MIN_VALUE;
+            lineBuffer[2 * i] = (byte) sample;
+            lineBuffer[2 * i + 1] = (byte) (sample >> 8);
+        }
+        return true;
+    }
+
+    /**
+     * Decodes an audio stream to 16-bit mono PCM samples.
+     *
+     * @param in The encoded audio.
+     * @return The decoded samples.
+     * @throws UnsupportedAudioFileException If the format is not recognised.
+     * @throws IOException                   If reading fails.
+     */
+    static short[] decode(InputStream in) throws UnsupportedAudioFileException, IOException {
+        AudioInputStream source = AudioSystem.getAudioInputStream(new BufferedInputStream(in));
+        AudioInputStream pcm = source.getFormat().matches(FORMAT)
+                ? source
+                : AudioSystem.getAudioInputStream(FORMAT, source);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = pcm.read(chunk)) != -1) {
+            bytes.write(chunk, 0, read);
+        }
+
+        byte[] data = bytes.toByteArray();
+        short[] out = new short[data.length / 2];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = (short) ((data[2 * i] & 0xff) | (data[2 * i + 1] << 8));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,69 @@
+package com.legends.utils.audio;
+
+import com.legends.utils.audio.SoundManager.SoundType;
+
+/**
+ * Plays sounds through javax.sound.sampled.
+ * All mixing happens on the single {@link AudioMixer} thread and sounds are
+ * loaded on first use through a {@link SoundBank}.
+ */
+public class JavaSoundBackend implements AudioBackend {
+    private static final float DEFAULT_VOLUME = 0.7f;
+
+    private final SoundBank bank;
+    private final AudioMixer mixer;
+
+    /**
+     * Constructs the backend and starts its audio thread.
+     * The audio device is only opened when the first sound plays.
+     */
+    public JavaSoundBackend() {
+        this.bank = new SoundBank(SoundBank.defaultCacheDirectory(), SoundBank.DEFAULT_BUDGET_BYTES);
+        this.mixer = new AudioMixer(DEFAULT_VOLUME, bank);
+    }
+
+    @Override
+    public boolean play(SoundType type) {
+        return mixer.trigger(type);
+    }
+
+    @Override
+    public long getDurationMillis(SoundType type) {
+        return mixer.getDurationMillis(type);
+    }
+
+    @Override
+    public void stopAll() {
+        mixer.stopAll();
+    }
+
+    @Override
+    public void setVolume(float volume) {
+        mixer.setVolume(volume);
+    }
+
+    @Override
+    public void setPolyphony(SoundType type, int voices) {
+        mixer.setPolyphony(type, voices);
+    }
+
+    @Override
+    public int getPolyphony(SoundType type) {
+        return mixer.getPolyphony(type);
+    }
+
+    @Override
+    public void setMemoryBudget(long bytes) {
+        bank.setBudget(bytes);
+    }
+
+    @Override
+    public long getMemoryBudget() {
+        return bank.getBudget();
+    }
+
+    @Override
+    public void shutdown() {
+        mixer.shutdown();
+    }
+}
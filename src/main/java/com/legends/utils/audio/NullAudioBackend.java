@@ -0,0 +1,55 @@
+package com.legends.utils.audio;
+
+import com.legends.utils.audio.SoundManager.SoundType;
+
+/**
+ * Audio backend that does nothing.
+ * Starts no threads and never touches an audio device.
+ */
+public final class NullAudioBackend implements AudioBackend {
+    /** The shared instance; the backend has no state. */
+    public static final NullAudioBackend INSTANCE = new NullAudioBackend();
+
+    private NullAudioBackend() {
+    }
+
+    @Override
+    public boolean play(SoundType type) {
+        return false;
+    }
+
+    @Override
+    public long getDurationMillis(SoundType type) {
+        return 0;
+    }
+
+    @Override
+    public void stopAll() {
+    }
+
+    @Override
+    public void setVolume(float volume) {
+    }
+
+    @Override
+    public void setPolyphony(SoundType type, int voices) {
+    }
+
+    @Override
+    public int getPolyphony(SoundType type) {
+        return type.getDefaultPolyphony();
+    }
+
+    @Override
+    public void setMemoryBudget(long bytes) {
+    }
+
+    @Override
+    public long getMemoryBudget() {
+        return 0;
+    }
+
+    @Override
+    public void shutdown() {
+    }
+}
@@ -0,0 +1,96 @@
+package com.legends.utils.audio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.legends.utils.audio.SoundManager.SoundType;
+
+/**
+ * Audio backend that records the sounds it is asked to play instead of playing them.
+ * Useful for checking which sounds a scripted game or simulation produces.
+ */
+public class RecordingAudioBackend implements AudioBackend {
+    private final List<SoundType> played = new ArrayList<>();
+    private final AtomicIntegerArray polyphony = new AtomicIntegerArray(SoundType.values().length);
+    private volatile float volume = 0.7f;
+    private volatile long memoryBudget = SoundBank.DEFAULT_BUDGET_BYTES;
+
+    /**
+     * Constructs an empty recording.
+     */
+    public RecordingAudioBackend() {
+        for (SoundType type : SoundType.values()) {
+            polyphony.set(type.ordinal(), type.getDefaultPolyphony());
+        }
+    }
+
+    @Override
+    public synchronized boolean play(SoundType type) {
+        played.add(type);
+        return true;
+    }
+
+    /**
+     * Gets the sounds played so far, in order.
+     *
+     * @return A copy of the recorded sounds.
+     */
+    public synchronized List<SoundType> getPlayed() {
+        return new ArrayList<>(played);
+    }
+
+    /**
+     * Clears the recording.
+     */
+    public synchronized void clear() {
+        played.clear();
+    }
+
+    /**
+     * Gets the volume last set by the game.
+     *
+     * @return The volume level (0.0 to 1.0).
+     */
+    public float getVolume() {
+        return volume;
+    }
+
+    @Override
+    public long getDurationMillis(SoundType type) {
+        return 0;
+    }
+
+    @Override
+    public void stopAll() {
+    }
+
+    @Override
+    public void setVolume(float volume) {
+        this.volume = volume;
+    }
+
+    @Override
+    public void setPolyphony(SoundType type, int voices) {
+        polyphony.set(type.ordinal(), Math.max(1, Math.min(AudioMixer.MAX_POLYPHONY, voices)));
+    }
+
+    @Override
+    public int getPolyphony(SoundType type) {
+        return polyphony.get(type.ordinal());
+    }
+
+    @Override
+    public void setMemoryBudget(long bytes) {
+        this.memoryBudget = Math.max(0, bytes);
+    }
+
+    @Override
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    @Override
+    public void shutdown() {
+    }
+}
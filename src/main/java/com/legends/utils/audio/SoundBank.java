@@ -0,0 +1,213 @@
+package com.legends.utils.audio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.legends.utils.audio.SoundManager.SoundType;
+
+/**
+ * Loads decoded sounds on first use and keeps them within a memory budget.
+ * The least recently played sounds are evicted when the budget is exceeded.
+ * Decoded PCM is written to a cache directory and memory-mapped on later
+ * runs, so each sound file is only decoded once per machine.
+ * All methods except {@link #getFrameCount} must be called by the audio thread.
+ */
+class SoundBank {
+    /** Default budget for decoded sounds: about half of all bundled sounds. */
+    static final long DEFAULT_BUDGET_BYTES = 1024 * 1024;
+
+    private final Path cacheDirectory;
+    private final Map<Integer, ShortBuffer> loaded = new LinkedHashMap<>(32, 0.75f, true); // Access order = LRU
+    private final AtomicIntegerArray frameCounts;
+    private volatile long budgetBytes;
+    private long usedBytes;
+
+    /**
+     * Constructs a sound bank.
+     *
+     * @param cacheDirectory The directory for decoded PCM files, or null to disable the cache.
+     * @param budgetBytes    The memory budget for decoded sounds.
+     */
+    SoundBank(Path cacheDirectory, long budgetBytes) {
+        this.cacheDirectory = cacheDirectory;
+        this.budgetBytes = budgetBytes;
+        this.frameCounts = new AtomicIntegerArray(SoundType.values().length);
+        for (int i = 0; i < frameCounts.length(); i++) {
+            frameCounts.set(i, -1);
+        }
+    }
+
+    /**
+     * Gets the default cache directory. Can be overridden with the
+     * {@code legends.soundCache} system property.
+     *
+     * @return The cache directory.
+     */
+    static Path defaultCacheDirectory() {
+        String configured = System.getProperty("legends.soundCache");
+        if (configured != null) {
+            return Paths.get(configured);
+        }
+        return Paths.get(System.getProperty("java.io.tmpdir"), "legends-sound-cache");
+    }
+
+    void setBudget(long budgetBytes) {
+        this.budgetBytes = Math.max(0, budgetBytes);
+    }
+
+    long getBudget() {
+        return budgetBytes;
+    }
+
+    /**
+     * Gets the length of a sound. Safe to call from any thread.
+     *
+     * @param type The sound.
+     * @return The number of frames, or -1 if the sound has never been loaded.
+     */
+    int getFrameCount(SoundType type) {
+        return frameCounts.get(type.ordinal());
+    }
+
+    /**
+     * Gets a sound, loading it if needed, and marks it as recently used.
+     *
+     * @param type    The ordinal of the sound type.
+     * @param playing Tells which sound types are currently playing and must not be evicted.
+     * @return The samples, or null if the sound cannot be loaded.
+     */
+    ShortBuffer get(int type, boolean[] playing) {
+        ShortBuffer samples = loaded.get(type);
+        if (samples != null) {
+            return samples;
+        }
+
+        samples = load(SoundType.values()[type]);
+        if (samples == null) {
+            return null;
+        }
+        frameCounts.set(type, samples.capacity());
+        usedBytes += samples.capacity() * 2L;
+        loaded.put(type, samples);
+        evict(type, playing);
+        return samples;
+    }
+
+    /**
+     * Evicts least recently used sounds until the bank fits its budget.
+     */
+    private void evict(int keep, boolean[] playing) {
+        Iterator<Map.Entry<Integer, ShortBuffer>> it = loaded.entrySet().iterator();
+        while (usedBytes > budgetBytes && it.hasNext()) {
+            Map.Entry<Integer, ShortBuffer> entry = it.next();
+            int type = entry.getKey();
+            if (type == keep || playing[type]) {
+                continue;
+            }
+            usedBytes -= entry.getValue().capacity() * 2L;
+            it.remove();
+        }
+    }
+
+    /**
+     * Loads a sound from the PCM cache, decoding and caching it on a miss.
+     */
+    private ShortBuffer load(SoundType type) {
+        URL resource = getClass().getResource("/" + type.getFilePath());
+        if (resource == null) {
+            return null;
+        }
+
+        Path cacheFile = null;
+        try {
+            cacheFile = cacheFile(type, resource);
+            if (cacheFile != null && Files.isRegularFile(cacheFile)) {
+                return map(cacheFile);
+            }
+        } catch (IOException e) {
+            // Cache unreadable - fall back to decoding
+        }
+
+        short[] pcm;
+        try (InputStream in = resource.openStream()) {
+            pcm = AudioMixer.decode(in);
+        } catch (Exception e) {
+            return null; // Sound file couldn't be decoded - continue without this sound
+        }
+
+        if (cacheFile != null) {
+            try {
+                write(cacheFile, pcm);
+            } catch (IOException e) {
+                // Cache not writable - the sound is still usable from memory
+            }
+        }
+        return ShortBuffer.wrap(pcm);
+    }
+
+    /**
+     * Names the cache file after the sound and the size and last-modified
+     * time of its source, so a changed sound file is decoded again even if
+     * its size stayed the same.
+     */
+    private Path cacheFile(SoundType type, URL resource) throws IOException {
+        if (cacheDirectory == null) {
+            return null;
+        }
+        URLConnection connection = resource.openConnection();
+        connection.setUseCaches(false);
+        long sourceLength = connection.getContentLengthLong();
+        long sourceModified = connection.getLastModified();
+        try {
+            connection.getInputStream().close();
+        } catch (IOException e) {
+            // Only the length and time were needed
+        }
+        return cacheDirectory.resolve(type.name().toLowerCase() + "-" + sourceLength + "-" + sourceModified + ".pcm");
+    }
+
+    private static ShortBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return bytes.order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+        }
+    }
+
+    /**
+     * Writes decoded samples to the cache. The file is written under a temporary
+     * name and then moved, so other processes never map a partial file.
+     */
+    private void write(Path file, short[] pcm) throws IOException {
+        Files.createDirectories(cacheDirectory);
+        ByteBuffer bytes = ByteBuffer.allocate(pcm.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.asShortBuffer().put(pcm);
+
+        Path temp = Files.createTempFile(cacheDirectory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.legends.utils.audio;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.legends.utils.audio.SoundManager.SoundType;
+
+/**
+ * Measures what triggering a sound costs the thread that plays the game:
+ * {@link SoundManager#playSound} while the sound is cooling down, as when
+ * attacks come faster than the cooldown, {@link AudioMixer#trigger} on the
+ * audio thread of this machine, and the event queue behind it with a thread
+ * draining it like the audio thread does, which does not depend on an audio
+ * device. Each is timed over several rounds after a warm-up round and
+ * reported in nanoseconds and bytes allocated per call.
+ *
+ * <p>Usage: {@code java -cp bin com.legends.utils.audio.SoundBenchmark [calls] [rounds]}
+ */
+public class SoundBenchmark {
+    private static final SoundType[] TYPES = SoundType.values();
+
+    private final int calls;
+    private final int rounds;
+
+    /**
+     * Constructs a benchmark.
+     *
+     * @param calls  The number of calls timed in each round.
+     * @param rounds The number of timed rounds.
+     */
+    public SoundBenchmark(int calls, int rounds) {
+        this.calls = calls;
+        this.rounds = rounds;
+    }
+
+    /**
+     * Backend that only counts the sounds it is asked to play.
+     */
+    private static class CountingBackend extends RecordingAudioBackend {
+        private final AtomicLong count = new AtomicLong();
+
+        @Override
+        public boolean play(SoundType type) {
+            count.incrementAndGet();
+            return true;
+        }
+    }
+
+    /**
+     * Runs every measurement and prints the results.
+     */
+    public void run() {
+        CountingBackend backend = new CountingBackend();
+        SoundManager manager = SoundManager.create(backend);
+        measure("playSound, cooling down", () -> {
+            for (int i = 0; i < calls; i++) {
+                manager.playSound(SoundType.ATTACK);
+            }
+        });
+        System.out.printf("  %d of %d calls reached the backend%n", backend.count.get(), (long) calls * (rounds + 1));
+
+        AudioMixer mixer = new AudioMixer(0f, new SoundBank(null, SoundBank.DEFAULT_BUDGET_BYTES));
+        long[] accepted = new long[1];
+        measure("AudioMixer.trigger", () -> {
+            for (int i = 0; i < calls; i++) {
+                if (mixer.trigger(TYPES[i % TYPES.length])) {
+                    accepted[0]++;
+                }
+            }
+        });
+        mixer.shutdown();
+        System.out.printf("  %d of %d events accepted%s%n", accepted[0], (long) calls * (rounds + 1),
+                accepted[0] < calls ? " (no audio device, or the mixer fell behind)" : "");
+
+        measureQueue();
+    }
+
+    /**
+     * Times offering events to the queue and waking its consumer, as a
+     * trigger does, while another thread drains it.
+     */
+    private void measureQueue() {
+        SoundEventQueue queue = new SoundEventQueue(64);
+        Thread consumer = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (queue.poll() < 0) {
+                    LockSupport.park();
+                }
+            }
+        }, "benchmark-consumer");
+        consumer.setDaemon(true);
+        consumer.start();
+
+        long[] dropped = new long[1];
+        measure("event queue with consumer", () -> {
+            for (int i = 0; i < calls; i++) {
+                if (!queue.offer(i % TYPES.length)) {
+                    dropped[0]++;
+                }
+                LockSupport.unpark(consumer);
+            }
+        });
+        consumer.interrupt();
+        System.out.printf("  %d of %d events dropped on a full queue%n", dropped[0], (long) calls * (rounds + 1));
+    }
+
+    /**
+     * Runs a round of calls once to warm up, then times it.
+     */
+    private void measure(String name, Runnable round) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocations = threads instanceof com.sun.management.ThreadMXBean
+                ? (com.sun.management.ThreadMXBean) threads
+                : null;
+        round.run();
+
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        long bytesBefore = allocations == null ? 0 : allocations.getCurrentThreadAllocatedBytes();
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            round.run();
+            long elapsed = System.nanoTime() - start;
+            best = Math.min(best, elapsed);
+            total += elapsed;
+        }
+        long bytes = allocations == null ? -1 : allocations.getCurrentThreadAllocatedBytes() - bytesBefore;
+
+        System.out.printf("%-28s best %7.1f ns/call, mean %7.1f ns/call, %s%n", name,
+                (double) best / calls, (double) total / rounds / calls,
+                bytes < 0 ? "allocation unknown" : String.format("%.3f bytes/call", (double) bytes / rounds / calls));
+    }
+
+    /**
+     * Entry point.
+     *
+     * @param args Optional: calls per round (default 1000000) and rounds (default 5).
+     */
+    public static void main(String[] args) {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        new SoundBenchmark(calls, rounds).run();
+    }
+}
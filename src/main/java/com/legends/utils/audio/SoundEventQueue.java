@@ -0,0 +1,119 @@
+package com.legends.utils.audio;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue of sound events (many producers, one consumer).
+ * Producers never block: when the queue is full the event is rejected.
+ * Each slot carries a sequence number that tells producers and the
+ * consumer whether the slot is free or holds a published event.
+ */
+class SoundEventQueue {
+    private final int mask;
+    private final int[] events;
+    private final long[] queuedNanos; // When each event was offered
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private long lastQueuedNanos; // Consumer only
+
+    /**
+     * Constructs a queue.
+     *
+     * @param capacity The capacity, rounded up to a power of two.
+     */
+    SoundEventQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.events = new int[size];
+        this.queuedNanos = new long[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Gets the capacity of the queue.
+     *
+     * @return The number of slots.
+     */
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Gets an estimate of the number of queued events.
+     *
+     * @return The approximate queue depth.
+     */
+    int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    /**
+     * Adds an event without blocking.
+     *
+     * @param event The event to add (must be non-negative).
+     * @return True if the event was queued, false if the queue is full.
+     */
+    boolean offer(int event) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    events[index] = event;
+                    queuedNanos[index] = System.nanoTime();
+                    sequences.lazySet(index, pos + 1); // Publish the event
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false; // Full
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the next event. Must only be called by the consumer thread.
+     *
+     * @return The event, or -1 if the queue is empty.
+     */
+    int poll() {
+        long pos = head.get();
+        int index = (int) (pos & mask);
+        if (sequences.get(index) != pos + 1) {
+            return -1;
+        }
+        int event = events[index];
+        lastQueuedNanos = queuedNanos[index];
+        sequences.lazySet(index, pos + mask + 1); // Free the slot for the next lap
+        head.lazySet(pos + 1);
+        return event;
+    }
+
+    /**
+     * Gets when the event last removed by {@link #poll()} was added.
+     * Must only be called by the consumer thread.
+     *
+     * @return The time, from {@link System#nanoTime()}.
+     */
+    long getQueuedNanos() {
+        return lastQueuedNanos;
+    }
+
+    /**
+     * Discards all queued events. Must only be called by the consumer thread.
+     */
+    void clear() {
+        while (poll() >= 0) {
+            // Drain
+        }
+    }
+}
@@ -1,225 +1,234 @@
 package com.legends.utils.audio;
 
-import javax.sound.sampled.*;
-import java.io.BufferedInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Manages all sound effects for the Legends games.
- * Uses Java's built-in javax.sound.sampled API for audio playback.
- * All sounds are played asynchronously to avoid blocking the game.
+ * Playback is delegated to an {@link AudioBackend} chosen at startup: by default
+ * {@link JavaSoundBackend}, which uses Java's built-in javax.sound.sampled API and
+ * mixes every sound on a single audio thread, so the game never blocks.
+ * The backend can be chosen with {@link #setBackend} or the {@code legends.audio}
+ * system property ("javax", "null" or "recording").
+ * A thread can be given its own manager with {@link #useForCurrentThread}, so
+ * game sessions served from one process keep separate sound settings.
  */
 public class SoundManager {
-    private static SoundManager instance;
-    private Map<SoundType, Clip> soundClips;
-    private Map<SoundType, Long> lastPlayedTime;
-    private boolean soundEnabled;
-    private float volume;
-    private ExecutorService soundExecutor;
-    private static final long SOUND_COOLDOWN_MS = 100; // Minimum time between same sounds
+    private static volatile SoundManager instance;
+    private static final ThreadLocal<SoundManager> threadInstance = new ThreadLocal<>();
+    private final AudioBackend backend;
+    private final boolean silent; // Null backend: skip all bookkeeping
+    private AtomicLongArray lastPlayedTime; // System.nanoTime() of the last play, by SoundType ordinal
+    private volatile boolean soundEnabled;
+    private volatile float volume;
+    private static final long SOUND_COOLDOWN_NS = TimeUnit.MILLISECONDS.toNanos(100); // Minimum time between same sounds
+    private static final long LOAD_WAIT_NS = TimeUnit.MILLISECONDS.toNanos(500); // Longest wait for a sound to load
+
+    /**
+     * How important a sound is when the audio thread falls behind.
+     * Low priority sounds are dropped first.
+     */
+    public enum Priority {
+        LOW,
+        NORMAL,
+        HIGH
+    }
 
     /**
      * Enum defining all available sound types in the game.
      */
     public enum SoundType {
-        GAME_START("sounds/game_start.wav"),
-        ATTACK("sounds/attack.wav"),
-        DAMAGE_TAKEN("sounds/damage.wav"),
-        POTION_USE("sounds/potion.wav"),
-        SPELL_CAST("sounds/spell.wav"),
-        MARKET_ENTER("sounds/market.wav"),
-        BUY_ITEM("sounds/buy.wav"),
-        SELL_ITEM("sounds/sell.wav"),
-        VICTORY("sounds/victory.wav"),
-        DEFEAT("sounds/defeat.wav"),
-        LEVEL_UP("sounds/levelup.wav"),
-        EQUIP_ITEM("sounds/equip.wav"),
-        MONSTER_DEATH("sounds/monster_death.wav"),
-        HERO_DEATH("sounds/hero_death.wav"),
-        TELEPORT("sounds/teleport.wav"),
-        RECALL("sounds/recall.wav"),
-        MOVE("sounds/move.wav"),
-        DODGE("sounds/dodge.wav");
+        GAME_START("sounds/game_start.wav", Priority.HIGH, 1),
+        ATTACK("sounds/attack.wav", Priority.NORMAL, 4),
+        DAMAGE_TAKEN("sounds/damage.wav", Priority.NORMAL, 4),
+        POTION_USE("sounds/potion.wav", Priority.NORMAL, 2),
+        SPELL_CAST("sounds/spell.wav", Priority.NORMAL, 3),
+        MARKET_ENTER("sounds/market.wav", Priority.NORMAL, 1),
+        BUY_ITEM("sounds/buy.wav", Priority.NORMAL, 1),
+        SELL_ITEM("sounds/sell.wav", Priority.NORMAL, 1),
+        VICTORY("sounds/victory.wav", Priority.HIGH, 1),
+        DEFEAT("sounds/defeat.wav", Priority.HIGH, 1),
+        LEVEL_UP("sounds/levelup.wav", Priority.HIGH, 1),
+        EQUIP_ITEM("sounds/equip.wav", Priority.LOW, 1),
+        MONSTER_DEATH("sounds/monster_death.wav", Priority.NORMAL, 3),
+        HERO_DEATH("sounds/hero_death.wav", Priority.HIGH, 1),
+        TELEPORT("sounds/teleport.wav", Priority.NORMAL, 1),
+        RECALL("sounds/recall.wav", Priority.NORMAL, 1),
+        MOVE("sounds/move.wav", Priority.LOW, 2),
+        DODGE("sounds/dodge.wav", Priority.LOW, 2);
 
         private final String filePath;
+        private final Priority priority;
+        private final int defaultPolyphony;
 
-        SoundType(String filePath) {
+        SoundType(String filePath, Priority priority, int defaultPolyphony) {
             this.filePath = filePath;
+            this.priority = priority;
+            this.defaultPolyphony = defaultPolyphony;
         }
 
         public String getFilePath() {
             return filePath;
         }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        /**
+         * Gets how many copies of this sound may overlap by default.
+         *
+         * @return The number of voices.
+         */
+        public int getDefaultPolyphony() {
+            return defaultPolyphony;
+        }
     }
 
     /**
-     * Private constructor for singleton pattern.
-     */
-    private SoundManager() {
-        this.soundClips = new ConcurrentHashMap<>();
-        this.lastPlayedTime = new ConcurrentHashMap<>();
+     * Private constructor; use {@link #getInstance} or {@link #create}.
+     *
+     * @param backend The backend that plays the sounds.
+     */
+    private SoundManager(AudioBackend backend) {
+        this.backend = backend;
+        this.silent = backend instanceof NullAudioBackend;
+        this.lastPlayedTime = new AtomicLongArray(SoundType.values().length);
+        long start = System.nanoTime() - SOUND_COOLDOWN_NS;
+        for (int i = 0; i < lastPlayedTime.length(); i++) {
+            lastPlayedTime.set(i, start);
+        }
         this.soundEnabled = true;
         this.volume = 0.7f; // Default volume at 70%
-        this.soundExecutor = Executors.newCachedThreadPool();
-        loadSounds();
+        backend.setVolume(volume);
     }
 
     /**
-     * Gets the singleton instance of SoundManager.
+     * Gets the SoundManager of the calling thread, or the shared instance if the
+     * thread has none.
      *
      * @return The SoundManager instance.
      */
     public static SoundManager getInstance() {
-        if (instance == null) {
-            instance = new SoundManager();
+        SoundManager manager = threadInstance.get();
+        if (manager != null) {
+            return manager;
+        }
+        manager = instance;
+        if (manager == null) {
+            synchronized (SoundManager.class) {
+                manager = instance;
+                if (manager == null) {
+                    manager = new SoundManager(AudioBackend.create(System.getProperty("legends.audio", "javax")));
+                    instance = manager;
+                }
+            }
         }
-        return instance;
+        return manager;
     }
 
     /**
-     * Loads all sound files into memory.
+     * Creates a SoundManager that is independent of the shared instance.
+     *
+     * @param backend The backend that plays the sounds.
+     * @return The new SoundManager.
      */
-    private void loadSounds() {
-        // Load sounds sequentially in a single background thread to avoid overwhelming the audio driver
-        // and causing race conditions in the native PulseAudio library.
-        soundExecutor.submit(() -> {
-            for (SoundType soundType : SoundType.values()) {
-                if (Thread.currentThread().isInterrupted()) {
-                    break;
-                }
-                try {
-                    loadSound(soundType);
-                } catch (Exception e) {
-                    // Sound file not found or couldn't be loaded - continue without this sound
-                    // System.err.println("Warning: Could not load sound: " + soundType.getFilePath());
-                }
-            }
-        });
+    public static SoundManager create(AudioBackend backend) {
+        return new SoundManager(backend);
     }
 
     /**
-     * Loads a specific sound file.
+     * Makes {@link #getInstance} return a given manager on the calling thread,
+     * e.g. for the thread that runs one player's game session.
      *
-     * @param soundType The type of sound to load.
-     * @throws Exception If the sound file cannot be loaded.
+     * @param manager The manager, or null to use the shared instance again.
      */
-    private void loadSound(SoundType soundType) throws Exception {
-        InputStream audioSrc = getClass().getResourceAsStream("/" + soundType.getFilePath());
-
-        if (audioSrc == null) {
-            // Try loading from file system if resource not found
-            return;
+    public static void useForCurrentThread(SoundManager manager) {
+        if (manager == null) {
+            threadInstance.remove();
+        } else {
+            threadInstance.set(manager);
         }
+    }
 
-        try {
-            InputStream bufferedIn = new BufferedInputStream(audioSrc);
-            AudioInputStream audioStream = AudioSystem.getAudioInputStream(bufferedIn);
-            
-            // Get the format of the loaded sound
-            AudioFormat baseFormat = audioStream.getFormat();
-            
-            // Create a standard format that is widely supported (PCM_SIGNED, 16-bit)
-            AudioFormat decodedFormat = new AudioFormat(
-                AudioFormat.Encoding.PCM_SIGNED,
-                baseFormat.getSampleRate(),
-                16,
-                baseFormat.getChannels(),
-                baseFormat.getChannels() * 2,
-                baseFormat.getSampleRate(),
-                false
-            );
-            
-            // Get a stream in the decoded format
-            AudioInputStream decodedStream = AudioSystem.getAudioInputStream(decodedFormat, audioStream);
-            
-            // Get a clip that supports the decoded format
-            DataLine.Info info = new DataLine.Info(Clip.class, decodedFormat);
-            Clip clip = (Clip) AudioSystem.getLine(info);
-            
-            clip.open(decodedStream);
-            setVolume(clip, volume);
-            soundClips.put(soundType, clip);
-        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException | IllegalArgumentException e) {
-            throw new Exception("Failed to load sound: " + soundType.getFilePath(), e);
+    /**
+     * Selects the audio backend. Should be called at startup, before any sound plays;
+     * a previously created instance is cleaned up and replaced.
+     *
+     * @param backend The backend that plays the sounds.
+     */
+    public static synchronized void setBackend(AudioBackend backend) {
+        if (instance != null) {
+            instance.cleanup();
         }
+        instance = new SoundManager(backend);
+    }
+
+    /**
+     * Checks if the game runs without any audio backend.
+     *
+     * @return True if sounds are never played.
+     */
+    public boolean isSilent() {
+        return silent;
+    }
+
+    /**
+     * Gets the audio backend in use.
+     *
+     * @return The backend.
+     */
+    public AudioBackend getBackend() {
+        return backend;
     }
 
     /**
      * Plays a sound effect.
+     * Never blocks: if the audio thread is saturated the sound may be dropped.
      *
      * @param soundType The type of sound to play.
      */
     public void playSound(SoundType soundType) {
-        if (!soundEnabled) {
+        if (silent || !soundEnabled) {
             return;
         }
 
-        // Check cooldown
-        long currentTime = System.currentTimeMillis();
-        Long lastTime = lastPlayedTime.get(soundType);
-        if (lastTime != null && currentTime - lastTime < SOUND_COOLDOWN_MS) {
+        // Check cooldown; if two threads race, only the winner of the CAS plays
+        int index = soundType.ordinal();
+        long currentTime = System.nanoTime();
+        long lastTime = lastPlayedTime.get(index);
+        if (currentTime - lastTime < SOUND_COOLDOWN_NS
+                || !lastPlayedTime.compareAndSet(index, lastTime, currentTime)) {
             return; // Skip playing if within cooldown
         }
-        lastPlayedTime.put(soundType, currentTime);
-
-        Clip clip = soundClips.get(soundType);
-        if (clip != null) {
-            // Play sound in a separate thread to avoid blocking
-            soundExecutor.submit(() -> {
-                try {
-                    synchronized (clip) {
-                        if (!soundEnabled || !clip.isOpen()) {
-                            return;
-                        }
-                        if (clip.isRunning()) {
-                            clip.stop();
-                        }
-                        clip.setFramePosition(0);
-                        clip.start();
-                    }
-                } catch (Exception e) {
-                    // Silently handle sound playback errors
-                }
-            });
-        }
+
+        backend.play(soundType);
     }
 
     /**
-     * Plays a sound effect and waits for it to complete.
+     * Plays a sound effect and waits for it to complete. Gives up waiting if
+     * the sound has not loaded within half a second, e.g. because it could
+     * not be decoded or there is no audio device.
      *
      * @param soundType The type of sound to play.
      */
     public void playSoundAndWait(SoundType soundType) {
-        if (!soundEnabled) {
+        if (silent || !soundEnabled || !backend.play(soundType)) {
             return;
         }
-
-        Clip clip = soundClips.get(soundType);
-        if (clip != null) {
-            try {
-                synchronized (clip) {
-                    if (!soundEnabled || !clip.isOpen()) {
-                        return;
-                    }
-                    if (clip.isRunning()) {
-                        clip.stop();
-                    }
-                    clip.setFramePosition(0);
-                    clip.start();
-                }
-
-                // Wait for the clip to finish
-                while (soundEnabled && clip.isOpen() && clip.isRunning()) {
-                    Thread.sleep(10);
+        try {
+            // The first play of a sound also loads it
+            long deadline = System.nanoTime() + LOAD_WAIT_NS;
+            long duration;
+            while ((duration = backend.getDurationMillis(soundType)) < 0) {
+                if (!soundEnabled || System.nanoTime() - deadline >= 0) {
+                    return;
                 }
-            } catch (Exception e) {
-                // Silently handle sound playback errors
+                Thread.sleep(10);
             }
+            Thread.sleep(Math.max(0, duration));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -227,35 +236,47 @@ public class SoundManager {
      * Stops all currently playing sounds.
      */
     public void stopAllSounds() {
-        for (Clip clip : soundClips.values()) {
-            if (clip != null) {
-                try {
-                    synchronized (clip) {
-                        if (clip.isOpen() && clip.isRunning()) {
-                            clip.stop();
-                        }
-                    }
-                } catch (Exception e) {
-                    // Ignore errors when stopping sounds
-                }
-            }
-        }
+        backend.stopAll();
     }
 
     /**
-     * Sets the volume for a specific clip.
+     * Sets how many copies of a sound can play at the same time.
+     * When all voices are busy, retriggering restarts the oldest one.
      *
-     * @param clip   The clip to adjust.
-     * @param volume The volume level (0.0 to 1.0).
+     * @param soundType The type of sound.
+     * @param voices    The number of voices (1 to 8).
      */
-    private void setVolume(Clip clip, float volume) {
-        try {
-            FloatControl gainControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-            float dB = (float) (Math.log(volume) / Math.log(10.0) * 20.0);
-            gainControl.setValue(dB);
-        } catch (IllegalArgumentException e) {
-            // Volume control not supported for this clip
-        }
+    public void setPolyphony(SoundType soundType, int voices) {
+        backend.setPolyphony(soundType, voices);
+    }
+
+    /**
+     * Gets how many copies of a sound can play at the same time.
+     *
+     * @param soundType The type of sound.
+     * @return The number of voices.
+     */
+    public int getPolyphony(SoundType soundType) {
+        return backend.getPolyphony(soundType);
+    }
+
+    /**
+     * Sets how much memory decoded sounds may use.
+     * The least recently played sounds are unloaded when the budget is exceeded.
+     *
+     * @param bytes The memory budget in bytes.
+     */
+    public void setMemoryBudget(long bytes) {
+        backend.setMemoryBudget(bytes);
+    }
+
+    /**
+     * Gets how much memory decoded sounds may use.
+     *
+     * @return The memory budget in bytes.
+     */
+    public long getMemoryBudget() {
+        return backend.getMemoryBudget();
     }
 
     /**
@@ -265,11 +286,7 @@ public class SoundManager {
      */
     public void setMasterVolume(float volume) {
         this.volume = Math.max(0.0f, Math.min(1.0f, volume));
-        for (Clip clip : soundClips.values()) {
-            if (clip != null) {
-                setVolume(clip, this.volume);
-            }
-        }
+        backend.setVolume(this.volume);
     }
 
     /**
@@ -308,30 +325,12 @@ public class SoundManager {
      */
     public void cleanup() {
         soundEnabled = false; // Prevent new sounds
-        
-        if (soundExecutor != null) {
-            soundExecutor.shutdownNow();
-        }
-        
-        // Close all clips
-        for (Clip clip : soundClips.values()) {
-            if (clip != null) {
-                try {
-                    synchronized (clip) {
-                        if (clip.isRunning()) {
-                            clip.stop();
-                        }
-                        if (clip.isOpen()) {
-                            clip.close();
-                        }
-                    }
-                } catch (Exception e) {
-                    // Ignore errors during cleanup
-                }
+        backend.shutdown();
+        synchronized (SoundManager.class) {
+            if (instance == this) {
+                instance = null;
             }
         }
-        soundClips.clear();
-        instance = null;
     }
 
     /**
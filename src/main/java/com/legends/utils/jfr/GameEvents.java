@@ -0,0 +1,179 @@
+package com.legends.utils.jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+
+/**
+ * JDK Flight Recorder events of the games, to line up a stutter with what
+ * the game was doing, garbage collections and file I/O. All events are
+ * disabled unless a recording asks for them, e.g. one started with
+ * {@link #record(Path)} or a recording whose settings enable "legends.*".
+ * Code emitting an event creates it, calls {@code begin()} before the work
+ * and fills in its fields only if {@code shouldCommit()} says it will be
+ * recorded; when the events are off, the JIT removes all of this.
+ */
+public final class GameEvents {
+    private static final String CATEGORY = "Legends";
+
+    private GameEvents() {
+    }
+
+    /**
+     * Starts a recording with the JDK's default settings plus every game
+     * event, written to a file when the JVM exits.
+     *
+     * @param destination The file to write.
+     * @throws IOException If the file cannot be written or the settings read.
+     */
+    public static void record(Path destination) throws IOException {
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration("default"));
+        } catch (ParseException e) {
+            throw new IOException("Cannot read the default recording settings", e);
+        }
+        recording.setName("Legends");
+        for (Class<? extends Event> type : List.<Class<? extends Event>>of(Round.class, HeroAction.class, MonsterTurn.class,
+                BattleRound.class, BoardRender.class, Save.class, Load.class, MarketVisit.class)) {
+            recording.enable(type);
+        }
+        recording.setDestination(destination);
+        recording.setDumpOnExit(true);
+        recording.start();
+    }
+
+    @Name("legends.Round")
+    @Label("Round")
+    @Category({ CATEGORY, "Legends of Valor" })
+    @Description("A round of Legends of Valor, from its start to the end of its effects")
+    @Enabled(false)
+    public static final class Round extends Event {
+        @Label("Round")
+        public int round;
+
+        @Label("Heroes on Board")
+        public int heroes;
+
+        @Label("Monsters on Board")
+        public int monsters;
+    }
+
+    @Name("legends.HeroAction")
+    @Label("Hero Action")
+    @Category(CATEGORY)
+    @Description("A hero's action, including the time the player took to choose from its menus")
+    @Enabled(false)
+    public static final class HeroAction extends Event {
+        @Label("Game")
+        public String game;
+
+        @Label("Hero")
+        public String hero;
+
+        @Label("Action")
+        public String action;
+
+        @Label("Took Turn")
+        public boolean tookTurn;
+    }
+
+    @Name("legends.MonsterTurn")
+    @Label("Monster Turn")
+    @Category({ CATEGORY, "Legends of Valor" })
+    @Description("The monsters' turn of a Legends of Valor round")
+    @Enabled(false)
+    public static final class MonsterTurn extends Event {
+        @Label("Heroes on Board")
+        public int heroes;
+
+        @Label("Monsters on Board")
+        public int monsters;
+    }
+
+    @Name("legends.BattleRound")
+    @Label("Battle Round")
+    @Category({ CATEGORY, "Monsters and Heroes" })
+    @Description("A round of a Monsters and Heroes battle")
+    @Enabled(false)
+    public static final class BattleRound extends Event {
+        @Label("Round")
+        public int round;
+
+        @Label("Heroes Standing")
+        public int heroes;
+
+        @Label("Monsters Standing")
+        public int monsters;
+    }
+
+    @Name("legends.BoardRender")
+    @Label("Board Render")
+    @Category(CATEGORY)
+    @Description("Drawing a board and handing it to the output")
+    @Enabled(false)
+    public static final class BoardRender extends Event {
+        @Label("Game")
+        public String game;
+
+        @Label("Heroes on Board")
+        public int heroes;
+
+        @Label("Monsters on Board")
+        public int monsters;
+
+        @Label("Frame Length")
+        @Description("Characters in the frame")
+        public int characters;
+    }
+
+    @Name("legends.Save")
+    @Label("Save Game")
+    @Category(CATEGORY)
+    @Enabled(false)
+    public static final class Save extends Event {
+        @Label("File")
+        public String file;
+
+        @Label("Bytes Written")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("legends.Load")
+    @Label("Load Game")
+    @Category(CATEGORY)
+    @Enabled(false)
+    public static final class Load extends Event {
+        @Label("File")
+        public String file;
+
+        @Label("Bytes Read")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("legends.MarketVisit")
+    @Label("Market Visit")
+    @Category(CATEGORY)
+    @Description("A visit to a market, from opening it to leaving it")
+    @Enabled(false)
+    public static final class MarketVisit extends Event {
+        @Label("Game")
+        public String game;
+
+        @Label("Hero")
+        public String hero;
+    }
+}
@@ -0,0 +1,114 @@
+package com.legends.utils.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+/**
+ * The counters, gauges and duration histograms of the process, by name.
+ * Code that measures something looks its metric up once, typically into a
+ * static field, and updates it without allocating; a snapshot of all
+ * metrics can be shown to the player or written to a file.
+ */
+public final class Metrics {
+    private static final Metrics DEFAULT = new Metrics();
+
+    static {
+        Runtime runtime = Runtime.getRuntime();
+        DEFAULT.gauge("jvm.heap_used_bytes", () -> runtime.totalMemory() - runtime.freeMemory());
+        DEFAULT.gauge("jvm.threads", () -> ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentSkipListMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentSkipListMap<>();
+
+    /**
+     * Gets the metrics of the process.
+     */
+    public static Metrics getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Gets a counter, creating it on first use.
+     *
+     * @param name The name, e.g. "game.saves".
+     * @return The counter.
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    /**
+     * Gets a duration histogram, creating it on first use.
+     *
+     * @param name The name, e.g. "valor.monsters_turn".
+     * @return The histogram.
+     */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new Histogram());
+    }
+
+    /**
+     * Adds a gauge: a value read whenever a snapshot is taken, e.g. the
+     * number of players online. Replaces any gauge of the same name.
+     *
+     * @param name  The name.
+     * @param value Reads the value; must be cheap and safe from any thread.
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Describes every metric as a table, one metric per line.
+     *
+     * @return The snapshot.
+     */
+    public String snapshot() {
+        StringBuilder text = new StringBuilder(1024);
+        long uptime = (System.nanoTime() - startNanos) / 1_000_000_000L;
+        text.append(String.format("Metrics after %dh %02dm %02ds%n", uptime / 3600, uptime / 60 % 60, uptime % 60));
+        if (!counters.isEmpty()) {
+            text.append(String.format("%nCounters:%n"));
+            for (Map.Entry<String, Counter> counter : counters.entrySet()) {
+                text.append(String.format("  %-28s %14d%n", counter.getKey(), counter.getValue().get()));
+            }
+        }
+        if (!gauges.isEmpty()) {
+            text.append(String.format("%nGauges:%n"));
+            for (Map.Entry<String, LongSupplier> gauge : gauges.entrySet()) {
+                text.append(String.format("  %-28s %14d%n", gauge.getKey(), gauge.getValue().getAsLong()));
+            }
+        }
+        if (!histograms.isEmpty()) {
+            text.append(String.format("%nDurations (ms):%n  %-28s %8s %9s %9s %9s %9s %9s%n", "", "count", "mean",
+                    "p50", "p90", "p99", "max"));
+            for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+                Histogram histogram = entry.getValue();
+                text.append(String.format("  %-28s %8d %9.3f %9.3f %9.3f %9.3f %9.3f%n", entry.getKey(),
+                        histogram.getCount(), histogram.getMeanNanos() / 1e6,
+                        histogram.getPercentileNanos(50) / 1e6, histogram.getPercentileNanos(90) / 1e6,
+                        histogram.getPercentileNanos(99) / 1e6, histogram.getMaxNanos() / 1e6));
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Writes a snapshot to a file, replacing the file if it exists.
+     *
+     * @param file The file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void dump(Path file) throws IOException {
+        Files.write(file, snapshot().getBytes(StandardCharsets.UTF_8));
+    }
+}